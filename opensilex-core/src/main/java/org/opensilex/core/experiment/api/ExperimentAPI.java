@@ -218,7 +218,8 @@ public class ExperimentAPI {
             @ApiParam(value = "Search ended(false) or active projects(true)", example = "true") @QueryParam("isEnded") Boolean isEnded,
             @ApiParam(value = "List of fields to sort as an array of fieldName=asc|desc", example = "label=asc") @QueryParam("orderBy") List<OrderBy> orderByList,
             @ApiParam(value = "Page number", example = "0") @QueryParam("page") @DefaultValue("0") @Min(0) int page,
-            @ApiParam(value = "Page size", example = "20") @QueryParam("pageSize") @DefaultValue("20") @Min(0) int pageSize
+            @ApiParam(value = "Page size", example = "20") @QueryParam("pageSize") @DefaultValue("20") @Min(0) int pageSize,
+            @ApiParam(value = "Count all matching experiments, if false total count is unknown and only the presence of a next page is returned", example = "true") @QueryParam("countTotal") @DefaultValue("true") boolean countTotal
     ) {
 
         try {
@@ -243,7 +244,8 @@ public class ExperimentAPI {
                     currentUser.isAdmin(),
                     orderByList,
                     page,
-                    pageSize
+                    pageSize,
+                    countTotal
             );
 
             // Convert paginated list to DTO
@@ -167,6 +167,19 @@ public class ExperimentDAO {
             Boolean isPublic,
             List<URI> groups, boolean admin,
             List<OrderBy> orderByList, int page, int pageSize) throws Exception {
+        return search(uri, campaign, label, species, startDate, endDate, isEnded, projects, isPublic, groups, admin, orderByList, page, pageSize, true);
+    }
+
+    public ListWithPagination<ExperimentModel> search(URI uri,
+            Integer campaign,
+            String label,
+            URI species,
+            String startDate, String endDate,
+            Boolean isEnded,
+            List<URI> projects,
+            Boolean isPublic,
+            List<URI> groups, boolean admin,
+            List<OrderBy> orderByList, int page, int pageSize, boolean countTotal) throws Exception {
 
         ListWithPagination<ExperimentModel> xps = sparql.searchWithPagination(
                 ExperimentModel.class,
@@ -182,7 +195,8 @@ public class ExperimentDAO {
                 },
                 orderByList,
                 page,
-                pageSize
+                pageSize,
+                countTotal
         );
         for (ExperimentModel xp : xps.getList()) {
             filterExperimentSensors(xp);
@@ -10,7 +10,6 @@ import java.net.URI;
 import java.util.List;
 import org.apache.commons.lang3.StringUtils;
 import static org.apache.jena.arq.querybuilder.AbstractQueryBuilder.makeVar;
-import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.sparql.core.Var;
@@ -22,7 +21,6 @@ import org.opensilex.sparql.exceptions.SPARQLException;
 import org.opensilex.sparql.model.SPARQLResourceModel;
 import org.opensilex.sparql.service.SPARQLQueryHelper;
 import org.opensilex.sparql.service.SPARQLService;
-import org.opensilex.sparql.utils.Ontology;
 import org.opensilex.utils.OrderBy;
 import org.opensilex.utils.ListWithPagination;
 
@@ -161,15 +159,11 @@ public class GermplasmDAO {
     }
 
     public boolean isGermplasmType(URI rdfType) throws SPARQLException {
-        return sparql.executeAskQuery(new AskBuilder()
-                .addWhere(SPARQLDeserializers.nodeURI(rdfType), Ontology.subClassAny, Oeso.Germplasm)
-        );
+        return sparql.isSubClassOf(SPARQLDeserializers.nodeURI(rdfType), Oeso.Germplasm.asNode());
     }
     
     public boolean isPlantMaterialLot(URI rdfType) throws SPARQLException {
-        return sparql.executeAskQuery(new AskBuilder()
-                .addWhere(SPARQLDeserializers.nodeURI(rdfType), Ontology.subClassAny, Oeso.PlantMaterialLot)
-        );
+        return sparql.isSubClassOf(SPARQLDeserializers.nodeURI(rdfType), Oeso.PlantMaterialLot.asNode());
     }
 
     public void delete(URI uri) throws Exception {
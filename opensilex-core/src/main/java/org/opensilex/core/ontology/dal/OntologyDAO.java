@@ -17,7 +17,6 @@ import org.opensilex.security.user.dal.UserModel;
 import org.opensilex.sparql.deserializer.SPARQLDeserializers;
 import org.opensilex.sparql.model.SPARQLTreeListModel;
 import org.opensilex.sparql.service.SPARQLService;
-import org.opensilex.sparql.utils.Ontology;
 
 /**
  *
@@ -40,7 +39,7 @@ public final class OntologyDAO {
                 (SelectBuilder select) -> {
                     if (parent != null) {
                         Var parentVar = makeVar(ClassModel.PARENT_FIELD);
-                        select.addWhere(parentVar, Ontology.subClassAny, SPARQLDeserializers.nodeURI(parent));
+                        sparql.addSubClassesWhere(select.getWhereHandler(), parentVar, SPARQLDeserializers.nodeURI(parent));
                         select.addWhere(makeVar(ClassModel.URI_FIELD), RDFS.subClassOf, parentVar);
                     }
                 }
@@ -57,7 +56,7 @@ public final class OntologyDAO {
                     Node parentNode = SPARQLDeserializers.nodeURI(parent);
                     if (parentNode != null) {
                         Var parentVar = makeVar(PropertyModel.PARENT_FIELD);
-                        select.addWhere(parentVar, Ontology.subClassAny, parentNode);
+                        sparql.addSubClassesWhere(select.getWhereHandler(), parentVar, parentNode);
                         select.addWhere(makeVar(PropertyModel.URI_FIELD), RDFS.subClassOf, parentVar);
                     }
                 }
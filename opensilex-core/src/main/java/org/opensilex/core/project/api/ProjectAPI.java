@@ -209,6 +209,7 @@ public class ProjectAPI {
      * @param orderByList
      * @param page
      * @param pageSize
+     * @param countTotal
      * @param securityContext
      * @return filtered, ordered and paginated list
      * @throws java.lang.Exception
@@ -237,7 +238,8 @@ public class ProjectAPI {
             @ApiParam(value = "Search ended(false) ", example = "true") @QueryParam("isEnded") Boolean isEnded,
             @ApiParam(value = "List of fields to sort as an array of fieldName=asc|desc", example = "label=asc") @QueryParam("orderBy") List<OrderBy> orderByList,
             @ApiParam(value = "Page number", example = "0") @QueryParam("page") @DefaultValue("0") @Min(0) int page,
-            @ApiParam(value = "Page size", example = "20") @QueryParam("pageSize") @DefaultValue("20") @Min(0) int pageSize
+            @ApiParam(value = "Page size", example = "20") @QueryParam("pageSize") @DefaultValue("20") @Min(0) int pageSize,
+            @ApiParam(value = "Count all matching projects, if false total count is unknown and only the presence of a next page is returned", example = "true") @QueryParam("countTotal") @DefaultValue("true") boolean countTotal
     ) throws Exception {
 
         try {
@@ -257,7 +259,8 @@ public class ProjectAPI {
                     experiments,
                     orderByList,
                     page,
-                    pageSize
+                    pageSize,
+                    countTotal
             );
 
             // Convert paginated list to DTO
@@ -119,6 +119,10 @@ public class ProjectDAO {
     }
 
     public ListWithPagination<ProjectModel> search(URI uri, String label, String startDate, String endDate, Boolean ended, List<URI> experiments, List<OrderBy> orderByList, int page, int pageSize) throws Exception {
+        return search(uri, label, startDate, endDate, ended, experiments, orderByList, page, pageSize, true);
+    }
+
+    public ListWithPagination<ProjectModel> search(URI uri, String label, String startDate, String endDate, Boolean ended, List<URI> experiments, List<OrderBy> orderByList, int page, int pageSize, boolean countTotal) throws Exception {
             List<Expr> filterList = new ArrayList<>();
 
         // append uri regex filter
@@ -147,7 +151,8 @@ public class ProjectDAO {
                 },
                 orderByList,
                 page,
-                pageSize
+                pageSize,
+                countTotal
         );
     }
 
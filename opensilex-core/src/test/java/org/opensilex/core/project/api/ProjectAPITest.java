@@ -25,6 +25,7 @@ import java.util.*;
 import static junit.framework.TestCase.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import org.opensilex.core.project.dal.ProjectModel;
 import org.opensilex.integration.test.security.AbstractSecurityIntegrationTest;
 import org.opensilex.sparql.model.SPARQLResourceModel;
@@ -186,6 +187,40 @@ public class ProjectAPITest extends AbstractSecurityIntegrationTest {
         assertFalse(xps.isEmpty());
     }
 
+    @Test
+    public void testSearchWithoutTotalCount() throws Exception {
+        ProjectCreationDTO creationDTO = getCreationDTO();
+        Response postResult = getJsonPostResponse(target(createPath), creationDTO);
+        assertEquals(Status.CREATED.getStatusCode(), postResult.getStatus());
+
+        postResult = getJsonPostResponse(target(createPath), creationDTO);
+        assertEquals(Status.CREATED.getStatusCode(), postResult.getStatus());
+
+        Map<String, Object> params = new HashMap<String, Object>() {
+            {
+                put("label", creationDTO.getLabel());
+                put("countTotal", false);
+                put("page", 0);
+                put("pageSize", 1);
+            }
+        };
+
+        Response getResult = appendToken(appendQueryParams(target(searchPath), params)).get();
+        assertEquals(Status.OK.getStatusCode(), getResult.getStatus());
+
+        JsonNode node = getResult.readEntity(JsonNode.class);
+        assertEquals(1, node.get("result").size());
+        assertTrue(node.get("metadata").get("pagination").get("hasMore").asBoolean());
+
+        params.put("page", 1);
+        getResult = appendToken(appendQueryParams(target(searchPath), params)).get();
+        assertEquals(Status.OK.getStatusCode(), getResult.getStatus());
+
+        node = getResult.readEntity(JsonNode.class);
+        assertEquals(1, node.get("result").size());
+        assertFalse(node.get("metadata").get("pagination").get("hasMore").asBoolean());
+    }
+
     @Override
     protected List<Class<? extends SPARQLResourceModel>> getModelsToClean() {
         return Collections.singletonList(ProjectModel.class);
@@ -56,6 +56,12 @@ public interface FrontConfig   {
             defaultString = "opensilex-front#phis"
     )
     String theme();
+
+    @ConfigDescription(
+            value = "Compile front theme on server startup instead of first request",
+            defaultBoolean = false
+    )
+    boolean precompileTheme();
     
     @ConfigDescription(
             value = "List of menu identifiers to exclude"
@@ -8,6 +8,8 @@ package org.opensilex.front;
 import org.opensilex.front.config.FrontRoutingConfig;
 import org.opensilex.front.config.Route;
 import org.opensilex.front.config.MenuItem;
+import java.io.IOException;
+import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.catalina.Context;
@@ -17,6 +19,11 @@ import org.opensilex.config.ConfigManager;
 import org.opensilex.front.api.FrontConfigDTO;
 import org.opensilex.front.api.MenuItemDTO;
 import org.opensilex.front.api.RouteDTO;
+import org.opensilex.front.theme.CompiledTheme;
+import org.opensilex.front.theme.ThemeBuilder;
+import org.opensilex.front.theme.ThemeCache;
+import org.opensilex.front.theme.ThemeConfig;
+import org.opensilex.front.theme.ThemeException;
 import org.opensilex.OpenSilexModule;
 import org.opensilex.server.extensions.APIExtension;
 import org.opensilex.server.extensions.ServerExtension;
@@ -51,6 +58,27 @@ public class FrontModule extends OpenSilexModule implements ServerExtension, API
 
         // Add rewrite rules for application
         appContext.getPipeline().addValve(new RewriteValve());
+
+        FrontConfig frontConfig = getConfig(FrontConfig.class);
+        if (frontConfig.precompileTheme()) {
+            precompileTheme(frontConfig.theme());
+        }
+    }
+
+    private void precompileTheme(String themeIdentifier) {
+        String[] themeId = themeIdentifier.split("#");
+        if (themeId.length != 2) {
+            LOGGER.warn("Invalid theme identifier to precompile: " + themeIdentifier);
+            return;
+        }
+
+        try {
+            OpenSilexModule module = getThemeModule(themeId[0]);
+            LOGGER.info("Precompile front theme: " + themeIdentifier);
+            getCompiledTheme(module, themeId[1]);
+        } catch (Exception ex) {
+            LOGGER.warn("Error while precompiling front theme: " + themeIdentifier, ex);
+        }
     }
 
     @Override
@@ -64,6 +92,8 @@ public class FrontModule extends OpenSilexModule implements ServerExtension, API
 
     private FrontConfigDTO config = null;
 
+    private final ThemeCache themeCache = new ThemeCache();
+
     public FrontConfigDTO getConfigDTO() {
         if (this.config == null || getOpenSilex().isDev()) {
             FrontConfig frontConfig = getConfig(FrontConfig.class);
@@ -119,4 +149,83 @@ public class FrontModule extends OpenSilexModule implements ServerExtension, API
 
         return this.config;
     }
+
+    /**
+     * Return compiled theme CSS, theme is compiled on first call or, in development mode, when its sources change.
+     *
+     * @param module theme module
+     * @param themeId theme identifier
+     * @return compiled theme or null if module doesn't define this theme
+     * @throws ThemeException if theme can't be compiled
+     */
+    public CompiledTheme getCompiledTheme(OpenSilexModule module, String themeId) throws ThemeException {
+        return themeCache.getCompiledTheme(ThemeBuilder.getThemeKey(module, themeId), () -> {
+            ThemeConfig config = getThemeConfigOrNull(module, themeId);
+            if (config == null) {
+                return null;
+            }
+            return getThemeBuilder(module, themeId, config);
+        }, getOpenSilex().isDev());
+    }
+
+    private ThemeBuilder getThemeBuilder(OpenSilexModule module, String themeId, ThemeConfig config) throws ThemeException {
+        ThemeBuilder parentThemeBuilder = null;
+        if (config.extend() != null && !config.extend().isEmpty()) {
+            String[] extendedTheme = config.extend().split("#");
+            if (extendedTheme.length != 2) {
+                LOGGER.error("Invalid extension theme ID: " + config.extend() + " for theme: " + themeId);
+            } else {
+                OpenSilexModule parentThemeModule = getThemeModule(extendedTheme[0]);
+
+                ThemeConfig parentConfig = getThemeConfigOrNull(parentThemeModule, extendedTheme[1]);
+
+                parentThemeBuilder = getThemeBuilder(parentThemeModule, extendedTheme[1], parentConfig);
+            }
+        }
+
+        ThemeBuilder themeBuilder = new ThemeBuilder(module, themeId, config, parentThemeBuilder);
+
+        return themeBuilder;
+    }
+
+    private OpenSilexModule getThemeModule(String moduleId) throws ThemeException {
+        List<OpenSilexModule> modules = getOpenSilex().getModulesByProjectId(moduleId);
+
+        if (modules.size() > 0) {
+            return modules.get(0);
+        }
+
+        throw new ThemeException("Theme module not found: " + moduleId);
+    }
+
+    /**
+     * Load theme configuration.
+     *
+     * @param module theme module
+     * @param themeId theme identifier
+     * @return theme configuration or null if module doesn't define this theme
+     * @throws ThemeException if theme configuration can't be read
+     */
+    public ThemeConfig getThemeConfigOrNull(OpenSilexModule module, String themeId) throws ThemeException {
+
+        String filePath = getModuleFrontThemePath(themeId);
+
+        try {
+            if (module.fileExists(filePath)) {
+
+                ConfigManager cfg = new ConfigManager();
+                cfg.addSource(module.getFileInputStream(filePath));
+                return cfg.loadConfig("", ThemeConfig.class);
+
+            }
+        } catch (IOException | URISyntaxException ex) {
+            throw new ThemeException("Error while reading theme configuration: " + themeId, ex);
+        }
+
+        return null;
+    }
+
+    private static String getModuleFrontThemePath(String themeId) {
+        return FRONT_EXTENSIONS_DIRECTORY + "theme/" + themeId + "/" + themeId + ".yml";
+    }
 }
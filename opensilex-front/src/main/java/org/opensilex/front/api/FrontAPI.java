@@ -12,8 +12,6 @@ import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import java.io.File;
-import java.io.IOException;
-import java.net.URISyntaxException;
 import java.nio.file.Paths;
 import java.util.List;
 import javax.inject.Inject;
@@ -26,6 +24,7 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.CacheControl;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
@@ -34,12 +33,12 @@ import org.apache.http.HttpStatus;
 import org.opensilex.OpenSilex;
 import org.opensilex.front.FrontModule;
 import org.opensilex.OpenSilexModule;
-import org.opensilex.config.ConfigManager;
-import org.opensilex.front.theme.ThemeBuilder;
+import org.opensilex.front.theme.CompiledTheme;
 import org.opensilex.front.theme.ThemeConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.opensilex.server.exceptions.NotFoundException;
+import org.opensilex.server.rest.PrecompressedEntity;
 import org.opensilex.server.response.SingleObjectResponse;
 
 /**
@@ -183,7 +182,7 @@ public class FrontAPI {
 
         OpenSilexModule module = getModule(moduleId);
 
-        ThemeConfig config = getThemeConfigOrNull(module, themeId);
+        ThemeConfig config = frontModule.getThemeConfigOrNull(module, themeId);
 
         if (config != null) {
             ThemeConfigDTO themeConfig = ThemeConfigDTO.fromThemeConfig(config);
@@ -203,49 +202,57 @@ public class FrontAPI {
     @Produces(MediaType.APPLICATION_OCTET_STREAM)
     public Response getThemeCss(
             @PathParam("moduleId") @ApiParam(value = "Module identifier", example = "opensilex-front") @Pattern(regexp = "([a-zA-Z0-9-]+$)") String moduleId,
-            @PathParam("themeId") @ApiParam(value = "Theme identifier", example = "phis") @Pattern(regexp = "([a-zA-Z0-9-]+$)") String themeId
+            @PathParam("themeId") @ApiParam(value = "Theme identifier", example = "phis") @Pattern(regexp = "([a-zA-Z0-9-]+$)") String themeId,
+            @Context Request request,
+            @Context HttpHeaders headers
     ) throws Exception {
 
         OpenSilexModule module = getModule(moduleId);
 
-        ThemeConfig config = getThemeConfigOrNull(module, themeId);
-
-        if (config != null) {
+        CompiledTheme theme = frontModule.getCompiledTheme(module, themeId);
 
-            ThemeBuilder themeBuilder = getThemeBuilder(module, themeId, config);
-            String css = themeBuilder.buildCss();
+        if (theme != null) {
 
-            // Load file
-            return Response
-                    .ok(css, "text/css")
-                    .header("Content-Disposition", "attachment; filename=\"" + "style.css" + "\"")
-                    .build();
-        }
+            // Compressed and uncompressed representations must have different strong entity tags
+            boolean gzip = PrecompressedEntity.isAccepted(headers);
+            EntityTag etag = new EntityTag(gzip ? theme.getHash() + "-gzip" : theme.getHash());
 
-        return Response
-                .ok("", "text/css")
-                .header("Content-Disposition", "attachment; filename=\"" + "style.css" + "\"")
-                .build();
-    }
+            ResponseBuilder builder = request.evaluatePreconditions(etag);
 
-    private ThemeBuilder getThemeBuilder(OpenSilexModule module, String themeId, ThemeConfig config) throws Exception {
-        ThemeBuilder parentThemeBuilder = null;
-        if (config.extend() != null && !config.extend().isEmpty()) {
-            String[] extendedTheme = config.extend().split("#");
-            if (extendedTheme.length != 2) {
-                LOGGER.error("Invalid extension theme ID: " + config.extend() + " for theme: " + themeId);
-            } else {
-                OpenSilexModule parentThemeModule = getModule(extendedTheme[0]);
+            CacheControl cc = new CacheControl();
+            cc.setPrivate(true);
+            cc.setNoTransform(true);
+            cc.setMaxAge(0);
+            cc.setMustRevalidate(true);
 
-                ThemeConfig parentConfig = getThemeConfigOrNull(parentThemeModule, extendedTheme[1]);
+            if (builder == null) {
+                if (gzip) {
+                    builder = new PrecompressedEntity(theme.getGzipCss()).toResponse(Response.ok());
+                } else {
+                    // Caches must not serve this identity response to clients accepting gzip
+                    builder = Response.ok(theme.getCss()).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                }
 
-                parentThemeBuilder = getThemeBuilder(parentThemeModule, extendedTheme[1], parentConfig);
+                return builder
+                        .type("text/css")
+                        .cacheControl(cc)
+                        .tag(etag)
+                        .header("Content-Disposition", "attachment; filename=\"" + "style.css" + "\"")
+                        .build();
+            } else {
+                return builder
+                        .status(HttpStatus.SC_NOT_MODIFIED)
+                        .cacheControl(cc)
+                        .tag(etag)
+                        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                        .build();
             }
         }
 
-        ThemeBuilder themeBuilder = new ThemeBuilder(module, themeId, config, parentThemeBuilder);
-
-        return themeBuilder;
+        return Response
+                .ok("", "text/css")
+                .header("Content-Disposition", "attachment; filename=\"" + "style.css" + "\"")
+                .build();
     }
 
     @GET
@@ -295,10 +302,6 @@ public class FrontAPI {
         return moduleId + ".css";
     }
 
-    private static String getModuleFrontThemePath(String themeId) {
-        return FrontModule.FRONT_EXTENSIONS_DIRECTORY + "theme/" + themeId + "/" + themeId + ".yml";
-    }
-
     private static String getModuleFrontThemeResourcePath(String themeId, String filePath) {
         return FrontModule.FRONT_EXTENSIONS_DIRECTORY + "theme/" + themeId + "/" + filePath;
     }
@@ -317,19 +320,4 @@ public class FrontAPI {
         throw new NotFoundException("Module not found: " + moduleId);
     }
 
-    private ThemeConfig getThemeConfigOrNull(OpenSilexModule module, String themeId) throws IOException, URISyntaxException {
-
-        String filePath = getModuleFrontThemePath(themeId);
-
-        if (module.fileExists(filePath)) {
-
-            ConfigManager cfg = new ConfigManager();
-            cfg.addSource(module.getFileInputStream(filePath));
-            return cfg.loadConfig("", ThemeConfig.class);
-
-        }
-
-        return null;
-    }
-
 }
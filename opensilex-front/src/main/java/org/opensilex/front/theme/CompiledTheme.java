@@ -0,0 +1,90 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.front.theme;
+
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import org.opensilex.OpenSilexModule;
+import org.opensilex.server.rest.PrecompressedEntity;
+
+/**
+ * Compiled theme CSS kept in memory with its GZIP compressed version and the module files it was compiled from.
+ *
+ * @author vincent
+ */
+public final class CompiledTheme {
+
+    /**
+     * Module file read to compile a theme, with its last modification date at that time.
+     */
+    public static final class SourceFile {
+
+        private final OpenSilexModule module;
+
+        private final String path;
+
+        private final long lastModified;
+
+        public SourceFile(OpenSilexModule module, String path) {
+            this.module = module;
+            this.path = path;
+            this.lastModified = module.getLastModified(path).getTime();
+        }
+
+        public boolean isModified() {
+            return module.getLastModified(path).getTime() != lastModified;
+        }
+    }
+
+    private final List<SourceFile> sourceFiles;
+
+    private final byte[] css;
+
+    private final byte[] gzipCss;
+
+    private final String hash;
+
+    public CompiledTheme(List<SourceFile> sourceFiles, String css) throws ThemeException {
+        this.sourceFiles = Collections.unmodifiableList(sourceFiles);
+        this.css = css.getBytes(StandardCharsets.UTF_8);
+        try {
+            this.gzipCss = PrecompressedEntity.gzip(this.css);
+        } catch (IOException ex) {
+            throw new ThemeException("Error while compressing theme css", ex);
+        }
+        this.hash = Hashing.sha256().hashBytes(this.css).toString();
+    }
+
+    /**
+     * @return true if one of the files used to compile theme was modified since
+     */
+    public boolean isModified() {
+        for (SourceFile sourceFile : sourceFiles) {
+            if (sourceFile.isModified()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public byte[] getCss() {
+        return css;
+    }
+
+    public byte[] getGzipCss() {
+        return gzipCss;
+    }
+
+    /**
+     * @return SHA-256 hash of compiled CSS
+     */
+    public String getHash() {
+        return hash;
+    }
+}
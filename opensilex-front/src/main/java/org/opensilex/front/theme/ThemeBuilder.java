@@ -8,12 +8,16 @@ package org.opensilex.front.theme;
 import io.bit3.jsass.CompilationException;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import org.opensilex.OpenSilexModule;
 import io.bit3.jsass.Compiler;
 import io.bit3.jsass.Options;
 import io.bit3.jsass.Output;
 import io.bit3.jsass.OutputStyle;
+import io.bit3.jsass.importer.Import;
 import java.nio.charset.StandardCharsets;
 import org.apache.commons.io.IOUtils;
 
@@ -34,38 +38,41 @@ public class ThemeBuilder {
         this.parent = parent;
     }
 
-    private String buildStyleSheets(List<String> stylesheets, String basePath, List<String> excludes) throws IOException, URISyntaxException, CompilationException, ThemeException {
+    private String buildStyleSheets(List<String> stylesheets, String basePath, List<String> excludes, List<CompiledTheme.SourceFile> sourceFiles) throws IOException, URISyntaxException, CompilationException, ThemeException {
 
         String globalCss = "";
 
         if (this.parent != null) {
-            globalCss = this.parent.buildCss(excludes);
+            globalCss = this.parent.buildCss(excludes, sourceFiles);
         }
 
+        sourceFiles.add(new CompiledTheme.SourceFile(module, basePath + themeId + ".yml"));
         for (String stylesheet : stylesheets) {
             if (!excludes.contains(stylesheet)) {
                 String stylesheetFile = basePath + stylesheet;
+                sourceFiles.add(new CompiledTheme.SourceFile(module, stylesheetFile));
                 if (module.fileExists(stylesheetFile)) {
                     globalCss += IOUtils.toString(module.getFileInputStream(stylesheetFile), StandardCharsets.UTF_8.name()) + "\n";
                 }
             }
         }
 
-        return buildSass(globalCss);
+        return buildSass(globalCss, basePath, sourceFiles);
     }
 
-    private String buildSass(String scssContent) throws IOException, URISyntaxException, CompilationException {
+    private String buildSass(String scssContent, String basePath, List<CompiledTheme.SourceFile> sourceFiles) throws IOException, URISyntaxException, CompilationException {
         final Compiler compiler = new Compiler();
         Options options = new Options();
         options.setOutputStyle(OutputStyle.EXPANDED);
+        options.getImporters().add((url, previous) -> loadImport(url, previous, basePath, sourceFiles));
         Output output = compiler.compileString(scssContent, options);
         return output.getCss();
     }
 
-    public String buildCss(List<String> excludes) throws ThemeException {
+    private String buildCss(List<String> excludes, List<CompiledTheme.SourceFile> sourceFiles) throws ThemeException {
         try {
             String basePath = "front/theme/" + themeId + "/";
-            return buildStyleSheets(config.stylesheets(), basePath, excludes);
+            return buildStyleSheets(config.stylesheets(), basePath, excludes, sourceFiles);
         } catch (IOException ex) {
             throw new ThemeException("IO Error while building theme: " + themeId, ex);
         } catch (URISyntaxException ex) {
@@ -75,7 +82,90 @@ public class ThemeBuilder {
         }
     }
 
+    public String buildCss(List<String> excludes) throws ThemeException {
+        return buildCss(excludes, new ArrayList<>());
+    }
+
     public String buildCss() throws ThemeException {
         return buildCss(this.config.excludes());
     }
+
+    /**
+     * Compile theme CSS and keep track of the module files read to compile it: themes configurations, stylesheets and
+     * scss files they import.
+     *
+     * @return compiled theme
+     * @throws ThemeException if theme can't be compiled
+     */
+    public CompiledTheme compile() throws ThemeException {
+        List<CompiledTheme.SourceFile> sourceFiles = new ArrayList<>();
+        String css = buildCss(this.config.excludes(), sourceFiles);
+        return new CompiledTheme(sourceFiles, css);
+    }
+
+    /**
+     * @return theme identifier including its module
+     */
+    public String getThemeKey() {
+        return getThemeKey(module, themeId);
+    }
+
+    /**
+     * @param module theme module
+     * @param themeId theme identifier
+     * @return theme identifier including its module
+     */
+    public static String getThemeKey(OpenSilexModule module, String themeId) {
+        return module.getClass().getName() + "#" + themeId;
+    }
+
+    /**
+     * Load a scss file imported by a stylesheet from the module theme directory, or let the compiler resolve it if not
+     * found.
+     */
+    private Collection<Import> loadImport(String url, Import previous, String basePath, List<CompiledTheme.SourceFile> sourceFiles) {
+        String directory = basePath;
+        String previousPath = previous.getAbsoluteUri().toString();
+        if (previousPath.startsWith(basePath)) {
+            directory = previousPath.substring(0, previousPath.lastIndexOf('/') + 1);
+        }
+
+        try {
+            String importFile = resolveImport(directory, url);
+            if (importFile != null) {
+                sourceFiles.add(new CompiledTheme.SourceFile(module, importFile));
+                String content = IOUtils.toString(module.getFileInputStream(importFile), StandardCharsets.UTF_8.name());
+                return Collections.singletonList(new Import(url, importFile, content));
+            }
+        } catch (IOException | URISyntaxException ex) {
+            throw new RuntimeException("Error while loading theme scss import: " + url, ex);
+        }
+
+        return null;
+    }
+
+    /**
+     * Resolve an import URL like Sass does for partials: "dir/name" may be "dir/_name.scss" or "dir/name.scss".
+     *
+     * @return module file path or null if import is not a module file
+     */
+    private String resolveImport(String directory, String url) throws IOException, URISyntaxException {
+        if (url.endsWith(".css") || url.contains("://") || url.startsWith("/")) {
+            return null;
+        }
+
+        String path = directory + url;
+        int nameIndex = path.lastIndexOf('/') + 1;
+        String name = path.substring(nameIndex);
+        String fileName = name.endsWith(".scss") ? name : name + ".scss";
+
+        for (String candidate : new String[]{"_" + fileName, fileName}) {
+            String candidatePath = path.substring(0, nameIndex) + candidate;
+            if (module.fileExists(candidatePath)) {
+                return candidatePath;
+            }
+        }
+
+        return null;
+    }
 }
@@ -0,0 +1,72 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.front.theme;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of compiled themes CSS.
+ *
+ * A theme is compiled on first request only. In development mode, it is compiled again when one of the files read to
+ * compile it (themes configurations, stylesheets and scss imports) is modified.
+ *
+ * @author vincent
+ */
+public class ThemeCache {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(ThemeCache.class);
+
+    /**
+     * Provide the builder of a theme, or null if theme doesn't exist.
+     */
+    @FunctionalInterface
+    public interface ThemeBuilderProvider {
+
+        ThemeBuilder getThemeBuilder() throws ThemeException;
+    }
+
+    private final Map<String, CompiledTheme> themes = new ConcurrentHashMap<>();
+
+    /**
+     * Return compiled theme, compiling it if not cached or if its sources changed.
+     *
+     * @param themeKey theme identifier including its module
+     * @param builderProvider provider of theme builder, called only if theme must be compiled
+     * @param checkSources true to compile theme again if one of its source files was modified
+     * @return compiled theme or null if theme doesn't exist
+     * @throws ThemeException if theme can't be compiled
+     * @see ThemeBuilder#getThemeKey()
+     */
+    public CompiledTheme getCompiledTheme(String themeKey, ThemeBuilderProvider builderProvider, boolean checkSources) throws ThemeException {
+        CompiledTheme theme = themes.get(themeKey);
+        if (theme == null || (checkSources && theme.isModified())) {
+            synchronized (this) {
+                theme = themes.get(themeKey);
+                if (theme == null || (checkSources && theme.isModified())) {
+                    ThemeBuilder themeBuilder = builderProvider.getThemeBuilder();
+                    if (themeBuilder == null) {
+                        themes.remove(themeKey);
+                        return null;
+                    }
+
+                    long start = System.currentTimeMillis();
+                    theme = themeBuilder.compile();
+                    themes.put(themeKey, theme);
+                    LOGGER.debug("Theme " + themeKey + " compiled in " + (System.currentTimeMillis() - start) + "ms");
+                }
+            }
+        }
+
+        return theme;
+    }
+
+    public void clear() {
+        themes.clear();
+    }
+}
@@ -17,7 +17,7 @@ public class ThemeException extends Exception {
         super(message);
     }
 
-    ThemeException(String message, Throwable t) {
+    public ThemeException(String message, Throwable t) {
          super(message, t);
     }
     
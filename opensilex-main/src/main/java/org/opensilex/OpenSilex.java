@@ -34,12 +34,11 @@ import org.opensilex.dependencies.DependencyManager;
 import org.opensilex.server.ServerModule;
 import org.opensilex.service.Service;
 import org.opensilex.service.ServiceManager;
+import org.opensilex.service.ServiceStartupExecutor;
+import org.opensilex.utils.AnnotationIndex;
 import org.opensilex.utils.ClassUtils;
 import org.opensilex.utils.LogFilter;
 import org.reflections.Reflections;
-import org.reflections.scanners.MethodAnnotationsScanner;
-import org.reflections.scanners.SubTypesScanner;
-import org.reflections.scanners.TypeAnnotationsScanner;
 import org.reflections.util.ConfigurationBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -310,13 +309,19 @@ public final class OpenSilex {
     private void initialize() throws Exception {
         LOGGER.debug("Initialize instance");
         LOGGER.debug("Build global configuration");
-        configManager.build(setup.getBaseDirectory(), moduleManager.getModules(), setup.getProfileId(), setup.getConfigFile(), systemConfig);
+        startupTimeline.record("config.build", OpenSilex.class.getCanonicalName(), () -> {
+            configManager.build(setup.getBaseDirectory(), moduleManager.getModules(), setup.getProfileId(), setup.getConfigFile(), systemConfig);
+        });
 
         LOGGER.debug("Load modules configuration");
-        moduleManager.loadConfigs(configManager);
+        startupTimeline.record("config.load", OpenSilex.class.getCanonicalName(), () -> {
+            moduleManager.loadConfigs(configManager);
+        });
 
         LOGGER.debug("Resgister modules services");
-        moduleManager.registerServices(serviceManager);
+        startupTimeline.record("services.register", OpenSilex.class.getCanonicalName(), () -> {
+            moduleManager.registerServices(serviceManager);
+        });
         LOGGER.debug("Instance initialized");
     }
 
@@ -461,6 +466,11 @@ public final class OpenSilex {
      */
     private final OpenSilexConfig systemConfig;
 
+    /**
+     * Application startup phases record.
+     */
+    private final StartupTimeline startupTimeline = new StartupTimeline();
+
     /**
      * Constructor for OpenSilex application.
      *
@@ -517,19 +527,27 @@ public final class OpenSilex {
 
         setup();
 
+        int startupThreads = systemConfig.startupThreads();
+        if (startupThreads > 1) {
+            // Build reflections from main thread as it defines application class loader
+            getReflections();
+        }
+
         LOGGER.debug("Setup Services");
         for (Service service : serviceManager.getServices().values()) {
             service.setOpenSilex(this);
-            service.setup();
         }
+        ServiceStartupExecutor.run(serviceManager.getServices(), startupThreads, (String name, Service service) -> {
+            startupTimeline.record("service.setup", name, service::setup);
+        });
 
         LOGGER.debug("Start services");
-        for (Service service : serviceManager.getServices().values()) {
-            service.startup();
-        }
+        ServiceStartupExecutor.run(serviceManager.getServices(), startupThreads, (String name, Service service) -> {
+            startupTimeline.record("service.startup", name, service::startup);
+        });
 
         for (OpenSilexModule module : getModules()) {
-            module.startup();
+            startupTimeline.record("module.startup", module.getClass().getCanonicalName(), module::startup);
         }
         LOGGER.debug("Instance started");
     }
@@ -657,6 +675,15 @@ public final class OpenSilex {
         return serviceManager;
     }
 
+    /**
+     * Return application startup phases record.
+     *
+     * @return startup timeline
+     */
+    public StartupTimeline getStartupTimeline() {
+        return startupTimeline;
+    }
+
     /**
      * Determine application profile identifier.
      *
@@ -892,7 +919,7 @@ public final class OpenSilex {
         for (OpenSilexModule module : getModules()) {
             try {
                 LOGGER.info("Setup module: " + module.getClass().getCanonicalName());
-                module.setup();
+                startupTimeline.record("module.setup", module.getClass().getCanonicalName(), module::setup);
             } catch (Exception ex) {
                 LOGGER.error("Fail to setup module: " + module.getClass().getCanonicalName(), ex);
                 throw ex;
@@ -927,15 +954,21 @@ public final class OpenSilex {
      *
      * @return Reflections instance
      */
-    public Reflections getReflections() {
+    public synchronized Reflections getReflections() {
         if (reflections == null) {
+            long start = System.nanoTime();
             this.buildReflections();
+            startupTimeline.add("reflections", OpenSilex.class.getCanonicalName(), start);
         }
         return reflections;
     }
 
     /**
      * Build reflection instance by adding all modules JAR to class loader and initialize Reflections library with them.
+     *
+     * Modules packaged with an annotation index are loaded from it instead of being scanned.
+     *
+     * @see AnnotationIndex
      */
     private void buildReflections() {
         LOGGER.debug("Initialize JAR URLs to scan by reflection");
@@ -991,15 +1024,15 @@ public final class OpenSilex {
 
             builder = ConfigurationBuilder.build("", OpenSilex.getClassLoader())
                     .setUrls(urlsToScan)
-                    .setScanners(new TypeAnnotationsScanner(), new SubTypesScanner(), new MethodAnnotationsScanner())
+                    .setScanners(AnnotationIndex.getScanners())
                     .setExpandSuperTypes(false);
         } else {
             builder = ConfigurationBuilder.build("", OpenSilex.getClassLoader())
-                    .setScanners(new TypeAnnotationsScanner(), new SubTypesScanner(), new MethodAnnotationsScanner())
+                    .setScanners(AnnotationIndex.getScanners())
                     .setExpandSuperTypes(false);
         }
 
-        reflections = new Reflections(builder);
+        reflections = AnnotationIndex.buildReflections(builder, systemConfig.useAnnotationIndex());
     }
 
 }
@@ -38,4 +38,16 @@ public interface OpenSilexConfig {
     )
     public Map<String, String> ignoredModules();
 
+    @ConfigDescription(
+            value = "Load modules annotated classes from their build-time index instead of scanning them",
+            defaultBoolean = true
+    )
+    public boolean useAnnotationIndex();
+
+    @ConfigDescription(
+            value = "Number of threads used to setup and start independent services, 1 to start them sequentially",
+            defaultInt = 1
+    )
+    public int startupThreads();
+
 }
@@ -0,0 +1,160 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record of application startup phases, for each module and service, with their start offset and duration.
+ *
+ * Phases may be recorded concurrently when services are started in parallel.
+ *
+ * @see org.opensilex.cli.SystemCommands#startupTimeline()
+ * @author vincent
+ */
+public final class StartupTimeline {
+
+    /**
+     * Startup step to record.
+     */
+    @FunctionalInterface
+    public interface StartupStep {
+
+        public void run() throws Exception;
+    }
+
+    /**
+     * Recorded startup phase.
+     */
+    public final static class Entry {
+
+        private final String phase;
+
+        private final String component;
+
+        private final String thread;
+
+        private final long startOffset;
+
+        private final long duration;
+
+        private Entry(String phase, String component, String thread, long startOffset, long duration) {
+            this.phase = phase;
+            this.component = component;
+            this.thread = thread;
+            this.startOffset = startOffset;
+            this.duration = duration;
+        }
+
+        public String getPhase() {
+            return phase;
+        }
+
+        public String getComponent() {
+            return component;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        /**
+         * @return phase start in milliseconds since timeline creation
+         */
+        public long getStartOffset() {
+            return startOffset;
+        }
+
+        /**
+         * @return phase duration in milliseconds
+         */
+        public long getDuration() {
+            return duration;
+        }
+    }
+
+    private final long origin = System.nanoTime();
+
+    private final ConcurrentLinkedQueue<Entry> entries = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Run and record a startup step, even if it fails.
+     *
+     * @param phase phase name
+     * @param component module, service or component name
+     * @param step step to run
+     * @throws Exception step exception
+     */
+    public void record(String phase, String component, StartupStep step) throws Exception {
+        long start = System.nanoTime();
+        try {
+            step.run();
+        } finally {
+            add(phase, component, start);
+        }
+    }
+
+    /**
+     * Record a startup phase ending now.
+     *
+     * @param phase phase name
+     * @param component module, service or component name
+     * @param startNanos phase start as given by {@link System#nanoTime()}
+     */
+    public void add(String phase, String component, long startNanos) {
+        long end = System.nanoTime();
+        entries.add(new Entry(
+                phase,
+                component,
+                Thread.currentThread().getName(),
+                TimeUnit.NANOSECONDS.toMillis(startNanos - origin),
+                TimeUnit.NANOSECONDS.toMillis(end - startNanos)
+        ));
+    }
+
+    /**
+     * @return recorded phases sorted by start offset
+     */
+    public List<Entry> getEntries() {
+        List<Entry> sortedEntries = new ArrayList<>(entries);
+        sortedEntries.sort(Comparator.comparingLong(Entry::getStartOffset));
+        return sortedEntries;
+    }
+
+    /**
+     * @return elapsed time in milliseconds between timeline creation and end of last recorded phase
+     */
+    public long getDuration() {
+        long duration = 0;
+        for (Entry entry : entries) {
+            duration = Math.max(duration, entry.getStartOffset() + entry.getDuration());
+        }
+        return duration;
+    }
+
+    /**
+     * @return human readable timeline, one line by phase
+     */
+    public String format() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Startup timeline (%d ms)%n", getDuration()));
+        builder.append(String.format("%8s %8s  %-20s %-60s %s%n", "start", "duration", "phase", "component", "thread"));
+        for (Entry entry : getEntries()) {
+            builder.append(String.format("%6d ms %6d ms  %-20s %-60s %s%n",
+                    entry.getStartOffset(),
+                    entry.getDuration(),
+                    entry.getPhase(),
+                    entry.getComponent(),
+                    entry.getThread()
+            ));
+        }
+        return builder.toString();
+    }
+}
@@ -200,6 +200,37 @@ public class ServerCommands extends AbstractOpenSilexCommand implements OpenSile
         adminClient.stopServer();
     }
 
+    /**
+     * This command print metrics of the running OpenSilex server monitored services using the ServerAdminClient
+     * listening on the given host and adminPort.
+     *
+     * @param host Server host name (default: localhost)
+     * @param adminPort Server administration port (default: 8888)
+     * @param help Helper parameter to allow help usage display for this command
+     * @throws Exception Propagate any exception that could occurs
+     */
+    @Command(
+            name = "metrics",
+            header = "Display OpenSILEX server metrics",
+            description = "Display metrics of OpenSILEX server monitored services with given hostname using admin port"
+    )
+    public void metrics(
+            @Option(
+                    names = {"--host"},
+                    description = "Define server host",
+                    defaultValue = "localhost"
+            ) String host,
+            @Option(
+                    names = {"-ap", "--adminPort"},
+                    description = "Server port on which server is listening for commands",
+                    defaultValue = "8888"
+            ) int adminPort,
+            @Mixin HelpOption help
+    ) throws Exception {
+        ServerAdminClient adminClient = new ServerAdminClient(host, adminPort);
+        adminClient.printMetrics();
+    }
+
     /**
      * Utility static function to start server in dev mode.
      *
@@ -117,4 +117,19 @@ public class SystemCommands extends AbstractOpenSilexCommand implements OpenSile
         LOGGER.debug("Actual expanded configuration");
         System.out.print(opensilex.getExpandedYAMLConfig());
     }
+
+    /**
+     * Command to display application startup phases duration.
+     *
+     * @throws Exception
+     */
+    @Command(
+            name = "startup-timeline",
+            header = "Display startup phases duration by module and service"
+    )
+    public void startupTimeline() throws Exception {
+        OpenSilex opensilex = getOpenSilex();
+
+        System.out.print(opensilex.getStartupTimeline().format());
+    }
 }
@@ -141,10 +141,12 @@ public class ConfigManager {
         if (ClassUtils.isPrimitive(configClass)) {
             config = (T) ConfigProxyHandler.getPrimitive(key, root, null);
         } else {
+            ConfigProxyHandler handler = new ConfigProxyHandler(key, root.deepCopy(), yamlMapper);
+            handler.setSourcePointer("");
             config = (T) Proxy.newProxyInstance(
                     OpenSilex.getClassLoader(),
                     new Class<?>[]{configClass},
-                    new ConfigProxyHandler(key, root.deepCopy(), yamlMapper)
+                    handler
             );
         }
         return config;
@@ -163,11 +165,10 @@ public class ConfigManager {
 
         JsonNode baseNode = root;
         String finalKey = path;
+        String jsonPointer = "";
 
         String[] pathParts = path.split("\\.");
         if (pathParts.length > 0) {
-            String jsonPointer = "";
-
             for (int i = 0; i < pathParts.length - 1; i++) {
                 jsonPointer += "/" + pathParts[i];
             }
@@ -180,15 +181,38 @@ public class ConfigManager {
         if (ClassUtils.isPrimitive(configClass)) {
             config = (T) ConfigProxyHandler.getPrimitive(configClass.getCanonicalName(), baseNode.at("/" + finalKey), null);
         } else {
+            ConfigProxyHandler handler = new ConfigProxyHandler(finalKey, baseNode.deepCopy(), yamlMapper);
+            handler.setSourcePointer(jsonPointer);
             config = (T) Proxy.newProxyInstance(
                     OpenSilex.getClassLoader(),
                     new Class<?>[]{configClass},
-                    new ConfigProxyHandler(finalKey, baseNode.deepCopy(), yamlMapper)
+                    handler
             );
         }
         return config;
     }
 
+    /**
+     * Reload a configuration proxy loaded by this manager from current configuration, clearing its cached values.
+     *
+     * @param config configuration proxy returned by {@link #loadConfig(String, Class)} or
+     * {@link #loadConfigPath(String, Class)}
+     * @throws InvalidConfigException if given object is not a configuration proxy loaded by a configuration manager
+     */
+    public void reloadConfig(Object config) throws InvalidConfigException {
+        if (config == null || !Proxy.isProxyClass(config.getClass())
+                || !(Proxy.getInvocationHandler(config) instanceof ConfigProxyHandler)) {
+            throw new InvalidConfigException("Can't reload configuration object which is not a configuration proxy");
+        }
+
+        ConfigProxyHandler handler = (ConfigProxyHandler) Proxy.getInvocationHandler(config);
+        if (handler.getSourcePointer() == null) {
+            throw new InvalidConfigException("Can't reload configuration object which was not loaded by a configuration manager");
+        }
+
+        handler.reload(root.at(handler.getSourcePointer()).deepCopy());
+    }
+
     /**
      * Print current configuration into output stream.
      *
@@ -16,10 +16,12 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.opensilex.OpenSilex;
 import org.opensilex.service.Service;
 import org.opensilex.service.ServiceConstructorArguments;
@@ -31,6 +33,10 @@ import org.slf4j.LoggerFactory;
 /**
  * Proxy class to transform configuration interfaces into real objects, reading directly from loaded configuration.
  *
+ * Values are computed on first call of each method then returned from cache, lists and maps are unmodifiable. Services
+ * are stateful so a new instance is still created on each call. Cached values are cleared with
+ * {@link #reload(JsonNode)}.
+ *
  * @author Vincent Migot
  */
 public class ConfigProxyHandler implements InvocationHandler {
@@ -46,9 +52,19 @@ public class ConfigProxyHandler implements InvocationHandler {
     private final String baseKey;
 
     /**
-     * Global configuration JSON node.
+     * Global configuration JSON node with values already computed from it.
      */
-    private final JsonNode rootNode;
+    private volatile ConfigValues values;
+
+    /**
+     * JSON pointer of global configuration node in configuration manager root, null if unknown.
+     */
+    private String sourcePointer;
+
+    /**
+     * Marker of cached null values.
+     */
+    private final static Object NULL_VALUE = new Object();
 
     /**
      * YAML object mapper.
@@ -68,15 +84,72 @@ public class ConfigProxyHandler implements InvocationHandler {
         } else {
             this.baseKey = "/" + key + "/";
         }
-        this.rootNode = rootNode;
+        this.values = new ConfigValues(rootNode);
         this.yamlMapper = yamlMapper;
     }
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws InvalidConfigException {
         String key = baseKey + method.getName();
+        ConfigValues currentValues = values;
+
+        if ((args != null && args.length > 0) || isService(method.getReturnType())) {
+            return nodeToObject(method.getGenericReturnType(), key, currentValues.rootNode, method);
+        }
 
-        return nodeToObject(method.getGenericReturnType(), key, rootNode, method);
+        Object value = currentValues.cache.get(method);
+        if (value == null) {
+            value = nodeToObject(method.getGenericReturnType(), key, currentValues.rootNode, method);
+            if (value == null) {
+                value = NULL_VALUE;
+            }
+            Object previousValue = currentValues.cache.putIfAbsent(method, value);
+            if (previousValue != null) {
+                value = previousValue;
+            }
+        }
+
+        return value == NULL_VALUE ? null : value;
+    }
+
+    /**
+     * Replace configuration node and clear all cached values.
+     *
+     * Nested configuration objects previously returned by the proxy are not updated and must be read again.
+     *
+     * @param rootNode new global configuration
+     */
+    public void reload(JsonNode rootNode) {
+        this.values = new ConfigValues(rootNode);
+    }
+
+    /**
+     * @return JSON pointer of global configuration node in configuration manager root, null if unknown
+     */
+    public String getSourcePointer() {
+        return sourcePointer;
+    }
+
+    void setSourcePointer(String sourcePointer) {
+        this.sourcePointer = sourcePointer;
+    }
+
+    private static boolean isService(Class<?> returnTypeClass) {
+        return ServiceFactory.class.isAssignableFrom(returnTypeClass) || Service.class.isAssignableFrom(returnTypeClass);
+    }
+
+    /**
+     * Configuration node with values computed from it by method.
+     */
+    private final static class ConfigValues {
+
+        private final JsonNode rootNode;
+
+        private final Map<Method, Object> cache = new ConcurrentHashMap<>();
+
+        private ConfigValues(JsonNode rootNode) {
+            this.rootNode = rootNode;
+        }
     }
 
     /**
@@ -441,7 +514,7 @@ public class ConfigProxyHandler implements InvocationHandler {
             list.add(nodeToObject(genericParameter, "", node, method));
         }
 
-        return list;
+        return Collections.unmodifiableList(list);
     }
 
     @SuppressWarnings("unchecked")
@@ -480,7 +553,7 @@ public class ConfigProxyHandler implements InvocationHandler {
             map.put(node.getKey(), nodeToObject(genericParameter, "", node.getValue(), method));
         }
 
-        return map;
+        return Collections.unmodifiableMap(map);
     }
 
     private Class<?> getClassDefinition(JsonNode value, Method method) throws ClassNotFoundException {
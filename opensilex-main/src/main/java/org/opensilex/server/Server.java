@@ -125,6 +125,13 @@ public class Server extends Tomcat {
         this.adminPort = adminPort;
     }
 
+    /**
+     * @return OpenSilex application instance served
+     */
+    public OpenSilex getOpenSilex() {
+        return instance;
+    }
+
     /**
      * Tomcat start method override.
      *
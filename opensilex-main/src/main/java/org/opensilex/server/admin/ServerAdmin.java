@@ -11,7 +11,10 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.Map;
 import org.opensilex.server.Server;
+import org.opensilex.service.MonitoredService;
+import org.opensilex.service.Service;
 
 /**
  * Server administration tool used to execute recieved commands from the command line while tomcat server is running and managed it remotly.
@@ -25,6 +28,11 @@ public class ServerAdmin implements Runnable {
      */
     public static final String SHUTDOWN_COMMAND = "SHUTDOWN_OPENSILEX";
 
+    /**
+     * Command to print metrics of monitored services.
+     */
+    public static final String METRICS_COMMAND = "METRICS_OPENSILEX";
+
     /**
      * Instance of the managed server.
      */
@@ -73,6 +81,10 @@ public class ServerAdmin implements Runnable {
                             instance.destroy();
                             adminSocket.close();
                             stop = true;
+                        } else if (message.equals(METRICS_COMMAND)) {
+                            printMetrics(output);
+                            output.flush();
+                            stop = true;
                         }
                     }
 
@@ -88,4 +100,21 @@ public class ServerAdmin implements Runnable {
             ex.printStackTrace(System.err);
         }
     }
+
+    /**
+     * Print metrics of all services implementing {@code org.opensilex.service.MonitoredService}.
+     *
+     * @param output Stream to print metrics on
+     */
+    private void printMetrics(PrintStream output) {
+        Map<String, Service> services = instance.getOpenSilex().getServiceManager().getServices();
+        services.forEach((String serviceName, Service service) -> {
+            if (service instanceof MonitoredService) {
+                output.println("[" + serviceName + "]");
+                ((MonitoredService) service).getMetrics().forEach((String metricName, Object value) -> {
+                    output.println(metricName + ": " + value);
+                });
+            }
+        });
+    }
 }
@@ -58,6 +58,22 @@ public class ServerAdminClient {
         closeConnection();
     }
 
+    /**
+     * Print metrics of the server monitored services and close the connection after it.
+     *
+     * @throws IOException In case of communication problem with administration server
+     */
+    public void printMetrics() throws IOException {
+        output.writeUTF(ServerAdmin.METRICS_COMMAND);
+        output.flush();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            System.out.println(line);
+        }
+        closeConnection();
+    }
+
     /**
      * Send a command and read all response from admin server.
      *
@@ -34,6 +34,16 @@ public class PaginationDTO {
      */
     private final long totalPages;
 
+    /**
+     * true if there is more elements after the current page.
+     */
+    private final boolean hasMore;
+
+    /**
+     * token to retrieve the next page with keyset pagination, null if not available.
+     */
+    private final String nextPageToken;
+
     /**
      * Empty constructor assume no pagination.
      */
@@ -42,6 +52,8 @@ public class PaginationDTO {
         this.currentPage = 0;
         this.totalCount = 0;
         this.totalPages = 0;
+        this.hasMore = false;
+        this.nextPageToken = null;
     }
 
     /**
@@ -52,6 +64,33 @@ public class PaginationDTO {
      * @param totalCount Total item count
      */
     public PaginationDTO(long pageSize, long currentPage, long totalCount) {
+        this(pageSize, currentPage, totalCount, pageSize > 0 && (currentPage + 1) * pageSize < totalCount);
+    }
+
+    /**
+     * Constructor with explicit next page indicator.
+     *
+     * @param pageSize Number of items per page
+     * @param currentPage Current page index (0 based)
+     * @param totalCount Total item count, may be a lower bound if total is unknown
+     * @param hasMore true if there is more elements after the current page
+     */
+    public PaginationDTO(long pageSize, long currentPage, long totalCount, boolean hasMore) {
+        this(pageSize, currentPage, totalCount, hasMore, null);
+    }
+
+    /**
+     * Constructor with next page token for keyset pagination.
+     *
+     * @param pageSize Number of items per page
+     * @param currentPage Current page index (0 based)
+     * @param totalCount Total item count, may be a lower bound if total is unknown
+     * @param hasMore true if there is more elements after the current page
+     * @param nextPageToken token to retrieve the next page, may be null
+     */
+    public PaginationDTO(long pageSize, long currentPage, long totalCount, boolean hasMore, String nextPageToken) {
+        this.hasMore = hasMore;
+        this.nextPageToken = nextPageToken;
         this.pageSize = pageSize;
         this.currentPage = currentPage;
         this.totalCount = totalCount;
@@ -103,4 +142,22 @@ public class PaginationDTO {
     public long getTotalPages() {
         return totalPages;
     }
+
+    /**
+     * Getter for next page indicator.
+     *
+     * @return true if there is more elements after the current page
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    /**
+     * Getter for next page token.
+     *
+     * @return token to retrieve the next page or null
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
 }
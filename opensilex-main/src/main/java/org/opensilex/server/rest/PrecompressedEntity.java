@@ -0,0 +1,108 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.server.rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response.ResponseBuilder;
+
+/**
+ * Response entity already compressed with GZIP.
+ *
+ * Content is written as is by {@link PrecompressedEntityInterceptor} so it is not compressed again on each request by
+ * Jersey encoding filter. Response must be built with {@link #toResponse(ResponseBuilder)} to set the matching
+ * Content-Encoding header.
+ *
+ * @author vincent
+ */
+public final class PrecompressedEntity {
+
+    public final static String GZIP_ENCODING = "gzip";
+
+    private final byte[] content;
+
+    /**
+     * @param content GZIP compressed content
+     */
+    public PrecompressedEntity(byte[] content) {
+        this.content = content;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * Set this entity and its content encoding on the given response.
+     *
+     * @param builder response builder
+     * @return response builder
+     */
+    public ResponseBuilder toResponse(ResponseBuilder builder) {
+        return builder
+                .entity(this)
+                .header(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /**
+     * Compress content with GZIP.
+     *
+     * @param content content to compress
+     * @return compressed content
+     * @throws IOException if compression fails
+     */
+    public static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(content);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Check if a client accepts GZIP encoded responses.
+     *
+     * @param headers request headers
+     * @return true if GZIP encoding is accepted
+     */
+    public static boolean isAccepted(HttpHeaders headers) {
+        List<String> acceptEncodings = headers.getRequestHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncodings == null) {
+            return false;
+        }
+
+        for (String acceptEncoding : acceptEncodings) {
+            for (String encoding : acceptEncoding.split(",")) {
+                String[] encodingParts = encoding.split(";");
+                String name = encodingParts[0].trim().toLowerCase();
+                if (name.equals(GZIP_ENCODING) || name.equals("x-gzip")) {
+                    return !isZeroQuality(encodingParts);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isZeroQuality(String[] encodingParts) {
+        for (int i = 1; i < encodingParts.length; i++) {
+            String parameter = encodingParts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) == 0;
+                } catch (NumberFormatException ex) {
+                    return false;
+                }
+            }
+        }
+
+        return false;
+    }
+}
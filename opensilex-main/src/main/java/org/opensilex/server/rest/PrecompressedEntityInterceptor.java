@@ -0,0 +1,38 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.server.rest;
+
+import java.io.IOException;
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * Jersey interceptor writing {@link PrecompressedEntity} content directly to the response.
+ *
+ * It is executed before content encoders and does not proceed with the interceptor chain for these entities, so
+ * precompressed content is not encoded twice.
+ *
+ * @author vincent
+ */
+@Priority(Priorities.ENTITY_CODER - 1)
+public class PrecompressedEntityInterceptor implements WriterInterceptor {
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+        Object entity = context.getEntity();
+        if (entity instanceof PrecompressedEntity) {
+            byte[] content = ((PrecompressedEntity) entity).getContent();
+            context.getHeaders().putSingle(HttpHeaders.CONTENT_LENGTH, content.length);
+            context.getOutputStream().write(content);
+        } else {
+            context.proceed();
+        }
+    }
+}
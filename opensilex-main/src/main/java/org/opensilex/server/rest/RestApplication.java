@@ -102,6 +102,7 @@ public class RestApplication extends ResourceConfig {
         // Enable GZIP for web services
         register(GZipEncoder.class);
         register(EncodingFilter.class);
+        register(PrecompressedEntityInterceptor.class);
 
         // Register all module packages needed for service initialization
         registerAPI();
@@ -0,0 +1,24 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.service;
+
+import java.util.Map;
+
+/**
+ * Interface for services exposing runtime metrics through server administration.
+ *
+ * @see org.opensilex.server.admin.ServerAdmin
+ * @author Vincent Migot
+ */
+public interface MonitoredService extends Service {
+
+    /**
+     * Get current service metrics.
+     *
+     * @return metric values by name, in display order
+     */
+    public Map<String, Object> getMetrics();
+}
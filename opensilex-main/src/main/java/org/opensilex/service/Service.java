@@ -5,6 +5,8 @@
 //******************************************************************************
 package org.opensilex.service;
 
+import java.util.Collections;
+import java.util.Set;
 import org.opensilex.OpenSilex;
 import org.opensilex.utils.ClassUtils;
 
@@ -79,6 +81,22 @@ public interface Service {
      */
     public ServiceConstructorArguments getServiceConstructorArguments();
 
+    /**
+     * Return services which must be setup and started before this one when services are started in parallel.
+     *
+     * By default, a service depends on the service used as its constructor parameter if any.
+     *
+     * @return service dependencies
+     */
+    public default Set<Service> getDependencies() {
+        ServiceConstructorArguments args = getServiceConstructorArguments();
+        if (args != null && args.getService() != null) {
+            return Collections.singleton(args.getService());
+        }
+
+        return Collections.emptySet();
+    }
+
     /**
      * Helper method to determine if a service class has an empty constructor (no arguments).
      *
@@ -0,0 +1,133 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Helper to run a lifecycle step (setup, startup) on all services, sequentially or on a bounded thread pool.
+ *
+ * In parallel mode, a service step only starts when the same step is done for all its registered dependencies (see
+ * {@link Service#getDependencies()}), independent services run concurrently.
+ *
+ * @author vincent
+ */
+public final class ServiceStartupExecutor {
+
+    /**
+     * Lifecycle step to run on a service.
+     */
+    @FunctionalInterface
+    public interface ServiceStep {
+
+        public void run(String name, Service service) throws Exception;
+    }
+
+    /**
+     * Private constructor to avoid missuse of ServiceStartupExecutor.
+     */
+    private ServiceStartupExecutor() {
+
+    }
+
+    /**
+     * Run step for all services, returning when it is done for all of them.
+     *
+     * @param services services indexed by name
+     * @param threads maximum number of services running step concurrently, 1 or less to run sequentially
+     * @param step step to run
+     * @throws Exception first service step exception, other services steps are completed before it is thrown
+     */
+    public static void run(Map<String, Service> services, int threads, ServiceStep step) throws Exception {
+        if (threads <= 1 || services.size() <= 1) {
+            for (Map.Entry<String, Service> service : services.entrySet()) {
+                step.run(service.getKey(), service.getValue());
+            }
+            return;
+        }
+
+        // Services may load classes from modules, use application class loader in pool threads
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        AtomicInteger threadCount = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, services.size()), (Runnable runnable) -> {
+            Thread thread = new Thread(runnable, "opensilex-startup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        });
+
+        try {
+            Map<Service, String> names = new IdentityHashMap<>();
+            services.forEach((String name, Service service) -> {
+                names.put(service, name);
+            });
+
+            Map<Service, CompletableFuture<Void>> futures = new IdentityHashMap<>();
+            Set<Service> visiting = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Service service : names.keySet()) {
+                schedule(service, names, futures, visiting, executor, step);
+            }
+
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof Exception) {
+                throw (Exception) ex.getCause();
+            }
+            throw ex;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static CompletableFuture<Void> schedule(
+            Service service,
+            Map<Service, String> names,
+            Map<Service, CompletableFuture<Void>> futures,
+            Set<Service> visiting,
+            ExecutorService executor,
+            ServiceStep step
+    ) {
+        CompletableFuture<Void> future = futures.get(service);
+        if (future != null) {
+            return future;
+        }
+
+        String name = names.get(service);
+        if (!visiting.add(service)) {
+            throw new IllegalStateException("Circular dependency detected for service: " + name);
+        }
+
+        List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+        for (Service dependency : service.getDependencies()) {
+            if (names.containsKey(dependency)) {
+                dependencies.add(schedule(dependency, names, futures, visiting, executor, step));
+            }
+        }
+
+        future = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0])).thenRunAsync(() -> {
+            try {
+                step.run(name, service);
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+        }, executor);
+
+        visiting.remove(service);
+        futures.put(service, future);
+
+        return future;
+    }
+}
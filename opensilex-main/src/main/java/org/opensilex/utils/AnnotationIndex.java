@@ -0,0 +1,270 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+import java.util.Set;
+import java.util.TreeSet;
+import org.reflections.Configuration;
+import org.reflections.Reflections;
+import org.reflections.Store;
+import org.reflections.scanners.MethodAnnotationsScanner;
+import org.reflections.scanners.Scanner;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.scanners.TypeAnnotationsScanner;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Build-time index of annotated types, subtypes and annotated methods of a module.
+ *
+ * <pre>
+ * Index is generated by maven build for each module after compilation and packaged into its JAR file.
+ * At startup, classpath entries providing an index are loaded from it instead of being scanned, other entries
+ * (third-party libraries or modules built without index) are still scanned by Reflections.
+ * Index of a classes directory (development mode) is ignored if a class file is newer than it, because classes may
+ * have been recompiled without index generation.
+ * </pre>
+ *
+ * @author vincent
+ */
+public final class AnnotationIndex {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(AnnotationIndex.class);
+
+    /**
+     * Index resource path in module classes directory or JAR file.
+     */
+    public final static String INDEX_RESOURCE = "META-INF/opensilex/annotation-index.txt";
+
+    private final static String SEPARATOR = "\t";
+
+    /**
+     * Private constructor to avoid missuse of AnnotationIndex.
+     */
+    private AnnotationIndex() {
+
+    }
+
+    /**
+     * Return new instances of scanners used for OpenSilex reflection, their results are the ones stored in index.
+     *
+     * @return scanners array
+     */
+    public static Scanner[] getScanners() {
+        return new Scanner[]{new TypeAnnotationsScanner(), new SubTypesScanner(), new MethodAnnotationsScanner()};
+    }
+
+    /**
+     * Build Reflections instance for given configuration, loading indexed URLs from their index.
+     *
+     * @param configuration Reflections configuration
+     * @param useIndex if false all URLs are scanned
+     * @return Reflections instance
+     */
+    public static Reflections buildReflections(Configuration configuration, boolean useIndex) {
+        if (useIndex) {
+            return new IndexedReflections(configuration);
+        } else {
+            return new Reflections(configuration);
+        }
+    }
+
+    /**
+     * Scan classes directory and write its index.
+     *
+     * @param classesDirectory module classes directory
+     * @return index file
+     * @throws IOException if index can't be written
+     */
+    public static File writeIndex(File classesDirectory) throws IOException {
+        Reflections reflections = new Reflections(new ConfigurationBuilder()
+                .setUrls(classesDirectory.toURI().toURL())
+                .setScanners(getScanners())
+                .setExpandSuperTypes(false));
+
+        File indexFile = new File(classesDirectory, INDEX_RESOURCE);
+        indexFile.getParentFile().mkdirs();
+        try (OutputStream out = Files.newOutputStream(indexFile.toPath())) {
+            writeIndex(reflections.getStore(), out);
+        }
+
+        return indexFile;
+    }
+
+    /**
+     * Write index of given Reflections store, entries are sorted to produce reproducible builds.
+     *
+     * @param store Reflections store
+     * @param out output stream
+     * @throws IOException if index can't be written
+     */
+    public static void writeIndex(Store store, OutputStream out) throws IOException {
+        Set<String> lines = new TreeSet<>();
+        for (Scanner scanner : getScanners()) {
+            String index = Utils.index(scanner.getClass());
+            for (String key : store.keys(index)) {
+                for (String value : store.get(index, key)) {
+                    lines.add(index + SEPARATOR + key + SEPARATOR + value);
+                }
+            }
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        for (String line : lines) {
+            writer.write(line);
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * Read index entries into given Reflections store.
+     *
+     * @param in index input stream
+     * @param store Reflections store
+     * @throws IOException if index can't be read
+     */
+    public static void readIndex(InputStream in, Store store) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] entry = line.split(SEPARATOR, 3);
+            if (entry.length == 3) {
+                store.put(entry[0], entry[1], entry[2]);
+            }
+        }
+    }
+
+    /**
+     * Read index of a classpath entry into given Reflections store.
+     *
+     * @param url classpath entry URL
+     * @param store Reflections store
+     * @return true if URL provides an index which has been read
+     */
+    public static boolean readIndex(URL url, Store store) {
+        if (isStaleDirectoryIndex(url)) {
+            LOGGER.debug("Annotation index of " + url + " is older than its classes, scan it instead");
+            return false;
+        }
+
+        try (URLClassLoader urlLoader = new URLClassLoader(new URL[]{url}, null)) {
+            URL indexURL = urlLoader.findResource(INDEX_RESOURCE);
+            if (indexURL == null) {
+                return false;
+            }
+
+            try (InputStream in = indexURL.openStream()) {
+                readIndex(in, store);
+            }
+            return true;
+        } catch (IOException ex) {
+            LOGGER.warn("Can't read annotation index of " + url + ", scan it instead", ex);
+            return false;
+        }
+    }
+
+    /**
+     * Check if URL is a classes directory with an index older than one of its class files.
+     *
+     * @param url classpath entry URL
+     * @return true if URL is a directory with a stale index
+     */
+    public static boolean isStaleDirectoryIndex(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return false;
+        }
+
+        try {
+            Path directory = Paths.get(url.toURI());
+            Path indexFile = directory.resolve(INDEX_RESOURCE);
+            if (!Files.isDirectory(directory) || !Files.isRegularFile(indexFile)) {
+                return false;
+            }
+
+            long indexLastModified = Files.getLastModifiedTime(indexFile).toMillis();
+            try (Stream<Path> files = Files.walk(directory)) {
+                return files.anyMatch((Path file) -> {
+                    try {
+                        return file.toString().endsWith(".class")
+                                && Files.getLastModifiedTime(file).toMillis() > indexLastModified;
+                    } catch (IOException ex) {
+                        return true;
+                    }
+                });
+            }
+        } catch (IOException | URISyntaxException | IllegalArgumentException ex) {
+            LOGGER.warn("Can't check annotation index of " + url + ", scan it instead", ex);
+            return true;
+        }
+    }
+
+    /**
+     * Main entry point for annotation index generation.
+     *
+     * <pre>
+     * Used by maven build to generate annotation index of each OpenSilex module.
+     * - First argument is the module classes directory
+     * </pre>
+     *
+     * @param args command line arguments.
+     * @throws IOException if index can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        File classesDirectory = new File(args[0]);
+        if (classesDirectory.isDirectory()) {
+            File indexFile = writeIndex(classesDirectory);
+            LOGGER.info("Annotation index written: " + indexFile.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Reflections instance reading indexed URLs from their index and scanning others.
+     */
+    private final static class IndexedReflections extends Reflections {
+
+        private IndexedReflections(Configuration configuration) {
+            super(configuration);
+        }
+
+        @Override
+        protected void scan() {
+            long start = System.currentTimeMillis();
+            int indexedCount = 0;
+            int scannedCount = 0;
+            for (URL url : configuration.getUrls()) {
+                if (readIndex(url, getStore())) {
+                    indexedCount++;
+                } else {
+                    scan(url);
+                    scannedCount++;
+                }
+            }
+
+            LOGGER.debug("Reflections built in " + (System.currentTimeMillis() - start) + "ms with "
+                    + indexedCount + " indexed and " + scannedCount + " scanned URLs");
+        }
+    }
+}
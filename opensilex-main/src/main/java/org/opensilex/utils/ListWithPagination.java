@@ -37,6 +37,22 @@ public class ListWithPagination<T> {
      */
     private final Integer pageSize;
 
+    /**
+     * True if there is more elements after current page.
+     */
+    private final boolean hasMore;
+
+    /**
+     * True if total is the exact number of elements, false if it is only a lower bound.
+     */
+    private final boolean totalKnown;
+
+    /**
+     * Opaque token to retrieve next page with keyset pagination, null if there is no next page or if offset pagination
+     * is used.
+     */
+    private final String nextPageToken;
+
     /**
      * Constructor for a complete list witout pagination.
      *
@@ -55,8 +71,41 @@ public class ListWithPagination<T> {
      * @param total total elements count
      */
     public ListWithPagination(List<T> list, Integer page, Integer pageSize, Integer total) {
+        this(list, page, pageSize, total, true, false, null);
+    }
+
+    /**
+     * Constructor for a page list without total count.
+     *
+     * Total is set to the lower bound deduced from current page, including one more element if there is a next page.
+     *
+     * @param list list of element for the current page.
+     * @param page current page
+     * @param pageSize page size
+     * @param hasMore true if there is more elements after current page
+     */
+    public ListWithPagination(List<T> list, Integer page, Integer pageSize, boolean hasMore) {
+        this(list, page, pageSize, getTotalLowerBound(list, page, pageSize, hasMore), false, hasMore, null);
+    }
+
+    /**
+     * Constructor for a page list retrieved with keyset pagination.
+     *
+     * Page index is not relevant and set to 0, total is set to the lower bound deduced from current page.
+     *
+     * @param list list of element for the current page.
+     * @param pageSize page size
+     * @param nextPageToken token to retrieve next page, null if there is no next page
+     */
+    public ListWithPagination(List<T> list, Integer pageSize, String nextPageToken) {
+        this(list, 0, pageSize, getTotalLowerBound(list, 0, pageSize, nextPageToken != null), false, nextPageToken != null, nextPageToken);
+    }
+
+    private ListWithPagination(List<T> list, Integer page, Integer pageSize, Integer total, boolean totalKnown, boolean hasMore, String nextPageToken) {
         this.list = list;
         this.total = total;
+        this.totalKnown = totalKnown;
+        this.nextPageToken = nextPageToken;
 
         if (page == null || page < 0) {
             this.page = 0;
@@ -69,6 +118,21 @@ public class ListWithPagination<T> {
         } else {
             this.pageSize = pageSize;
         }
+
+        if (totalKnown) {
+            this.hasMore = (total != null && this.pageSize != null && this.pageSize > 0 && (this.page + 1) * this.pageSize < total);
+        } else {
+            this.hasMore = hasMore;
+        }
+    }
+
+    private static Integer getTotalLowerBound(List<?> list, Integer page, Integer pageSize, boolean hasMore) {
+        int offset = 0;
+        if (page != null && page > 0 && pageSize != null && pageSize > 0) {
+            offset = page * pageSize;
+        }
+
+        return offset + list.size() + (hasMore ? 1 : 0);
     }
 
     /**
@@ -107,6 +171,33 @@ public class ListWithPagination<T> {
         return pageSize;
     }
 
+    /**
+     * Check if there is more elements after current page.
+     *
+     * @return true if there is a next page
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    /**
+     * Check if total is the exact number of elements or only a lower bound.
+     *
+     * @return true if total is exact
+     */
+    public boolean isTotalKnown() {
+        return totalKnown;
+    }
+
+    /**
+     * Get token to retrieve next page with keyset pagination.
+     *
+     * @return next page token or null
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
     /**
      * Method to convert a paginated list into another.
      *
@@ -122,7 +213,7 @@ public class ListWithPagination<T> {
             resultList.add(converter.apply(element));
         });
 
-        return new ListWithPagination<U>(resultList, this.page, this.pageSize, this.total);
+        return new ListWithPagination<U>(resultList, this.page, this.pageSize, this.total, this.totalKnown, this.hasMore, this.nextPageToken);
     }
 
 }
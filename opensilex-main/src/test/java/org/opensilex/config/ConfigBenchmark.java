@@ -0,0 +1,89 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.config;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of configuration proxy access cost.
+ *
+ * Each operation reads a primitive, a list and a nested interface value from a configuration proxy. When reload is
+ * enabled, proxy is reloaded before each operation so values are computed again from JSON nodes, as they were on each
+ * call before memoization.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main ConfigBenchmark"
+ *
+ * @author vincent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigBenchmark {
+
+    public interface BenchmarkConfig {
+
+        @ConfigDescription(
+                value = "Page size",
+                defaultInt = 20
+        )
+        int pageSize();
+
+        List<String> names();
+
+        BenchmarkConfig nested();
+    }
+
+    @Param({"false", "true"})
+    public boolean reload;
+
+    private ConfigManager configManager;
+
+    private BenchmarkConfig config;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        configManager = new ConfigManager();
+        configManager.addLines(
+                "benchmark:",
+                "  pageSize: 50",
+                "  names:",
+                "    - a",
+                "    - b",
+                "    - c",
+                "  nested:",
+                "    pageSize: 100"
+        );
+        config = configManager.loadConfig("benchmark", BenchmarkConfig.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void reloadConfig() throws Exception {
+        if (reload) {
+            configManager.reloadConfig(config);
+        }
+    }
+
+    @Benchmark
+    public int readValues() {
+        return config.pageSize() + config.names().size() + config.nested().pageSize();
+    }
+}
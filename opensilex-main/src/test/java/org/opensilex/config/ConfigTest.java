@@ -18,6 +18,7 @@ import org.apache.commons.lang3.StringUtils;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import org.junit.Test;
@@ -642,4 +643,52 @@ public class ConfigTest extends AbstractUnitTest {
 
         assertTrue("Default class value must be Object", classDefault.equals(Object.class));
     }
+
+    @Test
+    public void testMemoizedValuesAndReload() throws Exception {
+        ConfigManager provider = new ConfigManager();
+        provider.addLines(
+                "test:",
+                "  int_: 1",
+                "  listStr:",
+                "    - az",
+                "  inception:",
+                "    string_: s1"
+        );
+
+        TestConfig cfg = provider.loadConfig("test", TestConfig.class);
+        TestConfig pathCfg = provider.loadConfigPath("test.inception", TestConfig.class);
+
+        List<String> listStr = cfg.listStr();
+        assertSame("Check list value is computed once", listStr, cfg.listStr());
+        assertSame("Check sub interface value is computed once", cfg.inception(), cfg.inception());
+        try {
+            listStr.add("er");
+            fail("Configuration list should not be modifiable");
+        } catch (UnsupportedOperationException ex) {
+            // Expected
+        }
+
+        provider.addLines(
+                "test:",
+                "  int_: 2",
+                "  inception:",
+                "    string_: s2"
+        );
+
+        assertEquals("Check value is not reloaded before explicit reload", 1, cfg.int_());
+        assertEquals("Check path value is not reloaded before explicit reload", "s1", pathCfg.string_());
+
+        provider.reloadConfig(cfg);
+        provider.reloadConfig(pathCfg);
+
+        assertEquals("Check reloaded value", 2, cfg.int_());
+        assertEquals("Check reloaded sub interface value", "s2", cfg.inception().string_());
+        assertEquals("Check reloaded path value", "s2", pathCfg.string_());
+    }
+
+    @Test(expected = InvalidConfigException.class)
+    public void testReloadInvalidConfig() throws Exception {
+        new ConfigManager().reloadConfig(new Object());
+    }
 }
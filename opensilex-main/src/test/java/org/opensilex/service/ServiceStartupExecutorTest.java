@@ -0,0 +1,96 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.service;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ *
+ * @author vincent
+ */
+public class ServiceStartupExecutorTest {
+
+    private static class TestService extends BaseService {
+
+        private final Set<Service> dependencies;
+
+        private TestService(Service... dependencies) {
+            this.dependencies = new HashSet<>(Arrays.asList(dependencies));
+        }
+
+        @Override
+        public Set<Service> getDependencies() {
+            return dependencies;
+        }
+    }
+
+    @Test
+    public void testDependenciesOrder() throws Exception {
+        TestService storage = new TestService();
+        TestService cache = new TestService();
+        TestService sparql = new TestService(storage);
+        TestService auth = new TestService(sparql, cache);
+
+        Map<String, Service> services = new LinkedHashMap<>();
+        services.put("auth", auth);
+        services.put("sparql", sparql);
+        services.put("cache", cache);
+        services.put("storage", storage);
+
+        // Independent services must run concurrently to count down the latch
+        CountDownLatch independentLatch = new CountDownLatch(2);
+        List<String> order = new CopyOnWriteArrayList<>();
+        ServiceStartupExecutor.run(services, 4, (String name, Service service) -> {
+            if (service == storage || service == cache) {
+                independentLatch.countDown();
+                assertTrue("Independent services should start concurrently", independentLatch.await(10, TimeUnit.SECONDS));
+            }
+            order.add(name);
+        });
+
+        assertEquals(4, order.size());
+        assertTrue("Service should start after its dependency", order.indexOf("sparql") > order.indexOf("storage"));
+        assertTrue("Service should start after its dependencies", order.indexOf("auth") > order.indexOf("sparql"));
+        assertTrue("Service should start after its dependencies", order.indexOf("auth") > order.indexOf("cache"));
+    }
+
+    @Test
+    public void testFailurePropagation() throws Exception {
+        TestService failing = new TestService();
+        TestService dependent = new TestService(failing);
+
+        Map<String, Service> services = new LinkedHashMap<>();
+        services.put("failing", failing);
+        services.put("dependent", dependent);
+
+        List<String> started = new CopyOnWriteArrayList<>();
+        try {
+            ServiceStartupExecutor.run(services, 2, (String name, Service service) -> {
+                if (service == failing) {
+                    throw new IllegalArgumentException("Startup failure");
+                }
+                started.add(name);
+            });
+            fail("Service startup exception should be thrown");
+        } catch (IllegalArgumentException ex) {
+            assertEquals("Startup failure", ex.getMessage());
+        }
+
+        assertTrue("Dependent service should not start if dependency failed", started.isEmpty());
+    }
+}
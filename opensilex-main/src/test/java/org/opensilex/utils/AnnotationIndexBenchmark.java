@@ -0,0 +1,66 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.utils;
+
+import java.net.URL;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensilex.OpenSilex;
+import org.opensilex.config.ConfigDescription;
+import org.reflections.Reflections;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+
+/**
+ * Benchmark of Reflections startup cost with and without build-time annotation index.
+ *
+ * Each operation builds Reflections for all classpath entries containing OpenSilex classes, as done once at application
+ * startup, and queries annotated methods. Modules classes must have been indexed by maven build (process-classes phase).
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main AnnotationIndexBenchmark"
+ *
+ * @author vincent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnnotationIndexBenchmark {
+
+    @Param({"false", "true"})
+    public boolean useIndex;
+
+    private Collection<URL> urls;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        urls = ClasspathHelper.forPackage("org.opensilex", OpenSilex.getClassLoader());
+    }
+
+    @Benchmark
+    public int buildReflections() {
+        Reflections reflections = AnnotationIndex.buildReflections(ConfigurationBuilder.build("", OpenSilex.getClassLoader())
+                .setUrls(urls)
+                .setScanners(AnnotationIndex.getScanners())
+                .setExpandSuperTypes(false), useIndex);
+
+        return reflections.getMethodsAnnotatedWith(ConfigDescription.class).size();
+    }
+}
@@ -0,0 +1,76 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import javax.ws.rs.ext.Provider;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opensilex.OpenSilex;
+import org.opensilex.config.ConfigDescription;
+import org.opensilex.service.Service;
+import org.reflections.Reflections;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+
+/**
+ *
+ * @author vincent
+ */
+public class AnnotationIndexTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    @Test
+    public void testIndexMatchesScan() throws Exception {
+        URL url = ClasspathHelper.forClass(OpenSilex.class);
+        Reflections scanned = AnnotationIndex.buildReflections(new ConfigurationBuilder()
+                .setUrls(url)
+                .setScanners(AnnotationIndex.getScanners())
+                .setExpandSuperTypes(false), false);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AnnotationIndex.writeIndex(scanned.getStore(), out);
+
+        Reflections indexed = new Reflections(new ConfigurationBuilder()
+                .setScanners(AnnotationIndex.getScanners())
+                .setExpandSuperTypes(false));
+        AnnotationIndex.readIndex(new ByteArrayInputStream(out.toByteArray()), indexed.getStore());
+
+        assertFalse("Main module should have annotated methods", scanned.getMethodsAnnotatedWith(ConfigDescription.class).isEmpty());
+        assertEquals("Indexed annotated types should match scanned ones", scanned.getTypesAnnotatedWith(Provider.class), indexed.getTypesAnnotatedWith(Provider.class));
+        assertEquals("Indexed annotated methods should match scanned ones", scanned.getMethodsAnnotatedWith(ConfigDescription.class), indexed.getMethodsAnnotatedWith(ConfigDescription.class));
+        assertEquals("Indexed subtypes should match scanned ones", scanned.getSubTypesOf(Service.class), indexed.getSubTypesOf(Service.class));
+    }
+
+    @Test
+    public void testStaleDirectoryIndex() throws Exception {
+        File classesDirectory = tmpFolder.newFolder("classes");
+        File classFile = new File(classesDirectory, "org/opensilex/Test.class");
+        classFile.getParentFile().mkdirs();
+        Files.write(classFile.toPath(), new byte[0]);
+
+        File indexFile = AnnotationIndex.writeIndex(classesDirectory);
+        URL url = classesDirectory.toURI().toURL();
+
+        classFile.setLastModified(indexFile.lastModified() - 1000);
+        assertFalse("Index newer than classes should be used", AnnotationIndex.isStaleDirectoryIndex(url));
+
+        classFile.setLastModified(indexFile.lastModified() + 1000);
+        assertTrue("Index older than a class should be ignored", AnnotationIndex.isStaleDirectoryIndex(url));
+        assertFalse("Stale index should not be read", AnnotationIndex.readIndex(url, new Reflections(new ConfigurationBuilder()
+                .setScanners(AnnotationIndex.getScanners())).getStore()));
+    }
+}
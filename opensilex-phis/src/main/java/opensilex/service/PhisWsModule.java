@@ -9,22 +9,33 @@ package opensilex.service;
 
 import java.util.List;
 import java.util.Set;
+import opensilex.service.dao.DataDAO;
+import opensilex.service.dao.manager.MongoDAO;
+import opensilex.service.ontology.Rdfs;
+import opensilex.service.utils.LabelCache;
 import org.apache.jena.riot.Lang;
 
 import org.opensilex.OpenSilex;
 import org.opensilex.sparql.rdf4j.RDF4JConfig;
 import org.opensilex.OpenSilexModule;
 import org.opensilex.nosql.mongodb.MongoDBConfig;
+import org.opensilex.server.Server;
 import org.opensilex.server.extensions.APIExtension;
+import org.opensilex.server.extensions.ServerExtension;
 import org.opensilex.sparql.SPARQLConfig;
 import org.opensilex.sparql.SPARQLModule;
 import org.opensilex.sparql.extensions.OntologyFileDefinition;
 import org.opensilex.sparql.extensions.SPARQLExtension;
+import org.opensilex.sparql.service.SPARQLPropertyListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Phis opensilex module implementation
  */
-public class PhisWsModule extends OpenSilexModule implements APIExtension, SPARQLExtension {
+public class PhisWsModule extends OpenSilexModule implements APIExtension, ServerExtension, SPARQLExtension {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(PhisWsModule.class);
 
     @Override
     public Class<?> getConfigClass() {
@@ -50,6 +61,32 @@ public class PhisWsModule extends OpenSilexModule implements APIExtension, SPARQ
         );
     }
 
+    /**
+     * Migrates existing MongoDB collections indexes in background when the server starts,
+     * so an unavailable MongoDB server doesn't delay the startup.
+     * Command line tools and API generation don't need the migration.
+     * @param server
+     * @throws Exception 
+     */
+    @Override
+    public void initServer(Server server) throws Exception {
+        MongoDBConfig mongoConfig = getOpenSilex().loadConfigPath("big-data.nosql.mongodb", MongoDBConfig.class);
+        if (mongoConfig == null || mongoConfig.database() == null || mongoConfig.database().isEmpty()) {
+            LOGGER.warn("No MongoDB database configured, MongoDB indexes migration skipped");
+            return;
+        }
+
+        Thread migration = new Thread(() -> {
+            try {
+                DataDAO.migrateIndexes(MongoDAO.getStaticDataBase());
+            } catch (Exception ex) {
+                LOGGER.warn("Can't migrate MongoDB indexes, migration will be run again on next startup: " + ex.getMessage());
+            }
+        }, "opensilex-phis-mongo-migration");
+        migration.setDaemon(true);
+        migration.start();
+    }
+
     @Override
     public List<String> getPackagesToScan() {
         List<String> list = APIExtension.super.getPackagesToScan();
@@ -86,4 +123,21 @@ public class PhisWsModule extends OpenSilexModule implements APIExtension, SPARQ
         return list;
     }
 
+    @Override
+    public List<SPARQLPropertyListener> getPropertyListeners() {
+        List<SPARQLPropertyListener> list = SPARQLExtension.super.getPropertyListeners();
+        list.add(new SPARQLPropertyListener() {
+            @Override
+            public String getProperty() {
+                return Rdfs.RELATION_LABEL.toString();
+            }
+
+            @Override
+            public void propertyChanged(Set<String> subjects) {
+                LabelCache.RESOURCES.invalidateAll(subjects);
+            }
+        });
+        return list;
+    }
+
 }
@@ -165,8 +165,7 @@ public class ActuatorDAO extends Rdf4jDAO<Actuator> {
 
                 //2. Insert actuator
                 UpdateRequest updateQuery = prepareInsertQuery(actuator);
-                Update prepareUpdate = prepareRDF4JUpdateQuery(updateQuery);
-                prepareUpdate.execute();
+                executeRDF4JUpdateQuery(updateQuery);
             }
             
             return actuators;
@@ -343,13 +342,11 @@ public class ActuatorDAO extends Rdf4jDAO<Actuator> {
                 
                 //2. Delete old actuators data
                 UpdateRequest deleteQuery = prepareDeleteQuery(oldActuator);
-                Update prepareDelete = prepareRDF4JUpdateQuery(deleteQuery);
-                prepareDelete.execute();
+                executeRDF4JUpdateQuery(deleteQuery);
                 
                 //2. Insert new actuators data
                 UpdateRequest insertQuery = prepareInsertQuery(actuator);
-                Update prepareUpdate = prepareRDF4JUpdateQuery(insertQuery);
-                prepareUpdate.execute();
+                executeRDF4JUpdateQuery(insertQuery);
             }
             
             return actuators;
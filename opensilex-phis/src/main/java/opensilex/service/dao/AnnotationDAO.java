@@ -36,7 +36,6 @@ import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
-import org.eclipse.rdf4j.query.Update;
 import org.eclipse.rdf4j.query.UpdateExecutionException;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.joda.time.DateTime;
@@ -348,15 +347,26 @@ public class AnnotationDAO extends Rdf4jDAO<Annotation> {
      */
     @Override
     public void validate(List<Annotation> annotations) throws DAODataErrorAggregateException, DAOPersistenceException {
-        UriDAO uriDao = new UriDAO(sparql);
+        validate(annotations, new ReferenceResolver(sparql));
+    }
+
+    /**
+     * Checks the given annotations with the references resolver of the current request.
+     * @param annotations
+     * @param references
+     * @throws opensilex.service.dao.exception.DAODataErrorAggregateException
+     * @throws opensilex.service.dao.exception.DAOPersistenceException
+     */
+    public void validate(List<Annotation> annotations, ReferenceResolver references) throws DAODataErrorAggregateException, DAOPersistenceException {
         ArrayList<DAODataErrorException> exceptions = new ArrayList<>();
         try {
+            annotations.forEach((annotation) -> references.add(annotation.getMotivatedBy()));
             annotations.forEach((annotation) -> {
                 // check motivation
-                if (!uriDao.existUri(annotation.getMotivatedBy())) {
+                if (!references.exists(annotation.getMotivatedBy())) {
                     exceptions.add(new UnknownUriException(annotation.getMotivatedBy(), "the motivation"));
                 }
-                else if (!uriDao.isInstanceOf(annotation.getMotivatedBy(), Oa.CONCEPT_MOTIVATION.toString())) {
+                else if (!references.isInstanceOf(annotation.getMotivatedBy(), Oa.CONCEPT_MOTIVATION.toString())) {
                     exceptions.add(new WrongTypeException(annotation.getMotivatedBy(), "the motivation"));
                 }
             });
@@ -460,13 +470,14 @@ public class AnnotationDAO extends Rdf4jDAO<Annotation> {
      */
     private ArrayList<Annotation> getAnnotationsWithoutBodyValuesFromResult(TupleQueryResult result, String searchUri, String searchCreator, String searchMotivatedBy) {
         ArrayList<Annotation> annotations = new ArrayList<>();
-        UriDAO uriDao = new UriDAO(sparql);
+        ReferenceResolver references = new ReferenceResolver(sparql);
         while (result.hasNext()) {
             BindingSet bindingSet = result.next();
        
             String annotationUri = null;
             if (searchUri != null) {
-                if(uriDao.existUri(searchUri)){
+                // Resolved once for all rows
+                if(references.exists(searchUri)){
                     annotationUri = searchUri;
                 }
             } else {
@@ -601,10 +612,8 @@ public class AnnotationDAO extends Rdf4jDAO<Annotation> {
     		String removeIncomingsAnnotationQuery = getRemoveAllSuperAnnotationQuery(uri).buildRequest().toString(); 
     		String removeAnnotationQuery = getRemoveAllAnnotationTripleQuery(uri).buildRequest().toString(); 
     		
-    		Update update = prepareRDF4JUpdateQuery(removeIncomingsAnnotationQuery);
-    		update.execute(); // first delete all annotation which has the annotationUri as target  
-    		update = prepareRDF4JUpdateQuery(removeAnnotationQuery); 
-    		update.execute(); // then delete the annotation itself
+    		executeRDF4JUpdateQuery(removeIncomingsAnnotationQuery); // first delete all annotation which has the annotationUri as target  
+    		executeRDF4JUpdateQuery(removeAnnotationQuery); // then delete the annotation itself
     	}	
     }
    
@@ -267,12 +267,25 @@ public class ConcernedItemDAO extends Rdf4jDAO<ConcernedItem> {
     @Override
     public void validate(List<ConcernedItem> concernedItems) 
             throws DAODataErrorAggregateException, DAOPersistenceException {       
+        validate(concernedItems, new ReferenceResolver(sparql));
+    }
+    
+    /**
+     * Checks the existence of the given list of concerned items with the references resolver of the current request.
+     * @param concernedItems
+     * @param references
+     * @throws opensilex.service.dao.exception.DAODataErrorAggregateException
+     * @throws opensilex.service.dao.exception.DAOPersistenceException
+     */
+    public void validate(List<ConcernedItem> concernedItems, ReferenceResolver references) 
+            throws DAODataErrorAggregateException, DAOPersistenceException {       
         ArrayList<DAODataErrorException> exceptions = new ArrayList<>(); 
         try {
+            concernedItems.forEach((concernedItem) -> references.add(concernedItem.getUri()));
             concernedItems.forEach((concernedItem) -> {
                 String concernedItemUri = concernedItem.getUri();
                 if (concernedItemUri != null) {
-                    if (!existUri(concernedItem.getUri())) {
+                    if (!references.exists(concernedItem.getUri())) {
                         exceptions.add(new UnknownUriException(concernedItemUri, "the concerned item"));
                     }
                 }
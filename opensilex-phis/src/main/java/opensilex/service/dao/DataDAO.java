@@ -16,13 +16,18 @@ import com.mongodb.client.ClientSession;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
 import com.mongodb.client.model.Sorts;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -68,6 +73,27 @@ public class DataDAO extends MongoDAO<Data> {
     private final static String DB_FIELD_SENSOR = "sensor";
     private final static String DB_FIELD_METADATA = "metadata";
     
+    /**
+     * Export field name by data document field, in export order.
+     */
+    public final static Map<String, String> EXPORT_FIELDS;
+    static {
+        Map<String, String> exportFields = new LinkedHashMap<>();
+        exportFields.put(DB_FIELD_URI, "uri");
+        exportFields.put(DB_FIELD_PROVENANCE, "provenanceUri");
+        exportFields.put(DB_FIELD_OBJECT, "objectUri");
+        exportFields.put(DB_FIELD_VARIABLE, "variableUri");
+        exportFields.put(DB_FIELD_DATE, "date");
+        exportFields.put(DB_FIELD_VALUE, "value");
+        exportFields.put(DB_FIELD_METADATA, "metadata");
+        EXPORT_FIELDS = Collections.unmodifiableMap(exportFields);
+    }
+
+    /**
+     * Number of documents read by batch during an export.
+     */
+    private final static int EXPORT_BATCH_SIZE = 1000;
+
     public String variableUri;
     public String startDate;
     public String endDate;
@@ -86,18 +112,22 @@ public class DataDAO extends MongoDAO<Data> {
 
         boolean dataOk = true;
 
-        VariableDAO variableDAO = new VariableDAO(sparql);
-        ProvenanceDAO provenanceDAO = new ProvenanceDAO(sparql);
+        // Resolve all referenced variables and provenances at once
+        ReferenceResolver references = new ReferenceResolver(sparql);
+        for (Data data : dataList) {
+            references.add(data.getVariableUri());
+            references.addProvenance(data.getProvenanceUri());
+        }
 
         for (Data data : dataList) {
             // 1. Check if the variableUri exist and is a variable
-            if (!variableDAO.existAndIsVariable(data.getVariableUri())) {
+            if (!references.isInstanceOf(data.getVariableUri(), Oeso.CONCEPT_VARIABLE.toString())) {
                 dataOk = false;
                 checkStatus.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR,
                         "Unknown variable : " + data.getVariableUri()));
             } 
             // 2. Check if the provenance uri exist and is a provenance
-            if (!provenanceDAO.existProvenanceUri(data.getProvenanceUri())) {
+            if (!references.existsProvenance(data.getProvenanceUri())) {
                 dataOk = false;
                 checkStatus.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, 
                     "Unknown provenance : " + data.getProvenanceUri()));
@@ -156,6 +186,15 @@ public class DataDAO extends MongoDAO<Data> {
         return split[split.length - 1];
     }
 
+    /**
+     * Creates the (date, _id) pagination index of the data and environment measures collections
+     * created before this index was created with them, once by database.
+     * @param database
+     */
+    public static void migrateIndexes(MongoDatabase database) {
+        migrateDateIdIndexes(database, DB_FIELD_DATE, DB_FIELD_VARIABLE);
+    }
+
     /**
      * Inserts the given data in the MongoDB database.
      * @param dataList
@@ -194,7 +233,7 @@ public class DataDAO extends MongoDAO<Data> {
             dataListToInsertByVariable.put(data.getVariableUri(), dataByVariable);
         }
 
-        //2. Create unique index on sensor/variable/date for each variable collection
+        //2. Create unique index on sensor/variable/date and (date, _id) pagination index for each variable collection
         //   Mongo won't create index if it already exists
         Bson indexFields = Indexes.ascending(
                 DB_FIELD_DATE,
@@ -204,8 +243,9 @@ public class DataDAO extends MongoDAO<Data> {
         );
         IndexOptions indexOptions = new IndexOptions().unique(true);
         dataListToInsertByVariable.keySet().forEach((variableUri) -> {
-            database.getCollection(getCollectionFromVariable(variableUri))
-                    .createIndex(indexFields, indexOptions);
+            MongoCollection<Document> variableCollection = database.getCollection(getCollectionFromVariable(variableUri));
+            variableCollection.createIndex(indexFields, indexOptions);
+            createDateIdIndex(variableCollection, DB_FIELD_DATE);
         });
 
         //3. Insert all the data
@@ -288,50 +328,61 @@ public class DataDAO extends MongoDAO<Data> {
         // Get the filter query
         BasicDBObject query = prepareSearchQuery();
         
-        // Get paginated documents
-        FindIterable<Document> dataMongo = dataVariableCollection.find(query);
-        
         //SILEX:info
         //Measures are always sort by date, either ascending or descending depending on dateSortAsc parameter
         //If dateSortAsc=true, sort by date ascending
         //If dateSortAsc=false, sort by date descending
         //\SILEX:info
-        if (dateSortAsc) {
-            dataMongo = dataMongo.sort(Sorts.ascending(DB_FIELD_DATE));
-        } else {
-            dataMongo = dataMongo.sort(Sorts.descending(DB_FIELD_DATE));
-        }
-        
-        // Define pagination for the request
-        if (page != null && pageSize != null) {
-            dataMongo = dataMongo.skip(page * pageSize).limit(pageSize);
-        }
+        // Get paginated documents
+        List<Document> dataDocuments = findPageByDate(dataVariableCollection, query, DB_FIELD_DATE, dateSortAsc);
 
         ArrayList<Data> dataList = new ArrayList<>();
         
         // For each document, create a data Instance and add it to the result list
-        try (MongoCursor<Document> measuresCursor = dataMongo.iterator()) {
-            while (measuresCursor.hasNext()) {
-                Document dataDocument = measuresCursor.next();
-                
-                // Create and define the data object
-                Data data = new Data();
-                data.setVariableUri(variableUri);
-                data.setUri(dataDocument.getString(DB_FIELD_URI));
-                data.setDate(dataDocument.getDate(DB_FIELD_DATE));
-                data.setValue(dataDocument.get(DB_FIELD_VALUE));
-                data.setObjectUri(dataDocument.getString(DB_FIELD_OBJECT));
-                data.setProvenanceUri(dataDocument.getString(DB_FIELD_PROVENANCE));
-                data.setMetadata((Map<String, Object>) dataDocument.get(DB_FIELD_METADATA));
-                
-                // Add data to the list
-                dataList.add(data);
-            }
+        for (Document dataDocument : dataDocuments) {
+            // Create and define the data object
+            Data data = new Data();
+            data.setVariableUri(variableUri);
+            data.setUri(dataDocument.getString(DB_FIELD_URI));
+            data.setDate(dataDocument.getDate(DB_FIELD_DATE));
+            data.setValue(dataDocument.get(DB_FIELD_VALUE));
+            data.setObjectUri(dataDocument.getString(DB_FIELD_OBJECT));
+            data.setProvenanceUri(dataDocument.getString(DB_FIELD_PROVENANCE));
+            data.setMetadata((Map<String, Object>) dataDocument.get(DB_FIELD_METADATA));
+            
+            // Add data to the list
+            dataList.add(data);
         }
         
         return dataList;
     }
 
+    /**
+     * Returns all the data corresponding to the search parameters, sorted by date, without pagination,
+     * to be iterated while they are exported.
+     * Only the given document fields are read from the database.
+     * @param fields document fields to read
+     * @return data documents
+     */
+    public FindIterable<Document> export(Collection<String> fields) {
+        // Get the collection corresponding to variable uri
+        String variableCollection = this.getCollectionFromVariable(variableUri);
+        MongoCollection<Document> dataVariableCollection = database.getCollection(variableCollection);
+
+        FindIterable<Document> dataMongo = dataVariableCollection.find(prepareSearchQuery())
+                .projection(Projections.fields(Projections.include(new ArrayList<>(fields)), Projections.excludeId()))
+                .batchSize(EXPORT_BATCH_SIZE);
+
+        // Sort by date to use the date index
+        if (dateSortAsc) {
+            dataMongo = dataMongo.sort(Sorts.ascending(DB_FIELD_DATE));
+        } else {
+            dataMongo = dataMongo.sort(Sorts.descending(DB_FIELD_DATE));
+        }
+
+        return dataMongo;
+    }
+
     /**
      * Prepares and returns the data search query with the given parameters.
      * @return The data search query
@@ -400,9 +451,10 @@ public class DataDAO extends MongoDAO<Data> {
 
         // Get the filter query
         BasicDBObject query = prepareSearchQuery();
+        boolean filtered = startDate != null || endDate != null || objectUri != null || provenanceUri != null;
         
         // Return the document count
-        return (int)dataVariableCollection.countDocuments(query);
+        return (int)countDocuments(dataVariableCollection, query, filtered);
     }
     
     /**
@@ -494,8 +546,11 @@ public class DataDAO extends MongoDAO<Data> {
         MongoCollection<Document> dataCollection = database.getCollection(getCollectionFromVariable(variableUri));
         
         BasicDBObject query = prepareSearchQuery(variableUri, startDate, endDate, objectsUris, provenancesUris);
+        boolean filtered = startDate != null || endDate != null
+                || (objectsUris != null && !objectsUris.isEmpty())
+                || (provenancesUris != null && !provenancesUris.isEmpty());
         
-        return (int)dataCollection.countDocuments(query);
+        return (int)countDocuments(dataCollection, query, filtered);
     }
 
     /**
@@ -525,6 +580,9 @@ public class DataDAO extends MongoDAO<Data> {
      * @return the data founded.
      */
     public List<Data> find(Integer page, Integer pageSize, String variableUri, String startDate, String endDate, List<String> objectsUris, List<String> provenancesUris) {
+        this.page = page;
+        this.pageSize = pageSize;
+        
         // Get the collection corresponding to variable uri
         String variableCollection = this.getCollectionFromVariable(variableUri);
         MongoCollection<Document> dataVariableCollection = database.getCollection(variableCollection);
@@ -532,56 +590,41 @@ public class DataDAO extends MongoDAO<Data> {
         // Get the filter query
         BasicDBObject query = prepareSearchQuery(variableUri, startDate, endDate, objectsUris, provenancesUris);      
         
-        // Get paginated documents
-        FindIterable<Document> dataMongo = dataVariableCollection.find(query);
-        
         //SILEX:info
         //Measures are always sort by date, either ascending or descending depending on dateSortAsc parameter
         //If dateSortAsc=true, sort by date ascending
         //If dateSortAsc=false, sort by date descending
         //\SILEX:info
-        if (dateSortAsc) {
-            dataMongo = dataMongo.sort(Sorts.ascending(DB_FIELD_DATE));
-        } else {
-            dataMongo = dataMongo.sort(Sorts.descending(DB_FIELD_DATE));
-        }
-        
-        // Define pagination for the request
-        if (page != null && pageSize != null) {
-            dataMongo = dataMongo.skip(page * pageSize).limit(pageSize);
-        }
+        // Get paginated documents
+        List<Document> dataDocuments = findPageByDate(dataVariableCollection, query, DB_FIELD_DATE, dateSortAsc);
         
         ArrayList<Data> dataList = new ArrayList<>();
         
         // For each document, create a data Instance and add it to the result list
-        try (MongoCursor<Document> measuresCursor = dataMongo.iterator()) {
-            while (measuresCursor.hasNext()) {
-                Document dataDocument = measuresCursor.next();
-                
-                // Create and define the data object
-                Data data = new Data();
-                data.setVariableUri(variableUri);
-                if (dataDocument.getString(DB_FIELD_URI) != null) {
-                    data.setUri(dataDocument.getString(DB_FIELD_URI));
-                }
-                data.setDate(dataDocument.getDate(DB_FIELD_DATE));
-                data.setValue(dataDocument.get(DB_FIELD_VALUE));
-                
-                if (dataDocument.getString(DB_FIELD_OBJECT) != null) {
-                    data.setObjectUri(dataDocument.getString(DB_FIELD_OBJECT));
-                }
-                
-                if (dataDocument.getString(DB_FIELD_PROVENANCE) != null) {
-                    data.setProvenanceUri(dataDocument.getString(DB_FIELD_PROVENANCE));
-                } else {
-                    data.setProvenanceUri(dataDocument.getString(DB_FIELD_SENSOR));
-                }
-                
-                data.setMetadata((Map<String, Object>) dataDocument.get(DB_FIELD_METADATA));
-                
-                // Add data to the list
-                dataList.add(data);
+        for (Document dataDocument : dataDocuments) {
+            // Create and define the data object
+            Data data = new Data();
+            data.setVariableUri(variableUri);
+            if (dataDocument.getString(DB_FIELD_URI) != null) {
+                data.setUri(dataDocument.getString(DB_FIELD_URI));
             }
+            data.setDate(dataDocument.getDate(DB_FIELD_DATE));
+            data.setValue(dataDocument.get(DB_FIELD_VALUE));
+            
+            if (dataDocument.getString(DB_FIELD_OBJECT) != null) {
+                data.setObjectUri(dataDocument.getString(DB_FIELD_OBJECT));
+            }
+            
+            if (dataDocument.getString(DB_FIELD_PROVENANCE) != null) {
+                data.setProvenanceUri(dataDocument.getString(DB_FIELD_PROVENANCE));
+            } else {
+                data.setProvenanceUri(dataDocument.getString(DB_FIELD_SENSOR));
+            }
+            
+            data.setMetadata((Map<String, Object>) dataDocument.get(DB_FIELD_METADATA));
+            
+            // Add data to the list
+            dataList.add(data);
         }
         
         return dataList;
@@ -270,29 +270,33 @@ public class DataFileDAO extends MongoDAO<FileDescription> {
 
         boolean dataOk = true;
 
-        ProvenanceDAO provenanceDAO = new ProvenanceDAO(sparql);
-        ScientificObjectRdf4jDAO scientificObjectDao = new ScientificObjectRdf4jDAO(sparql);
+        // Resolve the file type and all concerned items with their types at once
+        ReferenceResolver references = new ReferenceResolver(sparql);
+        references.add(fileDescription.getRdfType());
+        for (ConcernedItem concernedItem : fileDescription.getConcernedItems()) {
+            references.add(concernedItem.getUri());
+            references.add(concernedItem.getRdfType());
+        }
         
-        if (!provenanceDAO.existProvenanceUri(fileDescription.getProvenanceUri())) {
+        if (!references.existsProvenance(fileDescription.getProvenanceUri())) {
             // 1. Check if the provenance uri exist and is a provenance
             dataOk = false;
             checkStatus.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, 
                 "Unknown provenance uri: " + fileDescription.getProvenanceUri()));
-        } else if (!scientificObjectDao.existUri(fileDescription.getRdfType())) {
-            // 2. Check if the rdf type uri exist, 
-            // we use scientificObjectDao for convenience to access existUri method
+        } else if (!references.exists(fileDescription.getRdfType())) {
+            // 2. Check if the rdf type uri exist
             dataOk = false;
             checkStatus.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, 
                 "Unknown file rdf type : " + fileDescription.getRdfType()));
         } else {
             // 3. Check concerned items consistency
             for(ConcernedItem concernedItem : fileDescription.getConcernedItems()) {
-                if (!scientificObjectDao.existScientificObject(concernedItem.getUri())) {
+                if (!references.isInstanceOf(concernedItem.getUri(), Oeso.CONCEPT_SCIENTIFIC_OBJECT.toString())) {
                     dataOk = false;
                     checkStatus.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, 
                         "Unknown concerned item : " + concernedItem.getUri()));
                 }
-                if (!scientificObjectDao.existUri(concernedItem.getRdfType())) {
+                if (!references.exists(concernedItem.getRdfType())) {
                     dataOk = false;
                     checkStatus.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, 
                         "Unknown concerned item type : " + concernedItem.getUri()));
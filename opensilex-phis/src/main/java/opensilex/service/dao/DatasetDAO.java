@@ -30,6 +30,7 @@ import opensilex.service.PropertiesFileManager;
 import opensilex.service.configuration.DateFormats;
 import opensilex.service.dao.manager.MongoDAO;
 import opensilex.service.documentation.StatusCodeMsg;
+import opensilex.service.ontology.Oeso;
 import opensilex.service.resource.dto.AgronomicalDataDTO;
 import opensilex.service.resource.dto.DatasetDTO;
 import opensilex.service.utils.POSTResultsReturn;
@@ -289,21 +290,29 @@ public class DatasetDAO extends MongoDAO<Dataset> {
         ArrayList<Dataset> datasets = new ArrayList<>();
         boolean dataState = true;
         
+        // Resolve the scientific objects, sensors and variables of all datasets at once
+        ReferenceResolver references = new ReferenceResolver(sparql);
+        for (DatasetDTO datasetDTO : datasetsDTO) {
+            for (AgronomicalDataDTO data : datasetDTO.getData()) {
+                references.add(data.getAgronomicalObject());
+                references.add(data.getSensor());
+            }
+            references.add(datasetDTO.getVariableUri());
+        }
+        
         // check if data is valid
         for (DatasetDTO datasetDTO : datasetsDTO) {
             // if the datasetDTO follows the rules
             for (AgronomicalDataDTO data : datasetDTO.getData()) {
                 // does the scientific object exist?
-                ScientificObjectRdf4jDAO agronomicalObjectDao = new ScientificObjectRdf4jDAO(sparql);
-                if (!agronomicalObjectDao.existScientificObject(data.getAgronomicalObject())) {
+                if (!references.isInstanceOf(data.getAgronomicalObject(), Oeso.CONCEPT_SCIENTIFIC_OBJECT.toString())) {
                     dataState = false;
                     insertStatusList.add(new Status(StatusCodeMsg.DATA_ERROR, StatusCodeMsg.ERR, "Unknown Agronomical Object URI : " + data.getAgronomicalObject()));
                 }
 
                 // does the sensor exist?
                 if (data.getSensor() != null) {
-                    SensorDAO sensorDAO = new SensorDAO(sparql);
-                    if (!sensorDAO.existUri(data.getSensor())) {
+                    if (!references.exists(data.getSensor())) {
                         dataState = false;
                         insertStatusList.add(new Status(StatusCodeMsg.DATA_ERROR, StatusCodeMsg.ERR, "Unknown sensor : " + data.getSensor()));
                     }
@@ -311,8 +320,7 @@ public class DatasetDAO extends MongoDAO<Dataset> {
             }
 
             // does the variable exist? 
-            VariableDAO variableDao = new VariableDAO(sparql);
-            if (!variableDao.existUri(datasetDTO.getVariableUri())) {
+            if (!references.exists(datasetDTO.getVariableUri())) {
                 dataState = false;
                 insertStatusList.add(new Status(StatusCodeMsg.DATA_ERROR, StatusCodeMsg.ERR, "Unknown Variable : " + datasetDTO.getVariableUri()));
             }
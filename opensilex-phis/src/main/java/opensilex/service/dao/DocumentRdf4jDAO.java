@@ -29,7 +29,6 @@ import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
-import org.eclipse.rdf4j.query.Update;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -326,10 +325,8 @@ public class DocumentRdf4jDAO extends Rdf4jDAO<Document> {
 
                 try {
                     // transaction begining
-                    Update prepareUpdate = prepareRDF4JUpdateQuery(query);
-
-                    LOGGER.trace(getTraceabilityLogs() + " query : " + prepareUpdate.toString());
-                    prepareUpdate.execute();
+                    LOGGER.trace(getTraceabilityLogs() + " query : " + query.toString());
+                    executeRDF4JUpdateQuery(query);
 
                     createdResourcesURIs.add(documentName);
                 } catch (MalformedQueryException e) {
@@ -737,13 +734,11 @@ public class DocumentRdf4jDAO extends Rdf4jDAO<Document> {
             try {
                 // début de la transaction : vérification de la requête
                 if (deleteQuery != null) {
-                    Update prepareDelete = prepareRDF4JUpdateQuery(deleteQuery);
-                    LOGGER.debug(getTraceabilityLogs() + " query : " + prepareDelete.toString());
-                    prepareDelete.execute();
+                    LOGGER.debug(getTraceabilityLogs() + " query : " + deleteQuery.toString());
+                    executeRDF4JUpdateQuery(deleteQuery);
                 }
-                Update prepareUpdate = prepareRDF4JUpdateQuery(query);
-                LOGGER.debug(getTraceabilityLogs() + " query : " + prepareUpdate.toString());
-                prepareUpdate.execute();
+                LOGGER.debug(getTraceabilityLogs() + " query : " + query.toString());
+                executeRDF4JUpdateQuery(query);
                 updatedResourcesURIList.add(documentMetadata.getUri());
             } catch (MalformedQueryException e) {
                 LOGGER.error(e.getMessage(), e);
@@ -17,14 +17,19 @@ import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
 import com.mongodb.client.model.Sorts;
 import java.math.BigDecimal;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.ws.rs.core.Response;
 import opensilex.service.dao.exception.DAODataErrorAggregateException;
@@ -37,6 +42,7 @@ import opensilex.service.configuration.DateFormat;
 import opensilex.service.configuration.DateFormats;
 import opensilex.service.dao.manager.MongoDAO;
 import opensilex.service.documentation.StatusCodeMsg;
+import opensilex.service.ontology.Oeso;
 import opensilex.service.utils.POSTResultsReturn;
 import opensilex.service.view.brapi.Status;
 import opensilex.service.model.EnvironmentMeasure;
@@ -61,6 +67,24 @@ public class EnvironmentMeasureDAO extends MongoDAO<EnvironmentMeasure> {
     private final static String DB_FIELD_DATE = "date";
     private final static String DB_FIELD_VALUE = "value";
     
+    /**
+     * Export field name by environment measure document field, in export order.
+     */
+    public final static Map<String, String> EXPORT_FIELDS;
+    static {
+        Map<String, String> exportFields = new LinkedHashMap<>();
+        exportFields.put(DB_FIELD_SENSOR, "sensorUri");
+        exportFields.put(DB_FIELD_VARIABLE, "variableUri");
+        exportFields.put(DB_FIELD_DATE, "date");
+        exportFields.put(DB_FIELD_VALUE, "value");
+        EXPORT_FIELDS = Collections.unmodifiableMap(exportFields);
+    }
+    
+    /**
+     * Number of documents read by batch during an export.
+     */
+    private final static int EXPORT_BATCH_SIZE = 1000;
+    
     /**
      * Variable URI when querying for environment measures (required)
      * @example http://www.phenome-fppn.fr/diaphen/id/variable/ev000070
@@ -101,9 +125,10 @@ public class EnvironmentMeasureDAO extends MongoDAO<EnvironmentMeasure> {
 
         // Get the filter query
         BasicDBObject query = prepareSearchQuery();
+        boolean filtered = startDate != null || endDate != null || sensorUri != null;
         
         // Return the document count
-        return (int)environmentMeasureVariableCollection.count(query);
+        return (int)countDocuments(environmentMeasureVariableCollection, query, filtered);
     }
 
     /**
@@ -173,46 +198,59 @@ public class EnvironmentMeasureDAO extends MongoDAO<EnvironmentMeasure> {
         // Get the filter query
         BasicDBObject query = prepareSearchQuery();
         
-        // Get paginated documents
-        FindIterable<Document> measuresMongo = environmentMeasureVariableCollection.find(query);
-        
         //SILEX:info
         // Measures are always sort by date, either ascending or descending depending on dateSortAsc parameter
         // If dateSortAsc=true, sort by date ascending
         // If dateSortAsc=false, sort by date descending
         //\SILEX:info
-        if (dateSortAsc) {
-            measuresMongo = measuresMongo.sort(Sorts.ascending(DB_FIELD_DATE));
-        } else {
-            measuresMongo = measuresMongo.sort(Sorts.descending(DB_FIELD_DATE));
-        }
-        
-        // Define pagination for the request
-        measuresMongo = measuresMongo.skip(page * pageSize).limit(pageSize);
+        // Get paginated documents
+        List<Document> measuresDocuments = findPageByDate(environmentMeasureVariableCollection, query, DB_FIELD_DATE, dateSortAsc);
 
         ArrayList<EnvironmentMeasure> measures = new ArrayList<>();
         SimpleDateFormat df = new SimpleDateFormat(DateFormats.YMDHMSZ_FORMAT);
         
         // For each document, create a EnvironmentMeasure Instance and add it to the result list
-        try (MongoCursor<Document> measuresCursor = measuresMongo.iterator()) {
-            while (measuresCursor.hasNext()) {
-                Document measureDocument = measuresCursor.next();
-                
-                // Create and define the EnvironmentMeasure
-                EnvironmentMeasure measure = new EnvironmentMeasure();
-                measure.setVariableUri(variableUri);
-                measure.setDate(measureDocument.getDate(DB_FIELD_DATE));
-                measure.setValue(new BigDecimal(measureDocument.get(DB_FIELD_VALUE).toString()));
-                measure.setSensorUri(measureDocument.getString(DB_FIELD_SENSOR));
-                
-                // Add the measure to the list
-                measures.add(measure);
-            }
+        for (Document measureDocument : measuresDocuments) {
+            // Create and define the EnvironmentMeasure
+            EnvironmentMeasure measure = new EnvironmentMeasure();
+            measure.setVariableUri(variableUri);
+            measure.setDate(measureDocument.getDate(DB_FIELD_DATE));
+            measure.setValue(new BigDecimal(measureDocument.get(DB_FIELD_VALUE).toString()));
+            measure.setSensorUri(measureDocument.getString(DB_FIELD_SENSOR));
+            
+            // Add the measure to the list
+            measures.add(measure);
         }
         
         return measures;
     }
     
+    /**
+     * Returns all the environmental measures corresponding to the given parameters, sorted by date,
+     * without pagination, to be iterated while they are exported.
+     * Only the given document fields are read from the database.
+     * @param fields document fields to read
+     * @return measures documents
+     */
+    public FindIterable<Document> export(Collection<String> fields) {
+        // Get the collection corresponding to variable uri
+        String variableCollection = this.getEnvironmentCollectionFromVariable(variableUri);
+        MongoCollection<Document> environmentMeasureVariableCollection = database.getCollection(variableCollection);
+        
+        FindIterable<Document> measuresMongo = environmentMeasureVariableCollection.find(prepareSearchQuery())
+                .projection(Projections.fields(Projections.include(new ArrayList<>(fields)), Projections.excludeId()))
+                .batchSize(EXPORT_BATCH_SIZE);
+        
+        // Sort by date to use the date index
+        if (dateSortAsc) {
+            measuresMongo = measuresMongo.sort(Sorts.ascending(DB_FIELD_DATE));
+        } else {
+            measuresMongo = measuresMongo.sort(Sorts.descending(DB_FIELD_DATE));
+        }
+        
+        return measuresMongo;
+    }
+    
     /**
      * Checks the given list of environmental measures.
      * @param environmentMeasures
@@ -225,14 +263,25 @@ public class EnvironmentMeasureDAO extends MongoDAO<EnvironmentMeasure> {
         boolean dataOk = true;
         
         DeviceDAO deviceDAO = new DeviceDAO(sparql);
-        VariableDAO variableDAO = new VariableDAO(sparql);
+        // Resolve all referenced sensors and variables at once
+        ReferenceResolver references = new ReferenceResolver(sparql);
+        for (EnvironmentMeasure environmentMeasure : environmentMeasures) {
+            references.add(environmentMeasure.getSensorUri());
+            references.add(environmentMeasure.getVariableUri());
+        }
+        // Sensor and variable pairs already checked, with the check result
+        Map<String, Boolean> measuredVariables = new HashMap<>();
+        
         for (EnvironmentMeasure environmentMeasure : environmentMeasures) {
             //1. Check if the sensorUri exist and is a sensor
-            if (deviceDAO.existAndIsDevice(environmentMeasure.getSensorUri())) {
+            if (references.isInstanceOf(environmentMeasure.getSensorUri(), Oeso.CONCEPT_DEVICE.toString())) {
                 //2. Check if the variableUri exist and is a variable
-                if (variableDAO.existAndIsVariable(environmentMeasure.getVariableUri())) {
+                if (references.isInstanceOf(environmentMeasure.getVariableUri(), Oeso.CONCEPT_VARIABLE.toString())) {
                     //3. Check if the given sensor measures the given variable. 
-                    if (!deviceDAO.isDeviceMeasuringVariable(environmentMeasure.getSensorUri(), environmentMeasure.getVariableUri())) {
+                    boolean isMeasuringVariable = measuredVariables.computeIfAbsent(
+                            environmentMeasure.getSensorUri() + " " + environmentMeasure.getVariableUri(),
+                            (key) -> deviceDAO.isDeviceMeasuringVariable(environmentMeasure.getSensorUri(), environmentMeasure.getVariableUri()));
+                    if (!isMeasuringVariable) {
                         dataOk = false;
                         checkStatus.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, 
                             "The given sensor (" + environmentMeasure.getSensorUri() + ") "
@@ -330,7 +379,7 @@ public class EnvironmentMeasureDAO extends MongoDAO<EnvironmentMeasure> {
             environmentsToInsertByVariable.put(environmentMeasure.getVariableUri(), environmentsByVariable);
         });
 
-        //2. Create unique index on sensor/variable/date for each variable collection
+        //2. Create unique index on sensor/variable/date and (date, _id) pagination index for each variable collection
         //   Mongo won't create index if it already exists
         Bson indexFields = Indexes.ascending(
             DB_FIELD_DATE,
@@ -339,8 +388,9 @@ public class EnvironmentMeasureDAO extends MongoDAO<EnvironmentMeasure> {
         );
         IndexOptions indexOptions = new IndexOptions().unique(true);
         environmentsToInsertByVariable.keySet().forEach((variableUri) -> {
-            database.getCollection(getEnvironmentCollectionFromVariable(variableUri))
-                    .createIndex(indexFields, indexOptions);
+            MongoCollection<Document> variableCollection = database.getCollection(getEnvironmentCollectionFromVariable(variableUri));
+            variableCollection.createIndex(indexFields, indexOptions);
+            createDateIdIndex(variableCollection, DB_FIELD_DATE);
         });
         
         //3. Insert all the environment measures
@@ -27,7 +27,6 @@ import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
-import org.eclipse.rdf4j.query.Update;
 import org.eclipse.rdf4j.query.UpdateExecutionException;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.slf4j.Logger;
@@ -506,24 +505,37 @@ public class EventDAO extends Rdf4jDAO<Event> {
                 = new ConcernedItemDAO(sparql, user, Contexts.EVENTS.toString(), Oeev.concerns.getURI());
         PropertyDAO propertyDao = new PropertyDAO(sparql);
         AnnotationDAO annotationDao = new AnnotationDAO(sparql);
+        
+        // Resolve all referenced events, types, concerned items and motivations at once
+        ReferenceResolver references = new ReferenceResolver(sparql);
+        for (Event event : events) {
+            references.add(event.getUri());
+            references.add(event.getType());
+            if (event.getConcernedItems() != null) {
+                event.getConcernedItems().forEach((concernedItem) -> references.add(concernedItem.getUri()));
+            }
+            if (event.getAnnotations() != null) {
+                event.getAnnotations().forEach((annotation) -> references.add(annotation.getMotivatedBy()));
+            }
+        }
         try {
             for (Event event : events) {
 
                 // Check the event URI if given (in case of an update)
                 if (event.getUri() != null) {
-                    if (!existUri(event.getUri())) {
+                    if (!references.exists(event.getUri())) {
                         exceptions.add(new UnknownUriException(event.getUri(), "the event"));
                     }
                 }
 
                 // Check Type
-                if (!existUri(event.getType())) {
+                if (!references.exists(event.getType())) {
                     exceptions.add(new UnknownUriException(event.getType(), "the event type"));
                 }
 
                 // Check concerned items
                 try {
-                    concernedItemDao.validate(event.getConcernedItems());
+                    concernedItemDao.validate(event.getConcernedItems(), references);
                 } catch (DAODataErrorAggregateException ex) {
                     exceptions.addAll(ex.getExceptions());
                 }
@@ -537,7 +549,7 @@ public class EventDAO extends Rdf4jDAO<Event> {
 
                 // Check annotations
                 try {
-                    annotationDao.validate(event.getAnnotations());
+                    annotationDao.validate(event.getAnnotations(), references);
                 } catch (DAODataErrorAggregateException ex) {
                     exceptions.addAll(ex.getExceptions());
                 }
@@ -699,8 +711,7 @@ public class EventDAO extends Rdf4jDAO<Event> {
 
             UpdateBuilder deleteEventQuery = deleteEventTriples(eventUri);
             
-            Update deleteEventUpdate = prepareRDF4JUpdateQuery(deleteEventQuery);
-            deleteEventUpdate.execute();
+            executeRDF4JUpdateQuery(deleteEventQuery);
 
             if (!annotationUris.isEmpty()) {
                 annotationDAO.deleteAll(annotationUris);
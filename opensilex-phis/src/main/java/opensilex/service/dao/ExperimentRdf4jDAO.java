@@ -24,7 +24,6 @@ import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
-import org.eclipse.rdf4j.query.Update;
 import org.eclipse.rdf4j.query.UpdateExecutionException;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.slf4j.Logger;
@@ -222,9 +221,8 @@ public class ExperimentRdf4jDAO extends Rdf4jDAO<Experiment> {
             LOGGER.debug(SPARQL_QUERY + updateRequest.toString());
 
             //Insert the properties in the triplestore
-            Update prepareUpdate = prepareRDF4JUpdateQuery(updateRequest);
             try {
-                prepareUpdate.execute();
+                executeRDF4JUpdateQuery(updateRequest);
             } catch (UpdateExecutionException ex) {
                 LOGGER.error("Add object properties error : " + ex.getMessage());
                 return false;
@@ -264,9 +262,8 @@ public class ExperimentRdf4jDAO extends Rdf4jDAO<Experiment> {
             LOGGER.debug("delete : " + delete.toString());
 
             //2. Delete data in the triplestore
-            Update prepareDelete = prepareRDF4JUpdateQuery(delete);
             try {
-                prepareDelete.execute();
+                executeRDF4JUpdateQuery(delete);
             } catch (UpdateExecutionException ex) {
                 LOGGER.error("Delete object properties error : " + ex.getMessage());
                 return false;
@@ -369,8 +366,7 @@ public class ExperimentRdf4jDAO extends Rdf4jDAO<Experiment> {
             UpdateRequest query = prepareInsertQuery(experiment);
             
             try {
-                Update prepareUpdate = prepareRDF4JUpdateQuery(query);
-                prepareUpdate.execute();
+                executeRDF4JUpdateQuery(query);
 
                 createdResourcesUris.add(experiment.getUri());
             } catch (RepositoryException ex) {
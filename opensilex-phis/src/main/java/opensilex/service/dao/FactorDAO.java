@@ -52,7 +52,6 @@ import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
-import org.eclipse.rdf4j.query.Update;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.opensilex.sparql.service.SPARQLService;
 import org.slf4j.LoggerFactory;
@@ -390,9 +389,8 @@ public class FactorDAO extends Rdf4jDAO<Factor> {
             try {
                 //SILEX:todo
                 // Connection to review. Dirty hotfix.
-                Update prepareUpdate = prepareRDF4JUpdateQuery(spqlInsert);
-                LOGGER.trace(getTraceabilityLogs() + " query : " + prepareUpdate.toString());
-                prepareUpdate.execute();
+                LOGGER.trace(getTraceabilityLogs() + " query : " + spqlInsert.toString());
+                executeRDF4JUpdateQuery(spqlInsert);
                 //\SILEX:todo
 
                 createdResourcesURI.add(factorDTO.getUri());
@@ -252,7 +252,7 @@ public class FileDescriptionDAO extends MongoDAO<FileDescription> {
      *         false in case of errors
      */
     public POSTResultsReturn checkAndInsert(FileDescription fileDescription, File file, FileStorageService fs) {
-        POSTResultsReturn checkResult = check(fileDescription);
+        POSTResultsReturn checkResult = check(fileDescription, new ReferenceResolver(sparql));
         if (checkResult.getDataState()) {
             return insert(fileDescription, file, fs);
         } else { //Errors in the data
@@ -268,8 +268,15 @@ public class FileDescriptionDAO extends MongoDAO<FileDescription> {
     private POSTResultsReturn checkList(List<FileDescription> fileDescriptions) {
         boolean dataOk = true;
         List<Status> checkStatus = new ArrayList<>();
+        
+        // Resolve the references of all file descriptions at once
+        ReferenceResolver references = new ReferenceResolver(sparql);
+        for (FileDescription fileDescription : fileDescriptions) {
+            addReferences(fileDescription, references);
+        }
+        
         for (FileDescription fileDescription : fileDescriptions) {
-            POSTResultsReturn check = check(fileDescription);
+            POSTResultsReturn check = check(fileDescription, references);
             if (!check.getDataState()) {
                 checkStatus.addAll(check.getStatusList());
                 dataOk = false;
@@ -385,42 +392,55 @@ public class FileDescriptionDAO extends MongoDAO<FileDescription> {
         }
     }
     
+    /**
+     * Registers the references of a data file description to resolve.
+     * @param fileDescription
+     * @param references
+     */
+    private static void addReferences(FileDescription fileDescription, ReferenceResolver references) {
+        references.addProvenance(fileDescription.getProvenanceUri());
+        references.add(fileDescription.getRdfType());
+        for (ConcernedItem concernedItem : fileDescription.getConcernedItems()) {
+            references.add(concernedItem.getUri());
+            references.add(concernedItem.getRdfType());
+        }
+    }
+    
     /**
      * Checks the given data file description.
      * @param fileDescription
+     * @param references references resolver of the current request
      * @return the check result with the founded errors
      */
-    private POSTResultsReturn check(FileDescription fileDescription) {
+    private POSTResultsReturn check(FileDescription fileDescription, ReferenceResolver references) {
         POSTResultsReturn checkResult;
         List<Status> checkStatus = new ArrayList<>();
 
         boolean dataOk = true;
 
-        ProvenanceDAO provenanceDAO = new ProvenanceDAO(sparql);
-        ScientificObjectRdf4jDAO scientificObjectDao = new ScientificObjectRdf4jDAO(sparql);
+        addReferences(fileDescription, references);
         
         // 1. Check if the provenance uri exist and is a provenance
-        if (!provenanceDAO.existProvenanceUri(fileDescription.getProvenanceUri())) {
+        if (!references.existsProvenance(fileDescription.getProvenanceUri())) {
             dataOk = false;
             checkStatus.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, 
                 "Unknwon provenance : " + fileDescription.getProvenanceUri()));
         } 
         
-        // 2. Check if the rdf type uri exist, 
-        // we use scientificObjectDao for convenience to access existUri method        
-        if (!scientificObjectDao.existUri(fileDescription.getRdfType())) {
+        // 2. Check if the rdf type uri exist
+        if (!references.exists(fileDescription.getRdfType())) {
             dataOk = false;
             checkStatus.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, 
                 "Unknwon file rdf type : " + fileDescription.getRdfType()));
         } 
         // 3. Check concerned items consistency
         for (ConcernedItem concernedItem : fileDescription.getConcernedItems()) {
-            if (!scientificObjectDao.existScientificObject(concernedItem.getUri())) {
+            if (!references.isInstanceOf(concernedItem.getUri(), Oeso.CONCEPT_SCIENTIFIC_OBJECT.toString())) {
                 dataOk = false;
                 checkStatus.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, 
                     "Unknwon concerned item : " + concernedItem.getUri()));
             }
-            if (!scientificObjectDao.existUri(concernedItem.getRdfType())) {
+            if (!references.exists(concernedItem.getRdfType())) {
                 dataOk = false;
                 checkStatus.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, 
                     "Unknwon concerned item type : " + concernedItem.getUri()));
@@ -50,7 +50,6 @@ import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.BooleanQuery;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
-import org.eclipse.rdf4j.query.Update;
 import org.opensilex.sparql.service.SPARQLService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -307,8 +306,7 @@ public class GermplasmDAO extends Rdf4jDAO<Germplasm> {
             }
 
             UpdateRequest query = prepareInsertQuery(germplasm);
-            Update prepareUpdate = prepareRDF4JUpdateQuery(query);
-            prepareUpdate.execute();
+            executeRDF4JUpdateQuery(query);
 
             createdResourcesUri.add(germplasm.getUri());
         }
@@ -32,6 +32,7 @@ import opensilex.service.configuration.DateFormats;
 import opensilex.service.dao.manager.MongoDAO;
 import opensilex.service.documentation.StatusCodeMsg;
 import opensilex.service.ontology.Contexts;
+import opensilex.service.ontology.Oeso;
 import opensilex.service.resource.dto.ConcernedItemDTO;
 import opensilex.service.resource.dto.ImageMetadataDTO;
 import opensilex.service.utils.POSTResultsReturn;
@@ -228,25 +229,31 @@ public class ImageMetadataMongoDAO extends MongoDAO<ImageMetadata> {
         
         boolean dataOk = true;
         
+        // Resolve the image types, concerned items and sensors of all images at once
+        ReferenceResolver references = new ReferenceResolver(sparql);
+        for (ImageMetadataDTO imageMetadata : imagesMetadata) {
+            references.add(imageMetadata.getRdfType());
+            imageMetadata.getConcernedItems().forEach((concernedItem) -> references.add(concernedItem.getUri()));
+            references.add(imageMetadata.getConfiguration().getSensor());
+        }
+        
         for (ImageMetadataDTO imageMetadata : imagesMetadata) {
             //1. Check if the image type exist
-            ImageMetadataRdf4jDAO imageMetadataRdf4jDao = new opensilex.service.dao.ImageMetadataRdf4jDAO(sparql);
-            if (!imageMetadataRdf4jDao.existUri(imageMetadata.getRdfType())) {
+            if (!references.exists(imageMetadata.getRdfType())) {
                 dataOk = false;
                 checkStatusList.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, "Wrong image type given : " + imageMetadata.getRdfType()));
             }
 
             //2. Check if the concerned items exist in the triplestore
             for (ConcernedItemDTO concernedItem : imageMetadata.getConcernedItems()) {
-                if (!imageMetadataRdf4jDao.existUri(concernedItem.getUri())) {
+                if (!references.exists(concernedItem.getUri())) {
                     dataOk = false;
                     checkStatusList.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, "Unknown concerned item given : " + concernedItem.getUri()));
                 }
             }
 
             //3. Check if the sensor exist
-            SensorDAO sensorDAO = new SensorDAO(sparql);
-            if (!sensorDAO.existAndIsSensor(imageMetadata.getConfiguration().getSensor())) {
+            if (!references.isInstanceOf(imageMetadata.getConfiguration().getSensor(), Oeso.CONCEPT_SENSING_DEVICE.toString())) {
                 dataOk = false;
                 checkStatusList.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, "Unknown sensor given : " + imageMetadata.getConfiguration().getSensor()));
             }
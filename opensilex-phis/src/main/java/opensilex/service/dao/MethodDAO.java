@@ -293,9 +293,8 @@ public class MethodDAO extends Rdf4jDAO<Method> {
                 //SILEX:todo
                 // Review the connection to the triplestore
                 // Dirty hotfix
-                Update prepareUpdate = prepareRDF4JUpdateQuery(spqlInsert);
-                LOGGER.debug(getTraceabilityLogs() + " query : " + prepareUpdate.toString());
-                prepareUpdate.execute();
+                LOGGER.debug(getTraceabilityLogs() + " query : " + spqlInsert.toString());
+                executeRDF4JUpdateQuery(spqlInsert);
                 //\SILEX:todo
 
                 createdResourcesURI.add(methodDTO.getUri());
@@ -476,12 +475,10 @@ public class MethodDAO extends Rdf4jDAO<Method> {
                 UpdateRequest queryInsert = prepareInsertQuery(methodDTO);
                 try {
                     // transaction beginning: request check
-                    Update prepareDelete = prepareRDF4JUpdateQuery(deleteQuery);
-                    LOGGER.trace(getTraceabilityLogs() + " query : " + prepareDelete.toString());
-                    prepareDelete.execute();
-                    Update prepareUpdate = prepareRDF4JUpdateQuery(queryInsert);
-                    LOGGER.trace(getTraceabilityLogs() + " query : " + prepareUpdate.toString());
-                    prepareUpdate.execute();
+                    LOGGER.trace(getTraceabilityLogs() + " query : " + deleteQuery.toString());
+                    executeRDF4JUpdateQuery(deleteQuery);
+                    LOGGER.trace(getTraceabilityLogs() + " query : " + queryInsert.toString());
+                    executeRDF4JUpdateQuery(queryInsert);
 
                     updatedResourcesURIList.add(methodDTO.getUri());
                 } catch (MalformedQueryException e) {
@@ -14,12 +14,18 @@ import com.mongodb.client.ClientSession;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 import javax.ws.rs.core.Response;
 import opensilex.service.dao.exception.DAODataErrorAggregateException;
@@ -33,6 +39,7 @@ import opensilex.service.PropertiesFileManager;
 import opensilex.service.dao.manager.MongoDAO;
 import opensilex.service.documentation.StatusCodeMsg;
 import opensilex.service.ontology.Oeso;
+import opensilex.service.utils.LabelCache;
 import opensilex.service.utils.POSTResultsReturn;
 import opensilex.service.utils.UriGenerator;
 import opensilex.service.view.brapi.Status;
@@ -257,6 +264,32 @@ public class ProvenanceDAO extends MongoDAO<Provenance> {
         return numberOfProvenancesCorresponding > 0;
     }
     
+    /**
+     * Returns the given provenances URIs which exist, with a single query.
+     * @param uris
+     * @example
+     * { "uri" : { "$in" : [ "http://www.opensilex.org/opensilex/id/provenance/1551805521606", ... ] } }
+     * @return existing provenances URIs
+     */
+    public Set<String> findExistingProvenanceUris(Collection<String> uris) {
+        Set<String> existingUris = new HashSet<>();
+        if (uris.isEmpty()) {
+            return existingUris;
+        }
+        
+        MongoCollection<Document> provenanceCollection = database.getCollection(provenanceCollectionName);
+        Bson query = Filters.in(DB_FIELD_URI, uris);
+        LOGGER.debug(query.toString());
+        
+        try (MongoCursor<Document> cursor = provenanceCollection.find(query).projection(Projections.include(DB_FIELD_URI)).iterator()) {
+            while (cursor.hasNext()) {
+                existingUris.add(cursor.next().getString(DB_FIELD_URI));
+            }
+        }
+        
+        return existingUris;
+    }
+    
     /**
      * Checks the given provenance.
      * @param provenances
@@ -267,9 +300,13 @@ public class ProvenanceDAO extends MongoDAO<Provenance> {
         List<Status> checkStatus = new ArrayList<>();
         
         boolean dataOk = true;
+        Set<String> existingProvenanceUris = new HashSet<>();
+        List<String> provenanceUris = new ArrayList<>();
+        provenances.forEach((provenance) -> provenanceUris.add(provenance.getUri()));
+        existingProvenanceUris.addAll(findExistingProvenanceUris(provenanceUris));
         for (Provenance provenance : provenances) {
             //Check if the provenance uri exist.
-            if (!existProvenanceUri(provenance.getUri())) {
+            if (!existingProvenanceUris.contains(provenance.getUri())) {
                 dataOk = false;
                 checkStatus.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, 
                     "The given provenance uri (" + provenance.getUri()+ ") does not exist"));
@@ -367,6 +404,7 @@ public class ProvenanceDAO extends MongoDAO<Provenance> {
         if (!error) {
             // If no errors commit transaction
             session.commitTransaction();
+            updatedResources.forEach(LabelCache.PROVENANCES::invalidate);
             result.setHttpStatus(Response.Status.CREATED);
             result.createdResources = updatedResources;
         } else {
@@ -488,6 +526,46 @@ public class ProvenanceDAO extends MongoDAO<Provenance> {
         }
     }
 
+    /**
+     * Get the labels of the given provenances, with the shared labels cache and a single query for uncached provenances.
+     * @param uris
+     * @example
+     * { "uri" : { "$in" : [ "http://www.opensilex.org/opensilex/id/provenance/1551805521606", ... ] } }
+     * @return the label by provenance URI, unknown provenances are not returned
+     */
+    public Map<String, String> findLabelsByUris(Collection<String> uris) {
+        Set<String> uniqueUris = new HashSet<>(uris);
+        uniqueUris.remove(null);
+        
+        Map<String, String> labels = new HashMap<>();
+        LabelCache.PROVENANCES.getAll(uniqueUris, null).forEach((uri, uriLabels) -> {
+            labels.put(uri, uriLabels.get(0));
+        });
+        uniqueUris.removeAll(labels.keySet());
+        if (uniqueUris.isEmpty()) {
+            return labels;
+        }
+        
+        MongoCollection<Document> provenanceCollection = database.getCollection(provenanceCollectionName);
+        Bson query = Filters.in(DB_FIELD_URI, uniqueUris);
+        LOGGER.debug(query.toString());
+        
+        Map<String, List<String>> foundLabels = new HashMap<>();
+        try (MongoCursor<Document> cursor = provenanceCollection.find(query).projection(Projections.include(DB_FIELD_URI, DB_FIELD_LABEL)).iterator()) {
+            while (cursor.hasNext()) {
+                Document provenanceDocument = cursor.next();
+                String label = provenanceDocument.getString(DB_FIELD_LABEL);
+                labels.put(provenanceDocument.getString(DB_FIELD_URI), label);
+                if (label != null) {
+                    foundLabels.put(provenanceDocument.getString(DB_FIELD_URI), Collections.singletonList(label));
+                }
+            }
+        }
+        LabelCache.PROVENANCES.putAll(foundLabels, null);
+        
+        return labels;
+    }
+
     @Override
     public List<Provenance> create(List<Provenance> objects) throws DAOPersistenceException, Exception {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
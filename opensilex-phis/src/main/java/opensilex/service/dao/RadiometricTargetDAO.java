@@ -26,7 +26,6 @@ import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
-import org.eclipse.rdf4j.query.Update;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -309,8 +308,7 @@ public class RadiometricTargetDAO extends Rdf4jDAO<RadiometricTarget> {
             UpdateRequest query = prepareInsertQuery(radiometricTarget);
             
             try {
-                Update prepareUpdate = prepareRDF4JUpdateQuery(query);
-                prepareUpdate.execute();
+                executeRDF4JUpdateQuery(query);
 
                 createdResourcesUris.add(radiometricTarget.getUri());
             } catch (RepositoryException ex) {
@@ -514,10 +512,8 @@ public class RadiometricTargetDAO extends Rdf4jDAO<RadiometricTarget> {
                 //\SILEX:info
                 UpdateRequest insertQuery = prepareInsertQuery(radiometricTarget);            
                 try {
-                    Update prepareDelete = prepareRDF4JUpdateQuery(deleteQuery);
-                    Update prepareUpdate = prepareRDF4JUpdateQuery(insertQuery);
-                    prepareDelete.execute();
-                    prepareUpdate.execute();
+                    executeRDF4JUpdateQuery(deleteQuery);
+                    executeRDF4JUpdateQuery(insertQuery);
                     updatedResourcesUri.add(radiometricTarget.getUri());
                 } catch (MalformedQueryException e) {
                     LOGGER.error(e.getMessage(), e);
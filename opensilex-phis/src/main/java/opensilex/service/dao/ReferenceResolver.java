@@ -0,0 +1,275 @@
+//******************************************************************************
+//                            ReferenceResolver.java
+// SILEX-PHIS
+// Copyright © INRA 2019
+// Creation date: 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package opensilex.service.dao;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import opensilex.service.ontology.Rdf;
+import org.apache.jena.graph.NodeFactory;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.opensilex.sparql.exceptions.SPARQLException;
+import org.opensilex.sparql.service.SPARQLService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolver of URIs referenced by a batch of items to validate.
+ * <pre>
+ * A resolver is created for one validation request and shared by all the validators it calls.
+ * Referenced URIs are deduplicated and resolved in bulk:
+ * - existence and rdf:type of all URIs with one VALUES query,
+ * - subclass relations with the class hierarchy index of the SPARQL service,
+ * - provenances existence with one MongoDB $in query.
+ * URIs may be registered before the checks with the add methods, otherwise they are resolved on first use.
+ * </pre>
+ * @see ScientificObjectRdf4jDAO#check(java.util.List)
+ * @see DataDAO
+ * @see EventDAO#validate(java.util.List)
+ * @author Vincent Migot
+ */
+public class ReferenceResolver {
+
+    final static Logger LOGGER = LoggerFactory.getLogger(ReferenceResolver.class);
+
+    /**
+     * Maximum number of URIs by VALUES clause.
+     */
+    private static final int VALUES_BATCH_SIZE = 1000;
+
+    private static final String URI = "uri";
+    private static final String RDF_TYPE = "rdfType";
+
+    private final SPARQLService sparql;
+
+    /**
+     * URIs registered and not yet resolved.
+     */
+    private final Set<String> pendingUris = new LinkedHashSet<>();
+
+    /**
+     * Types of resolved existing URIs, resolved URIs not in this map do not exist.
+     */
+    private final Map<String, Set<String>> typesByUri = new HashMap<>();
+
+    private final Set<String> resolvedUris = new HashSet<>();
+
+    private final Set<String> pendingProvenanceUris = new LinkedHashSet<>();
+
+    private final Set<String> existingProvenanceUris = new HashSet<>();
+
+    private final Set<String> resolvedProvenanceUris = new HashSet<>();
+
+    public ReferenceResolver(SPARQLService sparql) {
+        this.sparql = sparql;
+    }
+
+    /**
+     * Registers an URI to resolve with the next bulk query.
+     * @param uri
+     * @return this resolver
+     */
+    public ReferenceResolver add(String uri) {
+        if (uri != null && !resolvedUris.contains(uri)) {
+            pendingUris.add(uri);
+        }
+        return this;
+    }
+
+    /**
+     * Registers URIs to resolve with the next bulk query.
+     * @param uris
+     * @return this resolver
+     */
+    public ReferenceResolver addAll(Collection<String> uris) {
+        uris.forEach(this::add);
+        return this;
+    }
+
+    /**
+     * Registers a provenance URI to resolve with the next bulk query.
+     * @param uri
+     * @return this resolver
+     */
+    public ReferenceResolver addProvenance(String uri) {
+        if (uri != null && !resolvedProvenanceUris.contains(uri)) {
+            pendingProvenanceUris.add(uri);
+        }
+        return this;
+    }
+
+    /**
+     * Checks if an URI exists in the triplestore, as subject, predicate or object.
+     * @param uri
+     * @return true if the URI exists
+     */
+    public boolean exists(String uri) {
+        if (uri == null) {
+            return false;
+        }
+        resolve(uri);
+        return typesByUri.containsKey(uri);
+    }
+
+    /**
+     * Gets the rdf:type values of an URI.
+     * @param uri
+     * @return the URI types, empty if it does not exist or has no type
+     */
+    public Set<String> getTypes(String uri) {
+        if (uri == null) {
+            return Collections.emptySet();
+        }
+        resolve(uri);
+        return typesByUri.getOrDefault(uri, Collections.emptySet());
+    }
+
+    /**
+     * Checks if an URI exists and one of its types is a subclass of the given class.
+     * @param uri
+     * @param rdfType
+     * @return true if the URI is an instance of rdfType or one of its subclasses
+     */
+    public boolean isInstanceOf(String uri, String rdfType) {
+        for (String type : getTypes(uri)) {
+            if (isSubClassOf(type, rdfType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a type is the given class or one of its subclasses.
+     * The check uses the class hierarchy index of the SPARQL service, without query once it is loaded.
+     * @param type
+     * @param rdfType
+     * @return true if type is rdfs:subClassOf* rdfType
+     */
+    public boolean isSubClassOf(String type, String rdfType) {
+        if (type == null || rdfType == null) {
+            return false;
+        }
+
+        try {
+            return sparql.isSubClassOf(NodeFactory.createURI(type), NodeFactory.createURI(rdfType));
+        } catch (SPARQLException ex) {
+            throw new QueryEvaluationException(ex);
+        }
+    }
+
+    /**
+     * Checks if a provenance exists.
+     * @param uri
+     * @return true if the provenance exists
+     */
+    public boolean existsProvenance(String uri) {
+        if (uri == null) {
+            return false;
+        }
+        addProvenance(uri);
+        if (!pendingProvenanceUris.isEmpty()) {
+            ProvenanceDAO provenanceDAO = new ProvenanceDAO(sparql);
+            existingProvenanceUris.addAll(provenanceDAO.findExistingProvenanceUris(pendingProvenanceUris));
+            resolvedProvenanceUris.addAll(pendingProvenanceUris);
+            pendingProvenanceUris.clear();
+        }
+        return existingProvenanceUris.contains(uri);
+    }
+
+    /**
+     * Resolves the given URI with all pending ones if it is not yet resolved.
+     * @param uri
+     */
+    private void resolve(String uri) {
+        if (resolvedUris.contains(uri)) {
+            return;
+        }
+        pendingUris.add(uri);
+
+        // Invalid URIs do not exist and would make the whole batch query fail
+        for (Iterator<String> iterator = pendingUris.iterator(); iterator.hasNext();) {
+            String pendingUri = iterator.next();
+            if (!isAbsoluteUri(pendingUri)) {
+                resolvedUris.add(pendingUri);
+                iterator.remove();
+            }
+        }
+
+        for (List<String> batch : partition(pendingUris)) {
+            String query = "SELECT ?" + URI + " ?" + RDF_TYPE + " WHERE {\n"
+                    + "  VALUES ?" + URI + " { " + toValues(batch) + " }\n"
+                    + "  FILTER (EXISTS { ?" + URI + " ?p ?o } || EXISTS { ?s ?" + URI + " ?o } || EXISTS { ?s ?p ?" + URI + " })\n"
+                    + "  OPTIONAL { ?" + URI + " <" + Rdf.RELATION_TYPE.toString() + "> ?" + RDF_TYPE + " }\n"
+                    + "}";
+            evaluate(query, (BindingSet bindingSet) -> {
+                Set<String> types = typesByUri.computeIfAbsent(bindingSet.getValue(URI).stringValue(), (key) -> new HashSet<>());
+                Value type = bindingSet.getValue(RDF_TYPE);
+                if (type != null) {
+                    types.add(type.stringValue());
+                }
+            });
+            resolvedUris.addAll(batch);
+        }
+        pendingUris.clear();
+    }
+
+    private static boolean isAbsoluteUri(String uri) {
+        try {
+            return new java.net.URI(uri).isAbsolute();
+        } catch (URISyntaxException ex) {
+            return false;
+        }
+    }
+
+    private void evaluate(String query, Consumer<BindingSet> handler) {
+        LOGGER.debug(query);
+        try (TupleQueryResult result = sparql.getRepositoryConnection().prepareTupleQuery(QueryLanguage.SPARQL, query).evaluate()) {
+            while (result.hasNext()) {
+                handler.accept(result.next());
+            }
+        }
+    }
+
+    private static List<List<String>> partition(Collection<String> uris) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> batch = new ArrayList<>(Math.min(uris.size(), VALUES_BATCH_SIZE));
+        for (String uri : uris) {
+            batch.add(uri);
+            if (batch.size() == VALUES_BATCH_SIZE) {
+                batches.add(batch);
+                batch = new ArrayList<>(VALUES_BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private static String toValues(List<String> uris) {
+        StringBuilder values = new StringBuilder();
+        for (String uri : uris) {
+            values.append('<').append(uri).append("> ");
+        }
+        return values.toString();
+    }
+}
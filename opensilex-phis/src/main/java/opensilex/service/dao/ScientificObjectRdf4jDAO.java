@@ -56,7 +56,6 @@ import opensilex.service.utils.sparql.SPARQLQueryBuilder;
 import opensilex.service.view.brapi.Status;
 import opensilex.service.model.ScientificObject;
 import opensilex.service.model.Property;
-import opensilex.service.model.Uri;
 import static org.apache.jena.arq.querybuilder.AbstractQueryBuilder.makeVar;
 import org.apache.jena.arq.querybuilder.ExprFactory;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
@@ -216,45 +215,36 @@ public class ScientificObjectRdf4jDAO extends Rdf4jDAO<ScientificObject> {
         //Returned status list
         List<Status> checkStatusList = new ArrayList<>();
 
-        //Caches
-        List<String> scientificObjectTypesCache = new ArrayList<>();
-        List<String> isPartOfCache = new ArrayList<>();
-        List<String> propertyUriCache = new ArrayList<>();
+        //Resolve all referenced URIs at once
+        ReferenceResolver references = new ReferenceResolver(sparql);
+        for (ScientificObject scientificObject : scientificObjects) {
+            references.add(scientificObject.getIsPartOf());
+            for (Property property : scientificObject.getProperties()) {
+                references.add(property.getRelation());
+                if (property.getRelation().equals(Oeso.RELATION_HAS_GERMPLASM.toString())) {
+                    references.add(property.getValue());
+                }
+            }
+        }
 
         boolean dataOk = true;
         for (ScientificObject scientificObject : scientificObjects) {
             //Check if the types are present in the ontology
-            UriDAO uriDao = new UriDAO(sparql);
-
-            if (!scientificObjectTypesCache.contains(scientificObject.getRdfType())) {
-                if (!uriDao.isSubClassOf(scientificObject.getRdfType(), Oeso.CONCEPT_SCIENTIFIC_OBJECT.toString())) {
-                    dataOk = false;
-                    checkStatusList.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, "Wrong scientific object type value. See ontology"));
-                } else {
-                    scientificObjectTypesCache.add(scientificObject.getRdfType());
-                }
+            if (!references.isSubClassOf(scientificObject.getRdfType(), Oeso.CONCEPT_SCIENTIFIC_OBJECT.toString())) {
+                dataOk = false;
+                checkStatusList.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, "Wrong scientific object type value. See ontology"));
             }
 
             //Check if the uri of the isPartOf object exists
             if (scientificObject.getIsPartOf() != null) {
                 String isPartOfUri = scientificObject.getIsPartOf();
-                //the part of uri is not in the cache
-                if (!isPartOfCache.contains(isPartOfUri)) {
-                    //the part of uri doesn't exist
-                    if (!existUri(isPartOfUri)) {
-                        dataOk = false;
-                        checkStatusList.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, "unknown is part of uri"));
-                    } else {
-                        //1. Get isPartOf object type
-                        uriDao.uri = isPartOfUri;
-                        ArrayList<Uri> typesResult = uriDao.getAskTypeAnswer();
-                        if (!uriDao.isSubClassOf(typesResult.get(0).getRdfType(), Oeso.CONCEPT_SCIENTIFIC_OBJECT.toString())) {
-                            dataOk = false;
-                            checkStatusList.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, "is part of object type is not scientific object"));
-                        } else {
-                            isPartOfCache.add(uriDao.uri);
-                        }
-                    }
+                //the part of uri doesn't exist
+                if (!references.exists(isPartOfUri)) {
+                    dataOk = false;
+                    checkStatusList.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, "unknown is part of uri"));
+                } else if (!references.isInstanceOf(isPartOfUri, Oeso.CONCEPT_SCIENTIFIC_OBJECT.toString())) {
+                    dataOk = false;
+                    checkStatusList.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, "is part of object type is not scientific object"));
                 }
             }
 
@@ -280,10 +270,8 @@ public class ScientificObjectRdf4jDAO extends Rdf4jDAO<ScientificObject> {
                 //Check if the given germplasm exists
                 if (property.getRelation().equals(Oeso.RELATION_HAS_GERMPLASM.toString())) {
                     if (property.getRdfType() != null) {
-                        org.opensilex.core.germplasm.dal.GermplasmDAO germplasmDAO = new org.opensilex.core.germplasm.dal.GermplasmDAO(sparql);
-                        GermplasmModel germplasm = germplasmDAO.get(new URI(property.getValue()));
-                        if (germplasm != null) {
-                            if (!germplasm.getType().toString().equals(property.getRdfType())) {
+                        if (references.isInstanceOf(property.getValue(), Oeso.CONCEPT_GERMPLASM.toString())) {
+                            if (!references.getTypes(property.getValue()).contains(property.getRdfType())) {
                                 dataOk = false;
                                 checkStatusList.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, "The given germplasm doesn't correspond to the given rdfType"));
                             }
@@ -299,13 +287,9 @@ public class ScientificObjectRdf4jDAO extends Rdf4jDAO<ScientificObject> {
                 }
 
                 //Check if property exists in the ontology Vocabulary --> see how to check rdfs
-                if (!propertyUriCache.contains(property.getRelation())) {
-                    if (existUri(property.getRelation()) == false) {
-                        dataOk = false;
-                        checkStatusList.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, "the property relation " + property.getRelation() + " doesn't exist in the ontology"));
-                    } else {
-                        propertyUriCache.add(property.getRelation());
-                    }
+                if (!references.exists(property.getRelation())) {
+                    dataOk = false;
+                    checkStatusList.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, "the property relation " + property.getRelation() + " doesn't exist in the ontology"));
                 }
             }
 
@@ -953,9 +937,9 @@ public class ScientificObjectRdf4jDAO extends Rdf4jDAO<ScientificObject> {
             }
         }
 
-        Update prepareUpdate = prepareRDF4JUpdateQuery(spql.buildRequest());
-        LOGGER.debug(getTraceabilityLogs() + SPARQL_QUERY + prepareUpdate.toString());
-        prepareUpdate.execute();
+        UpdateRequest insertQuery = spql.buildRequest();
+        LOGGER.debug(getTraceabilityLogs() + SPARQL_QUERY + insertQuery.toString());
+        executeRDF4JUpdateQuery(insertQuery);
 
         if (annotationInsert) {
             resultState = true;
@@ -1195,12 +1179,10 @@ public class ScientificObjectRdf4jDAO extends Rdf4jDAO<ScientificObject> {
         UpdateRequest insertQuery = prepareInsertOneInContextQuery(scientificObject, context);
         try {
             if (deleteQuery != null) {
-                Update prepareDelete = prepareRDF4JUpdateQuery(deleteQuery);
-                prepareDelete.execute();
+                executeRDF4JUpdateQuery(deleteQuery);
             }
 
-            Update prepareUpdate = prepareRDF4JUpdateQuery(insertQuery);
-            prepareUpdate.execute();
+            executeRDF4JUpdateQuery(insertQuery);
 
             //2.2 Relational database data
             ScientificObjectMongoDAO scientificObjectDAO = new ScientificObjectMongoDAO();
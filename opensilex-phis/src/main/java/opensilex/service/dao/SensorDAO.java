@@ -671,8 +671,7 @@ public class SensorDAO extends Rdf4jDAO<Sensor> {
             }
             
             UpdateRequest query = prepareInsertQuery(sensor);
-            Update prepareUpdate = prepareRDF4JUpdateQuery(query);
-            prepareUpdate.execute();
+            executeRDF4JUpdateQuery(query);
             
             createdResourcesUri.add(sensor.getUri());
         }
@@ -796,12 +795,10 @@ public class SensorDAO extends Rdf4jDAO<Sensor> {
                 //2. insert new data
                 UpdateRequest insertQuery = prepareInsertQuery(sensor);
                 try {
-                    Update prepareDelete = prepareRDF4JUpdateQuery(deleteQuery);
-                    LOGGER.debug(getTraceabilityLogs() + " query : " + prepareDelete.toString());
-                    prepareDelete.execute();
-                    Update prepareUpdate = prepareRDF4JUpdateQuery(insertQuery);
-                    LOGGER.debug(getTraceabilityLogs() + " query : " + prepareUpdate.toString());
-                    prepareUpdate.execute();
+                    LOGGER.debug(getTraceabilityLogs() + " query : " + deleteQuery.toString());
+                    executeRDF4JUpdateQuery(deleteQuery);
+                    LOGGER.debug(getTraceabilityLogs() + " query : " + insertQuery.toString());
+                    executeRDF4JUpdateQuery(insertQuery);
                     updatedResourcesUri.add(sensor.getUri());
                 } catch (MalformedQueryException e) {
                     LOGGER.error(e.getMessage(), e);
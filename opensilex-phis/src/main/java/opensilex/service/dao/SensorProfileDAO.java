@@ -22,7 +22,6 @@ import org.apache.jena.vocabulary.RDF;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
-import org.eclipse.rdf4j.query.Update;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import opensilex.service.dao.manager.Rdf4jDAO;
@@ -208,8 +207,7 @@ public class SensorProfileDAO extends Rdf4jDAO<SensorProfile> {
         
         sensorsProfiles.forEach((sensorProfileDTO) -> {
             UpdateRequest query = prepareInsertQuery(sensorProfileDTO.createObjectFromDTO());
-            Update prepareUpdate = prepareRDF4JUpdateQuery(query);
-            prepareUpdate.execute();
+            executeRDF4JUpdateQuery(query);
             
             createdResourcesUris.add(sensorProfileDTO.getUri());
         });
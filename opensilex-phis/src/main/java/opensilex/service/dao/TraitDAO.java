@@ -292,9 +292,8 @@ public class TraitDAO extends Rdf4jDAO<Trait> {
                 /*//SILEX:todo
                 Connection te review. Dirty hot fix.
                  */
-                Update prepareUpdate = prepareRDF4JUpdateQuery(spqlInsert);
-                LOGGER.debug(getTraceabilityLogs() + " query : " + prepareUpdate.toString());
-                prepareUpdate.execute();
+                LOGGER.debug(getTraceabilityLogs() + " query : " + spqlInsert.toString());
+                executeRDF4JUpdateQuery(spqlInsert);
                 //\SILEX:test
 
                 createdResourcesURI.add(traitDTO.getUri());
@@ -461,12 +460,10 @@ public class TraitDAO extends Rdf4jDAO<Trait> {
                 UpdateRequest queryInsert = prepareInsertQuery(traitDTO);
                 try {
                     // Transaction start: check request
-                    Update prepareDelete = prepareRDF4JUpdateQuery(deleteQuery);
-                    LOGGER.debug(getTraceabilityLogs() + " query : " + prepareDelete.toString());
-                    prepareDelete.execute();
-                    Update prepareUpdate = prepareRDF4JUpdateQuery(queryInsert);
-                    LOGGER.debug(getTraceabilityLogs() + " query : " + prepareUpdate.toString());
-                    prepareUpdate.execute();
+                    LOGGER.debug(getTraceabilityLogs() + " query : " + deleteQuery.toString());
+                    executeRDF4JUpdateQuery(deleteQuery);
+                    LOGGER.debug(getTraceabilityLogs() + " query : " + queryInsert.toString());
+                    executeRDF4JUpdateQuery(queryInsert);
 
                     updatedResourcesURIList.add(traitDTO.getUri());
                 } catch (MalformedQueryException e) {
@@ -25,7 +25,6 @@ import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.update.UpdateRequest;
 import org.eclipse.rdf4j.query.MalformedQueryException;
-import org.eclipse.rdf4j.query.Update;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,21 +62,31 @@ public class TripletDAO extends Rdf4jDAO<Triplet> {
      * @return the check of the triplets. Contains the list of the errors founded
      */
     public POSTResultsReturn checkTripletsGroup(ArrayList<TripletDTO> tripletsGroup) {
+        return checkTripletsGroup(tripletsGroup, new ReferenceResolver(sparql));
+    }
+    
+    /**
+     * Checks each triplet's values with the references resolver of the current request.
+     * @param tripletsGroup
+     * @param references
+     * @return the check of the triplets. Contains the list of the errors founded
+     */
+    public POSTResultsReturn checkTripletsGroup(ArrayList<TripletDTO> tripletsGroup, ReferenceResolver references) {
         //returned status list
         List<Status> checkStatusList = new ArrayList<>();
         boolean dataOk = true;
         
+        addReferences(tripletsGroup, references);
+        
         //check triplets
         for (TripletDTO tripletDTO : tripletsGroup) {
-            UriDAO uriDao = new UriDAO(sparql);
-
             //1. check if triplet.s is exist
-            if (!uriDao.existUri(tripletDTO.getS())) { //unknown uri
+            if (!references.exists(tripletDTO.getS())) { //unknown uri
                 dataOk = false;
                 checkStatusList.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, StatusCodeMsg.UNKNOWN_URI + " " + tripletDTO.getS()));
             }
             //2. check if triplet.p is an existing relation
-            if (!uriDao.existUri(tripletDTO.getP())
+            if (!references.exists(tripletDTO.getP())
                     && !tripletDTO.getP().equals(Rdf.RELATION_TYPE.toString())
                     && !tripletDTO.getP().equals(Rdfs.RELATION_LABEL.toString())) {
                 dataOk = false;
@@ -88,7 +97,7 @@ public class TripletDAO extends Rdf4jDAO<Triplet> {
             //   and check the value of triplet.o
             if (tripletDTO.getO_type().equals(OType.URI.toString())) { //if value is supposed to be an uri
                 //if the uri does not exist in the triplestore, error
-                if (!uriDao.existUri(tripletDTO.getO())) {
+                if (!references.exists(tripletDTO.getO())) {
                     dataOk = false;
                     checkStatusList.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, StatusCodeMsg.UNKNOWN_URI + " " + tripletDTO.getO()));
                 }
@@ -108,6 +117,21 @@ public class TripletDAO extends Rdf4jDAO<Triplet> {
         return tripletsCheck;
     }
     
+    /**
+     * Registers the URIs of a triplets group to resolve.
+     * @param tripletsGroup
+     * @param references
+     */
+    private static void addReferences(ArrayList<TripletDTO> tripletsGroup, ReferenceResolver references) {
+        for (TripletDTO tripletDTO : tripletsGroup) {
+            references.add(tripletDTO.getS());
+            references.add(tripletDTO.getP());
+            if (tripletDTO.getO_type().equals(OType.URI.toString())) {
+                references.add(tripletDTO.getO());
+            }
+        }
+    }
+    
     /**
      * Check objects integrity.
      * @see TripletDAO#checkTripletsGroup(java.util.ArrayList) 
@@ -118,8 +142,13 @@ public class TripletDAO extends Rdf4jDAO<Triplet> {
         //returned status list
         List<Status> checkStatusList = new ArrayList<>();
         boolean dataOk = true;
+        
+        // Resolve the URIs of all triplets groups at once
+        ReferenceResolver references = new ReferenceResolver(sparql);
+        triplets.forEach((tripletsGroup) -> addReferences(tripletsGroup, references));
+        
         for (int i = 0; i < triplets.size(); i++) {
-            POSTResultsReturn tripletsGroupCheck = checkTripletsGroup(triplets.get(i));
+            POSTResultsReturn tripletsGroupCheck = checkTripletsGroup(triplets.get(i), references);
             if (!tripletsGroupCheck.getDataState()) {
                 dataOk = false;
                 checkStatusList.addAll(tripletsGroupCheck.getStatusList());
@@ -237,8 +266,7 @@ public class TripletDAO extends Rdf4jDAO<Triplet> {
         for (Map.Entry<String,ArrayList<TripletDTO>> triplets : tripletsByGraph.entrySet()) {
             UpdateRequest insertInGivenGraph = prepareInsertQuery(triplets.getValue(), triplets.getKey());
             LOGGER.debug(SPARQL_QUERY + insertInGivenGraph.toString());
-            Update prepareInsertInGivenGraph = prepareRDF4JUpdateQuery(insertInGivenGraph);
-            prepareInsertInGivenGraph.execute();
+            executeRDF4JUpdateQuery(insertInGivenGraph);
         }
 
         return createdResourcesUris;
@@ -281,8 +309,7 @@ public class TripletDAO extends Rdf4jDAO<Triplet> {
             //Register triplet in the triplestore, in the graph created at the request reception
             UpdateRequest insertQuery = prepareInsertQuery(tripletsGroup, graphUri);
             LOGGER.debug(SPARQL_QUERY + insertQuery.toString());
-            Update prepareInsert = prepareRDF4JUpdateQuery(insertQuery);
-            prepareInsert.execute();
+            executeRDF4JUpdateQuery(insertQuery);
 
             //Register triplets in the triplestore, in the given graphs
             createdResourcesUris = registerTripletsInGivenGraphs(tripletsGroup);
@@ -286,9 +286,8 @@ public class UnitDAO extends Rdf4jDAO<Unit> {
             try {
                 //SILEX:todo
                 // Connection to review. Dirty hotfix.
-                Update prepareUpdate = prepareRDF4JUpdateQuery(spqlInsert);
-                LOGGER.trace(getTraceabilityLogs() + " query : " + prepareUpdate.toString());
-                prepareUpdate.execute();
+                LOGGER.trace(getTraceabilityLogs() + " query : " + spqlInsert.toString());
+                executeRDF4JUpdateQuery(spqlInsert);
                 //\SILEX:todo
 
                 createdResourcesURI.add(unitDTO.getUri());
@@ -479,12 +478,10 @@ public class UnitDAO extends Rdf4jDAO<Unit> {
                 UpdateRequest queryInsert = prepareInsertQuery(unitDTO);
                 try {
                     // transaction start: check connection
-                    Update prepareDelete = prepareRDF4JUpdateQuery(deleteQuery);
-                    LOGGER.debug(getTraceabilityLogs() + " query : " + prepareDelete.toString());
-                    prepareDelete.execute();
-                    Update prepareUpdate = prepareRDF4JUpdateQuery(queryInsert);
-                    LOGGER.debug(getTraceabilityLogs() + " query : " + prepareUpdate.toString());
-                    prepareUpdate.execute();
+                    LOGGER.debug(getTraceabilityLogs() + " query : " + deleteQuery.toString());
+                    executeRDF4JUpdateQuery(deleteQuery);
+                    LOGGER.debug(getTraceabilityLogs() + " query : " + queryInsert.toString());
+                    executeRDF4JUpdateQuery(queryInsert);
 
                     updatedResourcesURIList.add(unitDTO.getUri());
                 } catch (MalformedQueryException e) {
@@ -497,28 +497,6 @@ public class UriDAO extends Rdf4jDAO<Uri> {
         return uris;
     }
 
-    /**
-     * Generates an ask query to know if the given rdfSubType is a subclass of
-     * rdfType.
-     * @param rdfSubType
-     * @param rdfType
-     * @return the query. 
-     * @example
-     * ASK {
-     *    <http://www.opensilex.org/vocabulary/oeso#HemisphericalCamera>  rdfs:subClassOf* <http://www.opensilex.org/vocabulary/oeso#SensingDevice> 
-     * }
-     */
-    private SPARQLQueryBuilder prepareIsSubclassOf(String rdfSubType, String rdfType) {
-        SPARQLQueryBuilder query = new SPARQLQueryBuilder();
-        query.appendDistinct(Boolean.TRUE);
-
-        query.appendTriplet("<" + rdfSubType + ">", "<" + Rdfs.RELATION_SUBCLASS_OF.toString() + ">*", "<" + rdfType + ">", null);
-
-        query.appendAsk(""); //any = anything
-        LOGGER.debug(query.toString());
-        return query;
-    }
-
     /**
      * Generates an ask query to know if the given instance URI is an instance
      * of rdfType.
@@ -552,16 +530,14 @@ public class UriDAO extends Rdf4jDAO<Uri> {
 
     /**
      * Checks if the given rdfSubType is a sub class of the given rdfType.
+     * The check uses the class hierarchy index of the SPARQL service, without query once it is loaded.
      * @param rdfSubType
      * @param rdfType
      * @return true if it is a subclass 
      *         false if not
      */
     public boolean isSubClassOf(String rdfSubType, String rdfType) {
-        SPARQLQueryBuilder query = prepareIsSubclassOf(rdfSubType, rdfType);
-
-        BooleanQuery booleanQuery = prepareRDF4JBooleanQuery(query);
-        return booleanQuery.evaluate();
+        return new ReferenceResolver(sparql).isSubClassOf(rdfSubType, rdfType);
     }
 
     /**
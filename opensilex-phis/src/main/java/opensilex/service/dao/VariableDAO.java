@@ -315,11 +315,19 @@ public class VariableDAO extends Rdf4jDAO<Variable> {
         List<Status> checkStatusList = new ArrayList<>();
         boolean dataOk = true;
 
+        // Resolve the methods, traits and units of all variables at once
+        ReferenceResolver references = new ReferenceResolver(sparql);
+        for (VariableDTO variableDTO : variablesDTO) {
+            references.add(variableDTO.getMethod());
+            references.add(variableDTO.getTrait());
+            references.add(variableDTO.getUnit());
+        }
+
         for (VariableDTO variableDTO : variablesDTO) {
             // Check the method, unit and trait exist in the storage
-            if (!existUri(variableDTO.getMethod())
-                    || !existUri(variableDTO.getTrait())
-                    || !existUri(variableDTO.getUnit())) {
+            if (!references.exists(variableDTO.getMethod())
+                    || !references.exists(variableDTO.getTrait())
+                    || !references.exists(variableDTO.getUnit())) {
                 dataOk = false;
                 checkStatusList.add(new Status(StatusCodeMsg.WRONG_VALUE, StatusCodeMsg.ERR, "Unknown trait(" + variableDTO.getTrait() + ") or method (" + variableDTO.getMethod() + ") or unit (" + variableDTO.getUnit() + ")"));
             } else {
@@ -422,9 +430,8 @@ public class VariableDAO extends Rdf4jDAO<Variable> {
             try {
                 //SILEX:todo
                 // storage connection to review: dirty hotfix
-                Update prepareUpdate = prepareRDF4JUpdateQuery(spqlInsert);
-                LOGGER.debug(getTraceabilityLogs() + " query : " + prepareUpdate.toString());
-                prepareUpdate.execute();
+                LOGGER.debug(getTraceabilityLogs() + " query : " + spqlInsert.toString());
+                executeRDF4JUpdateQuery(spqlInsert);
                 //\SILEX:todo
 
                 createdResourcesURIList.add(variableDTO.getUri());
@@ -649,12 +656,10 @@ public class VariableDAO extends Rdf4jDAO<Variable> {
                 UpdateRequest queryInsert = prepareInsertQuery(variableDTO);
                 try {
                     // transaction start: check request
-                    Update prepareDelete = prepareRDF4JUpdateQuery(deleteQuery);
-                    LOGGER.debug(getTraceabilityLogs() + " query : " + prepareDelete.toString());
-                    prepareDelete.execute();
-                    Update prepareUpdate = prepareRDF4JUpdateQuery(queryInsert);
-                    LOGGER.debug(getTraceabilityLogs() + " query : " + prepareUpdate.toString());
-                    prepareUpdate.execute();
+                    LOGGER.debug(getTraceabilityLogs() + " query : " + deleteQuery.toString());
+                    executeRDF4JUpdateQuery(deleteQuery);
+                    LOGGER.debug(getTraceabilityLogs() + " query : " + queryInsert.toString());
+                    executeRDF4JUpdateQuery(queryInsert);
 
                     updatedResourcesURIList.add(variableDTO.getUri());
                 } catch (MalformedQueryException e) {
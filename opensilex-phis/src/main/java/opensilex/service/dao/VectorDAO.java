@@ -607,8 +607,7 @@ public class VectorDAO extends Rdf4jDAO<Vector> {
             return vector;            
         }).forEachOrdered((vector) -> {
             UpdateRequest query = prepareInsertQuery(vector);
-            Update prepareUpdate = prepareRDF4JUpdateQuery(query);
-            prepareUpdate.execute();
+            executeRDF4JUpdateQuery(query);
             
             createdResourcesUri.add(vector.getUri());
         });
@@ -704,12 +703,10 @@ public class VectorDAO extends Rdf4jDAO<Vector> {
                 UpdateRequest insertQuery = prepareInsertQuery(vectorDTO.createObjectFromDTO());
                 
                 try {
-                    Update prepareDelete = prepareRDF4JUpdateQuery(deleteQuery);
-                    LOGGER.debug(getTraceabilityLogs() + " query : " + prepareDelete.toString());
-                    prepareDelete.execute();
-                    Update prepareUpdate = prepareRDF4JUpdateQuery(insertQuery);
-                    LOGGER.debug(getTraceabilityLogs() + " query : " + prepareUpdate.toString());
-                    prepareUpdate.execute();
+                    LOGGER.debug(getTraceabilityLogs() + " query : " + deleteQuery.toString());
+                    executeRDF4JUpdateQuery(deleteQuery);
+                    LOGGER.debug(getTraceabilityLogs() + " query : " + insertQuery.toString());
+                    executeRDF4JUpdateQuery(insertQuery);
                     updatedResourcesUri.add(vectorDTO.getUri());
 
                     updatedResourcesUri.add(vectorDTO.getUri());
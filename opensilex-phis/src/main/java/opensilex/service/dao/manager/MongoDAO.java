@@ -10,15 +10,31 @@ package opensilex.service.dao.manager;
 import com.mongodb.BasicDBObject;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoClientURI;
+import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Sorts;
 import com.mongodb.gridfs.GridFS;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
 import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
 import org.bson.codecs.configuration.CodecProvider;
 import static org.bson.codecs.configuration.CodecRegistries.fromProviders;
 import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.codecs.pojo.PojoCodecProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import opensilex.service.PropertiesFileManager;
 import opensilex.service.configuration.DefaultBrapiPaginationValues;
 import opensilex.service.model.User;
@@ -30,6 +46,8 @@ import opensilex.service.model.User;
  */
 public abstract class MongoDAO<T> extends DAO<T> {
 
+    private final static Logger LOGGER = LoggerFactory.getLogger(MongoDAO.class);
+
     /**
      * This block initialize MongoDB connection URL with user authentication or not 
      * depending of the configuration
@@ -63,6 +81,37 @@ public abstract class MongoDAO<T> extends DAO<T> {
     protected Integer page;
     protected Integer pageSize;
     
+    /**
+     * Continuation token of the page to get, returned with the previous page.
+     * If defined, the page is found by seeking on the (date, _id) index instead of skipping documents.
+     */
+    protected String pageToken;
+    
+    /**
+     * Continuation token of the page following the last found one, null if there is no next page.
+     */
+    protected String nextPageToken;
+    
+    /**
+     * If true, counts may be estimated instead of counting all the matching documents.
+     */
+    protected boolean estimatedCount = false;
+    
+    /**
+     * Maximum number of documents counted for an estimated count with filters.
+     */
+    private final static int ESTIMATED_COUNT_LIMIT = 10000;
+    
+    /**
+     * Collection of the applied database migrations, by migration identifier.
+     */
+    private final static String MIGRATIONS_COLLECTION = "migrations";
+    
+    /**
+     * Migration creating the (date, _id) index of the collections created before it was created with them.
+     */
+    private final static String DATE_ID_INDEX_MIGRATION = "date-id-index";
+    
     //The _id json data key in the mongodb documents
     public final static String DB_FIELD_ID = "_id";
     //The $gte mongo key
@@ -163,6 +212,193 @@ public abstract class MongoDAO<T> extends DAO<T> {
         this.pageSize = pageSize;
     }
 
+    public String getPageToken() {
+        return pageToken;
+    }
+
+    /**
+     * Sets the continuation token of the page to get.
+     * @param pageToken continuation token returned with the previous page, null to use the page number
+     */
+    public void setPageToken(String pageToken) {
+        this.pageToken = pageToken;
+    }
+
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public boolean isEstimatedCount() {
+        return estimatedCount;
+    }
+
+    public void setEstimatedCount(boolean estimatedCount) {
+        this.estimatedCount = estimatedCount;
+    }
+
+    /**
+     * Finds a page of documents sorted by date then _id.
+     * <pre>
+     * With a page token, the page starts after the document of the token by seeking on the (date, _id) index,
+     * so the cost does not depend on the page number. Otherwise page * pageSize documents are skipped.
+     * If the page is full, the token of the next page is set in nextPageToken.
+     * Without page size all documents are returned.
+     * </pre>
+     * @param collection
+     * @param query search query
+     * @param dateField date field name
+     * @param dateSortAsc true to sort by date ascending
+     * @return the page documents
+     * @throws IllegalArgumentException if the page token is invalid
+     */
+    protected List<Document> findPageByDate(MongoCollection<Document> collection, Bson query, String dateField, boolean dateSortAsc) {
+        nextPageToken = null;
+        
+        Bson pageQuery = query;
+        if (pageToken != null && !pageToken.isEmpty()) {
+            pageQuery = Filters.and(query, getPageTokenFilter(pageToken, dateField, dateSortAsc));
+        }
+        
+        FindIterable<Document> documents = collection.find(pageQuery);
+        if (dateSortAsc) {
+            documents = documents.sort(Sorts.ascending(dateField, DB_FIELD_ID));
+        } else {
+            documents = documents.sort(Sorts.descending(dateField, DB_FIELD_ID));
+        }
+        
+        if (pageSize != null) {
+            if (pageToken == null || pageToken.isEmpty()) {
+                documents = documents.skip(getPage() * pageSize);
+            }
+            documents = documents.limit(pageSize);
+        }
+        
+        List<Document> pageDocuments = new ArrayList<>();
+        try (MongoCursor<Document> cursor = documents.iterator()) {
+            while (cursor.hasNext()) {
+                pageDocuments.add(cursor.next());
+            }
+        }
+        
+        // Documents inserted with a custom _id can't be continued by token
+        if (pageSize != null && pageSize > 0 && pageDocuments.size() == pageSize) {
+            Document lastDocument = pageDocuments.get(pageDocuments.size() - 1);
+            if (lastDocument.get(DB_FIELD_ID) instanceof ObjectId && lastDocument.getDate(dateField) != null) {
+                nextPageToken = getPageToken(lastDocument.getDate(dateField), lastDocument.getObjectId(DB_FIELD_ID));
+            }
+        }
+        
+        return pageDocuments;
+    }
+    
+    /**
+     * Counts the documents matching a query, or estimates it if estimatedCount is true.
+     * <pre>
+     * An estimated count without filter is read from the collection metadata,
+     * with filters the count stops at ESTIMATED_COUNT_LIMIT.
+     * </pre>
+     * @param collection
+     * @param query search query
+     * @param filtered false if the query matches all the documents of the collection
+     * @return the documents count
+     */
+    protected long countDocuments(MongoCollection<Document> collection, Bson query, boolean filtered) {
+        if (!estimatedCount) {
+            return collection.countDocuments(query);
+        } else if (!filtered) {
+            return collection.estimatedDocumentCount();
+        } else {
+            return collection.countDocuments(query, new CountOptions().limit(ESTIMATED_COUNT_LIMIT));
+        }
+    }
+    
+    /**
+     * Creates the (date, _id) index used to sort and seek pages, with the other indexes of a collection.
+     * Mongo won't create the index if it already exists.
+     * Searches never create indexes.
+     * @param collection
+     * @param dateField 
+     */
+    protected static void createDateIdIndex(MongoCollection<Document> collection, String dateField) {
+        collection.createIndex(Indexes.ascending(dateField, DB_FIELD_ID), new IndexOptions().background(true));
+    }
+    
+    /**
+     * Creates the (date, _id) index of the existing dated collections, once by database.
+     * <pre>
+     * Dated collections are the ones with a unique index starting with the date field
+     * and including the variable field (data and environment measures collections).
+     * The migration is recorded in the migrations collection when all the indexes are created,
+     * so it is run again on next call if it fails.
+     * </pre>
+     * @param database
+     * @param dateField
+     * @param variableField 
+     */
+    public static void migrateDateIdIndexes(MongoDatabase database, String dateField, String variableField) {
+        MongoCollection<Document> migrations = database.getCollection(MIGRATIONS_COLLECTION);
+        if (migrations.countDocuments(Filters.eq(DB_FIELD_ID, DATE_ID_INDEX_MIGRATION)) > 0) {
+            return;
+        }
+        
+        int indexedCount = 0;
+        for (String collectionName : database.listCollectionNames()) {
+            MongoCollection<Document> datedCollection = database.getCollection(collectionName);
+            for (Document index : datedCollection.listIndexes()) {
+                Document key = (Document) index.get("key");
+                if (index.getBoolean("unique", false) && key != null && !key.isEmpty()
+                        && key.keySet().iterator().next().equals(dateField) && key.containsKey(variableField)) {
+                    createDateIdIndex(datedCollection, dateField);
+                    indexedCount++;
+                    break;
+                }
+            }
+        }
+        
+        migrations.insertOne(new Document(DB_FIELD_ID, DATE_ID_INDEX_MIGRATION).append("date", new Date()));
+        LOGGER.info("Date index created for " + indexedCount + " existing collections");
+    }
+    
+    /**
+     * Builds the page token of the page following the given document.
+     * @param date document date
+     * @param id document id
+     * @return the page token
+     */
+    private static String getPageToken(Date date, ObjectId id) {
+        String position = date.getTime() + ":" + id.toHexString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Gets the filter of the documents following the position of a page token.
+     * @param pageToken
+     * @param dateField
+     * @param dateSortAsc
+     * @return the filter
+     * @throws IllegalArgumentException if the page token is invalid
+     * @example
+     * { "$or" : [ { "date" : { "$gt" : ISODate("2017-06-15T00:00:00+0200") } },
+     *             { "date" : ISODate("2017-06-15T00:00:00+0200"), "_id" : { "$gt" : ObjectId("5d0a1f2c3e4b5a6c7d8e9f00") } } ] }
+     */
+    private static Bson getPageTokenFilter(String pageToken, String dateField, boolean dateSortAsc) {
+        Date date;
+        ObjectId id;
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8).split(":");
+            date = new Date(Long.parseLong(position[0]));
+            id = new ObjectId(position[1]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Invalid page token: " + pageToken, ex);
+        }
+        
+        if (dateSortAsc) {
+            return Filters.or(Filters.gt(dateField, date), Filters.and(Filters.eq(dateField, date), Filters.gt(DB_FIELD_ID, id)));
+        } else {
+            return Filters.or(Filters.lt(dateField, date), Filters.and(Filters.eq(dateField, date), Filters.lt(DB_FIELD_ID, id)));
+        }
+    }
+
     /**
      * Prepares a search query.
      * @return BasicDBObject
@@ -16,6 +16,7 @@ import opensilex.service.dao.exception.DAOPersistenceException;
 import opensilex.service.dao.exception.ResourceAccessDeniedException;
 import opensilex.service.ontology.Rdf;
 import opensilex.service.ontology.Rdfs;
+import opensilex.service.utils.LabelCache;
 import opensilex.service.utils.sparql.SPARQLQueryBuilder;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jena.arq.querybuilder.UpdateBuilder;
@@ -41,9 +42,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * DAO class to query the triplestore
@@ -173,7 +177,7 @@ public abstract class Rdf4jDAO<T> extends DAO<T> {
         try {
             UpdateRequest query = updateBuilder.buildRequest();
             LOGGER.debug(SPARQL_QUERY + " " + query.toString());
-            prepareRDF4JUpdateQuery(query).execute();
+            executeRDF4JUpdateQuery(query);
         } catch (JenaException | RDF4JException ex) {
             handleTriplestoreException(ex);
         }
@@ -337,9 +341,8 @@ public abstract class Rdf4jDAO<T> extends DAO<T> {
         LOGGER.debug(SPARQL_QUERY + spql.toString());
 
         //Insert the properties in the triplestore
-        Update prepareUpdate = prepareRDF4JUpdateQuery(spql.build());
         try {
-            prepareUpdate.execute();
+            executeRDF4JUpdateQuery(spql.build());
         } catch (UpdateExecutionException ex) {
             LOGGER.error("Add object properties error : " + ex.getMessage());
             return false;
@@ -376,9 +379,8 @@ public abstract class Rdf4jDAO<T> extends DAO<T> {
         LOGGER.debug(request.toString());
 
         //2. Delete data in the triplestore
-        Update prepareDelete = prepareRDF4JUpdateQuery(request);
         try {
-            prepareDelete.execute();
+            executeRDF4JUpdateQuery(request);
         } catch (UpdateExecutionException ex) {
             LOGGER.error("Delete object properties error : " + ex.getMessage());
             return false;
@@ -520,6 +522,55 @@ public abstract class Rdf4jDAO<T> extends DAO<T> {
         return labels;
     }
 
+    /**
+     * Get the labels of the given uris, with the shared labels cache and a
+     * single query for uncached uris.
+     *
+     * @param uris
+     * @param language labels language, null for all labels
+     * @example SELECT ?uri ?label WHERE {
+     * VALUES ?uri { <http://www.opensilex.org/opensilex/2019/o19000060> <http://www.opensilex.org/opensilex/2019/o19000061> }
+     * ?uri <http://www.w3.org/2000/01/rdf-schema#label> ?label .
+     * FILTER (langMatches(lang(?label), "en") || lang(?label) = "") }
+     * @return the labels by uri, uris without label are not returned
+     */
+    public Map<String, List<String>> findLabelsForUris(Collection<String> uris, String language) {
+        Set<String> uniqueUris = new LinkedHashSet<>(uris);
+        uniqueUris.remove(null);
+
+        Map<String, List<String>> urisAndLabels = LabelCache.RESOURCES.getAll(uniqueUris, language);
+        uniqueUris.removeAll(urisAndLabels.keySet());
+        if (uniqueUris.isEmpty()) {
+            return urisAndLabels;
+        }
+
+        //1. Generate the query
+        StringBuilder values = new StringBuilder();
+        uniqueUris.forEach((uri) -> values.append("<").append(uri).append("> "));
+        String query = "SELECT ?" + URI + " ?" + LABEL + " WHERE {\n"
+                + "  VALUES ?" + URI + " { " + values.toString() + "}\n"
+                + "  ?" + URI + " <" + Rdfs.RELATION_LABEL.toString() + "> ?" + LABEL + " .\n"
+                + (language == null ? "" : "  FILTER (langMatches(lang(?" + LABEL + "), \"" + language + "\") || lang(?" + LABEL + ") = \"\")\n")
+                + "}";
+        LOGGER.debug(query);
+
+        //2. Get the result of the query
+        Map<String, List<String>> foundLabels = new HashMap<>();
+        TupleQuery tupleQuery = prepareRDF4JTupleQuery(query);
+        try (TupleQueryResult result = tupleQuery.evaluate()) {
+            while (result.hasNext()) {
+                BindingSet bindingSet = result.next();
+                foundLabels.computeIfAbsent(bindingSet.getValue(URI).stringValue(), (key) -> new ArrayList<>())
+                        .add(bindingSet.getValue(LABEL).stringValue());
+            }
+        }
+
+        LabelCache.RESOURCES.putAll(foundLabels, language);
+        urisAndLabels.putAll(foundLabels);
+
+        return urisAndLabels;
+    }
+
     /**
      * Delete a list of objects into the triplestore.
      *
@@ -595,6 +646,18 @@ public abstract class Rdf4jDAO<T> extends DAO<T> {
         return update;
     }
 
+    /**
+     * Executes an update query.
+     * Cached search counts depending on the updated graphs, the class
+     * hierarchy and labels of updated resources are invalidated once the
+     * update is committed.
+     * @param query
+     */
+    public void executeRDF4JUpdateQuery(Object query) {
+        prepareRDF4JUpdateQuery(query).execute();
+        sparql.invalidateCaches(query.toString());
+    }
+
     public BooleanQuery prepareRDF4JBooleanQuery(Object query) {
         BooleanQuery booleanQuery = getConnection().prepareBooleanQuery(QueryLanguage.SPARQL, query.toString());
         booleanQuery.setMaxExecutionTime(TIMEOUT);
@@ -29,6 +29,10 @@ public final class DocumentationAnnotation {
 
     public static final String PAGE_SIZE_MONGO = "Number of elements per page (limited to 1000000)";
 
+    public static final String PAGE_TOKEN = "Continuation token of the page to get, as returned in the metadata of the previous page (replaces the page number)";
+
+    public static final String ESTIMATED_COUNT = "Estimate the total count instead of counting all the results (faster on large collections)";
+
     // User messages
     public static final String INTERNAL_SERVER_ERROR = "Internal server error.";
     public static final String ERROR_SEND_DATA = "Server error. Cannot send data.";
@@ -156,5 +156,12 @@ public enum Contexts {
         public String toString() {
             return PLATFORM.toString() + "plantMaterialLot"; 
         }
+    },
+    //The context which contains the last reserved value of URI id sequences
+    SEQUENCES {
+        @Override
+        public String toString() {
+            return PLATFORM.toString() + "set/sequences";
+        }
     }
 }
\ No newline at end of file
@@ -19,9 +19,11 @@ import java.nio.file.Paths;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -234,7 +236,9 @@ public class DataResourceService extends ResourceService {
             @ApiParam(value = "Search by provenance uri", example = DocumentationAnnotation.EXAMPLE_PROVENANCE_URI) @QueryParam("provenance") @URL String provenance,
             @ApiParam(value = "Date search result order ('true' for ascending and 'false' for descending)", example = "true") @QueryParam("dateSortAsc") boolean dateSortAsc,
             @ApiParam(value = DocumentationAnnotation.PAGE_SIZE) @QueryParam(GlobalWebserviceValues.PAGE_SIZE) @DefaultValue(DefaultBrapiPaginationValues.PAGE_SIZE) @Min(0) int pageSize,
-            @ApiParam(value = DocumentationAnnotation.PAGE) @QueryParam(GlobalWebserviceValues.PAGE) @DefaultValue(DefaultBrapiPaginationValues.PAGE) @Min(0) int page
+            @ApiParam(value = DocumentationAnnotation.PAGE) @QueryParam(GlobalWebserviceValues.PAGE) @DefaultValue(DefaultBrapiPaginationValues.PAGE) @Min(0) int page,
+            @ApiParam(value = DocumentationAnnotation.PAGE_TOKEN) @QueryParam(GlobalWebserviceValues.PAGE_TOKEN) String pageToken,
+            @ApiParam(value = DocumentationAnnotation.ESTIMATED_COUNT) @QueryParam(GlobalWebserviceValues.ESTIMATED_COUNT) @DefaultValue("false") boolean estimatedCount
     ) {
         // 1. Initialize dataDAO with parameters
         DataDAO dataDAO = new DataDAO(sparql);
@@ -250,12 +254,20 @@ public class DataResourceService extends ResourceService {
         dataDAO.user = userSession.getUser();
         dataDAO.setPage(page);
         dataDAO.setPageSize(pageSize);
+        dataDAO.setPageToken(pageToken);
+        dataDAO.setEstimatedCount(estimatedCount);
 
         // 2. Get data count
         int totalCount = dataDAO.count();
 
         // 3. Get data page list
-        ArrayList<Data> dataList = dataDAO.allPaginate();
+        ArrayList<Data> dataList;
+        try {
+            dataList = dataDAO.allPaginate();
+        } catch (IllegalArgumentException ex) {
+            // Invalid page token
+            return buildResponseFromException(ex);
+        }
 
         // 4. Initialize return variables
         ArrayList<DataDTO> list = new ArrayList<>();
@@ -278,11 +290,69 @@ public class DataResourceService extends ResourceService {
 
             // Return list of DTO
             getResponse = new ResultForm<>(dataDAO.getPageSize(), dataDAO.getPage(), list, true, totalCount);
+            getResponse.setPageContinuation(dataDAO.getNextPageToken(), estimatedCount);
             getResponse.setStatus(statusList);
             return Response.status(Response.Status.OK).entity(getResponse).build();
         }
     }
 
+    /**
+     * Exports all data corresponding to the search parameters, without pagination.
+     * Data are streamed from the database to the response, sorted by date, one data by line.
+     * @param variable
+     * @param startDate
+     * @param endDate
+     * @param object
+     * @param provenance
+     * @param dateSortAsc
+     * @param format export format, ndjson or csv
+     * @param fields exported fields, comma separated
+     * @param headers
+     * @return the export, compressed with GZIP if accepted by the client
+     * @example
+     * GET /data/export?variable=http://www.phenome-fppn.fr/diaphen/id/variables/v009&format=ndjson&fields=objectUri,date,value
+     * {"objectUri":"http://www.phenome-fppn.fr/diaphen/2018/o18001199","date":"2017-06-15T00:00:00.000+0200","value":2.4}
+     * {"objectUri":"http://www.phenome-fppn.fr/diaphen/2018/o18001199","date":"2017-06-16T00:00:00.000+0200","value":2.5}
+     */
+    @GET
+    @Path("export")
+    @ApiOperation(value = "Export data corresponding to the search parameters given.",
+            notes = "Stream all data corresponding to the search parameters given, without pagination,"
+            + "<br/>as NDJSON (one JSON object by line) or CSV, with only the requested fields."
+            + "<br/>Exportable fields: uri, provenanceUri, objectUri, variableUri, date, value, metadata")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "Export all data"),
+        @ApiResponse(code = 400, message = DocumentationAnnotation.BAD_USER_INFORMATION),
+        @ApiResponse(code = 401, message = DocumentationAnnotation.USER_NOT_AUTHORIZED),
+        @ApiResponse(code = 500, message = DocumentationAnnotation.ERROR_FETCH_DATA)
+    })
+    @ApiProtected
+    @Produces({"application/x-ndjson", "text/csv", MediaType.APPLICATION_JSON})
+    public Response exportData(
+            @ApiParam(value = "Search by variable uri", example = DocumentationAnnotation.EXAMPLE_VARIABLE_URI, required = true) @QueryParam("variable") @URL @Required String variable,
+            @ApiParam(value = "Search by minimal date", example = DocumentationAnnotation.EXAMPLE_XSDDATETIME) @QueryParam("startDate") @Date({DateFormat.YMDTHMSZ, DateFormat.YMD}) String startDate,
+            @ApiParam(value = "Search by maximal date", example = DocumentationAnnotation.EXAMPLE_XSDDATETIME) @QueryParam("endDate") @Date({DateFormat.YMDTHMSZ, DateFormat.YMD}) String endDate,
+            @ApiParam(value = "Search by object uri", example = DocumentationAnnotation.EXAMPLE_SENSOR_URI) @QueryParam("object") @URL String object,
+            @ApiParam(value = "Search by provenance uri", example = DocumentationAnnotation.EXAMPLE_PROVENANCE_URI) @QueryParam("provenance") @URL String provenance,
+            @ApiParam(value = "Date search result order ('true' for ascending and 'false' for descending)", example = "true") @QueryParam("dateSortAsc") boolean dateSortAsc,
+            @ApiParam(value = "Export format ('ndjson' or 'csv')", example = "ndjson") @QueryParam("format") @DefaultValue("ndjson") String format,
+            @ApiParam(value = "Exported fields, comma separated (all fields by default)", example = "objectUri,date,value") @QueryParam("fields") String fields
+    ) {
+        DataDAO dataDAO = new DataDAO(sparql);
+
+        dataDAO.variableUri = variable;
+
+        dataDAO.startDate = startDate;
+        dataDAO.endDate = endDate;
+        dataDAO.objectUri = object;
+        dataDAO.provenanceUri = provenance;
+        dataDAO.dateSortAsc = dateSortAsc;
+
+        dataDAO.user = userSession.getUser();
+
+        return getExportResponse(DataDAO.EXPORT_FIELDS, fields, format, DateFormat.YMDTHMSMSZ.toString(), dataDAO::export);
+    }
+
     /**
      * Saves data file with its metadata and use MULTIPART_FORM_DATA for it.
      * fileContentDisposition parameter is automatically created from submitted file.
@@ -715,13 +785,17 @@ public class DataResourceService extends ResourceService {
             @ApiParam(value = "Search by object label", example = DocumentationAnnotation.EXAMPLE_SCIENTIFIC_OBJECT_ALIAS) @QueryParam("objectLabel") String objectLabel,
             @ApiParam(value = "Search by provenance uri", example = DocumentationAnnotation.EXAMPLE_PROVENANCE_URI) @QueryParam("provenanceUri") @URL String provenanceUri,
             @ApiParam(value = "Search by provenance label", example = DocumentationAnnotation.EXAMPLE_PROVENANCE_LABEL) @QueryParam("provenanceLabel") String provenanceLabel,
-            @ApiParam(value = "Date search result order ('true' for ascending and 'false' for descending)", example = "true") @QueryParam("dateSortAsc") boolean dateSortAsc
+            @ApiParam(value = "Date search result order ('true' for ascending and 'false' for descending)", example = "true") @QueryParam("dateSortAsc") boolean dateSortAsc,
+            @ApiParam(value = DocumentationAnnotation.PAGE_TOKEN) @QueryParam(GlobalWebserviceValues.PAGE_TOKEN) String pageToken,
+            @ApiParam(value = DocumentationAnnotation.ESTIMATED_COUNT) @QueryParam(GlobalWebserviceValues.ESTIMATED_COUNT) @DefaultValue("false") boolean estimatedCount
     ) throws Exception {
         ArrayList<DataSearchDTO> list = new ArrayList<>();
         ArrayList<Status> statusList = new ArrayList<>();
         ResultForm<DataSearchDTO> getResponse;
 
         DataDAO dataDAO = new DataDAO(sparql);
+        dataDAO.setPageToken(pageToken);
+        dataDAO.setEstimatedCount(estimatedCount);
 
         List<String> objectsUris = new ArrayList<>();
         List<String> provenancesUris = new ArrayList<>();
@@ -770,7 +844,13 @@ public class DataResourceService extends ResourceService {
         Integer totalCount = dataDAO.count(variableUri, startDate, endDate, objectsUris, provenancesUris);
 
         //5. Get data
-        List<Data> dataList = dataDAO.find(page, pageSize, variableUri, startDate, endDate, objectsUris, provenancesUris);
+        List<Data> dataList;
+        try {
+            dataList = dataDAO.find(page, pageSize, variableUri, startDate, endDate, objectsUris, provenancesUris);
+        } catch (IllegalArgumentException ex) {
+            // Invalid page token
+            return buildResponseFromException(ex);
+        }
 
         //6. Return result
         if (dataList == null) {
@@ -782,18 +862,22 @@ public class DataResourceService extends ResourceService {
             getResponse = new ResultForm<>(0, 0, list, true, 0);
             return noResultFound(getResponse, statusList);
         } else {
-            // Convert all data object to DTO's
+            // Get the labels of all the objects and provenances of the page at once
+            Set<String> pageObjectsUris = new HashSet<>();
+            Set<String> pageProvenancesUris = new HashSet<>();
             for (Data data : dataList) {
                 if (data.getObjectUri() != null && !objectsUrisAndLabels.containsKey(data.getObjectUri())) {
-                    //We need to get the labels of the object
-                    objectsUrisAndLabels.put(data.getObjectUri(), scientificObjectDAO.findLabelsForUri(data.getObjectUri()));
+                    pageObjectsUris.add(data.getObjectUri());
                 }
-
                 if (!provenancesUrisAndLabels.containsKey(data.getProvenanceUri())) {
-                    //We need to get the label of the provenance
-                    provenancesUrisAndLabels.put(data.getProvenanceUri(), provenanceDAO.findLabelByUri(data.getProvenanceUri()));
+                    pageProvenancesUris.add(data.getProvenanceUri());
                 }
+            }
+            objectsUrisAndLabels.putAll(scientificObjectDAO.findLabelsForUris(pageObjectsUris, null));
+            provenancesUrisAndLabels.putAll(provenanceDAO.findLabelsByUris(pageProvenancesUris));
 
+            // Convert all data object to DTO's
+            for (Data data : dataList) {
                 //Get provenance label
                 String dataProvenanceLabel = provenancesUrisAndLabels.get(data.getProvenanceUri());
                 //Get object labels
@@ -807,6 +891,7 @@ public class DataResourceService extends ResourceService {
 
             // Return list of DTO
             getResponse = new ResultForm<>(pageSize, page, list, true, totalCount);
+            getResponse.setPageContinuation(dataDAO.getNextPageToken(), estimatedCount);
             getResponse.setStatus(statusList);
             return Response.status(Response.Status.OK).entity(getResponse).build();
         }
@@ -206,7 +206,9 @@ public class EnvironmentResourceService extends ResourceService {
             @ApiParam(value = "Search by sensor uri", example = DocumentationAnnotation.EXAMPLE_SENSOR_URI) @QueryParam("sensor") @URL String sensor,
             @ApiParam(value = "Date search result order ('true' for ascending and 'false' for descending)", example = "true") @QueryParam("dateSortAsc") boolean dateSortAsc,
             @ApiParam(value = DocumentationAnnotation.PAGE_SIZE) @QueryParam(GlobalWebserviceValues.PAGE_SIZE) @DefaultValue(DefaultBrapiPaginationValues.PAGE_SIZE) @Min(0) int pageSize,
-            @ApiParam(value = DocumentationAnnotation.PAGE) @QueryParam(GlobalWebserviceValues.PAGE) @DefaultValue(DefaultBrapiPaginationValues.PAGE) @Min(0) int page
+            @ApiParam(value = DocumentationAnnotation.PAGE) @QueryParam(GlobalWebserviceValues.PAGE) @DefaultValue(DefaultBrapiPaginationValues.PAGE) @Min(0) int page,
+            @ApiParam(value = DocumentationAnnotation.PAGE_TOKEN) @QueryParam(GlobalWebserviceValues.PAGE_TOKEN) String pageToken,
+            @ApiParam(value = DocumentationAnnotation.ESTIMATED_COUNT) @QueryParam(GlobalWebserviceValues.ESTIMATED_COUNT) @DefaultValue("false") boolean estimatedCount
     ) throws Exception {
         // 1. Initialize environmentDAO with parameters
         EnvironmentMeasureDAO environmentMeasureDAO = new EnvironmentMeasureDAO(sparql);
@@ -221,12 +223,20 @@ public class EnvironmentResourceService extends ResourceService {
         environmentMeasureDAO.user = userSession.getUser();
         environmentMeasureDAO.setPage(page);
         environmentMeasureDAO.setPageSize(pageSize);
+        environmentMeasureDAO.setPageToken(pageToken);
+        environmentMeasureDAO.setEstimatedCount(estimatedCount);
 
         // 2. Get environment measures count
         int totalCount = environmentMeasureDAO.count();
 
         // 3. Get environment measures page list
-        ArrayList<EnvironmentMeasure> measures = environmentMeasureDAO.allPaginate();
+        ArrayList<EnvironmentMeasure> measures;
+        try {
+            measures = environmentMeasureDAO.allPaginate();
+        } catch (IllegalArgumentException ex) {
+            // Invalid page token
+            return buildResponseFromException(ex);
+        }
 
         // 4. Initialize return variables
         ArrayList<EnvironmentMeasureDTO> list = new ArrayList<>();
@@ -249,8 +259,63 @@ public class EnvironmentResourceService extends ResourceService {
 
             // Return list of DTO
             getResponse = new ResultForm<>(environmentMeasureDAO.getPageSize(), environmentMeasureDAO.getPage(), list, true, totalCount);
+            getResponse.setPageContinuation(environmentMeasureDAO.getNextPageToken(), estimatedCount);
             getResponse.setStatus(statusList);
             return Response.status(Response.Status.OK).entity(getResponse).build();
         }
     }
+
+    /**
+     * Exports all environment measures corresponding to the search parameters, without pagination.
+     * Measures are streamed from the database to the response, sorted by date, one measure by line.
+     * @param variable
+     * @param startDate
+     * @param endDate
+     * @param sensor
+     * @param dateSortAsc
+     * @param format export format, ndjson or csv
+     * @param fields exported fields, comma separated
+     * @param headers
+     * @return the export, compressed with GZIP if accepted by the client
+     * @example
+     * GET /environments/export?variable=http://www.phenome-fppn.fr/diaphen/id/variables/v009&format=csv&fields=sensorUri,date,value
+     * sensorUri,date,value
+     * http://www.phenome-fppn.fr/mauguio/diaphen/2013/sb140227,2017-06-07T13:14:55+0200,36.78
+     */
+    @GET
+    @Path("export")
+    @ApiOperation(value = "Export all environment measures corresponding to the search params given",
+            notes = "Stream all environment measures corresponding to the search params given, without pagination,"
+            + "<br/>as NDJSON (one JSON object by line) or CSV, with only the requested fields."
+            + "<br/>Exportable fields: sensorUri, variableUri, date, value")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "Export all environment measures"),
+        @ApiResponse(code = 400, message = DocumentationAnnotation.BAD_USER_INFORMATION),
+        @ApiResponse(code = 401, message = DocumentationAnnotation.USER_NOT_AUTHORIZED),
+        @ApiResponse(code = 500, message = DocumentationAnnotation.ERROR_FETCH_DATA)
+    })
+    @ApiProtected
+    @Produces({"application/x-ndjson", "text/csv", MediaType.APPLICATION_JSON})
+    public Response exportEnvironmentMeasures(
+            @ApiParam(value = "Search by variable uri", example = DocumentationAnnotation.EXAMPLE_VARIABLE_URI, required = true) @QueryParam("variable") @URL @Required String variable,
+            @ApiParam(value = "Search by minimal date", example = DocumentationAnnotation.EXAMPLE_XSDDATETIME) @QueryParam("startDate") @Date(DateFormat.YMDTHMSZ) String startDate,
+            @ApiParam(value = "Search by maximal date", example = DocumentationAnnotation.EXAMPLE_XSDDATETIME) @QueryParam("endDate") @Date(DateFormat.YMDTHMSZ) String endDate,
+            @ApiParam(value = "Search by sensor uri", example = DocumentationAnnotation.EXAMPLE_SENSOR_URI) @QueryParam("sensor") @URL String sensor,
+            @ApiParam(value = "Date search result order ('true' for ascending and 'false' for descending)", example = "true") @QueryParam("dateSortAsc") boolean dateSortAsc,
+            @ApiParam(value = "Export format ('ndjson' or 'csv')", example = "ndjson") @QueryParam("format") @DefaultValue("ndjson") String format,
+            @ApiParam(value = "Exported fields, comma separated (all fields by default)", example = "sensorUri,date,value") @QueryParam("fields") String fields
+    ) {
+        EnvironmentMeasureDAO environmentMeasureDAO = new EnvironmentMeasureDAO(sparql);
+
+        environmentMeasureDAO.variableUri = variable;
+
+        environmentMeasureDAO.startDate = startDate;
+        environmentMeasureDAO.endDate = endDate;
+        environmentMeasureDAO.sensorUri = sensor;
+        environmentMeasureDAO.dateSortAsc = dateSortAsc;
+
+        environmentMeasureDAO.user = userSession.getUser();
+
+        return getExportResponse(EnvironmentMeasureDAO.EXPORT_FIELDS, fields, format, DateFormat.YMDTHMSZ.toString(), environmentMeasureDAO::export);
+    }
 }
@@ -7,10 +7,17 @@
 //******************************************************************************
 package opensilex.service.resource;
 
+import com.mongodb.client.FindIterable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
 import java.util.Objects;
 import javax.ws.rs.core.Response;
 import opensilex.service.PropertiesFileManager;
@@ -28,9 +35,11 @@ import opensilex.service.resource.dto.DeleteDTO;
 import opensilex.service.resource.dto.manager.AbstractVerifiedClass;
 import opensilex.service.view.brapi.Status;
 import opensilex.service.result.ResultForm;
+import opensilex.service.utils.MongoExportOutput;
 import opensilex.service.utils.POSTResultsReturn;
 import opensilex.service.view.brapi.form.AbstractResultForm;
 import opensilex.service.view.brapi.form.ResponseFormPOST;
+import org.bson.Document;
 import org.opensilex.security.user.dal.UserModel;
 
 /**
@@ -374,6 +383,63 @@ public abstract class ResourceService {
         return buildResponse(httpStatus, new ResponseFormPOST(statusList));
     }
 
+    /**
+     * Gets the streaming export response of MongoDB documents.
+     *
+     * @param exportFields export field name by document field name, for all
+     * the exportable fields
+     * @param fields requested export fields names, comma separated, all the
+     * exportable fields if null or empty
+     * @param format requested export format name
+     * @param dateFormat date format of exported dates
+     * @param documents documents to export, from the document fields to read
+     * @return the response, or a bad request response if the format or a field
+     * is unknown
+     */
+    protected Response getExportResponse(Map<String, String> exportFields, String fields, String format, String dateFormat,
+            Function<Collection<String>, FindIterable<Document>> documents) {
+        MongoExportOutput.Format exportFormat;
+        try {
+            exportFormat = MongoExportOutput.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            return getExportParameterErrorResponse("Unknown export format: " + format);
+        }
+
+        Map<String, String> selectedFields = new LinkedHashMap<>();
+        if (fields == null || fields.trim().isEmpty()) {
+            selectedFields.putAll(exportFields);
+        } else {
+            List<String> requestedFields = Arrays.asList(fields.split(","));
+            for (String requestedField : requestedFields) {
+                if (!exportFields.containsValue(requestedField.trim())) {
+                    return getExportParameterErrorResponse("Unknown export field: " + requestedField);
+                }
+            }
+            exportFields.forEach((documentField, exportField) -> {
+                if (requestedFields.stream().anyMatch((requestedField) -> requestedField.trim().equals(exportField))) {
+                    selectedFields.put(documentField, exportField);
+                }
+            });
+        }
+
+        // Compression is negotiated by the server encoding filter
+        MongoExportOutput output = new MongoExportOutput(documents.apply(selectedFields.keySet()), selectedFields, exportFormat, dateFormat);
+        return Response.ok(output, exportFormat.getMediaType()).build();
+    }
+
+    /**
+     * Gets a JSON bad request response for an invalid export parameter.
+     *
+     * @param details
+     * @return the response.
+     */
+    private Response getExportParameterErrorResponse(String details) {
+        return Response.status(Response.Status.BAD_REQUEST)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(new ResponseFormPOST(new Status(StatusCodeMsg.INVALID_INPUT_PARAMETERS, StatusCodeMsg.ERR, details)))
+                .build();
+    }
+
     /**
      * Builds a response from a status and a result form.
      *
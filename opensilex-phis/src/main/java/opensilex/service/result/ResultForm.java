@@ -66,4 +66,16 @@ public class ResultForm<T> {
     public void setStatus(List<Status> status){
         metadata.setStatus(status);
     }
+    
+    /**
+     * Sets the pagination continuation metadata.
+     * @param nextPageToken continuation token of the next page, null if there is no next page
+     * @param totalCountEstimated true if the total count is estimated
+     */
+    public void setPageContinuation(String nextPageToken, boolean totalCountEstimated) {
+        metadata.setNextPageToken(nextPageToken);
+        if (totalCountEstimated) {
+            metadata.setTotalCountEstimated(Boolean.TRUE);
+        }
+    }
 }
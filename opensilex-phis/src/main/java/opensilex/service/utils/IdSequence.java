@@ -0,0 +1,289 @@
+//******************************************************************************
+//                               IdSequence.java
+// SILEX-PHIS
+// Copyright © INRA 2019
+// Creation date: 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package opensilex.service.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
+import opensilex.service.ontology.Contexts;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.vocabulary.DCTerms;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.XSD;
+import org.eclipse.rdf4j.IsolationLevels;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.opensilex.sparql.service.SPARQLService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent id sequences used to generate URIs, one sequence by key (e.g. "sensor/2019").
+ * <pre>
+ * The sequences graph holds the last id reserved by any node sharing the triplestore.
+ * Each node reserves blocks of at least BLOCK_SIZE ids by reading and incrementing this value
+ * in one serializable transaction, so concurrent nodes never get overlapping blocks.
+ * The increment is a conditional update on the read value, written with a unique reservation
+ * identifier which is checked after commit, and the reservation is retried if the transaction
+ * conflicts with another one or the value has been changed meanwhile.
+ * Ids are then reserved from the local block by atomic update of an in-memory counter,
+ * without lock, so a batch of N ids is reserved in one call.
+ * Ids of a block not used before a restart, or skipped by a batch larger than the
+ * block remainder, are never reused.
+ * A sequence without persisted value is initialized from the given initial value,
+ * usually the last id found in existing resources URIs.
+ * </pre>
+ * @author Vincent Migot
+ */
+public final class IdSequence {
+
+    final static Logger LOGGER = LoggerFactory.getLogger(IdSequence.class);
+
+    /**
+     * Minimum number of ids reserved in the triplestore at once.
+     */
+    static final int BLOCK_SIZE = 100;
+
+    /**
+     * Maximum number of attempts to reserve a block in the triplestore.
+     */
+    private static final int MAX_ATTEMPTS = 20;
+
+    /**
+     * Sequences counters by sequence URI.
+     */
+    private static final ConcurrentHashMap<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+
+    /**
+     * Prevent IdSequence to be instanciated
+     */
+    private IdSequence() {
+
+    }
+
+    /**
+     * Reserve the next id of a sequence.
+     * @param sparql SPARQL service used to load and persist the sequence
+     * @param key sequence key
+     * @param initialValue last used id supplier, only called if the sequence has never been persisted
+     * @return reserved id
+     */
+    public static int next(SPARQLService sparql, String key, IntSupplier initialValue) {
+        return reserve(sparql, key, 1, initialValue);
+    }
+
+    /**
+     * Reserve a block of consecutive ids of a sequence.
+     * @param sparql SPARQL service used to load and persist the sequence
+     * @param key sequence key
+     * @param count number of ids to reserve
+     * @param initialValue last used id supplier, only called if the sequence has never been persisted
+     * @return first reserved id, reserved ids are from this one to (first + count - 1)
+     */
+    public static int reserve(SPARQLService sparql, String key, int count, IntSupplier initialValue) {
+        Counter counter = COUNTERS.computeIfAbsent(getSequenceUri(key), (String sequenceUri) -> new Counter());
+
+        Integer first = reserveInBlock(counter, count);
+        if (first != null) {
+            return first;
+        }
+
+        // Reserve a new block in the triplestore, the remainder of the current block is skipped
+        synchronized (counter) {
+            first = reserveInBlock(counter, count);
+            if (first == null) {
+                int size = Math.max(count, BLOCK_SIZE);
+                first = reserveBlock(sparql, key, size, initialValue);
+                counter.block.set(new Block(first + count, first + size - 1));
+            }
+            return first;
+        }
+    }
+
+    /**
+     * Reserve ids from the local block of a counter, without lock.
+     * @param counter sequence counter
+     * @param count number of ids to reserve
+     * @return first reserved id or null if the block is not large enough
+     */
+    private static Integer reserveInBlock(Counter counter, int count) {
+        Block block = counter.block.get();
+        while (block != null && block.next + count - 1 <= block.last) {
+            if (counter.block.compareAndSet(block, new Block(block.next + count, block.last))) {
+                return block.next;
+            }
+            block = counter.block.get();
+        }
+        return null;
+    }
+
+    /**
+     * Reserve a block of ids in the triplestore, shared by all nodes.
+     * A dedicated connection is used so the block is committed even if the caller transaction is rolled back.
+     * @param sparql SPARQL service used to load and persist the sequence
+     * @param key sequence key
+     * @param size number of ids to reserve
+     * @param initialValue last used id supplier, only called if the sequence has never been persisted
+     * @return first reserved id, reserved ids are from this one to (first + size - 1)
+     */
+    static int reserveBlock(SPARQLService sparql, String key, int size, IntSupplier initialValue) {
+        Repository repository = sparql.getRepositoryConnection().getRepository();
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            String reservation = UUID.randomUUID().toString();
+            try (RepositoryConnection connection = repository.getConnection()) {
+                int lastUsed;
+                connection.begin(IsolationLevels.SERIALIZABLE);
+                try {
+                    Integer persistedValue = load(connection, key);
+                    if (persistedValue == null) {
+                        lastUsed = initialValue.getAsInt();
+                        LOGGER.debug("Initialize id sequence " + getSequenceUri(key) + " with: " + lastUsed);
+                    } else {
+                        lastUsed = persistedValue;
+                    }
+
+                    persist(connection, key, persistedValue, lastUsed + size, reservation);
+                    connection.commit();
+                } catch (RepositoryException ex) {
+                    if (connection.isActive()) {
+                        connection.rollback();
+                    }
+                    LOGGER.debug("Conflict while reserving ids of sequence " + getSequenceUri(key) + ": " + ex.getMessage());
+                    lastUsed = -1;
+                }
+
+                // Identical concurrent writes may not be detected as conflicts, so check the committed reservation
+                if (lastUsed >= 0 && isReserved(connection, key, reservation)) {
+                    return lastUsed + 1;
+                }
+            }
+
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(10 * attempt));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        throw new IllegalStateException("Unable to reserve ids of sequence " + getSequenceUri(key));
+    }
+
+    private static String getSequenceUri(String key) {
+        return Contexts.SEQUENCES.toString() + "/" + key;
+    }
+
+    private static String getSequenceTriple(String key, Property property, String value) {
+        return "<" + getSequenceUri(key) + "> <" + property.getURI() + "> " + value + " . ";
+    }
+
+    private static String getLiteral(int value) {
+        return "\"" + value + "\"^^<" + XSD.xint.getURI() + ">";
+    }
+
+    /**
+     * Load the persisted limit of a sequence.
+     * @param connection
+     * @param key
+     * @return persisted limit or null if the sequence has never been persisted
+     */
+    private static Integer load(RepositoryConnection connection, String key) {
+        String query = "SELECT ?value WHERE { GRAPH <" + Contexts.SEQUENCES.toString() + "> { "
+                + getSequenceTriple(key, RDF.value, "?value") + " } }";
+        Integer value = null;
+        try (TupleQueryResult result = connection.prepareTupleQuery(QueryLanguage.SPARQL, query).evaluate()) {
+            while (result.hasNext()) {
+                BindingSet bindingSet = result.next();
+                int persistedValue = Integer.parseInt(bindingSet.getValue("value").stringValue());
+                value = (value == null) ? persistedValue : Math.max(value, persistedValue);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Persist the limit of a sequence with the reservation identifier, if it has not been changed since it has been
+     * read.
+     * @param connection
+     * @param key
+     * @param previousLimit read limit or null if the sequence has never been persisted
+     * @param limit new limit
+     * @param reservation reservation identifier
+     */
+    private static void persist(RepositoryConnection connection, String key, Integer previousLimit, int limit, String reservation) {
+        String graph = Contexts.SEQUENCES.toString();
+        String insert = "INSERT { GRAPH <" + graph + "> { "
+                + getSequenceTriple(key, RDF.value, getLiteral(limit))
+                + getSequenceTriple(key, DCTerms.identifier, "\"" + reservation + "\"") + " } } ";
+        String update;
+        if (previousLimit == null) {
+            update = insert
+                    + "WHERE { FILTER NOT EXISTS { GRAPH <" + graph + "> { " + getSequenceTriple(key, RDF.value, "?old") + " } } }";
+        } else {
+            update = "DELETE { GRAPH <" + graph + "> { "
+                    + getSequenceTriple(key, RDF.value, "?old")
+                    + getSequenceTriple(key, DCTerms.identifier, "?oldReservation") + " } } "
+                    + insert
+                    + "WHERE { GRAPH <" + graph + "> { "
+                    + getSequenceTriple(key, RDF.value, getLiteral(previousLimit))
+                    + getSequenceTriple(key, RDF.value, "?old")
+                    + "OPTIONAL { " + getSequenceTriple(key, DCTerms.identifier, "?oldReservation") + " } } }";
+        }
+        connection.prepareUpdate(QueryLanguage.SPARQL, update).execute();
+    }
+
+    /**
+     * Determine if a reservation is the only one committed for the current limit of a sequence.
+     * @param connection
+     * @param key
+     * @param reservation reservation identifier
+     * @return false if the reservation has not been written or has been written concurrently with another one
+     */
+    private static boolean isReserved(RepositoryConnection connection, String key, String reservation) {
+        String query = "SELECT ?reservation WHERE { GRAPH <" + Contexts.SEQUENCES.toString() + "> { "
+                + getSequenceTriple(key, DCTerms.identifier, "?reservation") + " } }";
+        List<String> reservations = new ArrayList<>();
+        try (TupleQueryResult result = connection.prepareTupleQuery(QueryLanguage.SPARQL, query).evaluate()) {
+            while (result.hasNext()) {
+                reservations.add(result.next().getValue("reservation").stringValue());
+            }
+        }
+        return reservations.size() == 1 && reservations.get(0).equals(reservation);
+    }
+
+    /**
+     * Sequence counter, holding the block of ids reserved in the triplestore by this node.
+     */
+    private static final class Counter {
+
+        private final AtomicReference<Block> block = new AtomicReference<>();
+    }
+
+    /**
+     * Remaining ids of a reserved block, from next to last.
+     */
+    private static final class Block {
+
+        private final int next;
+
+        private final int last;
+
+        private Block(int next, int last) {
+            this.next = next;
+            this.last = last;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+//******************************************************************************
+//                               LabelCache.java
+// SILEX-PHIS
+// Copyright © INRA 2019
+// Creation date: 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package opensilex.service.utils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded cache of labels by URI and language, shared by DTO builders.
+ * <pre>
+ * Least recently used entries are evicted when the cache is full.
+ * Only URIs with at least one label are cached, so new resources are always looked up.
+ * Triplestore labels are invalidated by SPARQL services rdfs:label writes, provenances labels by provenances updates.
+ * </pre>
+ * @see opensilex.service.dao.manager.Rdf4jDAO#findLabelsForUris(java.util.Collection, java.lang.String)
+ * @see opensilex.service.dao.ProvenanceDAO#findLabelsByUris(java.util.Collection)
+ * @author Vincent Migot
+ */
+public final class LabelCache {
+
+    /**
+     * Maximum number of cached URIs by cache.
+     */
+    private static final int MAX_SIZE = 10000;
+
+    /**
+     * Language key used for labels in all languages.
+     */
+    private static final String ALL_LANGUAGES = "";
+
+    /**
+     * Cache of triplestore rdfs:label values.
+     */
+    public static final LabelCache RESOURCES = new LabelCache();
+
+    /**
+     * Cache of provenances labels.
+     */
+    public static final LabelCache PROVENANCES = new LabelCache();
+
+    /**
+     * Cached labels by URI, then by language.
+     */
+    private final LinkedHashMap<String, Map<String, List<String>>> labels = new LinkedHashMap<String, Map<String, List<String>>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Map<String, List<String>>> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    private LabelCache() {
+
+    }
+
+    private static String getLanguageKey(String language) {
+        return language == null ? ALL_LANGUAGES : language;
+    }
+
+    /**
+     * Get cached labels of the given URIs.
+     * @param uris
+     * @param language label language, null for all languages
+     * @return labels by URI, only for cached URIs
+     */
+    public Map<String, List<String>> getAll(Collection<String> uris, String language) {
+        String languageKey = getLanguageKey(language);
+        Map<String, List<String>> cachedLabels = new HashMap<>();
+        synchronized (labels) {
+            for (String uri : uris) {
+                Map<String, List<String>> uriLabels = labels.get(uri);
+                if (uriLabels != null && uriLabels.containsKey(languageKey)) {
+                    cachedLabels.put(uri, uriLabels.get(languageKey));
+                }
+            }
+        }
+        return cachedLabels;
+    }
+
+    /**
+     * Cache labels of URIs, URIs without label are ignored.
+     * @param labelsByUri
+     * @param language label language, null for all languages
+     */
+    public void putAll(Map<String, List<String>> labelsByUri, String language) {
+        String languageKey = getLanguageKey(language);
+        synchronized (labels) {
+            labelsByUri.forEach((uri, uriLabels) -> {
+                if (uriLabels != null && !uriLabels.isEmpty()) {
+                    labels.computeIfAbsent(uri, (key) -> new HashMap<>()).put(languageKey, Collections.unmodifiableList(uriLabels));
+                }
+            });
+        }
+    }
+
+    /**
+     * Remove cached labels of an URI, in all languages.
+     * @param uri
+     */
+    public void invalidate(String uri) {
+        synchronized (labels) {
+            labels.remove(uri);
+        }
+    }
+
+    /**
+     * Remove cached labels of URIs, in all languages.
+     * @param uris URIs to invalidate, null to remove all cached labels
+     */
+    public void invalidateAll(Collection<String> uris) {
+        synchronized (labels) {
+            if (uris == null) {
+                labels.clear();
+            } else {
+                uris.forEach(labels::remove);
+            }
+        }
+    }
+
+    /**
+     * Remove all cached labels.
+     */
+    public void clear() {
+        synchronized (labels) {
+            labels.clear();
+        }
+    }
+
+    /**
+     * @return number of cached URIs
+     */
+    public int size() {
+        synchronized (labels) {
+            return labels.size();
+        }
+    }
+}
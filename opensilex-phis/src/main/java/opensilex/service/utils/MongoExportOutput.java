@@ -0,0 +1,145 @@
+//******************************************************************************
+//                             MongoExportOutput.java
+// SILEX-PHIS
+// Copyright © INRA 2019
+// Creation date: 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package opensilex.service.utils;
+
+import com.google.gson.Gson;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCursor;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.ws.rs.core.StreamingOutput;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+
+/**
+ * Streaming export of MongoDB documents, written to the response while the cursor is iterated.
+ * <pre>
+ * One line is written by document, as NDJSON (one JSON object by line) or CSV (with a header line),
+ * so the memory used does not depend on the number of exported documents.
+ * Documents fields are renamed with the given export fields names, in the given order.
+ * Dates are formatted with the given date format and decimals are written as numbers.
+ * Output is not compressed here, response compression is negotiated by the server encoding filter.
+ * </pre>
+ * @author Vincent Migot
+ */
+public class MongoExportOutput implements StreamingOutput {
+
+    /**
+     * Export formats.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+    }
+
+    private static final char CSV_SEPARATOR = ',';
+
+    private final FindIterable<Document> documents;
+
+    private final Map<String, String> fields;
+
+    private final Format format;
+
+    private final String dateFormat;
+
+    private final Gson gson = new Gson();
+
+    /**
+     * @param documents documents to export, sorted and projected
+     * @param fields export field name by document field name, in export order
+     * @param format export format
+     * @param dateFormat date format of exported dates
+     */
+    public MongoExportOutput(FindIterable<Document> documents, Map<String, String> fields, Format format, String dateFormat) {
+        this.documents = documents;
+        this.fields = fields;
+        this.format = format;
+        this.dateFormat = dateFormat;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        SimpleDateFormat df = new SimpleDateFormat(dateFormat);
+
+        if (format == Format.CSV) {
+            writeCSVLine(writer, fields.values());
+        }
+
+        try (MongoCursor<Document> cursor = documents.iterator()) {
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                Map<String, Object> line = new LinkedHashMap<>();
+                fields.forEach((documentField, exportField) -> {
+                    line.put(exportField, getExportValue(document.get(documentField), df));
+                });
+
+                if (format == Format.CSV) {
+                    writeCSVLine(writer, line.values());
+                } else {
+                    gson.toJson(line, writer);
+                    writer.write('\n');
+                }
+            }
+        }
+
+        writer.flush();
+    }
+
+    private static Object getExportValue(Object value, SimpleDateFormat df) {
+        if (value instanceof Date) {
+            return df.format((Date) value);
+        } else if (value instanceof Decimal128) {
+            return new BigDecimal(value.toString());
+        }
+        return value;
+    }
+
+    private void writeCSVLine(Writer writer, Iterable<?> values) throws IOException {
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) {
+                writer.write(CSV_SEPARATOR);
+            }
+            first = false;
+
+            if (value == null) {
+                continue;
+            }
+            String stringValue = (value instanceof Map) ? gson.toJson(value) : value.toString();
+            if (stringValue.indexOf(CSV_SEPARATOR) >= 0 || stringValue.indexOf('"') >= 0
+                    || stringValue.indexOf('\n') >= 0 || stringValue.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(stringValue.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(stringValue);
+            }
+        }
+        writer.write('\n');
+    }
+}
@@ -13,9 +13,7 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 import org.apache.commons.codec.binary.Base32;
 import org.apache.jena.sparql.AlreadyExists;
@@ -60,6 +58,7 @@ import org.opensilex.sparql.service.SPARQLService;
  *              - Second user: Jean Dupont-Marie http://www.phenome-fppn.fr/diaphen/id/agent/jean_dupont-marie01
  * \SILEX:todo
  * @update [Vincent Migot] 17 July 2019: Add syncronization on public methods to prevent URI duplication
+ * @update [Vincent Migot] 2019: Replace syncronization by persistent id sequences for numbered URIs
  */
 public class UriGenerator {    
     private static final String URI_CODE_ACTUATOR = "a";
@@ -96,6 +95,21 @@ public class UriGenerator {
     private static final String PLATFORM_URI_ID_GENUS = PLATFORM_URI_ID + "genus/";
     public static final String PLATFORM_URI_ID_FACTORS = PLATFORM_URI_ID + "factors/" + URI_CODE_FACTOR;
     private static final String EXPERIMENT_URI_SEPARATOR = "-";
+    private static final String SEQUENCE_ACTUATOR = "actuator";
+    private static final String SEQUENCE_FACTOR = "factor";
+    private static final String SEQUENCE_METHOD = "method";
+    private static final String SEQUENCE_RADIOMETRIC_TARGET = "radiometricTarget";
+    private static final String SEQUENCE_SCIENTIFIC_OBJECT = "scientificObject";
+    private static final String SEQUENCE_SENSOR = "sensor";
+    private static final String SEQUENCE_TRAIT = "trait";
+    private static final String SEQUENCE_UNIT = "unit";
+    private static final String SEQUENCE_VARIABLE = "variable";
+    private static final String SEQUENCE_VECTOR = "vector";
+    
+    /**
+     * Lock for URI generators based on triplestore or database state instead of id sequences
+     */
+    private static final Object GENERATION_LOCK = new Object();
     private final SPARQLService sparql;
 
     /**
@@ -129,24 +143,11 @@ public class UriGenerator {
     }
     
     /**
-     * Internal variable to store the last vector ID by year
-     */
-    private Map<String, Integer> vectorLastIDByYear = new HashMap<>();
-    
-    /**
-     * Return the next vector ID by incrementing vectorLastIDByYear variable and initializing it before if needed
+     * Return the next vector ID from the vector sequence of the year, initialized from existing vectors if needed
      * @return next vector ID
      */
     private int getNextVectorID(String year) {
-        if (!vectorLastIDByYear.containsKey(year)) {
-            VectorDAO vectorDAO = new VectorDAO(sparql);
-            vectorLastIDByYear.put(year, vectorDAO.getLastIdFromYear(year));
-        }
-        
-        int vectorLastID = vectorLastIDByYear.get(year);
-        vectorLastID++;
-        vectorLastIDByYear.put(year, vectorLastID);
-        return vectorLastID;
+        return IdSequence.next(sparql, SEQUENCE_VECTOR + "/" + year, () -> new VectorDAO(sparql).getLastIdFromYear(year));
     }
 
     /**
@@ -187,24 +188,11 @@ public class UriGenerator {
     }
     
     /**
-     * Internal variable to store the last sensor ID by year
-     */
-    private Map<String, Integer> sensorLastIDByYear = new HashMap<>();
-    
-    /**
-     * Return the next sensor ID by incrementing sensorLastIDByYear variable and initializing it before if needed
+     * Return the next sensor ID from the sensor sequence of the year, initialized from existing sensors if needed
      * @return next sensor ID
      */
     private int getNextSensorID(String year) {
-        if (!sensorLastIDByYear.containsKey(year)) {
-            SensorDAO sensorDAO = new SensorDAO(sparql);
-            sensorLastIDByYear.put(year, sensorDAO.getLastIdFromYear(year));
-        }
-        
-        int sensorLastID = sensorLastIDByYear.get(year);
-        sensorLastID++;
-        sensorLastIDByYear.put(year, sensorLastID);
-        return sensorLastID;
+        return IdSequence.next(sparql, SEQUENCE_SENSOR + "/" + year, () -> new SensorDAO(sparql).getLastIdFromYear(year));
     }
     
     /**
@@ -245,24 +233,11 @@ public class UriGenerator {
     }
 
     /**
-     * Internal variable to store the last actuator ID by year
-     */
-    private Map<String, Integer> actuatorLastIDByYear = new HashMap<>();
-    
-    /**
-     * Return the next actuator ID by incrementing actuatorLastIDByYear variable and initializing it before if needed
+     * Return the next actuator ID from the actuator sequence of the year, initialized from existing actuators if needed
      * @return next actuator ID
      */
     private int getNextActuatorID(String year) {
-        if (!actuatorLastIDByYear.containsKey(year)) {
-            ActuatorDAO actuatorDAO = new ActuatorDAO(sparql);
-            actuatorLastIDByYear.put(year, actuatorDAO.getLastIdFromYear(year));
-        }
-        
-        int actuatorLastID = actuatorLastIDByYear.get(year);
-        actuatorLastID++;
-        actuatorLastIDByYear.put(year, actuatorLastID);
-        return actuatorLastID;
+        return IdSequence.next(sparql, SEQUENCE_ACTUATOR + "/" + year, () -> new ActuatorDAO(sparql).getLastIdFromYear(year));
     }
     
     /**
@@ -285,7 +260,17 @@ public class UriGenerator {
      * @return the new agronomical object URI
      */
     private String generateScientificObjectUri(String year) {
-        String agronomicalObjectId = Integer.toString(getNextScientificObjectID(year));
+        return formatScientificObjectUri(year, getNextScientificObjectID(year));
+    }
+
+    /**
+     * Format a scientific object URI from its ID
+     * @param year
+     * @param id
+     * @return the scientific object URI
+     */
+    private static String formatScientificObjectUri(String year, int id) {
+        String agronomicalObjectId = Integer.toString(id);
 
         while (agronomicalObjectId.length() < 6) {
             agronomicalObjectId = "0" + agronomicalObjectId;
@@ -295,24 +280,22 @@ public class UriGenerator {
     }
 
     /**
-     * Internal variable to store the last scientifc object ID by year
-     */
-    private Map<String, Integer> scientificObjectLastIDByYear = new HashMap<>();
-    
-    /**
-     * Return the next scientifc object ID by incrementing scientificObjectLastIDByYear variable and initializing it before if needed
+     * Return the next scientific object ID from the scientific object sequence of the year, initialized from existing scientific objects if needed
      * @return next scientific object ID
      */
     private int getNextScientificObjectID(String year) {
-        if (!scientificObjectLastIDByYear.containsKey(year)) {
-            ScientificObjectRdf4jDAO scientificObjectDAO = new ScientificObjectRdf4jDAO(sparql);
-            scientificObjectLastIDByYear.put(year, scientificObjectDAO.getLastScientificObjectIdFromYear(year));
-        }
-        
-        int scientificObjectLastID = scientificObjectLastIDByYear.get(year);
-        scientificObjectLastID++;
-        scientificObjectLastIDByYear.put(year, scientificObjectLastID);
-        return scientificObjectLastID;
+        return reserveScientificObjectIDs(year, 1);
+    }
+
+    /**
+     * Reserve consecutive scientific object IDs in the scientific object sequence of the year
+     * @param year
+     * @param count number of IDs to reserve
+     * @return first reserved ID
+     */
+    private int reserveScientificObjectIDs(String year, int count) {
+        return IdSequence.reserve(sparql, SEQUENCE_SCIENTIFIC_OBJECT + "/" + year, count,
+                () -> new ScientificObjectRdf4jDAO(sparql).getLastScientificObjectIdFromYear(year));
     }
     
     /**
@@ -343,23 +326,11 @@ public class UriGenerator {
     }
     
     /**
-     * Internal variable to store the last variable ID
-     */
-    private Integer variableLastID;
-    
-    /**
-     * Return the next variable ID by incrementing variableLastID variable and initializing it before if needed
+     * Return the next variable ID from the variable sequence, initialized from existing variables if needed
      * @return next variable ID
      */
     private int getNextVariableID() {
-        if (variableLastID == null) {
-            VariableDAO variableDAO = new VariableDAO(sparql);
-            variableLastID = variableDAO.getLastId();
-        }
-        
-        variableLastID++;
-        
-        return variableLastID;
+        return IdSequence.next(sparql, SEQUENCE_VARIABLE, () -> new VariableDAO(sparql).getLastId());
     }
 
     /**
@@ -381,23 +352,11 @@ public class UriGenerator {
     }
     
     /**
-     * Internal variable to store the last trait ID
-     */
-    private Integer traitLastID;
-
-    /**
-     * Return the next trait ID by incrementing traitLastID variable and initializing it before if needed
+     * Return the next trait ID from the trait sequence, initialized from existing traits if needed
      * @return next trait ID
      */
     private int getNextTraitID() {
-        if (traitLastID == null) {
-            TraitDAO traitDAO = new TraitDAO(sparql);
-            traitLastID = traitDAO.getLastId();
-        }
-        
-        traitLastID++;
-        
-        return traitLastID;
+        return IdSequence.next(sparql, SEQUENCE_TRAIT, () -> new TraitDAO(sparql).getLastId());
     }
 
     /**
@@ -419,23 +378,11 @@ public class UriGenerator {
     }
     
     /**
-     * Internal variable to store the last method ID
-     */
-    private Integer methodLastID;
-
-    /**
-     * Return the next method ID by incrementing methodLastID variable and initializing it before if needed
+     * Return the next method ID from the method sequence, initialized from existing methods if needed
      * @return next method ID
      */
     private int getNextMethodID() {
-        if (methodLastID == null) {
-            MethodDAO methodDAO = new MethodDAO(sparql);
-            methodLastID = methodDAO.getLastId();
-        }
-        
-        methodLastID++;
-        
-        return methodLastID;
+        return IdSequence.next(sparql, SEQUENCE_METHOD, () -> new MethodDAO(sparql).getLastId());
     }
 
     /**
@@ -457,23 +404,11 @@ public class UriGenerator {
     }
 
     /**
-     * Internal variable to store the last unit ID
-     */
-    private Integer unitLastID;
-    
-    /**
-     * Return the next unit ID by incrementing unitLastID variable and initializing it before if needed
+     * Return the next unit ID from the unit sequence, initialized from existing units if needed
      * @return next unit ID
      */
     private int getNextUnitID() {
-        if (unitLastID == null) {
-            UnitDAO unitDAO = new UnitDAO(sparql);
-            unitLastID = unitDAO.getLastId();
-        }
-        
-        unitLastID++;
-        
-        return unitLastID;
+        return IdSequence.next(sparql, SEQUENCE_UNIT, () -> new UnitDAO(sparql).getLastId());
     }
     
     /**
@@ -484,13 +419,12 @@ public class UriGenerator {
      * @return The new radiometric target URI
      */
     private String generateRadiometricTargetUri() {
-        //1. Get the highest radiometric target id (i.e. the last inserted
-        //radiometric target)
-        RadiometricTargetDAO radiometricTargetDAO = new RadiometricTargetDAO(sparql);
-        int lastID = radiometricTargetDAO.getLastId();
+        //1. Get the next radiometric target id, initialized from the highest
+        //radiometric target id (i.e. the last inserted radiometric target)
+        int newRadiometricTargetID = IdSequence.next(sparql, SEQUENCE_RADIOMETRIC_TARGET,
+                () -> new RadiometricTargetDAO(sparql).getLastId());
         
         //2. Generate radiometric target URI
-        int newRadiometricTargetID = lastID + 1;
         String radiometricTargetID = Integer.toString(newRadiometricTargetID);
         
         while (radiometricTargetID.length() < 3) {
@@ -701,23 +635,11 @@ public class UriGenerator {
     }
     
     /**
-     * Internal variable to store the last factor ID
-     */
-    private Integer factorLastID;
-    
-    /**
-     * Return the next factor ID by incrementing variableLastID variable and initializing it before if needed
+     * Return the next factor ID from the factor sequence, initialized from existing factors if needed
      * @return next factor ID
      */
     private int getNextFactorID() {
-        if (factorLastID == null) {
-            FactorDAO factorDAO = new FactorDAO(sparql);
-            factorLastID = factorDAO.getLastId();
-        }
-        
-        factorLastID++;
-        
-        return factorLastID;
+        return IdSequence.next(sparql, SEQUENCE_FACTOR, () -> new FactorDAO(sparql).getLastId());
     }
     
     
@@ -742,16 +664,21 @@ public class UriGenerator {
      * @param numberOfUrisToGenerate
      * @return the list of uri generated
      */
-    public synchronized static List<String> generateScientificObjectUris(SPARQLService sparql, String year, Integer numberOfUrisToGenerate) {
+    public static List<String> generateScientificObjectUris(SPARQLService sparql, String year, Integer numberOfUrisToGenerate) {
         if (year == null) {
             year = Integer.toString(Calendar.getInstance().get(Calendar.YEAR));
         }
         UriGenerator instance = new UriGenerator(sparql);
 
         List<String> scientificObjectUris = new ArrayList<>();
-               
+        if (numberOfUrisToGenerate <= 0) {
+            return scientificObjectUris;
+        }
+
+        // Reserve all IDs in one sequence call
+        int firstId = instance.reserveScientificObjectIDs(year, numberOfUrisToGenerate);
         for (int i = 0; i < numberOfUrisToGenerate; i++) {
-            scientificObjectUris.add(instance.generateScientificObjectUri(year));            
+            scientificObjectUris.add(formatScientificObjectUri(year, firstId + i));
         }
         
         return scientificObjectUris;
@@ -759,7 +686,8 @@ public class UriGenerator {
 
     /**
      * Generates the URI of a new instance of instanceType.
-     * This method is syncronized to prevent URI duplication in case of multiple thread request for new URIs
+     * Numbered URIs use persistent id sequences to prevent URI duplication in case of multiple thread request for new URIs
+     * without global lock
      * @param instanceType the RDF type of the instance (a concept URI)
      * @param year year of the creation of the element. If it is null, it will
      * be the current year
@@ -769,7 +697,7 @@ public class UriGenerator {
      * @return the generated URI
      * @throws java.lang.Exception
      */
-    public synchronized static String generateNewInstanceUri(SPARQLService sparql, String instanceType, String year, String additionalInformation) 
+    public static String generateNewInstanceUri(SPARQLService sparql, String instanceType, String year, String additionalInformation) 
             throws Exception {
         
         UriGenerator instance = new UriGenerator(sparql);
@@ -806,7 +734,9 @@ public class UriGenerator {
                 || uriDao.isSubClassOf(instanceType, Oeso.CONCEPT_PLANT_MATERIAL_LOT.toString())) {
             return instance.generateLotUri(additionalInformation);            
         } else if (uriDao.isSubClassOf(instanceType, Oeso.CONCEPT_IMAGE.toString())) {
-            return instance.generateImageUri(year, additionalInformation);
+            synchronized (GENERATION_LOCK) {
+                return instance.generateImageUri(year, additionalInformation);
+            }
         } else if (instanceType.equals(Foaf.CONCEPT_AGENT.toString()) 
                 || uriDao.isSubClassOf(instanceType, Foaf.CONCEPT_AGENT.toString())) {
             return instance.generateAgentUri(additionalInformation);
@@ -815,7 +745,9 @@ public class UriGenerator {
         } else if (instanceType.equals(Oeso.CONCEPT_RADIOMETRIC_TARGET.toString())) {
             return instance.generateRadiometricTargetUri();
         } else if (instanceType.equals(Oeso.CONCEPT_PROVENANCE.toString())) {
-            return instance.generateProvenanceUri();
+            synchronized (GENERATION_LOCK) {
+                return instance.generateProvenanceUri();
+            }
         } else if (instanceType.equals(Oeso.CONCEPT_DATA.toString())) {
             return instance.generateDataUri(additionalInformation);
         } else if (uriDao.isSubClassOf(instanceType, Oeev.Event.getURI())) {
@@ -7,6 +7,7 @@
 //******************************************************************************
 package opensilex.service.view.brapi;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import java.util.ArrayList;
@@ -25,6 +26,8 @@ public class Metadata {
     private final Pagination pagination;
     private List<Status> status;
     private List<String> datafiles;
+    private String nextPageToken;
+    private Boolean totalCountEstimated;
 
     public void setDatafiles(List<String> datafiles) {
         this.datafiles = datafiles;
@@ -116,4 +119,30 @@ public class Metadata {
     public List<String> getDatafiles() {
         return datafiles;
     }
+
+    /**
+     * @return continuation token of the next page, null if there is no next page or if pages are not continued by token
+     */
+    @ApiModelProperty(position = 4)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public void setNextPageToken(String nextPageToken) {
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * @return true if the total count is estimated, null if it is exact
+     */
+    @ApiModelProperty(position = 5)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Boolean getTotalCountEstimated() {
+        return totalCountEstimated;
+    }
+
+    public void setTotalCountEstimated(Boolean totalCountEstimated) {
+        this.totalCountEstimated = totalCountEstimated;
+    }
 }
@@ -0,0 +1,197 @@
+//******************************************************************************
+//                             MongoDAOTest.java
+// SILEX-PHIS
+// Copyright © INRA 2019
+// Creation date: 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package opensilex.service.dao.manager;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.MongoClient;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import java.util.Date;
+import java.util.List;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import org.mockito.Mockito;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.opensilex.unit.test.AbstractUnitTest;
+
+/**
+ * Tests of MongoDAO pages by date and counts, on mocked collections.
+ * @author Vincent Migot
+ */
+public class MongoDAOTest extends AbstractUnitTest {
+
+    private static final String DATE_FIELD = "date";
+
+    /**
+     * DAO shared by tests, its creation initializes the MongoDB client.
+     */
+    private static DocumentDAO dao;
+
+    /**
+     * Minimal DAO giving access to the MongoDAO search methods.
+     */
+    private static class DocumentDAO extends MongoDAO<Document> {
+
+        @Override
+        protected BasicDBObject prepareSearchQuery() {
+            return new BasicDBObject();
+        }
+
+        @Override
+        public List<Document> create(List<Document> objects) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void delete(List<Document> objects) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Document> update(List<Document> objects) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Document find(Document object) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Document findById(String id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void validate(List<Document> objects) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @BeforeClass
+    public static void createDAO() {
+        dao = new DocumentDAO();
+    }
+
+    @Before
+    public void resetDAO() {
+        dao.setPageSize(null);
+        dao.setPageToken(null);
+        dao.setEstimatedCount(false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MongoCollection<Document> mockCollection(Document... documents) {
+        MongoCursor<Document> cursor = Mockito.mock(MongoCursor.class);
+        Boolean[] hasNext = new Boolean[documents.length];
+        for (int i = 0; i < documents.length; i++) {
+            hasNext[i] = i < documents.length - 1;
+        }
+        when(cursor.hasNext()).thenReturn(documents.length > 0, hasNext);
+        if (documents.length > 0) {
+            Document[] nextDocuments = new Document[documents.length - 1];
+            System.arraycopy(documents, 1, nextDocuments, 0, nextDocuments.length);
+            when(cursor.next()).thenReturn(documents[0], nextDocuments);
+        }
+
+        FindIterable<Document> iterable = Mockito.mock(FindIterable.class);
+        when(iterable.sort(any())).thenReturn(iterable);
+        when(iterable.skip(anyInt())).thenReturn(iterable);
+        when(iterable.limit(anyInt())).thenReturn(iterable);
+        when(iterable.iterator()).thenReturn(cursor);
+
+        MongoCollection<Document> collection = Mockito.mock(MongoCollection.class);
+        when(collection.find(any(Bson.class))).thenReturn(iterable);
+        return collection;
+    }
+
+    private static BsonDocument toBson(Bson bson) {
+        return bson.toBsonDocument(BsonDocument.class, MongoClient.getDefaultCodecRegistry());
+    }
+
+    @Test
+    public void testPageTokenRoundTrip() {
+        Date date = new Date(1560000000000L);
+        ObjectId lastId = new ObjectId();
+        MongoCollection<Document> collection = mockCollection(
+                new Document(MongoDAO.DB_FIELD_ID, new ObjectId()).append(DATE_FIELD, date),
+                new Document(MongoDAO.DB_FIELD_ID, lastId).append(DATE_FIELD, date));
+
+        dao.setPageSize(2);
+        Bson query = Filters.eq("variable", "http://test/variables/v001");
+        assertEquals(2, dao.findPageByDate(collection, query, DATE_FIELD, true).size());
+        String nextPageToken = dao.getNextPageToken();
+
+        MongoCollection<Document> nextCollection = mockCollection();
+        dao.setPageToken(nextPageToken);
+        assertEquals(0, dao.findPageByDate(nextCollection, query, DATE_FIELD, true).size());
+        assertNull("A partial page has no next page", dao.getNextPageToken());
+
+        ArgumentCaptor<Bson> pageQuery = ArgumentCaptor.forClass(Bson.class);
+        verify(nextCollection).find(pageQuery.capture());
+        Bson expectedQuery = Filters.and(query, Filters.or(
+                Filters.gt(DATE_FIELD, date),
+                Filters.and(Filters.eq(DATE_FIELD, date), Filters.gt(MongoDAO.DB_FIELD_ID, lastId))));
+        assertEquals("Next page should start after the last document", toBson(expectedQuery), toBson(pageQuery.getValue()));
+
+        // Searches never create indexes
+        verify(collection, never()).createIndex(any(Bson.class));
+        verify(collection, never()).createIndex(any(Bson.class), any(IndexOptions.class));
+        verify(nextCollection, never()).createIndex(any(Bson.class), any(IndexOptions.class));
+    }
+
+    @Test
+    public void testInvalidPageToken() {
+        MongoCollection<Document> collection = mockCollection();
+        dao.setPageSize(2);
+        dao.setPageToken("invalid");
+
+        try {
+            dao.findPageByDate(collection, new Document(), DATE_FIELD, true);
+            fail("An invalid page token should be rejected");
+        } catch (IllegalArgumentException ex) {
+            verify(collection, never()).find(any(Bson.class));
+        }
+    }
+
+    @Test
+    public void testEstimatedCount() {
+        MongoCollection<Document> collection = mockCollection();
+        Bson query = Filters.eq("variable", "http://test/variables/v001");
+        when(collection.countDocuments(query)).thenReturn(20000L);
+        when(collection.countDocuments(any(Bson.class), any(CountOptions.class))).thenReturn(10000L);
+        when(collection.estimatedDocumentCount()).thenReturn(30000L);
+
+        assertEquals(20000L, dao.countDocuments(collection, query, true));
+
+        dao.setEstimatedCount(true);
+        assertEquals(30000L, dao.countDocuments(collection, new Document(), false));
+        assertEquals(10000L, dao.countDocuments(collection, query, true));
+
+        ArgumentCaptor<CountOptions> options = ArgumentCaptor.forClass(CountOptions.class);
+        verify(collection).countDocuments(any(Bson.class), options.capture());
+        assertEquals("Estimated count with filters should be capped", 10000, options.getValue().getLimit());
+    }
+}
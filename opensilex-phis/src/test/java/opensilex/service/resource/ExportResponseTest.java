@@ -0,0 +1,116 @@
+//******************************************************************************
+//                             ExportResponseTest.java
+// SILEX-PHIS
+// Copyright © INRA 2019
+// Creation date: 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package opensilex.service.resource;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCursor;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import org.bson.Document;
+import org.glassfish.jersey.message.GZipEncoder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.filter.EncodingFilter;
+import org.glassfish.jersey.test.JerseyTest;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests of the streaming export response, compressed once by the server encoding filter.
+ * @author Vincent Migot
+ */
+public class ExportResponseTest extends JerseyTest {
+
+    private static final String EXPECTED_EXPORT = "{\"uri\":\"http://test/data/1\",\"value\":1}\n"
+            + "{\"uri\":\"http://test/data/2\",\"value\":2}\n";
+
+    /**
+     * Resource exporting two documents.
+     */
+    @Path("/export")
+    public static class ExportResourceService extends ResourceService {
+
+        @GET
+        @Produces("application/x-ndjson")
+        @SuppressWarnings("unchecked")
+        public Response export() {
+            Map<String, String> exportFields = new LinkedHashMap<>();
+            exportFields.put("uri", "uri");
+            exportFields.put("value", "value");
+
+            MongoCursor<Document> cursor = Mockito.mock(MongoCursor.class);
+            Mockito.when(cursor.hasNext()).thenReturn(true, true, false);
+            Mockito.when(cursor.next()).thenReturn(
+                    new Document("uri", "http://test/data/1").append("value", 1),
+                    new Document("uri", "http://test/data/2").append("value", 2));
+            FindIterable<Document> documents = Mockito.mock(FindIterable.class);
+            Mockito.when(documents.iterator()).thenReturn(cursor);
+
+            return getExportResponse(exportFields, null, "ndjson", "yyyy-MM-dd", (fields) -> documents);
+        }
+    }
+
+    @Override
+    protected ResourceConfig configure() {
+        return new ResourceConfig(ExportResourceService.class)
+                .register(GZipEncoder.class)
+                .register(EncodingFilter.class);
+    }
+
+    private static String read(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int length;
+        while ((length = input.read(buffer)) > 0) {
+            output.write(buffer, 0, length);
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Test that a GZIP export is decoded exactly once.
+     * @throws IOException
+     */
+    @Test
+    public void testGzipExport() throws IOException {
+        Response response = target("/export").request()
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .get();
+
+        assertEquals(200, response.getStatus());
+        assertEquals("gzip", response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+
+        byte[] content = response.readEntity(byte[].class);
+        try (GZIPInputStream decoded = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            assertEquals(EXPECTED_EXPORT, read(decoded));
+        }
+    }
+
+    /**
+     * Test that an export is not compressed if the client doesn't accept it.
+     */
+    @Test
+    public void testIdentityExport() {
+        Response response = target("/export").request().get();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(null, response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(EXPECTED_EXPORT, response.readEntity(String.class));
+    }
+}
@@ -0,0 +1,145 @@
+//******************************************************************************
+//                             IdSequenceTest.java
+// SILEX-PHIS
+// Copyright © INRA 2019
+// Creation date: 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package opensilex.service.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import opensilex.service.PhisWsConfig;
+import opensilex.service.PropertiesFileManager;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.opensilex.sparql.SPARQLConfig;
+import org.opensilex.sparql.service.SPARQLService;
+
+/**
+ * Tests of id sequences reservations, in a single node and between nodes sharing the triplestore.
+ * @author Vincent Migot
+ */
+public class IdSequenceTest {
+
+    private static final int THREADS = 8;
+
+    private SailRepository repository;
+
+    private SPARQLService sparql;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        repository = new SailRepository(new MemoryStore());
+        repository.init();
+
+        RepositoryConnection connection = Mockito.mock(RepositoryConnection.class);
+        Mockito.when(connection.getRepository()).thenReturn(repository);
+        sparql = Mockito.mock(SPARQLService.class);
+        Mockito.when(sparql.getRepositoryConnection()).thenReturn(connection);
+
+        // Configuration used to build sequences URIs
+        PhisWsConfig phisConfig = Mockito.mock(PhisWsConfig.class);
+        Mockito.when(phisConfig.infrastructure()).thenReturn("test");
+        SPARQLConfig sparqlConfig = Mockito.mock(SPARQLConfig.class);
+        Mockito.when(sparqlConfig.baseURI()).thenReturn("http://test.opensilex.org/");
+        PropertiesFileManager.setOpensilexConfigs(phisConfig, null, sparqlConfig, null, null, null);
+
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        repository.shutDown();
+    }
+
+    @Test
+    public void testBulkReserve() {
+        String key = "test/bulk";
+
+        int first = IdSequence.reserve(sparql, key, 250, () -> 10);
+        assertEquals("Sequence should start after initial value", 11, first);
+        assertEquals("Ids should follow a bulk reservation", 261, IdSequence.next(sparql, key, () -> 0));
+        assertEquals(262, IdSequence.reserve(sparql, key, 30, () -> 0));
+
+        // Another node starts after all ids reserved by this one
+        int otherNodeFirst = IdSequence.reserveBlock(sparql, key, 1, () -> 0);
+        assertTrue("Ids reserved by another node should not overlap", otherNodeFirst > 291);
+    }
+
+    @Test
+    public void testConcurrentReserve() throws Exception {
+        String key = "test/concurrent";
+        int reservationsByThread = 300;
+
+        List<Future<List<Integer>>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int count = i % 3 + 1;
+            results.add(executor.submit(() -> {
+                List<Integer> ids = new ArrayList<>();
+                for (int j = 0; j < reservationsByThread; j++) {
+                    int first = IdSequence.reserve(sparql, key, count, () -> 0);
+                    for (int id = first; id < first + count; id++) {
+                        ids.add(id);
+                    }
+                }
+                return ids;
+            }));
+        }
+
+        Set<Integer> reservedIds = ConcurrentHashMap.newKeySet();
+        int reservedCount = 0;
+        for (Future<List<Integer>> result : results) {
+            List<Integer> ids = result.get();
+            reservedIds.addAll(ids);
+            reservedCount += ids.size();
+        }
+        assertEquals("Reserved ids should be unique", reservedCount, reservedIds.size());
+    }
+
+    @Test
+    public void testConcurrentNodesReserveBlocks() throws Exception {
+        String key = "test/nodes";
+        int blocksByNode = 20;
+
+        // Blocks are directly reserved in the triplestore as done by nodes without shared memory
+        List<Future<List<Integer>>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                List<Integer> firstIds = new ArrayList<>();
+                for (int j = 0; j < blocksByNode; j++) {
+                    firstIds.add(IdSequence.reserveBlock(sparql, key, IdSequence.BLOCK_SIZE, () -> 0));
+                }
+                return firstIds;
+            }));
+        }
+
+        Set<Integer> firstIds = ConcurrentHashMap.newKeySet();
+        for (Future<List<Integer>> result : results) {
+            firstIds.addAll(result.get());
+        }
+        assertEquals("Reserved blocks should not overlap", THREADS * blocksByNode, firstIds.size());
+        int lastFirstId = 0;
+        for (int firstId : firstIds) {
+            assertEquals("Reserved blocks should be aligned", 1, firstId % IdSequence.BLOCK_SIZE);
+            lastFirstId = Math.max(lastFirstId, firstId);
+        }
+        int next = IdSequence.reserveBlock(sparql, key, 1, () -> 0);
+        assertTrue("All blocks should have been persisted", next >= lastFirstId + IdSequence.BLOCK_SIZE);
+    }
+}
@@ -8,6 +8,7 @@ package org.opensilex.security;
 
 import org.opensilex.config.ConfigDescription;
 import org.opensilex.security.authentication.AuthenticationService;
+import org.opensilex.security.authentication.session.SessionStore;
 
 /**
  * Default configuration for OpenSilex base module
@@ -26,4 +27,21 @@ public interface SecurityConfig {
             defaultBoolean = false
     )
     public boolean allowMultiConnection();
+
+    @ConfigDescription(
+            value = "Authenticated users session store, use a shared implementation for multiple nodes deployments"
+    )
+    public SessionStore sessionStore();
+
+    @ConfigDescription(
+            value = "Token signing RSA private key file, generated if missing, a new key pair is generated on each startup if not defined (must be shared by all nodes)",
+            defaultString = ""
+    )
+    public String signingPrivateKeyFile();
+
+    @ConfigDescription(
+            value = "Token signing RSA public key file, generated if missing, a new key pair is generated on each startup if not defined (must be shared by all nodes)",
+            defaultString = ""
+    )
+    public String signingPublicKeyFile();
 }
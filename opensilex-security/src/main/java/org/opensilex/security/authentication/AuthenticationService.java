@@ -14,29 +14,62 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.impl.PublicClaims;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalUnit;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import javax.ws.rs.core.SecurityContext;
 import org.opensilex.security.SecurityConfig;
 import org.opensilex.security.SecurityModule;
+import org.opensilex.security.authentication.session.InMemorySessionStore;
+import org.opensilex.security.authentication.session.SessionStore;
+import org.opensilex.security.authentication.session.StoredSession;
+import org.opensilex.security.user.dal.UserDAO;
+import org.opensilex.service.MonitoredService;
 import org.opensilex.service.Service;
 import org.opensilex.security.user.dal.UserModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.opensilex.security.extensions.LoginExtension;
 import org.opensilex.service.BaseService;
+import org.opensilex.sparql.service.SPARQLService;
+import org.opensilex.sparql.service.SPARQLServiceFactory;
 
 /**
  * <pre>
@@ -50,14 +83,21 @@ import org.opensilex.service.BaseService;
  * For details see: https://github.com/patrickfav/bcrypt
  *
  * Logged in users are registred in a concurrent map with their token
- * and automatically unregistred after token expiration.
+ * and automatically unregistred after token expiration by a single scheduler thread.
+ *
+ * User sessions are also written to the configured session store. With a shared store,
+ * users logged in on another node are loaded on their first request, and token signing keys
+ * must be loaded from files shared by all nodes so any node can validate any token.
+ *
+ * Verified tokens are cached by hash until their expiration or user logout
+ * to avoid RSA signature verification on each request.
  *
  * For existing claim ids, see: https://www.iana.org/assignments/jwt/jwt.xhtml#claims
  * </pre>
  *
  * @author Vincent Migot
  */
-public class AuthenticationService extends BaseService implements Service {
+public class AuthenticationService extends BaseService implements Service, MonitoredService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AuthenticationService.class);
 
@@ -88,6 +128,11 @@ public class AuthenticationService extends BaseService implements Service {
     private static final TemporalUnit TOKEN_VALIDITY_DURATION_UNIT = ChronoUnit.MINUTES;
 //    private static final TemporalUnit TOKEN_VALIDITY_DURATION_UNIT = ChronoUnit.SECONDS;
 
+    /**
+     * Maximum number of verified tokens kept in cache
+     */
+    private static final int TOKEN_CACHE_MAX_SIZE = 10000;
+
     /**
      * JWT token issuer
      */
@@ -153,27 +198,184 @@ public class AuthenticationService extends BaseService implements Service {
     private ConcurrentHashMap<URI, UserModel> userRegistry = new ConcurrentHashMap<>();
 
     /**
-     * Auto-logout thread map by users
+     * Auto-logout scheduled tasks map by users
      */
-    private ConcurrentHashMap<URI, Thread> schedulerRegistry = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<URI, ScheduledFuture<?>> schedulerRegistry = new ConcurrentHashMap<>();
+
+    /**
+     * Scheduler for users auto-logout, its thread is created on first login
+     */
+    private final ScheduledThreadPoolExecutor expirationScheduler;
+
+    /**
+     * Users session store, replaced by configured one on setup
+     */
+    private SessionStore sessionStore = new InMemorySessionStore();
 
     /**
      * RSA encryption algorithm for JWT token generation
      */
-    private final Algorithm algoRSA;
+    private Algorithm algoRSA;
+
+    /**
+     * JWT token verifier, shared by all requests
+     */
+    private JWTVerifier verifier;
+
+    /**
+     * Verified tokens by token hash
+     */
+    private final ConcurrentHashMap<String, VerifiedToken> tokenCache = new ConcurrentHashMap<>();
+
+    private final LongAdder tokenCacheHits = new LongAdder();
+
+    private final LongAdder tokenCacheMisses = new LongAdder();
+
+    private final LongAdder tokenVerifyCount = new LongAdder();
+
+    private final LongAdder tokenVerifyTotalTime = new LongAdder();
+
+    private final LongAccumulator tokenVerifyMaxTime = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Constructor initializing users expiration scheduler, RSA keys for JWT token generation are loaded on setup
+     */
+    public AuthenticationService() {
+        expirationScheduler = new ScheduledThreadPoolExecutor(1, (Runnable runnable) -> {
+            Thread thread = new Thread(runnable, "opensilex-authentication-expiration");
+            thread.setDaemon(true);
+            return thread;
+        });
+        expirationScheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public void setup() throws Exception {
+        SessionStore configuredStore = getOpenSilex().getServiceInstance(SessionStore.DEFAULT_SESSION_STORE_SERVICE, SessionStore.class);
+        if (configuredStore != null) {
+            sessionStore = configuredStore;
+        }
+
+        SecurityConfig config = getOpenSilex().getModuleConfig(SecurityModule.class, SecurityConfig.class);
+        KeyPair kp = loadSigningKeys(config.signingPrivateKeyFile(), config.signingPublicKeyFile());
+        algoRSA = Algorithm.RSA512((RSAPublicKey) kp.getPublic(), (RSAPrivateKey) kp.getPrivate());
+        verifier = JWT.require(algoRSA)
+                .withIssuer(TOKEN_ISSUER)
+                .build();
+
+        if (sessionStore.isShared() && config.signingPrivateKeyFile().isEmpty()) {
+            LOGGER.warn("Shared session store used without signing key files, tokens will only be valid on the node which issued them");
+        }
+    }
+
+    @Override
+    public void shutdown() throws Exception {
+        expirationScheduler.shutdownNow();
+    }
 
     /**
-     * Constructor initializing a new RSA key pair for JWT token generation
+     * Define users session store instead of the configured one.
      *
-     * @throws NoSuchAlgorithmException should never happend
+     * @param sessionStore users session store
      */
-    public AuthenticationService() throws NoSuchAlgorithmException {
+    void setSessionStore(SessionStore sessionStore) {
+        this.sessionStore = sessionStore;
+    }
+
+    @Override
+    public Set<Service> getDependencies() {
+        SessionStore configuredStore = getOpenSilex().getServiceInstance(SessionStore.DEFAULT_SESSION_STORE_SERVICE, SessionStore.class);
+        if (configuredStore != null) {
+            return Collections.singleton(configuredStore);
+        }
+        return Collections.emptySet();
+    }
+
+    /**
+     * Load RSA key pair from PEM key files (PKCS#8 private key and X.509 public key).
+     *
+     * If files are not defined, a new key pair is generated. If they are defined but do not exist, a new key pair is
+     * generated and saved into them, under a file lock to allow concurrent startup of nodes sharing the same files.
+     *
+     * @param privateKeyFile private key file path or empty string
+     * @param publicKeyFile public key file path or empty string
+     * @return RSA key pair
+     * @throws Exception if keys can't be read or written
+     */
+    private KeyPair loadSigningKeys(String privateKeyFile, String publicKeyFile) throws Exception {
+        if (privateKeyFile.isEmpty() || publicKeyFile.isEmpty()) {
+            if (!privateKeyFile.isEmpty() || !publicKeyFile.isEmpty()) {
+                LOGGER.warn("Both signing private and public key files must be defined, generate a new key pair instead");
+            }
+            return generateKeyPair();
+        }
+
+        Path privateKeyPath = resolvePath(privateKeyFile);
+        Path publicKeyPath = resolvePath(publicKeyFile);
+        if (privateKeyPath.getParent() != null) {
+            Files.createDirectories(privateKeyPath.getParent());
+        }
+
+        Path lockPath = Paths.get(privateKeyPath.toString() + ".lock");
+        try (FileChannel lockChannel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = lockChannel.lock()) {
+            if (!Files.exists(privateKeyPath) && !Files.exists(publicKeyPath)) {
+                KeyPair kp = generateKeyPair();
+                writeKey(privateKeyPath, "PRIVATE KEY", kp.getPrivate().getEncoded());
+                writeKey(publicKeyPath, "PUBLIC KEY", kp.getPublic().getEncoded());
+                LOGGER.info("Token signing keys generated: " + privateKeyPath.toAbsolutePath() + " - " + publicKeyPath.toAbsolutePath());
+                return kp;
+            }
+        }
+
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        return new KeyPair(
+                keyFactory.generatePublic(new X509EncodedKeySpec(readKey(publicKeyPath))),
+                keyFactory.generatePrivate(new PKCS8EncodedKeySpec(readKey(privateKeyPath)))
+        );
+    }
+
+    private Path resolvePath(String file) {
+        Path path = Paths.get(file);
+        if (!path.isAbsolute() && getOpenSilex() != null) {
+            path = getOpenSilex().getBaseDirectory().resolve(path);
+        }
+        return path;
+    }
+
+    private static KeyPair generateKeyPair() throws NoSuchAlgorithmException {
         KeyPairGenerator kpg = KeyPairGenerator.getInstance("RSA");
         kpg.initialize(RSA_KEY_SIZE);
-        KeyPair kp = kpg.generateKeyPair();
-        RSAPublicKey publicKey = (RSAPublicKey) kp.getPublic();
-        RSAPrivateKey privateKey = (RSAPrivateKey) kp.getPrivate();
-        algoRSA = Algorithm.RSA512(publicKey, privateKey);
+        return kpg.generateKeyPair();
+    }
+
+    private static void writeKey(Path keyPath, String type, byte[] key) throws IOException {
+        String pem = "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(key)
+                + "\n-----END " + type + "-----\n";
+
+        Path temporaryPath = Files.createTempFile(keyPath.toAbsolutePath().getParent(), keyPath.getFileName().toString(), ".tmp");
+        try {
+            try {
+                Files.setPosixFilePermissions(temporaryPath, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException ex) {
+                // Not a POSIX file system
+            }
+            Files.write(temporaryPath, pem.getBytes(StandardCharsets.US_ASCII));
+            Files.move(temporaryPath, keyPath, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    private static byte[] readKey(Path keyPath) throws IOException {
+        StringBuilder base64 = new StringBuilder();
+        for (String line : Files.readAllLines(keyPath, StandardCharsets.US_ASCII)) {
+            if (!line.startsWith("-----")) {
+                base64.append(line.trim());
+            }
+        }
+        return Base64.getDecoder().decode(base64.toString());
     }
 
     /**
@@ -255,10 +457,7 @@ public class AuthenticationService extends BaseService implements Service {
         if (user.getToken() != null) {
 
             // Check and decode current user token
-            JWTVerifier verifier = JWT.require(algoRSA)
-                    .withIssuer(TOKEN_ISSUER)
-                    .build();
-            DecodedJWT jwt = verifier.verify(user.getToken());
+            DecodedJWT jwt = verifyToken(user.getToken());
 
             // Create a new token
             JWTCreator.Builder tokenBuilder = JWT.create();
@@ -317,13 +516,7 @@ public class AuthenticationService extends BaseService implements Service {
      * never happend)
      */
     public URI decodeTokenUserURI(String tokenValue) throws JWTVerificationException, URISyntaxException {
-        JWTVerifier verifier = JWT.require(algoRSA)
-                .withIssuer(TOKEN_ISSUER)
-                .build();
-
-        DecodedJWT jwt = verifier.verify(tokenValue);
-
-        return new URI(jwt.getSubject());
+        return new URI(verifyToken(tokenValue).getSubject());
     }
 
     /**
@@ -333,22 +526,97 @@ public class AuthenticationService extends BaseService implements Service {
      * @return credentials id list
      */
     public String[] decodeTokenCredentialsList(String tokenValue) {
-        JWTVerifier verifier = JWT.require(algoRSA)
-                .withIssuer(TOKEN_ISSUER)
-                .build();
+        return verifyToken(tokenValue).getClaim(CLAIM_CREDENTIALS_LIST).asArray(String.class);
+    }
+
+    public String[] decodeStringArrayClaim(String token, String key) {
+        return verifyToken(token).getClaim(key).asArray(String.class);
+    }
 
+    /**
+     * Verify and decode a token, using verified tokens cache.
+     *
+     * A cached token is only returned before its expiration date, it is
+     * verified again after.
+     *
+     * @param tokenValue JWT token string
+     * @return decoded token
+     * @throws JWTVerificationException In case of token validation error
+     */
+    private DecodedJWT verifyToken(String tokenValue) throws JWTVerificationException {
+        String tokenHash = getTokenHash(tokenValue);
+        long now = System.currentTimeMillis();
+
+        VerifiedToken verifiedToken = tokenCache.get(tokenHash);
+        if (verifiedToken != null) {
+            if (verifiedToken.expiresAt > now) {
+                tokenCacheHits.increment();
+                return verifiedToken.jwt;
+            }
+            tokenCache.remove(tokenHash, verifiedToken);
+        }
+        tokenCacheMisses.increment();
+
+        long start = System.nanoTime();
         DecodedJWT jwt = verifier.verify(tokenValue);
+        long verifyTime = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        tokenVerifyCount.increment();
+        tokenVerifyTotalTime.add(verifyTime);
+        tokenVerifyMaxTime.accumulate(verifyTime);
+
+        if (jwt.getExpiresAt() != null) {
+            if (tokenCache.size() >= TOKEN_CACHE_MAX_SIZE) {
+                tokenCache.values().removeIf((VerifiedToken token) -> token.expiresAt <= now);
+            }
+            if (tokenCache.size() < TOKEN_CACHE_MAX_SIZE) {
+                tokenCache.put(tokenHash, new VerifiedToken(jwt));
+            }
+        }
 
-        return jwt.getClaim(CLAIM_CREDENTIALS_LIST).asArray(String.class);
+        return jwt;
     }
 
-    public String[] decodeStringArrayClaim(String token, String key) {
+    private static String getTokenHash(String tokenValue) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(tokenValue.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            // Should never happend, SHA-256 is required on all java platforms
+            throw new IllegalStateException(ex);
+        }
+    }
 
-        return JWT.require(algoRSA)
-                .withIssuer(TOKEN_ISSUER)
-                .build()
-                .verify(token)
-                .getClaim(key).asArray(String.class);
+    /**
+     * Remove all cached verified tokens of a user.
+     *
+     * @param userURI user URI
+     */
+    private void evictUserTokens(URI userURI) {
+        String subject = userURI.toString();
+        tokenCache.values().removeIf((VerifiedToken token) -> subject.equals(token.jwt.getSubject()));
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        long hits = tokenCacheHits.sum();
+        long misses = tokenCacheMisses.sum();
+        long verifications = tokenVerifyCount.sum();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("users.registered", userRegistry.size());
+        try {
+            metrics.put("sessions.stored", sessionStore.size());
+        } catch (Exception ex) {
+            LOGGER.warn("Error while counting stored sessions", ex);
+        }
+        metrics.put("token.cache.size", tokenCache.size());
+        metrics.put("token.cache.hits", hits);
+        metrics.put("token.cache.misses", misses);
+        metrics.put("token.cache.hitRate.percent", (hits + misses) == 0 ? 0 : (hits * 100) / (hits + misses));
+        metrics.put("token.verify.count", verifications);
+        metrics.put("token.verify.avg.us", verifications == 0 ? 0 : tokenVerifyTotalTime.sum() / verifications);
+        metrics.put("token.verify.max.us", tokenVerifyMaxTime.get());
+        return metrics;
     }
 
     /**
@@ -385,46 +653,155 @@ public class AuthenticationService extends BaseService implements Service {
      * @param user User to check
      * @return true if user is authenticated, false otherwise
      */
-    public synchronized boolean hasUser(UserModel user) {
+    public boolean hasUser(UserModel user) throws Exception {
         return hasUserURI(user.getUri());
     }
 
     /**
-     * Add a user with an authentication delay. Create a thread per user which
-     * just sleep until delay is expired.
+     * Add a user with an authentication delay. Schedule user removal when
+     * delay is expired.
      *
      * @param user Userto add
      * @param expireMs authentication delay in milliseconds
      */
-    public synchronized void addUser(UserModel user, long expireMs) throws Exception {
+    public void addUser(UserModel user, long expireMs) throws Exception {
         URI userURI = user.getUri();
 
-        // If user already registred remove it
-        if (hasUserURI(userURI)) {
-            removeUserByURI(userURI);
+        // Register user, its session and its logout task at once so concurrent logins of a user can't interleave
+        AtomicReference<UserModel> replacedUser = new AtomicReference<>();
+        updateRegistration(userURI, (UserModel registeredUser) -> {
+            sessionStore.put(userURI, user.getToken(), System.currentTimeMillis() + expireMs);
+            setExpiration(userURI, scheduleExpiration(userURI, user, expireMs));
+            replacedUser.set(registeredUser);
+            return user;
+        });
+
+        // If user already registred logout previous registration
+        boolean allowMultiConnection = getOpenSilex().getModuleConfig(SecurityModule.class, SecurityConfig.class).allowMultiConnection();
+        if (!allowMultiConnection) {
+            evictUserTokens(userURI);
+            if (replacedUser.get() != null && replacedUser.get() != user) {
+                logoutModules(replacedUser.get());
+            }
         }
 
-        // Create thread to remove user after expire time
-        Thread t = new Thread(() -> {
+        LOGGER.debug("User registered: " + userURI);
+    }
+
+    /**
+     * Schedule removal of a user registration after its expire time.
+     *
+     * @param userURI User URI
+     * @param user registered user
+     * @param expireMs authentication delay in milliseconds
+     * @return scheduled removal
+     */
+    private ScheduledFuture<?> scheduleExpiration(URI userURI, UserModel user, long expireMs) {
+        String token = user.getToken();
+        return expirationScheduler.schedule(() -> {
             try {
-                Thread.sleep(expireMs);
-                LOGGER.debug("User connection timeout: " + userURI);
-                removeUser(user);
-            } catch (InterruptedException ex) {
-                LOGGER.debug("Revoke user: " + userURI + " - " + ex.getMessage());
+                // Expiration of a replaced registration is ignored by conditional removals
+                if (isSessionRenewed(userURI, token)) {
+                    if (unregisterUser(userURI, user, false) != null) {
+                        LOGGER.debug("User session renewed by another node: " + userURI);
+                    }
+                } else if (removeRegisteredUser(userURI, user) != null) {
+                    LOGGER.debug("User connection timeout: " + userURI);
+                }
             } catch (Exception ex) {
                 LOGGER.warn("Error while removing user: " + userURI + " - ", ex);
             }
-        });
+        }, expireMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Replace scheduled removal of a user, must be called while updating its registration.
+     *
+     * @param userURI User URI
+     * @param expiration new scheduled removal or null to only cancel the previous one
+     */
+    private void setExpiration(URI userURI, ScheduledFuture<?> expiration) {
+        ScheduledFuture<?> previousExpiration;
+        if (expiration == null) {
+            previousExpiration = schedulerRegistry.remove(userURI);
+        } else {
+            previousExpiration = schedulerRegistry.put(userURI, expiration);
+        }
+        if (previousExpiration != null) {
+            previousExpiration.cancel(false);
+        }
+    }
+
+    /**
+     * Update registration of a user atomically, registrations of other users are not blocked.
+     *
+     * @param userURI User URI
+     * @param update function returning new registered user or null to remove it
+     * @throws Exception in case of update error, registration is then unchanged
+     */
+    private void updateRegistration(URI userURI, RegistrationUpdate update) throws Exception {
+        try {
+            userRegistry.compute(userURI, (URI uri, UserModel registeredUser) -> {
+                try {
+                    return update.apply(registeredUser);
+                } catch (RuntimeException ex) {
+                    throw ex;
+                } catch (Exception ex) {
+                    throw new CompletionException(ex);
+                }
+            });
+        } catch (CompletionException ex) {
+            throw (Exception) ex.getCause();
+        }
+    }
 
-        // Start thread
-        t.start();
+    /**
+     * Determine if the stored session of a user has been replaced by another node with a new token.
+     *
+     * @param userURI User URI
+     * @param token token of the local registration
+     * @return true if the shared session store holds another token for this user
+     * @throws Exception in case of session store error
+     */
+    private boolean isSessionRenewed(URI userURI, String token) throws Exception {
+        if (!sessionStore.isShared()) {
+            return false;
+        }
+        String storedToken = sessionStore.getToken(userURI);
+        return storedToken != null && !storedToken.equals(token);
+    }
 
-        // Add user and logout thread into concurrent map registry
-        userRegistry.put(userURI, user);
-        schedulerRegistry.put(userURI, t);
+    /**
+     * Remove a user registration and its scheduled removal.
+     *
+     * @param userURI User URI
+     * @param expectedUser registered user to remove, the registration is kept if it has been replaced, null to remove
+     * any registered user
+     * @param removeSession true to remove the stored session, false to keep it if it is still valid for other nodes
+     * @return removed user or null
+     * @throws Exception in case of session store error
+     */
+    private UserModel unregisterUser(URI userURI, UserModel expectedUser, boolean removeSession) throws Exception {
+        AtomicReference<UserModel> removedUser = new AtomicReference<>();
+        AtomicBoolean sessionRemoved = new AtomicBoolean();
+        updateRegistration(userURI, (UserModel registeredUser) -> {
+            if (expectedUser != null && registeredUser != expectedUser) {
+                return registeredUser;
+            }
+            if (removeSession) {
+                sessionRemoved.set(sessionStore.remove(userURI));
+            }
+            if (registeredUser != null) {
+                setExpiration(userURI, null);
+                removedUser.set(registeredUser);
+            }
+            return null;
+        });
 
-        LOGGER.debug("User registered: " + userURI);
+        if (removedUser.get() != null || sessionRemoved.get()) {
+            evictUserTokens(userURI);
+        }
+        return removedUser.get();
     }
 
     /**
@@ -433,7 +810,7 @@ public class AuthenticationService extends BaseService implements Service {
      * @param user User to remove from registry
      * @return removed user or null
      */
-    public synchronized UserModel removeUser(UserModel user) throws Exception {
+    public UserModel removeUser(UserModel user) throws Exception {
         return removeUserByURI(user.getUri());
     }
 
@@ -443,44 +820,140 @@ public class AuthenticationService extends BaseService implements Service {
      * @param userURI User URI to remove from registry
      * @return removed user or null if not found
      */
-    public synchronized UserModel removeUserByURI(URI userURI) throws Exception {
-        boolean allowMultiConnection = getOpenSilex().getModuleConfig(SecurityModule.class, SecurityConfig.class).allowMultiConnection();
-        if (!allowMultiConnection && hasUserURI(userURI)) {
-            LOGGER.debug("Unregister user: " + userURI);
-            schedulerRegistry.get(userURI).interrupt();
-            schedulerRegistry.remove(userURI);
-
-            UserModel user = userRegistry.remove(userURI);
+    public UserModel removeUserByURI(URI userURI) throws Exception {
+        return removeRegisteredUser(userURI, null);
+    }
 
-            // Allow any module implementing LoginExtension to do something on logout
-            for (LoginExtension module : getOpenSilex().getModulesImplementingInterface(LoginExtension.class)) {
-                module.logout(user);
+    /**
+     * Remove a user and its session, then run logout of modules.
+     *
+     * @param userURI User URI to remove from registry
+     * @param expectedUser registered user to remove or null to remove any registered user
+     * @return removed user or null if not found
+     * @throws Exception in case of session store or logout error
+     */
+    private UserModel removeRegisteredUser(URI userURI, UserModel expectedUser) throws Exception {
+        boolean allowMultiConnection = getOpenSilex().getModuleConfig(SecurityModule.class, SecurityConfig.class).allowMultiConnection();
+        if (!allowMultiConnection) {
+            // Only the caller actually removing the user run logout
+            UserModel user = unregisterUser(userURI, expectedUser, true);
+            if (user != null) {
+                LOGGER.debug("Unregister user: " + userURI);
+                logoutModules(user);
+                return user;
             }
-
-            return user;
         }
 
         return null;
     }
 
+    /**
+     * Allow any module implementing LoginExtension to do something on logout
+     *
+     * @param user logged out user
+     * @throws Exception in case of module error
+     */
+    private void logoutModules(UserModel user) throws Exception {
+        for (LoginExtension module : getOpenSilex().getModulesImplementingInterface(LoginExtension.class)) {
+            module.logout(user);
+        }
+    }
+
     /**
      * Check if user URI is registred
      *
      * @param userURI User URI to check
      * @return true if user is registred false otherwise
      */
-    public synchronized boolean hasUserURI(URI userURI) {
-        return userRegistry.containsKey(userURI);
+    public boolean hasUserURI(URI userURI) throws Exception {
+        if (userRegistry.containsKey(userURI)) {
+            return true;
+        }
+        return sessionStore.isShared() && sessionStore.getToken(userURI) != null;
     }
 
     /**
-     * Return a registred user by URI
+     * Return a registred user by URI.
+     *
+     * With a shared session store, the stored session is checked to take into account logout or login on other
+     * nodes, and users logged in on another node are loaded from database.
      *
      * @param userURI User URI to get
      * @return registred user or null
+     * @throws Exception in case of session store or database error
      */
-    public synchronized UserModel getUserByUri(URI userURI) {
-        return userRegistry.get(userURI);
+    public UserModel getUserByUri(URI userURI) throws Exception {
+        UserModel user = userRegistry.get(userURI);
+        if (!sessionStore.isShared()) {
+            return user;
+        }
+
+        StoredSession session = sessionStore.getSession(userURI);
+        if (session == null) {
+            if (user != null && unregisterUser(userURI, user, false) != null) {
+                LOGGER.debug("User session removed by another node: " + userURI);
+            }
+            return null;
+        }
+
+        String token = session.getToken();
+        if (user == null) {
+            UserModel sessionUser = loadSessionUser(userURI, token);
+            if (sessionUser != null) {
+                user = registerSessionUser(userURI, sessionUser, session);
+            }
+        } else if (!token.equals(user.getToken())) {
+            // Token renewed or user logged in again on another node
+            user.setToken(token);
+        }
+
+        return user;
+    }
+
+    /**
+     * Register a user loaded from a session created by another node, scheduling its removal on session expiration.
+     *
+     * @param userURI User URI
+     * @param sessionUser loaded user
+     * @param session stored session
+     * @return registered user, which may have been registered concurrently
+     * @throws Exception in case of registration error
+     */
+    private UserModel registerSessionUser(URI userURI, UserModel sessionUser, StoredSession session) throws Exception {
+        AtomicReference<UserModel> user = new AtomicReference<>();
+        updateRegistration(userURI, (UserModel registeredUser) -> {
+            if (registeredUser == null) {
+                long expireMs = Math.max(0, session.getExpiresAt() - System.currentTimeMillis());
+                setExpiration(userURI, scheduleExpiration(userURI, sessionUser, expireMs));
+                registeredUser = sessionUser;
+            }
+            user.set(registeredUser);
+            return registeredUser;
+        });
+        return user.get();
+    }
+
+    /**
+     * Load user of a session created by another node.
+     *
+     * @param userURI User URI
+     * @param token session token
+     * @return user or null if it no longer exists
+     * @throws Exception in case of database error
+     */
+    private UserModel loadSessionUser(URI userURI, String token) throws Exception {
+        SPARQLServiceFactory factory = getOpenSilex().getServiceInstance(SPARQLService.DEFAULT_SPARQL_SERVICE, SPARQLServiceFactory.class);
+        SPARQLService sparql = factory.provide();
+        try {
+            UserModel user = new UserDAO(sparql).get(userURI);
+            if (user != null) {
+                LOGGER.debug("User session loaded from session store: " + userURI);
+                user.setToken(token);
+            }
+            return user;
+        } finally {
+            factory.dispose(sparql);
+        }
     }
 
     public boolean authenticate(UserModel user, String password, List<String> accessList) throws Exception {
@@ -502,4 +975,32 @@ public class AuthenticationService extends BaseService implements Service {
         return (removeUser(user) != null);
     }
 
+    /**
+     * Update of a user registration.
+     */
+    @FunctionalInterface
+    private interface RegistrationUpdate {
+
+        /**
+         * @param registeredUser currently registered user or null
+         * @return user to register or null to remove registration
+         * @throws Exception in case of update error
+         */
+        public UserModel apply(UserModel registeredUser) throws Exception;
+    }
+
+    /**
+     * Verified token cache entry.
+     */
+    private final static class VerifiedToken {
+
+        private final DecodedJWT jwt;
+
+        private final long expiresAt;
+
+        private VerifiedToken(DecodedJWT jwt) {
+            this.jwt = jwt;
+            this.expiresAt = jwt.getExpiresAt().getTime();
+        }
+    }
 }
@@ -0,0 +1,295 @@
+//******************************************************************************
+//                            FileSessionStore.java
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.security.authentication.session;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.opensilex.service.BaseService;
+import org.opensilex.service.ServiceDefaultDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <pre>
+ * Session store keeping one file by session in a directory shared by several OpenSilex nodes
+ * (local directory for nodes running on the same host, or a network file system).
+ *
+ * Session files are named by user URI hash and contain user URI, expiration date and token lines.
+ * They are written in a temporary file atomically moved to its final name, so concurrent readers
+ * always see a complete session.
+ * Read sessions are cached and reused during the configured cache delay, then only read again if their
+ * file has been replaced, so authenticated requests don't read a session file each time.
+ * As they contain users tokens, sessions directory and files are only readable by their owner.
+ *
+ * Configuration example:
+ * security:
+ *     sessionStore:
+ *         implementation: org.opensilex.security.authentication.session.FileSessionStore
+ *         file:
+ *             directory: /var/lib/opensilex/sessions
+ *             cacheDelay: 1000
+ * </pre>
+ *
+ * @author Vincent Migot
+ */
+@ServiceDefaultDefinition(
+        configClass = FileSessionStoreConfig.class,
+        configID = "file"
+)
+public class FileSessionStore extends BaseService implements SessionStore {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(FileSessionStore.class);
+
+    private final static String SESSION_FILE_EXTENSION = ".session";
+
+    private final static String TEMPORARY_FILE_EXTENSION = ".tmp";
+
+    private final FileSessionStoreConfig config;
+
+    private Path directory;
+
+    /**
+     * Delay in milliseconds during which a cached session is used without checking its file, no delay by default
+     */
+    private long cacheDelay = 0;
+
+    /**
+     * Read sessions by user URI
+     */
+    private final ConcurrentHashMap<URI, CachedSession> sessionCache = new ConcurrentHashMap<>();
+
+    public FileSessionStore(FileSessionStoreConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public void setup() throws Exception {
+        Path configDirectory = Paths.get(config.directory());
+        if (!configDirectory.isAbsolute() && getOpenSilex() != null) {
+            configDirectory = getOpenSilex().getBaseDirectory().resolve(configDirectory);
+        }
+        setDirectory(configDirectory);
+        setCacheDelay(config.cacheDelay());
+    }
+
+    @Override
+    public void startup() throws Exception {
+        purgeExpiredSessions();
+    }
+
+    /**
+     * Define sessions directory and create it if needed.
+     *
+     * @param directory sessions directory
+     * @throws IOException if directory can't be created
+     */
+    public void setDirectory(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        setOwnerOnlyPermissions(directory, "rwx------");
+        LOGGER.debug("Sessions directory: " + directory.toAbsolutePath());
+    }
+
+    /**
+     * Define delay during which a read session is reused without checking its file.
+     *
+     * @param cacheDelay delay in milliseconds, 0 to check session file on each read
+     */
+    public void setCacheDelay(long cacheDelay) {
+        this.cacheDelay = cacheDelay;
+    }
+
+    @Override
+    public void put(URI userURI, String token, long expiresAt) throws IOException {
+        Path sessionFile = getSessionFile(userURI);
+        Path temporaryFile = Files.createTempFile(directory, sessionFile.getFileName().toString(), TEMPORARY_FILE_EXTENSION);
+        try {
+            setOwnerOnlyPermissions(temporaryFile, "rw-------");
+            List<String> lines = Arrays.asList(userURI.toString(), String.valueOf(expiresAt), token);
+            Files.write(temporaryFile, lines, StandardCharsets.UTF_8);
+            Files.move(temporaryFile, sessionFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            sessionCache.remove(userURI);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    @Override
+    public StoredSession getSession(URI userURI) throws IOException {
+        long now = System.currentTimeMillis();
+        CachedSession cachedSession = sessionCache.get(userURI);
+        if (cachedSession == null || now - cachedSession.checkedAt >= cacheDelay) {
+            cachedSession = readSession(userURI, cachedSession, now);
+        }
+
+        StoredSession session = cachedSession.session;
+        if (session != null && session.isExpired(now)) {
+            // Check expiration on current file as the session may have been renewed by another node
+            session = readSession(userURI, null, now).session;
+            if (session != null && session.isExpired(now)) {
+                remove(userURI);
+                return null;
+            }
+        }
+
+        return session;
+    }
+
+    /**
+     * Read a session file if it has been replaced since previous read, and cache the read session.
+     *
+     * @param userURI user URI
+     * @param previousSession previously read session or null to read the file anyway
+     * @param now current date in milliseconds since epoch
+     * @return read session
+     * @throws IOException if session file can't be read
+     */
+    private CachedSession readSession(URI userURI, CachedSession previousSession, long now) throws IOException {
+        Path sessionFile = getSessionFile(userURI);
+        CachedSession cachedSession;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(sessionFile, BasicFileAttributes.class);
+            if (previousSession != null && previousSession.isSameFile(attributes)) {
+                cachedSession = new CachedSession(previousSession.session, attributes, now);
+            } else {
+                List<String> lines = Files.readAllLines(sessionFile, StandardCharsets.UTF_8);
+                StoredSession session = null;
+                if (lines.size() >= 3 && userURI.toString().equals(lines.get(0))) {
+                    session = new StoredSession(lines.get(2), Long.parseLong(lines.get(1)));
+                }
+                cachedSession = new CachedSession(session, attributes, now);
+            }
+        } catch (NoSuchFileException ex) {
+            cachedSession = new CachedSession(null, null, now);
+        }
+
+        sessionCache.put(userURI, cachedSession);
+        return cachedSession;
+    }
+
+    @Override
+    public boolean remove(URI userURI) throws IOException {
+        try {
+            return Files.deleteIfExists(getSessionFile(userURI));
+        } finally {
+            sessionCache.remove(userURI);
+        }
+    }
+
+    @Override
+    public int size() throws IOException {
+        int count = 0;
+        try (DirectoryStream<Path> sessionFiles = Files.newDirectoryStream(directory, "*" + SESSION_FILE_EXTENSION)) {
+            for (Path sessionFile : sessionFiles) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    /**
+     * Remove expired sessions files, which may remain if their node has been stopped before expiration.
+     *
+     * @throws IOException if sessions directory can't be read
+     */
+    public void purgeExpiredSessions() throws IOException {
+        long now = System.currentTimeMillis();
+        int purgedCount = 0;
+        try (DirectoryStream<Path> sessionFiles = Files.newDirectoryStream(directory, "*" + SESSION_FILE_EXTENSION)) {
+            for (Path sessionFile : sessionFiles) {
+                try {
+                    List<String> lines = Files.readAllLines(sessionFile, StandardCharsets.UTF_8);
+                    if (lines.size() < 3 || Long.parseLong(lines.get(1)) <= now) {
+                        Files.deleteIfExists(sessionFile);
+                        purgedCount++;
+                    }
+                } catch (NoSuchFileException ex) {
+                    // Session removed by another node
+                } catch (IOException | NumberFormatException ex) {
+                    LOGGER.warn("Invalid session file: " + sessionFile, ex);
+                }
+            }
+        }
+        LOGGER.debug("Expired sessions purged: " + purgedCount);
+    }
+
+    private static void setOwnerOnlyPermissions(Path path, String permissions) throws IOException {
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString(permissions));
+        } catch (UnsupportedOperationException ex) {
+            // Not a POSIX file system
+        }
+    }
+
+    private Path getSessionFile(URI userURI) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder fileName = new StringBuilder();
+            for (byte b : digest.digest(userURI.toString().getBytes(StandardCharsets.UTF_8))) {
+                fileName.append(String.format("%02x", b));
+            }
+            return directory.resolve(fileName.append(SESSION_FILE_EXTENSION).toString());
+        } catch (NoSuchAlgorithmException ex) {
+            // Should never happend, SHA-256 is required on all java platforms
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Read session with the attributes of its file at read time, used to detect file replacement.
+     */
+    private final static class CachedSession {
+
+        private final StoredSession session;
+
+        private final Object fileKey;
+
+        private final FileTime lastModified;
+
+        private final long checkedAt;
+
+        private CachedSession(StoredSession session, BasicFileAttributes attributes, long checkedAt) {
+            this.session = session;
+            this.fileKey = (attributes == null) ? null : attributes.fileKey();
+            this.lastModified = (attributes == null) ? null : attributes.lastModifiedTime();
+            this.checkedAt = checkedAt;
+        }
+
+        /**
+         * Sessions are written in new files, so a file with the same key and modification date is unchanged.
+         *
+         * @param attributes current session file attributes
+         * @return true if session file has not been replaced
+         */
+        private boolean isSameFile(BasicFileAttributes attributes) {
+            return lastModified != null
+                    && lastModified.equals(attributes.lastModifiedTime())
+                    && Objects.equals(fileKey, attributes.fileKey());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+//******************************************************************************
+//                          FileSessionStoreConfig.java
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.security.authentication.session;
+
+import org.opensilex.config.ConfigDescription;
+import org.opensilex.service.ServiceConfig;
+
+/**
+ * File session store configuration interface
+ *
+ * @author Vincent Migot
+ */
+public interface FileSessionStoreConfig extends ServiceConfig {
+
+    @ConfigDescription(
+            value = "Sessions directory, shared by all nodes (relative paths are resolved from OpenSilex base directory)",
+            defaultString = "sessions"
+    )
+    public String directory();
+
+    @ConfigDescription(
+            value = "Delay in milliseconds during which a read session is reused without checking its file",
+            defaultInt = 1000
+    )
+    public int cacheDelay();
+}
@@ -0,0 +1,56 @@
+//******************************************************************************
+//                          InMemorySessionStore.java
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.security.authentication.session;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import org.opensilex.service.BaseService;
+
+/**
+ * Default session store keeping sessions in memory, only visible from the current node.
+ *
+ * @author Vincent Migot
+ */
+public class InMemorySessionStore extends BaseService implements SessionStore {
+
+    private final ConcurrentHashMap<URI, StoredSession> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(URI userURI, String token, long expiresAt) {
+        sessions.put(userURI, new StoredSession(token, expiresAt));
+    }
+
+    @Override
+    public StoredSession getSession(URI userURI) {
+        StoredSession session = sessions.get(userURI);
+        if (session == null) {
+            return null;
+        }
+
+        if (session.isExpired(System.currentTimeMillis())) {
+            sessions.remove(userURI, session);
+            return null;
+        }
+
+        return session;
+    }
+
+    @Override
+    public boolean remove(URI userURI) {
+        return sessions.remove(userURI) != null;
+    }
+
+    @Override
+    public int size() {
+        return sessions.size();
+    }
+
+    @Override
+    public void shutdown() {
+        sessions.clear();
+    }
+}
@@ -0,0 +1,94 @@
+//******************************************************************************
+//                              SessionStore.java
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.security.authentication.session;
+
+import java.net.URI;
+import org.opensilex.service.Service;
+import org.opensilex.service.ServiceDefaultDefinition;
+
+/**
+ * <pre>
+ * Store of authenticated user sessions.
+ *
+ * A session is defined by a user URI, its current token and the session expiration date.
+ * Sessions stored in a shared implementation are visible from all OpenSilex nodes using the same store,
+ * allowing any node to serve requests of a user logged in on another one.
+ * </pre>
+ *
+ * @see org.opensilex.security.authentication.AuthenticationService
+ * @author Vincent Migot
+ */
+@ServiceDefaultDefinition(
+        implementation = InMemorySessionStore.class
+)
+public interface SessionStore extends Service {
+
+    /**
+     * Default service name to be accessed by name
+     */
+    public static final String DEFAULT_SESSION_STORE_SERVICE = "sessionStore";
+
+    /**
+     * Store a user session, replacing any previous session of the same user.
+     *
+     * @param userURI user URI
+     * @param token user token
+     * @param expiresAt session expiration date in milliseconds since epoch
+     * @throws Exception in case of storage error
+     */
+    public void put(URI userURI, String token, long expiresAt) throws Exception;
+
+    /**
+     * Return a user session if it exists and is not expired.
+     *
+     * @param userURI user URI
+     * @return user session or null
+     * @throws Exception in case of storage error
+     */
+    public StoredSession getSession(URI userURI) throws Exception;
+
+    /**
+     * Return token of a user session if it exists and is not expired.
+     *
+     * @param userURI user URI
+     * @return user token or null
+     * @throws Exception in case of storage error
+     */
+    public default String getToken(URI userURI) throws Exception {
+        StoredSession session = getSession(userURI);
+        if (session == null) {
+            return null;
+        }
+        return session.getToken();
+    }
+
+    /**
+     * Remove a user session.
+     *
+     * @param userURI user URI
+     * @return true if a session has been removed, false otherwise
+     * @throws Exception in case of storage error
+     */
+    public boolean remove(URI userURI) throws Exception;
+
+    /**
+     * Return number of stored sessions, including expired ones not yet removed.
+     *
+     * @return stored sessions count
+     * @throws Exception in case of storage error
+     */
+    public int size() throws Exception;
+
+    /**
+     * Determine if this store is shared between OpenSilex nodes.
+     *
+     * @return true if sessions may have been stored by another node
+     */
+    public default boolean isShared() {
+        return false;
+    }
+}
@@ -0,0 +1,46 @@
+//******************************************************************************
+//                             StoredSession.java
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.security.authentication.session;
+
+/**
+ * User session read from a session store.
+ *
+ * @author Vincent Migot
+ */
+public final class StoredSession {
+
+    private final String token;
+
+    private final long expiresAt;
+
+    public StoredSession(String token, long expiresAt) {
+        this.token = token;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @return user token
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * @return session expiration date in milliseconds since epoch
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * @param now current date in milliseconds since epoch
+     * @return true if session is expired
+     */
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
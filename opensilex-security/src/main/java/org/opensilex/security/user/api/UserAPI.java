@@ -39,6 +39,7 @@ import org.opensilex.server.response.ErrorResponse;
 import org.opensilex.server.response.PaginatedListResponse;
 import org.opensilex.server.response.ObjectUriResponse;
 import org.opensilex.server.response.SingleObjectResponse;
+import org.opensilex.sparql.exceptions.SPARQLInvalidPageTokenException;
 import org.opensilex.sparql.service.SPARQLService;
 import org.opensilex.security.user.dal.UserDAO;
 import org.opensilex.security.user.dal.UserModel;
@@ -275,6 +276,8 @@ public class UserAPI {
      * fieldName=asc|desc
      * @param page Page number
      * @param pageSize Page size
+     * @param countTotal Count all matching users, only check if there is a next page otherwise
+     * @param pageToken Keyset pagination token, page number is ignored if present
      * @return filtered, ordered and paginated list
      * @throws Exception Return a 500 - INTERNAL_SERVER_ERROR error response
      */
@@ -296,16 +299,45 @@ public class UserAPI {
             @ApiParam(value = "Regex pattern for filtering list by names or email", example = ".*") @DefaultValue(".*") @QueryParam("pattern") String pattern,
             @ApiParam(value = "List of fields to sort as an array of fieldName=asc|desc", example = "email=asc") @QueryParam("orderBy") List<OrderBy> orderByList,
             @ApiParam(value = "Page number", example = "0") @QueryParam("page") @DefaultValue("0") @Min(0) int page,
-            @ApiParam(value = "Page size", example = "20") @QueryParam("pageSize") @DefaultValue("20") @Min(0) int pageSize
+            @ApiParam(value = "Page size", example = "20") @QueryParam("pageSize") @DefaultValue("20") @Min(0) int pageSize,
+            @ApiParam(value = "Count all matching users, if false total count is unknown and only the presence of a next page is returned", example = "true") @QueryParam("countTotal") @DefaultValue("true") boolean countTotal,
+            @ApiParam(value = "Keyset pagination token returned as nextPageToken with previous page, empty to get the first page, page number is ignored if present") @QueryParam("pageToken") String pageToken
     ) throws Exception {
         // Search users with User DAO
         UserDAO dao = new UserDAO(sparql);
-        ListWithPagination<UserModel> resultList = dao.search(
-                pattern,
-                orderByList,
-                page,
-                pageSize
-        );
+        ListWithPagination<UserModel> resultList;
+        if (pageToken != null) {
+            if (pageSize == 0) {
+                return new ErrorResponse(
+                        Status.BAD_REQUEST,
+                        "Invalid page size",
+                        "Page size is required with page token"
+                ).getResponse();
+            }
+
+            try {
+                resultList = dao.searchWithPageToken(
+                        pattern,
+                        orderByList,
+                        pageToken,
+                        pageSize
+                );
+            } catch (SPARQLInvalidPageTokenException ex) {
+                return new ErrorResponse(
+                        Status.BAD_REQUEST,
+                        "Invalid page token",
+                        ex.getMessage()
+                ).getResponse();
+            }
+        } else {
+            resultList = dao.search(
+                    pattern,
+                    orderByList,
+                    page,
+                    pageSize,
+                    countTotal
+            );
+        }
 
         // Convert paginated list to DTO
         ListWithPagination<UserGetDTO> resultDTOList = resultList.convert(
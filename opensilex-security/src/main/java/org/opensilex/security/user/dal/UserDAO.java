@@ -15,10 +15,12 @@ import org.apache.jena.sparql.expr.Expr;
 import org.apache.jena.sparql.vocabulary.FOAF;
 import org.opensilex.security.profile.dal.ProfileDAO;
 import org.opensilex.security.profile.dal.ProfileModel;
+import org.opensilex.sparql.exceptions.SPARQLInvalidPageTokenException;
 import org.opensilex.sparql.service.SPARQLQueryHelper;
 import org.opensilex.sparql.service.SPARQLService;
 import org.opensilex.utils.OrderBy;
 import org.opensilex.utils.ListWithPagination;
+import org.opensilex.utils.ThrowingConsumer;
 
 /**
  * @author vincent
@@ -123,27 +125,68 @@ public final class UserDAO {
     }
 
     public ListWithPagination<UserModel> search(String stringPattern, List<OrderBy> orderByList, Integer page, Integer pageSize) throws Exception {
+        return search(stringPattern, orderByList, page, pageSize, true);
+    }
 
-        Expr stringFilter = SPARQLQueryHelper.or(
-                SPARQLQueryHelper.regexFilter(UserModel.FIRST_NAME_FIELD, stringPattern),
-                SPARQLQueryHelper.regexFilter(UserModel.LAST_NAME_FIELD, stringPattern),
-                SPARQLQueryHelper.regexFilter(UserModel.EMAIL_FIELD, stringPattern)
-        );
-
+    /**
+     * Search users by names or email.
+     *
+     * @param stringPattern regex pattern for names or email
+     * @param orderByList result ordering
+     * @param page page number
+     * @param pageSize page size
+     * @param countTotal false to only check if there is a next page instead of counting all matching users
+     * @return paginated list of users
+     * @throws Exception
+     */
+    public ListWithPagination<UserModel> search(String stringPattern, List<OrderBy> orderByList, Integer page, Integer pageSize, boolean countTotal) throws Exception {
         return sparql.searchWithPagination(
                 UserModel.class,
                 null,
-                (SelectBuilder select) -> {
-                    if (stringFilter != null) {
-                        select.addFilter(stringFilter);
-                    }
-                },
+                getSearchFilterHandler(stringPattern),
                 orderByList,
                 page,
+                pageSize,
+                countTotal
+        );
+    }
+
+    /**
+     * Search users by names or email with keyset pagination.
+     *
+     * @param stringPattern regex pattern for names or email
+     * @param orderByList result ordering
+     * @param pageToken token returned with previous page, null or empty for first page
+     * @param pageSize page size
+     * @return paginated list of users with next page token if there is a next page
+     * @throws SPARQLInvalidPageTokenException if page token is invalid
+     * @throws Exception
+     */
+    public ListWithPagination<UserModel> searchWithPageToken(String stringPattern, List<OrderBy> orderByList, String pageToken, Integer pageSize) throws Exception {
+        return sparql.searchWithPageToken(
+                UserModel.class,
+                null,
+                getSearchFilterHandler(stringPattern),
+                orderByList,
+                pageToken,
                 pageSize
         );
     }
 
+    private ThrowingConsumer<SelectBuilder, Exception> getSearchFilterHandler(String stringPattern) {
+        Expr stringFilter = SPARQLQueryHelper.or(
+                SPARQLQueryHelper.regexFilter(UserModel.FIRST_NAME_FIELD, stringPattern),
+                SPARQLQueryHelper.regexFilter(UserModel.LAST_NAME_FIELD, stringPattern),
+                SPARQLQueryHelper.regexFilter(UserModel.EMAIL_FIELD, stringPattern)
+        );
+
+        return (SelectBuilder select) -> {
+            if (stringFilter != null) {
+                select.addFilter(stringFilter);
+            }
+        };
+    }
+
     /**
      * Old PHIS service mapping, should be removed after migration
      *
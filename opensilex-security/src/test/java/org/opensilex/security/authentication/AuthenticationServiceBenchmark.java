@@ -0,0 +1,99 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.security.authentication;
+
+import java.net.URI;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensilex.OpenSilex;
+import org.opensilex.security.user.dal.UserModel;
+
+/**
+ * Load test of authenticated users registry with many active sessions.
+ *
+ * Login operations register a user session, replacing a previous one, and schedule its expiration. Request operations
+ * look up the user of a session as done by authentication filter for each request. Both run with 8 threads while
+ * sessionCount sessions are active.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main AuthenticationServiceBenchmark"
+ *
+ * @author vincent
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationServiceBenchmark {
+
+    @Param({"1000", "10000"})
+    public int sessionCount;
+
+    private OpenSilex opensilex;
+
+    private AuthenticationService authentication;
+
+    private UserModel[] users;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        opensilex = OpenSilex.createInstance(OpenSilex.createSetup(new String[]{
+            "--" + OpenSilex.PROFILE_ID_ARG_KEY + "=" + OpenSilex.TEST_PROFILE_ID,
+            "--" + OpenSilex.NO_CACHE_ARG_KEY + "=true"
+        }, false), false);
+
+        authentication = new AuthenticationService();
+        authentication.setOpenSilex(opensilex);
+        authentication.setup();
+
+        users = new UserModel[sessionCount];
+        for (int i = 0; i < sessionCount; i++) {
+            users[i] = new UserModel();
+            users[i].setUri(new URI("http://test.opensilex.org/users/" + i));
+            authentication.addUser(users[i], authentication.getExpireInMs());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        authentication.shutdown();
+    }
+
+    private UserModel randomUser() {
+        return users[ThreadLocalRandom.current().nextInt(sessionCount)];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(8)
+    public UserModel login() throws Exception {
+        UserModel user = randomUser();
+        authentication.addUser(user, authentication.getExpireInMs());
+        return user;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Threads(8)
+    public UserModel authenticatedRequest() throws Exception {
+        return authentication.getUserByUri(randomUser().getUri());
+    }
+}
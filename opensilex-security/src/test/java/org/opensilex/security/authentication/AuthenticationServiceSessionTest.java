@@ -0,0 +1,138 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.security.authentication;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.mail.internet.InternetAddress;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import org.opensilex.OpenSilex;
+import org.opensilex.security.authentication.session.FileSessionStore;
+import org.opensilex.security.authentication.session.InMemorySessionStore;
+import org.opensilex.security.authentication.session.SessionStore;
+import org.opensilex.security.user.dal.UserDAO;
+import org.opensilex.security.user.dal.UserModel;
+import org.opensilex.sparql.service.SPARQLService;
+import org.opensilex.sparql.service.SPARQLServiceFactory;
+import org.opensilex.unit.test.AbstractUnitTest;
+
+/**
+ * Authentication service test with two services sharing a file session store as done by two nodes.
+ *
+ * @author vincent
+ */
+public class AuthenticationServiceSessionTest extends AbstractUnitTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AuthenticationService createNode(SessionStore store) {
+        AuthenticationService node = new AuthenticationService();
+        node.setOpenSilex(getOpensilex());
+        node.setSessionStore(store);
+        return node;
+    }
+
+    private static UserModel createUser(URI userURI, String token) {
+        UserModel user = new UserModel();
+        user.setUri(userURI);
+        user.setToken(token);
+        return user;
+    }
+
+    @Test
+    public void testTokenRenewedOnAnotherNode() throws Exception {
+        FileSessionStore store = new FileSessionStore(null);
+        store.setDirectory(folder.getRoot().toPath());
+        AuthenticationService node1 = createNode(store);
+        AuthenticationService node2 = createNode(store);
+        URI userURI = new URI("http://test.opensilex.org/users/renewed");
+
+        try {
+            node1.addUser(createUser(userURI, "token1"), 500);
+            assertEquals("token1", node1.getUserByUri(userURI).getToken());
+
+            node2.addUser(createUser(userURI, "token2"), 60000);
+            assertEquals("Node should use token renewed by another node", "token2", node1.getUserByUri(userURI).getToken());
+
+            // Let first registration expire on node1
+            Thread.sleep(1500);
+
+            assertEquals("Expiration of a renewed session should not remove it", "token2", store.getToken(userURI));
+            assertEquals("token2", node2.getUserByUri(userURI).getToken());
+            assertTrue(node1.hasUserURI(userURI));
+        } finally {
+            node1.shutdown();
+            node2.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentLoginsExpire() throws Exception {
+        AuthenticationService node = createNode(new InMemorySessionStore());
+        URI userURI = new URI("http://test.opensilex.org/users/concurrent");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<?>> logins = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                String token = "token" + i;
+                logins.add(executor.submit(() -> {
+                    node.addUser(createUser(userURI, token), 300);
+                    return null;
+                }));
+            }
+            for (Future<?> login : logins) {
+                login.get();
+            }
+            assertTrue(node.hasUserURI(userURI));
+
+            // Let last registration expire
+            Thread.sleep(1500);
+
+            assertFalse("Last registration should expire whatever the logins order", node.hasUserURI(userURI));
+            assertNull(node.getUserByUri(userURI));
+        } finally {
+            executor.shutdownNow();
+            node.shutdown();
+        }
+    }
+
+    @Test
+    public void testSessionUserLoadedFromAnotherNodeExpires() throws Exception {
+        FileSessionStore store = new FileSessionStore(null);
+        store.setDirectory(folder.getRoot().toPath());
+        AuthenticationService node1 = createNode(store);
+        AuthenticationService node2 = createNode(store);
+        URI userURI = new URI("http://test.opensilex.org/users/loaded");
+
+        SPARQLServiceFactory factory = getOpensilex().getServiceInstance(SPARQLService.DEFAULT_SPARQL_SERVICE, SPARQLServiceFactory.class);
+        SPARQLService sparql = factory.provide();
+        try {
+            new UserDAO(sparql).create(userURI, new InternetAddress("loaded@opensilex.org"), "loaded", "user", false, null, OpenSilex.DEFAULT_LANGUAGE);
+
+            node1.addUser(createUser(userURI, "token1"), 500);
+            assertEquals("User should be loaded from session of another node", "token1", node2.getUserByUri(userURI).getToken());
+
+            // Let session expire
+            Thread.sleep(1500);
+
+            assertFalse("User loaded from session should expire with it", node2.hasUserURI(userURI));
+        } finally {
+            sparql.delete(UserModel.class, userURI);
+            factory.dispose(sparql);
+            node1.shutdown();
+            node2.shutdown();
+        }
+    }
+}
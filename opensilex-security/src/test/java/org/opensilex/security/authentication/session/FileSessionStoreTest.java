@@ -0,0 +1,113 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.security.authentication.session;
+
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * File session store test, sharing a sessions directory between two stores as done by two nodes.
+ *
+ * @author vincent
+ */
+public class FileSessionStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FileSessionStore createStore() throws Exception {
+        FileSessionStore store = new FileSessionStore(null);
+        store.setDirectory(folder.getRoot().toPath());
+        return store;
+    }
+
+    @Test
+    public void testSharedSessions() throws Exception {
+        FileSessionStore node1 = createStore();
+        FileSessionStore node2 = createStore();
+        URI userURI = new URI("http://test.opensilex.org/users/1");
+        long expiresAt = System.currentTimeMillis() + 60000;
+
+        assertNull(node2.getToken(userURI));
+
+        node1.put(userURI, "token1", expiresAt);
+        assertEquals("token1", node2.getToken(userURI));
+
+        node2.put(userURI, "token2", expiresAt);
+        assertEquals("token2", node1.getToken(userURI));
+        assertEquals(1, node1.size());
+
+        assertTrue(node2.remove(userURI));
+        assertNull(node1.getToken(userURI));
+        assertFalse(node1.remove(userURI));
+        assertEquals(0, node1.size());
+    }
+
+    @Test
+    public void testExpiredSessions() throws Exception {
+        FileSessionStore store = createStore();
+        URI expiredURI = new URI("http://test.opensilex.org/users/expired");
+        URI validURI = new URI("http://test.opensilex.org/users/valid");
+
+        store.put(expiredURI, "expired", System.currentTimeMillis() - 1);
+        store.put(validURI, "valid", System.currentTimeMillis() + 60000);
+        assertEquals(2, store.size());
+
+        store.purgeExpiredSessions();
+        assertEquals(1, store.size());
+        assertNull(store.getToken(expiredURI));
+        assertEquals("valid", store.getToken(validURI));
+    }
+
+    @Test
+    public void testOwnerOnlyPermissions() throws Exception {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+
+        FileSessionStore store = createStore();
+        store.put(new URI("http://test.opensilex.org/users/1"), "token", System.currentTimeMillis() + 60000);
+
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(folder.getRoot().toPath())));
+        try (DirectoryStream<Path> sessionFiles = Files.newDirectoryStream(folder.getRoot().toPath())) {
+            for (Path sessionFile : sessionFiles) {
+                assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(sessionFile)));
+            }
+        }
+    }
+
+    @Test
+    public void testCachedSessions() throws Exception {
+        FileSessionStore node1 = createStore();
+        FileSessionStore node2 = createStore();
+        node2.setCacheDelay(60000);
+        URI userURI = new URI("http://test.opensilex.org/users/cached");
+        long expiresAt = System.currentTimeMillis() + 60000;
+
+        node1.put(userURI, "token1", expiresAt);
+        assertEquals("token1", node2.getToken(userURI));
+        assertEquals(expiresAt, node2.getSession(userURI).getExpiresAt());
+
+        node1.put(userURI, "token2", expiresAt);
+        assertEquals("Session should be cached during cache delay", "token1", node2.getToken(userURI));
+        assertEquals("Replaced session file should be read again", "token2", node1.getToken(userURI));
+
+        node2.put(userURI, "token3", expiresAt);
+        assertEquals("Own writes should not be cached", "token3", node2.getToken(userURI));
+        assertEquals("token3", node1.getToken(userURI));
+
+        node2.remove(userURI);
+        assertNull(node2.getToken(userURI));
+        assertNull(node1.getToken(userURI));
+    }
+}
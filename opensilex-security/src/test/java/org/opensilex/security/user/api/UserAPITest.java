@@ -11,6 +11,7 @@ import javax.ws.rs.client.WebTarget;
 
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
 import org.opensilex.OpenSilex;
 import org.opensilex.integration.test.security.AbstractSecurityIntegrationTest;
 import org.opensilex.security.SecurityModule;
@@ -178,6 +179,84 @@ public class UserAPITest extends AbstractSecurityIntegrationTest {
         assertEquals(1, users.size());
     }
 
+    @Test
+    public void testSearchWithoutTotalCount() throws Exception {
+        Response postResult = getJsonPostResponse(target(createPath), getUser1CreationDTO());
+        assertEquals(Response.Status.CREATED.getStatusCode(), postResult.getStatus());
+
+        postResult = getJsonPostResponse(target(createPath), getUser2CreationDTO());
+        assertEquals(Response.Status.CREATED.getStatusCode(), postResult.getStatus());
+
+        Map<String, Object> params = new HashMap<String, Object>() {
+            {
+                put("pattern", "user.*");
+                put("countTotal", false);
+                put("page", 0);
+                put("pageSize", 1);
+            }
+        };
+
+        WebTarget target = appendQueryParams(target(searchPath), params);
+        Response getSearchResult = appendToken(target).get();
+        assertEquals(Response.Status.OK.getStatusCode(), getSearchResult.getStatus());
+
+        JsonNode node = getSearchResult.readEntity(JsonNode.class);
+        assertEquals(1, node.get("result").size());
+        assertTrue(node.get("metadata").get("pagination").get("hasMore").asBoolean());
+
+        params.put("page", 1);
+        target = appendQueryParams(target(searchPath), params);
+        getSearchResult = appendToken(target).get();
+        assertEquals(Response.Status.OK.getStatusCode(), getSearchResult.getStatus());
+
+        node = getSearchResult.readEntity(JsonNode.class);
+        assertEquals(1, node.get("result").size());
+        assertFalse(node.get("metadata").get("pagination").get("hasMore").asBoolean());
+    }
+
+    @Test
+    public void testSearchWithPageToken() throws Exception {
+        Response postResult = getJsonPostResponse(target(createPath), getUser1CreationDTO());
+        assertEquals(Response.Status.CREATED.getStatusCode(), postResult.getStatus());
+
+        postResult = getJsonPostResponse(target(createPath), getUser2CreationDTO());
+        assertEquals(Response.Status.CREATED.getStatusCode(), postResult.getStatus());
+
+        Map<String, Object> params = new HashMap<String, Object>() {
+            {
+                put("pattern", "user.*");
+                put("pageSize", 1);
+                put("pageToken", "");
+            }
+        };
+
+        WebTarget target = appendQueryParams(target(searchPath), params);
+        Response getSearchResult = appendToken(target).get();
+        assertEquals(Response.Status.OK.getStatusCode(), getSearchResult.getStatus());
+
+        JsonNode node = getSearchResult.readEntity(JsonNode.class);
+        assertEquals(1, node.get("result").size());
+        String firstEmail = node.get("result").get(0).get("email").asText();
+        JsonNode nextPageToken = node.get("metadata").get("pagination").get("nextPageToken");
+        assertTrue(nextPageToken != null && nextPageToken.isTextual());
+
+        params.put("pageToken", nextPageToken.asText());
+        target = appendQueryParams(target(searchPath), params);
+        getSearchResult = appendToken(target).get();
+        assertEquals(Response.Status.OK.getStatusCode(), getSearchResult.getStatus());
+
+        node = getSearchResult.readEntity(JsonNode.class);
+        assertEquals(1, node.get("result").size());
+        assertFalse(firstEmail.equals(node.get("result").get(0).get("email").asText()));
+        nextPageToken = node.get("metadata").get("pagination").get("nextPageToken");
+        assertTrue(nextPageToken == null || nextPageToken.isNull());
+
+        params.put("pageToken", "invalid");
+        target = appendQueryParams(target(searchPath), params);
+        getSearchResult = appendToken(target).get();
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), getSearchResult.getStatus());
+    }
+
     @Test
     public void testGetByURIs() throws Exception {
         Response postResult = getJsonPostResponse(target(createPath), getUser1CreationDTO());
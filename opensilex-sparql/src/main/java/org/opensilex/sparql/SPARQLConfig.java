@@ -6,6 +6,7 @@
 package org.opensilex.sparql;
 
 import org.opensilex.config.ConfigDescription;
+import org.opensilex.sparql.service.SPARQLService;
 import org.opensilex.sparql.service.SPARQLServiceFactory;
 
 /**
@@ -42,4 +43,16 @@ public interface SPARQLConfig {
             defaultBoolean = false
     )
     public boolean enableSHACL();
+
+    @ConfigDescription(
+            value = "Paginated search total count cache duration in seconds, 0 to disable it",
+            defaultInt = 60
+    )
+    public int countCacheDuration();
+
+    @ConfigDescription(
+            value = "Maximum number of triples sent in a single INSERT DATA request when creating a list of instances",
+            defaultInt = SPARQLService.DEFAULT_INSERT_TRIPLE_BUDGET
+    )
+    public int insertTripleBudget();
 }
@@ -0,0 +1,18 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.exceptions;
+
+/**
+ * Exception thrown when a keyset pagination token can't be used for a search.
+ *
+ * @author vincent
+ */
+public class SPARQLInvalidPageTokenException extends SPARQLException {
+
+    public SPARQLInvalidPageTokenException(String message) {
+        super(message);
+    }
+}
@@ -17,6 +17,10 @@ public class SPARQLUnknownFieldException extends SPARQLException {
         super("Unknown field: " + ((f == null) ? "null" : f.getName()));
     }
 
+    public SPARQLUnknownFieldException(Class<?> objectClass, String fieldName) {
+        super("Field '" + fieldName + "' not found in class: " + objectClass.getCanonicalName());
+    }
+
     public SPARQLUnknownFieldException(Class<?> objectClass, String fieldName, Exception ex) {
         super("Field '" + fieldName + "' not found in class: " + objectClass.getCanonicalName(), ex);
     }
@@ -8,6 +8,7 @@ package org.opensilex.sparql.extensions;
 import java.util.ArrayList;
 import java.util.List;
 import org.opensilex.OpenSilexExtension;
+import org.opensilex.sparql.service.SPARQLPropertyListener;
 
 /**
  *
@@ -23,4 +24,8 @@ public interface SPARQLExtension extends OpenSilexExtension {
     public default void inMemoryInitialization() throws Exception {
     }
 
+    public default List<SPARQLPropertyListener> getPropertyListeners() {
+        return new ArrayList<>();
+    }
+
 }
@@ -28,6 +28,7 @@ import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.expr.E_StrLowerCase;
 import org.apache.jena.sparql.expr.Expr;
 import org.apache.jena.sparql.expr.ExprVar;
+import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 import org.opensilex.sparql.deserializer.SPARQLDeserializer;
 import org.opensilex.sparql.deserializer.SPARQLDeserializers;
@@ -118,8 +119,24 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
 
     }
 
-    @SuppressWarnings("unchecked")
     public T createInstance(Node graph, SPARQLResult result, String lang, SPARQLService service) throws Exception {
+        return createInstance(graph, result, lang, service, null);
+    }
+
+    /**
+     * Create an instance from a SPARQL result, lazy properties proxies are registered in the given batch if not null
+     * in order to be loaded with all similar proxies of the batch at once.
+     *
+     * @param graph instance graph
+     * @param result SPARQL result row
+     * @param lang language
+     * @param service SPARQL service used to load lazy properties
+     * @param batch batch to register proxies in, may be null
+     * @return created instance
+     * @throws Exception
+     */
+    @SuppressWarnings("unchecked")
+    public T createInstance(Node graph, SPARQLResult result, String lang, SPARQLService service, SPARQLProxyBatch batch) throws Exception {
 
         SPARQLDeserializer<URI> uriDeserializer = SPARQLDeserializers.getForClass(URI.class
         );
@@ -136,7 +153,7 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
             realTypeLabel = "";
         }
         SPARQLProxyLabel proxyLabel = new SPARQLProxyLabel(mapperIndex, null, realTypeLabel, realType, RDFS.label, false, lang, service);
-        instance.setTypeLabel(proxyLabel.getInstance());
+        instance.setTypeLabel(batchProxy(proxyLabel, batch).getInstance());
 
         for (Field field : classAnalizer.getDataPropertyFields()) {
             Method setter = classAnalizer.getSetterFromField(field);
@@ -166,7 +183,7 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
                     propertyGraph = mapperIndex.getForClass(fieldType).getDefaultGraph();
                 }
                 SPARQLProxyResource<?> proxy = new SPARQLProxyResource<>(mapperIndex, propertyGraph, objURI, fieldType, lang, service);
-                setter.invoke(instance, proxy.getInstance());
+                setter.invoke(instance, batchProxy(proxy, batch).getInstance());
             }
         }
 
@@ -177,7 +194,7 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
 
             if (strValue != null) {
                 SPARQLProxyLabel proxy = new SPARQLProxyLabel(mapperIndex, graph, strValue, uri, classAnalizer.getLabelPropertyByField(field), classAnalizer.isReverseRelation(field), lang, service);
-                setter.invoke(instance, proxy.getInstance());
+                setter.invoke(instance, batchProxy(proxy, batch).getInstance());
             }
 
         }
@@ -186,7 +203,7 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
             Method setter = classAnalizer.getSetterFromField(field);
 
             SPARQLProxyListData<?> proxy = new SPARQLProxyListData<>(mapperIndex, graph, uri, classAnalizer.getDataListPropertyByField(field), ClassUtils.getGenericTypeFromField(field), classAnalizer.isReverseRelation(field), lang, service);
-            setter.invoke(instance, proxy.getInstance());
+            setter.invoke(instance, batchProxy(proxy, batch).getInstance());
         }
 
         for (Field field : classAnalizer.getObjectListPropertyFields()) {
@@ -198,14 +215,22 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
                 propertyGraph = mapperIndex.getForClass(model).getDefaultGraph();
             }
             SPARQLProxyListObject<? extends SPARQLResourceModel> proxy = new SPARQLProxyListObject<>(mapperIndex, propertyGraph, uri, classAnalizer.getObjectListPropertyByField(field), model, classAnalizer.isReverseRelation(field), lang, service);
-            setter.invoke(instance, proxy.getInstance());
+            setter.invoke(instance, batchProxy(proxy, batch).getInstance());
         }
 
         Set<Property> properties = classAnalizer.getManagedProperties();
-        instance.setRelations(new SPARQLProxyRelationList(mapperIndex, null, uri, properties, lang, service).getInstance());
+        SPARQLProxyRelationList relationsProxy = new SPARQLProxyRelationList(mapperIndex, null, uri, properties, lang, service);
+        instance.setRelations(batchProxy(relationsProxy, batch).getInstance());
         return instance;
     }
 
+    private static <P extends SPARQLProxy<?>> P batchProxy(P proxy, SPARQLProxyBatch batch) {
+        if (batch != null) {
+            proxy.setBatch(batch);
+        }
+        return proxy;
+    }
+
     public T createInstance(URI uri) throws Exception {
         T instance = constructor.newInstance();
 
@@ -297,12 +322,67 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
         classQueryBuilder.addUpdateBuilder(graph, oldInstance, newInstance, update);
     }
 
-    public void addCreateBuilder(T instance, UpdateBuilder create) throws Exception {
-        addCreateBuilder(getDefaultGraph(), instance, create);
+    /**
+     * Add triples changed between stored and new instance versions in the given update.
+     *
+     * @param graph instance graph
+     * @param oldInstance instance as stored
+     * @param newInstance new instance version
+     * @param update update to complete
+     * @return number of deleted and inserted triples
+     * @throws Exception
+     */
+    public int addChangeSetBuilder(Node graph, T oldInstance, T newInstance, UpdateBuilder update) throws Exception {
+        return classQueryBuilder.addChangeSetBuilder(graph, oldInstance, newInstance, update);
+    }
+
+    /**
+     * Build a request deleting relations of the stored instance which are not relations of its new version anymore.
+     *
+     * @param oldInstance instance as stored
+     * @param newInstance new instance version
+     * @return delete request or null if there is nothing to delete
+     * @throws Exception
+     */
+    public UpdateBuilder getRemovedRelationsDeleteBuilder(T oldInstance, T newInstance) throws Exception {
+        return classQueryBuilder.getRemovedRelationsDeleteBuilder(oldInstance, newInstance);
+    }
+
+    /**
+     * Return URIs of resources referenced by an object or object list field of an instance.
+     *
+     * @param field object or object list field
+     * @param instance instance to read
+     * @return formatted URIs of referenced resources, resources without URI are ignored
+     * @throws Exception
+     */
+    public Set<URI> getFieldResourcesURIs(Field field, T instance) throws Exception {
+        Set<URI> uris = new HashSet<>();
+        Object value = classAnalizer.getFieldValue(field, instance);
+        Collection<?> values = (value instanceof Collection) ? (Collection<?>) value : Collections.singletonList(value);
+        for (Object resource : values) {
+            if (resource instanceof SPARQLResourceModel && ((SPARQLResourceModel) resource).getUri() != null) {
+                uris.add(SPARQLDeserializers.formatURI(((SPARQLResourceModel) resource).getUri()));
+            }
+        }
+        return uris;
+    }
+
+    public int addCreateBuilder(T instance, UpdateBuilder create) throws Exception {
+        return addCreateBuilder(getDefaultGraph(), instance, create);
     }
 
-    public void addCreateBuilder(Node graph, T instance, UpdateBuilder create) throws Exception {
-        classQueryBuilder.addCreateBuilder(graph, instance, create);
+    /**
+     * Add instance triples to insert in the given update.
+     *
+     * @param graph instance graph
+     * @param instance instance to create
+     * @param create update to complete
+     * @return number of added triples
+     * @throws Exception
+     */
+    public int addCreateBuilder(Node graph, T instance, UpdateBuilder create) throws Exception {
+        return classQueryBuilder.addCreateBuilder(graph, instance, create);
     }
 
     public UpdateBuilder getDeleteBuilder(T instance) throws Exception {
@@ -384,6 +464,30 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
         }
     }
 
+    /**
+     * Convert a field value read from a select result into a query node.
+     *
+     * @param fieldName field name
+     * @param value field string value as returned in select results
+     * @return corresponding node, URI for object properties and plain literal for labels
+     * @throws Exception
+     */
+    public Node getFieldValueNode(String fieldName, String value) throws Exception {
+        Field f = classAnalizer.getFieldFromName(fieldName);
+        if (f == null) {
+            throw new SPARQLUnknownFieldException(objectClass, fieldName);
+        }
+
+        Class<?> fieldType = f.getType();
+        if (SPARQLDeserializers.existsForClass(fieldType)) {
+            return SPARQLDeserializers.getForClass(fieldType).getNodeFromString(value);
+        } else if (SPARQLResourceModel.class.isAssignableFrom(fieldType)) {
+            return NodeFactory.createURI(value);
+        } else {
+            return NodeFactory.createLiteral(value);
+        }
+    }
+
     public Field getFieldFromUniqueProperty(Property property) {
         return classAnalizer.getFieldFromUniqueProperty(property);
     }
@@ -517,6 +621,60 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
         return existingMap;
     }
 
+    /**
+     * Collect properties of triples to delete with instances of this class, indexed by graph.
+     *
+     * It covers instance fields triples and triples deleted by {@link #getDeleteRelationsBuilder(Node, URI)}, so a
+     * set of instances can be deleted by property without loading them.
+     *
+     * @param graph instances graph
+     * @param subjectProperties properties of triples with an instance as subject by graph, to complete
+     * @param objectProperties properties of triples with an instance as object by graph, to complete
+     * @throws Exception
+     */
+    public void collectDeleteProperties(Node graph, Map<Node, Set<Node>> subjectProperties, Map<Node, Set<Node>> objectProperties) throws Exception {
+        subjectProperties.computeIfAbsent(graph, key -> new HashSet<>()).add(RDF.type.asNode());
+
+        List<Field> literalFields = new ArrayList<>();
+        literalFields.addAll(classAnalizer.getDataPropertyFields());
+        literalFields.addAll(classAnalizer.getLabelPropertyFields());
+        literalFields.addAll(classAnalizer.getDataListPropertyFields());
+        for (Field field : literalFields) {
+            Map<Node, Set<Node>> propertiesByGraph = classAnalizer.isReverseRelation(field) ? objectProperties : subjectProperties;
+            propertiesByGraph.computeIfAbsent(graph, key -> new HashSet<>()).add(classAnalizer.getFieldProperty(field).asNode());
+        }
+
+        Map<Field, Class<?>> objectFieldTypes = new HashMap<>();
+        for (Field field : classAnalizer.getObjectPropertyFields()) {
+            objectFieldTypes.put(field, field.getType());
+        }
+        for (Field field : classAnalizer.getObjectListPropertyFields()) {
+            objectFieldTypes.put(field, ClassUtils.getGenericTypeFromField(field));
+        }
+        for (Map.Entry<Field, Class<?>> objectFieldType : objectFieldTypes.entrySet()) {
+            Field field = objectFieldType.getKey();
+            Node property = classAnalizer.getFieldProperty(field).asNode();
+            if (classAnalizer.isReverseRelation(field)) {
+                Node fieldGraph = mapperIndex.getForClass(objectFieldType.getValue()).getDefaultGraph();
+                objectProperties.computeIfAbsent(fieldGraph, key -> new HashSet<>()).add(property);
+            } else {
+                subjectProperties.computeIfAbsent(graph, key -> new HashSet<>()).add(property);
+            }
+        }
+
+        Set<Class<? extends SPARQLResourceModel>> relatedResources = classAnalizer.getRelatedResources();
+        if (relatedResources == null) {
+            return;
+        }
+        for (Class<? extends SPARQLResourceModel> relatedModelClass : relatedResources) {
+            SPARQLClassObjectMapper<SPARQLResourceModel> relatedModelMapper = mapperIndex.getForClass(relatedModelClass);
+            for (Field relationField : relatedModelMapper.classAnalizer.getFieldsRelatedTo(objectClass)) {
+                Map<Node, Set<Node>> propertiesByGraph = relatedModelMapper.classAnalizer.isReverseRelation(relationField) ? objectProperties : subjectProperties;
+                propertiesByGraph.computeIfAbsent(graph, key -> new HashSet<>()).add(relatedModelMapper.classAnalizer.getFieldProperty(relationField).asNode());
+            }
+        }
+    }
+
     public UpdateBuilder getDeleteRelationsBuilder(Node graph, URI uri) throws Exception {
         UpdateBuilder delete = new UpdateBuilder();
         if (addDeleteRelationsBuilder(graph, uri, classAnalizer.getRelatedResources(), delete)) {
@@ -21,6 +21,7 @@ import org.opensilex.sparql.annotations.SPARQLManualLoading;
 import org.opensilex.sparql.exceptions.SPARQLInvalidClassDefinitionException;
 import org.opensilex.sparql.exceptions.SPARQLMapperNotFoundException;
 import org.opensilex.sparql.model.SPARQLResourceModel;
+import org.opensilex.sparql.service.SPARQLClassHierarchy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +42,8 @@ public class SPARQLClassObjectMapperIndex {
 
     private final URI baseGraphURI;
 
+    private SPARQLClassHierarchy classHierarchy;
+
     public SPARQLClassObjectMapperIndex(URI baseGraphURI, Set<Class<? extends SPARQLResourceModel>> initClasses) throws SPARQLInvalidClassDefinitionException {
         this.baseGraphURI = baseGraphURI;
         this.classes = initClasses;
@@ -145,6 +148,17 @@ public class SPARQLClassObjectMapperIndex {
         return classes.contains(c);
     }
 
+    /**
+     * @return class hierarchy used to restrict types in generated queries, may be null
+     */
+    public SPARQLClassHierarchy getClassHierarchy() {
+        return classHierarchy;
+    }
+
+    public void setClassHierarchy(SPARQLClassHierarchy classHierarchy) {
+        this.classHierarchy = classHierarchy;
+    }
+
     public void reset() {
         classes = null;
         classesMapper = new HashMap<>();
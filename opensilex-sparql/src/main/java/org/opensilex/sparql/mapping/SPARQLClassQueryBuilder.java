@@ -21,16 +21,19 @@ import org.apache.jena.vocabulary.RDF;
 import org.opensilex.sparql.deserializer.SPARQLDeserializers;
 import org.opensilex.sparql.model.SPARQLModelRelation;
 import org.opensilex.sparql.model.SPARQLResourceModel;
-import org.opensilex.sparql.utils.Ontology;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.lang.reflect.Field;
 import java.net.URI;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import static org.apache.jena.arq.querybuilder.AbstractQueryBuilder.makeVar;
@@ -44,10 +47,20 @@ import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Seq;
 import org.apache.jena.sparql.core.Quad;
 import org.apache.jena.sparql.expr.Expr;
+import java.util.HashSet;
+import java.util.ArrayList;
+import org.apache.jena.sparql.expr.NodeValue;
+import org.apache.jena.sparql.expr.ExprVar;
+import org.apache.jena.sparql.expr.E_Str;
+import org.apache.jena.sparql.expr.E_LogicalOr;
+import org.apache.jena.sparql.expr.E_LogicalAnd;
+import org.apache.jena.sparql.expr.E_Equals;
+import org.apache.jena.arq.querybuilder.WhereBuilder;
 import org.apache.jena.vocabulary.OWL;
 import org.apache.jena.vocabulary.RDFS;
 import org.opensilex.OpenSilex;
 import org.opensilex.sparql.model.SPARQLLabel;
+import org.opensilex.sparql.service.SPARQLClassHierarchy;
 import org.opensilex.sparql.service.SPARQLQueryHelper;
 import org.opensilex.sparql.utils.SHACL;
 
@@ -62,12 +75,63 @@ class SPARQLClassQueryBuilder {
 
     private final SPARQLClassObjectMapperIndex mapperIndex;
 
+    /**
+     * Compiled select and count query templates by kind, graph and language, copied for each query to build.
+     */
+    private final Map<List<Object>, SelectBuilder> selectTemplates = new ConcurrentHashMap<>();
+
+    /**
+     * Compiled ask query templates by graph and language, copied for each query to build.
+     */
+    private final Map<List<Object>, AskBuilder> askTemplates = new ConcurrentHashMap<>();
+
     public SPARQLClassQueryBuilder(SPARQLClassObjectMapperIndex mapperIndex, SPARQLClassAnalyzer analyzer) {
         this.analyzer = analyzer;
         this.mapperIndex = mapperIndex;
     }
 
+    /**
+     * Class hierarchy version used by cached templates.
+     */
+    private volatile long templatesHierarchyVersion = 0;
+
+    /**
+     * Return a copy of the select query template, template is generated on first use only.
+     *
+     * Templates are never modified once generated so a copy can be safely completed with filters, values, limits...
+     * They depend on class hierarchy so they are cleared when it changes.
+     */
     public SelectBuilder getSelectBuilder(Node graph, String lang) {
+        long version = getHierarchyVersion();
+        return selectTemplates.computeIfAbsent(Arrays.asList("select", graph, lang, version), key -> generateSelectBuilder(graph, lang)).clone();
+    }
+
+    public AskBuilder getAskBuilder(Node graph, String lang) {
+        long version = getHierarchyVersion();
+        return askTemplates.computeIfAbsent(Arrays.asList(graph, lang, version), key -> generateAskBuilder(graph, lang)).clone();
+    }
+
+    public SelectBuilder getCountBuilder(Node graph, String countFieldName, String lang) {
+        long version = getHierarchyVersion();
+        return selectTemplates.computeIfAbsent(Arrays.asList("count", graph, countFieldName, lang, version), key -> generateCountBuilder(graph, countFieldName, lang)).clone();
+    }
+
+    private long getHierarchyVersion() {
+        SPARQLClassHierarchy classHierarchy = mapperIndex.getClassHierarchy();
+        if (classHierarchy == null) {
+            return 0;
+        }
+
+        long version = classHierarchy.getVersion();
+        if (version != templatesHierarchyVersion) {
+            templatesHierarchyVersion = version;
+            selectTemplates.keySet().removeIf(key -> !key.get(key.size() - 1).equals(version));
+            askTemplates.keySet().removeIf(key -> !key.get(key.size() - 1).equals(version));
+        }
+        return version;
+    }
+
+    SelectBuilder generateSelectBuilder(Node graph, String lang) {
         SelectBuilder selectBuilder = new SelectBuilder();
         selectBuilder.setDistinct(true);
 
@@ -87,7 +151,7 @@ class SPARQLClassQueryBuilder {
         return selectBuilder;
     }
 
-    public AskBuilder getAskBuilder(Node graph, String lang) {
+    AskBuilder generateAskBuilder(Node graph, String lang) {
         AskBuilder askBuilder = new AskBuilder();
         initializeQueryBuilder(askBuilder, graph, lang, analyzer.allowBlankNode());
         return askBuilder;
@@ -155,7 +219,7 @@ class SPARQLClassQueryBuilder {
 
     }
 
-    public SelectBuilder getCountBuilder(Node graph, String countFieldName, String lang) {
+    SelectBuilder generateCountBuilder(Node graph, String countFieldName, String lang) {
         String uriFieldName = analyzer.getURIFieldName();
 
         SelectBuilder countBuilder = new SelectBuilder();
@@ -193,7 +257,12 @@ class SPARQLClassQueryBuilder {
         WhereHandler whereHandler = builder.getWhereHandler();
         // WhereHandler used for adding all WHERE clause
         rootWhereHandler.addWhere(builder.makeTriplePath(makeVar(uriFieldName), RDF.type, typeFieldVar));
-        whereHandler.addWhere(builder.makeTriplePath(typeFieldVar, Ontology.subClassAny, analyzer.getRDFType()));
+        SPARQLClassHierarchy classHierarchy = mapperIndex.getClassHierarchy();
+        if (classHierarchy != null) {
+            classHierarchy.addSubClassesWhere(whereHandler, typeFieldVar, analyzer.getRDFType().asNode());
+        } else {
+            SPARQLClassHierarchy.addSubClassAnyWhere(whereHandler, typeFieldVar, analyzer.getRDFType().asNode());
+        }
 
         String typeLabelFieldName = analyzer.getTypeLabelFieldName();
         Var typeLabelFieldVar = makeVar(typeLabelFieldName);
@@ -230,18 +299,41 @@ class SPARQLClassQueryBuilder {
         return create;
     }
 
-    public <T extends SPARQLResourceModel> void addCreateBuilder(Node graph, T instance, UpdateBuilder create) throws Exception {
+    /**
+     * Add instance triples to insert in the given update.
+     *
+     * @return number of added triples
+     */
+    public <T extends SPARQLResourceModel> int addCreateBuilder(Node graph, T instance, UpdateBuilder create) throws Exception {
+        AtomicInteger tripleCount = new AtomicInteger(0);
         executeOnInstanceTriples(graph, instance, (Quad quad, Field field) -> {
             if (graph == null) {
                 create.addInsert(quad.asTriple());
             } else {
                 create.addInsert(quad);
             }
+            tripleCount.incrementAndGet();
         }, false);
 
-        URI uri = instance.getUri();
+        return tripleCount.get() + addRelationsInsert(graph, instance, create);
+    }
+
+    /**
+     * Add instance relations triples to insert in the given update.
+     *
+     * @return number of added triples
+     */
+    private <T extends SPARQLResourceModel> int addRelationsInsert(Node graph, T instance, UpdateBuilder update) throws Exception {
+        return addRelationsInsert(graph, instance.getUri(), instance.getRelations(), update);
+    }
+
+    private int addRelationsInsert(Node graph, URI uri, List<SPARQLModelRelation> relations, UpdateBuilder update) throws Exception {
+        if (relations == null) {
+            return 0;
+        }
 
-        for (SPARQLModelRelation relation : instance.getRelations()) {
+        int tripleCount = 0;
+        for (SPARQLModelRelation relation : relations) {
 
             Class<?> valueType = relation.getType();
             Node valueNode = SPARQLDeserializers.getForClass(valueType).getNodeFromString(relation.getValue());
@@ -252,8 +344,164 @@ class SPARQLClassQueryBuilder {
             if (relation.getGraph() != null) {
                 relationGraph = SPARQLDeserializers.nodeURI(relation.getGraph());
             }
-            create.addInsert(relationGraph, triple);
+            update.addInsert(relationGraph, triple);
+            tripleCount++;
+        }
+
+        return tripleCount;
+    }
+
+    /**
+     * Lexical value of a relation, relations loaded from the triplestore have no value type.
+     */
+    private static String getRelationValue(SPARQLModelRelation relation) throws Exception {
+        if (relation.getType() == null) {
+            return relation.getValue();
         }
+
+        Node valueNode = SPARQLDeserializers.getForClass(relation.getType()).getNodeFromString(relation.getValue());
+        if (valueNode.isURI()) {
+            return SPARQLDeserializers.getExpandedURI(valueNode.getURI());
+        }
+        return valueNode.getLiteralLexicalForm();
+    }
+
+    private static String getRelationKey(SPARQLModelRelation relation) throws Exception {
+        return relation.getProperty().getURI() + " " + getRelationValue(relation);
+    }
+
+    /**
+     * Reverse relations are triples of other resources and triples of instance type or fields are managed by the
+     * instance itself, they are not updated as relations.
+     */
+    private boolean isUpdatableRelation(SPARQLModelRelation relation) {
+        return !Boolean.TRUE.equals(relation.getReverse())
+                && !RDF.type.equals(relation.getProperty())
+                && !analyzer.getManagedProperties().contains(relation.getProperty());
+    }
+
+    private Set<String> getUpdatableRelationsKeys(List<SPARQLModelRelation> relations) throws Exception {
+        Set<String> keys = new HashSet<>();
+        if (relations != null) {
+            for (SPARQLModelRelation relation : relations) {
+                if (isUpdatableRelation(relation)) {
+                    keys.add(getRelationKey(relation));
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Add to the given update only the triples changed between the stored instance and its new version.
+     *
+     * Triples of the old instance which are not produced by the new one are deleted and triples of the new instance
+     * which were not produced by the old one are inserted, so unchanged fields are not rewritten. Relations of the new
+     * instance which are not relations of the old one are inserted, removed relations are deleted by the request built
+     * with {@link #getRemovedRelationsDeleteBuilder(SPARQLResourceModel, SPARQLResourceModel)}. Relations are left
+     * unchanged if new instance relations are null.
+     *
+     * @param graph instance graph
+     * @param oldInstance instance as stored
+     * @param newInstance new instance version
+     * @param update update to complete
+     * @return number of deleted and inserted triples
+     */
+    public <T extends SPARQLResourceModel> int addChangeSetBuilder(Node graph, T oldInstance, T newInstance, UpdateBuilder update) throws Exception {
+        Set<Quad> oldQuads = new LinkedHashSet<>();
+        executeOnInstanceTriples(graph, oldInstance, (Quad quad, Field field) -> {
+            oldQuads.add(quad);
+        }, true);
+
+        Set<Quad> newQuads = new LinkedHashSet<>();
+        executeOnInstanceTriples(graph, newInstance, (Quad quad, Field field) -> {
+            newQuads.add(quad);
+        }, false);
+
+        int tripleCount = 0;
+        for (Quad quad : oldQuads) {
+            if (!newQuads.contains(quad)) {
+                if (graph == null) {
+                    update.addDelete(quad.asTriple());
+                } else {
+                    update.addDelete(quad);
+                }
+                tripleCount++;
+            }
+        }
+
+        for (Quad quad : newQuads) {
+            if (!oldQuads.contains(quad)) {
+                if (graph == null) {
+                    update.addInsert(quad.asTriple());
+                } else {
+                    update.addInsert(quad);
+                }
+                tripleCount++;
+            }
+        }
+
+        List<SPARQLModelRelation> newRelations = newInstance.getRelations();
+        if (newRelations != null) {
+            Set<String> oldRelationsKeys = getUpdatableRelationsKeys(oldInstance.getRelations());
+            List<SPARQLModelRelation> addedRelations = new ArrayList<>();
+            for (SPARQLModelRelation relation : newRelations) {
+                if (isUpdatableRelation(relation) && oldRelationsKeys.add(getRelationKey(relation))) {
+                    addedRelations.add(relation);
+                }
+            }
+            tripleCount += addRelationsInsert(graph, newInstance.getUri(), addedRelations, update);
+        }
+
+        return tripleCount;
+    }
+
+    /**
+     * Build a request deleting relations of the stored instance which are not relations of its new version anymore.
+     *
+     * Stored relations have no value type, so they are matched on property and lexical value in any graph.
+     *
+     * @param oldInstance instance as stored
+     * @param newInstance new instance version
+     * @return delete request or null if no relation was removed or if new instance relations are null
+     */
+    public <T extends SPARQLResourceModel> UpdateBuilder getRemovedRelationsDeleteBuilder(T oldInstance, T newInstance) throws Exception {
+        List<SPARQLModelRelation> oldRelations = oldInstance.getRelations();
+        if (newInstance.getRelations() == null || oldRelations == null) {
+            return null;
+        }
+
+        Var graphVar = makeVar("g");
+        Var propertyVar = makeVar("p");
+        Var valueVar = makeVar("value");
+
+        Set<String> newRelationsKeys = getUpdatableRelationsKeys(newInstance.getRelations());
+        Expr filter = null;
+        for (SPARQLModelRelation relation : oldRelations) {
+            if (isUpdatableRelation(relation) && !newRelationsKeys.contains(getRelationKey(relation))) {
+                Expr relationFilter = new E_LogicalAnd(
+                        new E_Equals(new ExprVar(propertyVar), NodeValue.makeNode(relation.getProperty().asNode())),
+                        new E_Equals(new E_Str(new ExprVar(valueVar)), NodeValue.makeString(getRelationValue(relation)))
+                );
+                filter = (filter == null) ? relationFilter : new E_LogicalOr(filter, relationFilter);
+            }
+        }
+
+        if (filter == null) {
+            return null;
+        }
+
+        Node uriNode = SPARQLDeserializers.nodeURI(oldInstance.getUri());
+        SelectBuilder triples = new SelectBuilder();
+        triples.addVar(graphVar).addVar(propertyVar).addVar(valueVar);
+        triples.addGraph(graphVar, new WhereBuilder().addWhere(uriNode, propertyVar, valueVar));
+        triples.addFilter(filter);
+
+        UpdateBuilder delete = new UpdateBuilder();
+        delete.addDelete(graphVar, uriNode, propertyVar, valueVar);
+        delete.addSubQuery(triples);
+
+        return delete;
     }
 
     public <T extends SPARQLResourceModel> UpdateBuilder getDeleteBuilder(Node graph, T instance) throws Exception {
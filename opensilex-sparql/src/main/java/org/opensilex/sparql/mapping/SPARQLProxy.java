@@ -7,11 +7,9 @@ package org.opensilex.sparql.mapping;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import net.bytebuddy.ByteBuddy;
-import net.bytebuddy.implementation.InvocationHandlerAdapter;
-import net.bytebuddy.matcher.ElementMatchers;
+import java.util.List;
 import org.apache.jena.graph.*;
-import org.opensilex.OpenSilex;
+import org.opensilex.sparql.exceptions.SPARQLException;
 import org.opensilex.sparql.service.SPARQLService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,29 +26,22 @@ abstract class SPARQLProxy<T> implements InvocationHandler {
         this.mapperIndex = mapperIndex;
         this.type = type;
         this.service = service;
+        this.serviceGeneration = (service == null) ? 0 : service.getGeneration();
         this.graph = graph;
         this.lang = lang;
     }
 
     protected final Class<T> type;
     protected final SPARQLService service;
+    private final int serviceGeneration;
     protected final Node graph;
     protected final String lang;
     protected final SPARQLClassObjectMapperIndex mapperIndex;
     protected T instance;
 
     public T getInstance() {
-        Class<? extends T> proxy = new ByteBuddy()
-                .subclass(type)
-                .implement(SPARQLProxyMarker.class)
-                .method(ElementMatchers.any())
-                .intercept(InvocationHandlerAdapter.of(this))
-                .make()
-                .load(OpenSilex.getClassLoader())
-                .getLoaded();
-
         try {
-            return proxy.getConstructor().newInstance();
+            return SPARQLProxyClassRegistry.newInstance(type, this);
         } catch (Exception ex) {
             LOGGER.error("Error while creating SPARQL proxy class (should never happend)", ex);
         }
@@ -60,15 +51,68 @@ abstract class SPARQLProxy<T> implements InvocationHandler {
 
     private boolean loaded = false;
 
+    private SPARQLProxyBatch batch;
+
+    /**
+     * Register this proxy in a batch, data will then be loaded for all proxies of the batch sharing the same batch key
+     * when any of them is accessed.
+     *
+     * @param batch batch to register in
+     */
+    void setBatch(SPARQLProxyBatch batch) {
+        if (getBatchKey() != null) {
+            this.batch = batch;
+            batch.add(this);
+        }
+    }
+
     protected T loadIfNeeded() throws Exception {
         if (!loaded) {
-            instance = loadData();
-            loaded = true;
+            if (service != null && service.getGeneration() != serviceGeneration) {
+                // Service was released and may be used by another consumer, its connection must not be used anymore
+                throw new SPARQLException("SPARQL service has been released, data of " + type.getName() + " can't be loaded anymore");
+            }
+            if (batch != null) {
+                batch.load(this);
+            } else {
+                setLoadedInstance(loadData());
+            }
         }
 
         return instance;
     }
 
+    void setLoadedInstance(T instance) {
+        this.instance = instance;
+        this.loaded = true;
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Key identifying proxies which could be loaded together with {@link #loadBatchData(java.util.List)}, null if this
+     * proxy could only be loaded by itself.
+     *
+     * @return batch key or null
+     */
+    protected Object getBatchKey() {
+        return null;
+    }
+
+    /**
+     * Load data for a list of proxies sharing the same batch key, all proxies of the list must be marked as loaded.
+     *
+     * @param proxies proxies to load including this one
+     * @throws Exception
+     */
+    protected void loadBatchData(List<SPARQLProxy<T>> proxies) throws Exception {
+        for (SPARQLProxy<T> proxy : proxies) {
+            proxy.setLoadedInstance(proxy.loadData());
+        }
+    }
+
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
         loadIfNeeded();
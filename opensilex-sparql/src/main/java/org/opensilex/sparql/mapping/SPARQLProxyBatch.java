@@ -0,0 +1,66 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.mapping;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Group of lazy SPARQL proxies created while materializing a list of instances.
+ *
+ * Proxies are grouped by batch key (same kind, property, graph, language...). When one proxy of a group is accessed,
+ * the whole group is loaded with a single query instead of one query per proxy.
+ *
+ * @author vincent
+ */
+public final class SPARQLProxyBatch {
+
+    private final Map<Object, List<SPARQLProxy<?>>> pendingProxies = new HashMap<>();
+
+    synchronized void add(SPARQLProxy<?> proxy) {
+        pendingProxies.computeIfAbsent(proxy.getBatchKey(), key -> new ArrayList<>()).add(proxy);
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized <T> void load(SPARQLProxy<T> proxy) throws Exception {
+        if (proxy.isLoaded()) {
+            return;
+        }
+
+        List<SPARQLProxy<T>> group = (List<SPARQLProxy<T>>) (List<?>) pendingProxies.remove(proxy.getBatchKey());
+        if (group == null) {
+            group = new ArrayList<>();
+        }
+        if (!group.contains(proxy)) {
+            group.add(proxy);
+        }
+
+        try {
+            proxy.loadBatchData(group);
+        } catch (Exception ex) {
+            // Put back not loaded proxies to allow a retry on next access
+            for (SPARQLProxy<T> groupProxy : group) {
+                if (!groupProxy.isLoaded()) {
+                    add(groupProxy);
+                }
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * @return number of proxies waiting to be loaded
+     */
+    synchronized int size() {
+        int size = 0;
+        for (List<SPARQLProxy<?>> group : pendingProxies.values()) {
+            size += group.size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,108 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.mapping;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.implementation.InvocationHandlerAdapter;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.opensilex.OpenSilex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of generated SPARQL proxy classes.
+ *
+ * Each proxied type is subclassed only once with an extra handler field, all
+ * method calls of the generated class are delegated to the handler stored in
+ * this field. Creating a new proxy is then limited to one instantiation and
+ * one field assignment instead of a full class generation and loading.
+ *
+ * @author vincent
+ */
+final class SPARQLProxyClassRegistry {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(SPARQLProxyClassRegistry.class);
+
+    /**
+     * Name of the field holding the invocation handler in generated classes.
+     */
+    final static String HANDLER_FIELD_NAME = "sparqlProxyHandler$";
+
+    private final static Map<Class<?>, ProxyClass<?>> proxyClasses = new ConcurrentHashMap<>();
+
+    private SPARQLProxyClassRegistry() {
+    }
+
+    /**
+     * Create a new proxy instance of the given type delegating all method calls to the given handler.
+     *
+     * @param <T> proxied type
+     * @param type proxied type class
+     * @param handler invocation handler for the new instance
+     * @return new proxy instance
+     * @throws Exception if proxy instance could not be created
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T newInstance(Class<T> type, InvocationHandler handler) throws Exception {
+        ProxyClass<T> proxyClass = (ProxyClass<T>) proxyClasses.computeIfAbsent(type, SPARQLProxyClassRegistry::generateProxyClass);
+        return proxyClass.newInstance(handler);
+    }
+
+    /**
+     * @return number of generated proxy classes
+     */
+    static int size() {
+        return proxyClasses.size();
+    }
+
+    private static <T> ProxyClass<T> generateProxyClass(Class<T> type) {
+        LOGGER.debug("Generate SPARQL proxy class for: " + type.getName());
+
+        Class<? extends T> proxy = new ByteBuddy()
+                .subclass(type)
+                .defineField(HANDLER_FIELD_NAME, InvocationHandler.class, Visibility.PRIVATE)
+                .implement(SPARQLProxyMarker.class)
+                .method(ElementMatchers.any())
+                .intercept(InvocationHandlerAdapter.toField(HANDLER_FIELD_NAME))
+                .make()
+                .load(OpenSilex.getClassLoader())
+                .getLoaded();
+
+        try {
+            Constructor<? extends T> constructor = proxy.getConstructor();
+            Field handlerField = proxy.getDeclaredField(HANDLER_FIELD_NAME);
+            handlerField.setAccessible(true);
+
+            return new ProxyClass<>(constructor, handlerField);
+        } catch (NoSuchMethodException | NoSuchFieldException ex) {
+            throw new IllegalStateException("Invalid generated SPARQL proxy class for: " + type.getName(), ex);
+        }
+    }
+
+    private final static class ProxyClass<T> {
+
+        private final Constructor<? extends T> constructor;
+
+        private final Field handlerField;
+
+        private ProxyClass(Constructor<? extends T> constructor, Field handlerField) {
+            this.constructor = constructor;
+            this.handlerField = handlerField;
+        }
+
+        private T newInstance(InvocationHandler handler) throws Exception {
+            T instance = constructor.newInstance();
+            handlerField.set(instance, handler);
+            return instance;
+        }
+    }
+}
@@ -7,9 +7,15 @@ package org.opensilex.sparql.mapping;
 
 import java.lang.reflect.Method;
 import java.net.URI;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.jena.graph.Node;
 import org.apache.jena.rdf.model.Property;
+import org.opensilex.sparql.deserializer.SPARQLDeserializers;
 import org.opensilex.sparql.model.SPARQLLabel;
 import org.opensilex.sparql.service.SPARQLService;
 
@@ -35,6 +41,10 @@ class SPARQLProxyLabel extends SPARQLProxy<SPARQLLabel> {
     @Override
     protected SPARQLLabel loadData() throws Exception {
         Map<String, String> translations = service.getTranslations(graph, resourceURI, labelProperty, reverseRelation);
+        return createLabel(translations);
+    }
+
+    private SPARQLLabel createLabel(Map<String, String> translations) {
         translations.remove(lang);
         SPARQLLabel label = new SPARQLLabel(defaultValue, lang);
         label.setTranslations(translations);
@@ -42,6 +52,28 @@ class SPARQLProxyLabel extends SPARQLProxy<SPARQLLabel> {
         return label;
     }
 
+    @Override
+    protected Object getBatchKey() {
+        return Arrays.asList(SPARQLProxyLabel.class, graph, labelProperty, reverseRelation, lang);
+    }
+
+    @Override
+    protected void loadBatchData(List<SPARQLProxy<SPARQLLabel>> proxies) throws Exception {
+        Set<URI> uris = new LinkedHashSet<>();
+        for (SPARQLProxy<SPARQLLabel> proxy : proxies) {
+            uris.add(((SPARQLProxyLabel) proxy).resourceURI);
+        }
+
+        Map<String, Map<String, String>> translationsByURI = service.getTranslations(graph, uris, labelProperty, reverseRelation);
+
+        for (SPARQLProxy<SPARQLLabel> proxy : proxies) {
+            SPARQLProxyLabel labelProxy = (SPARQLProxyLabel) proxy;
+            String uri = SPARQLDeserializers.getExpandedURI(labelProxy.resourceURI.toString());
+            Map<String, String> translations = new HashMap<>(translationsByURI.getOrDefault(uri, new HashMap<>()));
+            labelProxy.setLoadedInstance(labelProxy.createLabel(translations));
+        }
+    }
+
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
         boolean noParameters = (method.getParameterCount() == 0);
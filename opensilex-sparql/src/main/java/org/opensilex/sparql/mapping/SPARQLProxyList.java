@@ -18,6 +18,11 @@ import org.opensilex.sparql.service.SPARQLService;
 @SuppressWarnings("rawtypes")
 abstract class SPARQLProxyList<T> extends SPARQLProxy<List> {
 
+    /**
+     * Variable used to bind the list owner URI when loading several lists in a single query.
+     */
+    protected final static String BATCH_URI_VAR = "_batchURI";
+
     protected final URI uri;
     protected final Property property;
     protected final Class<T> genericType;
@@ -7,7 +7,12 @@ package org.opensilex.sparql.mapping;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import static org.apache.jena.arq.querybuilder.AbstractQueryBuilder.makeVar;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.graph.Node;
@@ -61,4 +66,50 @@ class SPARQLProxyListData<T> extends SPARQLProxyList<T> {
         return results;
     }
 
+    @Override
+    protected Object getBatchKey() {
+        return Arrays.asList(SPARQLProxyListData.class, graph, property, genericType, isReverseRelation);
+    }
+
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    protected void loadBatchData(List<SPARQLProxy<List>> proxies) throws Exception {
+        Set<URI> uris = new LinkedHashSet<>();
+        for (SPARQLProxy<List> proxy : proxies) {
+            uris.add(((SPARQLProxyListData<T>) proxy).uri);
+        }
+
+        SelectBuilder select = new SelectBuilder();
+
+        Var uriVar = makeVar(BATCH_URI_VAR);
+        Var value = makeVar("value");
+        select.addVar(uriVar);
+        select.addVar(value);
+
+        if (isReverseRelation) {
+            select.addWhere(value, property, uriVar);
+        } else {
+            select.addWhere(uriVar, property, value);
+        }
+        select.addWhereValueVar(uriVar, SPARQLDeserializers.nodeListURI(new ArrayList<>(uris)).toArray());
+
+        Map<String, List<T>> resultsByURI = new HashMap<>();
+        SPARQLDeserializer<T> deserializer = SPARQLDeserializers.getForClass(genericType);
+
+        service.executeSelectQuery(select, (SPARQLResult result) -> {
+            String strValue = result.getStringValue("value");
+            try {
+                T parsedValue = deserializer.fromString(strValue);
+                resultsByURI.computeIfAbsent(result.getStringValue(BATCH_URI_VAR), key -> new ArrayList<>()).add(parsedValue);
+            } catch (Exception ex) {
+                LOGGER.warn("Error while parsing SPARQL result, result will be ignored: " + strValue, ex);
+            }
+        });
+
+        for (SPARQLProxy<List> proxy : proxies) {
+            String proxyURI = SPARQLDeserializers.getExpandedURI(((SPARQLProxyListData<T>) proxy).uri.toString());
+            proxy.setLoadedInstance(new ArrayList<>(resultsByURI.getOrDefault(proxyURI, new ArrayList<>())));
+        }
+    }
+
 }
@@ -6,14 +6,23 @@
 package org.opensilex.sparql.mapping;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import static org.apache.jena.arq.querybuilder.AbstractQueryBuilder.makeVar;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.graph.Node;
 import org.apache.jena.rdf.model.Property;
+import org.apache.jena.sparql.core.Var;
+import org.opensilex.sparql.service.SPARQLResult;
 import org.opensilex.sparql.service.SPARQLService;
 import org.opensilex.sparql.deserializer.SPARQLDeserializers;
 import org.opensilex.sparql.model.SPARQLResourceModel;
+import org.opensilex.utils.ThrowingConsumer;
 
 /**
  *
@@ -41,4 +50,48 @@ public class SPARQLProxyListObject<T extends SPARQLResourceModel> extends SPARQL
         return list;
     }
 
+    @Override
+    protected Object getBatchKey() {
+        return Arrays.asList(SPARQLProxyListObject.class, property, genericType, isReverseRelation, lang);
+    }
+
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    protected void loadBatchData(List<SPARQLProxy<List>> proxies) throws Exception {
+        Set<URI> uris = new LinkedHashSet<>();
+        for (SPARQLProxy<List> proxy : proxies) {
+            uris.add(((SPARQLProxyListObject<T>) proxy).uri);
+        }
+
+        SPARQLClassObjectMapper<T> mapper = mapperIndex.getForClass(genericType);
+        Node searchGraph = mapper.getDefaultGraph();
+        String language = lang;
+        if (language == null) {
+            language = service.getDefaultLang();
+        }
+
+        SelectBuilder select = mapper.getSelectBuilder(searchGraph, language);
+        Var uriVar = makeVar(BATCH_URI_VAR);
+        select.addVar(uriVar);
+        if (isReverseRelation) {
+            select.addWhere(makeVar(mapper.getURIFieldName()), property, uriVar);
+        } else {
+            select.addWhere(uriVar, property, makeVar(mapper.getURIFieldName()));
+        }
+        select.addWhereValueVar(uriVar, SPARQLDeserializers.nodeListURI(new ArrayList<>(uris)).toArray());
+
+        Map<String, List<T>> resultsByURI = new HashMap<>();
+        SPARQLProxyBatch resultsBatch = new SPARQLProxyBatch();
+        String resultsLang = language;
+        service.executeSelectQuery(select, ThrowingConsumer.wrap((SPARQLResult result) -> {
+            T instance = mapper.createInstance(searchGraph, result, resultsLang, service, resultsBatch);
+            resultsByURI.computeIfAbsent(result.getStringValue(BATCH_URI_VAR), key -> new ArrayList<>()).add(instance);
+        }, Exception.class));
+
+        for (SPARQLProxy<List> proxy : proxies) {
+            String proxyURI = SPARQLDeserializers.getExpandedURI(((SPARQLProxyListObject<T>) proxy).uri.toString());
+            proxy.setLoadedInstance(resultsByURI.getOrDefault(proxyURI, new ArrayList<>()));
+        }
+    }
+
 }
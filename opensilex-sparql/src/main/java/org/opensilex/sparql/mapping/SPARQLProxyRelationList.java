@@ -7,11 +7,16 @@ package org.opensilex.sparql.mapping;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.jena.graph.Node;
 import org.apache.jena.rdf.model.Property;
+import org.opensilex.sparql.deserializer.SPARQLDeserializers;
 import org.opensilex.sparql.service.SPARQLService;
 import org.opensilex.sparql.service.SPARQLStatement;
 import org.opensilex.sparql.model.SPARQLModelRelation;
@@ -45,32 +50,104 @@ class SPARQLProxyRelationList extends SPARQLProxy<List> {
         List<SPARQLStatement> results = this.service.describe(graph, uri);
 
         List<SPARQLModelRelation> list = new ArrayList<>();
-        
+
         for (SPARQLStatement statement : results) {
             if (!propertiesToIgnore.contains(statement.getPredicate())) {
-                SPARQLModelRelation relation = new SPARQLModelRelation();
+                boolean isReverse = uri.toString().equals(statement.getObject());
+                list.add(createRelation(statement, isReverse));
+            }
 
-                relation.setProperty(Ontology.property(statement.getPredicate()));
+        };
 
-                boolean isReverse = uri.toString().equals(statement.getObject());
-                relation.setReverse(isReverse);
+        return list;
+    }
 
-                if (isReverse) {
-                    relation.setValue(statement.getSubject());
-                } else {
-                    relation.setValue(statement.getObject());
+    private static SPARQLModelRelation createRelation(SPARQLStatement statement, boolean isReverse) throws Exception {
+        SPARQLModelRelation relation = new SPARQLModelRelation();
+
+        relation.setProperty(Ontology.property(statement.getPredicate()));
+        relation.setReverse(isReverse);
+
+        if (isReverse) {
+            relation.setValue(statement.getSubject());
+        } else {
+            relation.setValue(statement.getObject());
+        }
+
+        if (statement.getContext() != null) {
+            relation.setGraph(new URI(statement.getContext()));
+        }
+
+        return relation;
+    }
+
+    @Override
+    protected Object getBatchKey() {
+        return Arrays.asList(SPARQLProxyRelationList.class, graph, propertiesToIgnore);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void loadBatchData(List<SPARQLProxy<List>> proxies) throws Exception {
+        Map<String, List<SPARQLModelRelation>> relationsByURI = new HashMap<>();
+        Set<URI> uris = new LinkedHashSet<>();
+        for (SPARQLProxy<List> proxy : proxies) {
+            URI proxyURI = ((SPARQLProxyRelationList) proxy).uri;
+            uris.add(proxyURI);
+            relationsByURI.put(SPARQLDeserializers.getExpandedURI(proxyURI.toString()), new ArrayList<>());
+        }
+
+        List<SPARQLStatement> results = this.service.describe(graph, uris);
+
+        // Statements not directly linked to a described resource come from blank nodes closure,
+        // they are attached to the resource owning their subject
+        Map<String, String> ownersByNode = new HashMap<>();
+        List<SPARQLStatement> unresolvedStatements = new ArrayList<>();
+        for (SPARQLStatement statement : results) {
+            boolean isSubjectDescribed = relationsByURI.containsKey(statement.getSubject());
+            boolean isObjectDescribed = relationsByURI.containsKey(statement.getObject());
+            boolean ignored = propertiesToIgnore.contains(statement.getPredicate());
+
+            if (isObjectDescribed) {
+                ownersByNode.putIfAbsent(statement.getSubject(), statement.getObject());
+                if (!ignored) {
+                    relationsByURI.get(statement.getObject()).add(createRelation(statement, true));
                 }
-                
-                if (statement.getContext() != null) {
-                    relation.setGraph(new URI(statement.getContext()));
+            }
+            if (isSubjectDescribed && !statement.getSubject().equals(statement.getObject())) {
+                ownersByNode.putIfAbsent(statement.getObject(), statement.getSubject());
+                if (!ignored) {
+                    relationsByURI.get(statement.getSubject()).add(createRelation(statement, false));
                 }
-                
-                list.add(relation);
             }
+            if (!isSubjectDescribed && !isObjectDescribed) {
+                unresolvedStatements.add(statement);
+            }
+        }
 
-        };
+        boolean resolved = true;
+        while (resolved && !unresolvedStatements.isEmpty()) {
+            resolved = false;
+            List<SPARQLStatement> stillUnresolved = new ArrayList<>();
+            for (SPARQLStatement statement : unresolvedStatements) {
+                String owner = ownersByNode.get(statement.getSubject());
+                if (owner != null) {
+                    resolved = true;
+                    ownersByNode.putIfAbsent(statement.getObject(), owner);
+                    if (!propertiesToIgnore.contains(statement.getPredicate())) {
+                        relationsByURI.get(owner).add(createRelation(statement, false));
+                    }
+                } else {
+                    stillUnresolved.add(statement);
+                }
+            }
+            unresolvedStatements = stillUnresolved;
+        }
 
-        return list;
+        for (SPARQLProxy<List> proxy : proxies) {
+            URI proxyURI = ((SPARQLProxyRelationList) proxy).uri;
+            proxy.setLoadedInstance(relationsByURI.get(SPARQLDeserializers.getExpandedURI(proxyURI.toString())));
+        }
     }
 
 }
@@ -7,7 +7,15 @@ package org.opensilex.sparql.mapping;
 
 import java.lang.reflect.Method;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.apache.jena.graph.Node;
+import org.opensilex.sparql.deserializer.SPARQLDeserializers;
 import org.opensilex.sparql.service.SPARQLService;
 import org.opensilex.sparql.model.SPARQLResourceModel;
 
@@ -31,6 +39,30 @@ class SPARQLProxyResource<T extends SPARQLResourceModel> extends SPARQLProxy<T>
         return service.loadByURI(type, uri, lang);
     }
 
+    @Override
+    protected Object getBatchKey() {
+        return Arrays.asList(SPARQLProxyResource.class, type, lang);
+    }
+
+    @Override
+    protected void loadBatchData(List<SPARQLProxy<T>> proxies) throws Exception {
+        Set<URI> uris = new LinkedHashSet<>();
+        for (SPARQLProxy<T> proxy : proxies) {
+            uris.add(((SPARQLProxyResource<T>) proxy).uri);
+        }
+
+        List<T> results = service.loadListByURIs(type, new ArrayList<>(uris), lang);
+        Map<String, T> resultsByURI = new HashMap<>();
+        for (T result : results) {
+            resultsByURI.put(SPARQLDeserializers.getExpandedURI(result.getUri().toString()), result);
+        }
+
+        for (SPARQLProxy<T> proxy : proxies) {
+            URI proxyURI = ((SPARQLProxyResource<T>) proxy).uri;
+            proxy.setLoadedInstance(resultsByURI.get(SPARQLDeserializers.getExpandedURI(proxyURI.toString())));
+        }
+    }
+
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
         if (method.getName().equals(mapper.getURIMethod().getName())) {
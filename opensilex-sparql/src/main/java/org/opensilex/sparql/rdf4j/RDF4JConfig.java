@@ -41,4 +41,58 @@ public interface RDF4JConfig extends ServiceConfig {
     )
     Integer timeout();
 
+    @ConfigDescription(
+            value = "Maximum number of prepared queries reused by each RDF4J connection, 0 to disable",
+            defaultInt = RDF4JConnection.DEFAULT_PREPARED_QUERY_CACHE_SIZE
+    )
+    Integer preparedQueryCacheSize();
+
+    @ConfigDescription(
+            value = "Maximum number of idle SPARQL services kept for reuse across requests, 0 to disable",
+            defaultInt = RDF4JServiceFactory.DEFAULT_SERVICE_POOL_SIZE
+    )
+    Integer servicePoolSize();
+
+    @ConfigDescription(
+            value = "Maximum number of HTTP connections to RDF4J server",
+            defaultInt = 20
+    )
+    Integer poolMaxTotal();
+
+    @ConfigDescription(
+            value = "Maximum number of HTTP connections to RDF4J server per route",
+            defaultInt = 20
+    )
+    Integer poolMaxPerRoute();
+
+    @ConfigDescription(
+            value = "HTTP connection establishment timeout to RDF4J server in milliseconds, 0 for no timeout",
+            defaultInt = 0
+    )
+    Integer connectTimeout();
+
+    @ConfigDescription(
+            value = "HTTP socket read timeout from RDF4J server in milliseconds, 0 for no timeout",
+            defaultInt = 0
+    )
+    Integer socketTimeout();
+
+    @ConfigDescription(
+            value = "Maximum time to wait for a free HTTP connection in pool in milliseconds, 0 for no timeout",
+            defaultInt = 0
+    )
+    Integer leaseTimeout();
+
+    @ConfigDescription(
+            value = "Maximum time to keep alive an idle HTTP connection in milliseconds, 0 to use server Keep-Alive header",
+            defaultInt = 0
+    )
+    Integer keepAlive();
+
+    @ConfigDescription(
+            value = "Close HTTP connections idle for more than this duration in seconds, 0 to disable",
+            defaultInt = 60
+    )
+    Integer idleEviction();
+
 }
@@ -8,16 +8,22 @@ package org.opensilex.sparql.rdf4j;
 import java.io.StringReader;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.ConstructBuilder;
 import org.apache.jena.arq.querybuilder.DescribeBuilder;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.arq.querybuilder.UpdateBuilder;
+import org.apache.jena.graph.Node;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.RDF4J;
 import org.eclipse.rdf4j.query.*;
@@ -31,6 +37,7 @@ import org.opensilex.service.ServiceDefaultDefinition;
 import org.opensilex.sparql.exceptions.SPARQLException;
 import org.opensilex.sparql.service.SPARQLConnection;
 import org.opensilex.sparql.service.SPARQLResult;
+import org.opensilex.sparql.service.SPARQLResultCursor;
 import org.opensilex.sparql.service.SPARQLStatement;
 import org.opensilex.sparql.exceptions.SPARQLValidationException;
 import org.opensilex.sparql.mapping.SPARQLClassObjectMapperIndex;
@@ -69,9 +76,37 @@ public class RDF4JConnection extends BaseService implements SPARQLConnection {
         return timeout;
     }
 
+    /**
+     * Default maximum number of prepared queries kept by a connection.
+     */
+    public final static int DEFAULT_PREPARED_QUERY_CACHE_SIZE = 100;
+
+    private int preparedQueryCacheSize = DEFAULT_PREPARED_QUERY_CACHE_SIZE;
+
+    /**
+     * Prepared queries executed with bindings by query text, least recently used queries are evicted first.
+     */
+    private final Map<String, Query> preparedQueries = new LinkedHashMap<String, Query>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Query> eldest) {
+            return size() > preparedQueryCacheSize;
+        }
+    };
+
+    public void setPreparedQueryCacheSize(int preparedQueryCacheSize) {
+        this.preparedQueryCacheSize = preparedQueryCacheSize;
+    }
+
+    public int getPreparedQueryCacheSize() {
+        return preparedQueryCacheSize;
+    }
+
     @Override
     public void shutdown() throws Exception {
         LOGGER.debug("Release RDF4J sparql connection: " + this.rdf4JConnection.hashCode() + " (" + RDF4JConnection.connectionCount.decrementAndGet() + ")");
+        synchronized (preparedQueries) {
+            preparedQueries.clear();
+        }
         this.rdf4JConnection.close();
     }
 
@@ -94,6 +129,24 @@ public class RDF4JConnection extends BaseService implements SPARQLConnection {
         }
     }
 
+    @Override
+    public boolean executeAskQueryWithBindings(AskBuilder ask, Map<String, Node> bindings) throws SPARQLException {
+        try {
+            String queryString = ask.buildString();
+            BooleanQuery askQuery = getPreparedQuery(queryString, bindings, () -> {
+                return rdf4JConnection.prepareBooleanQuery(QueryLanguage.SPARQL, queryString);
+            });
+            return askQuery.evaluate();
+        } catch (RepositoryException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof ShaclSailValidationException) {
+                throw convertRDF4JSHACLException((ShaclSailValidationException) cause);
+            } else {
+                throw new SPARQLException(ex.getMessage());
+            }
+        }
+    }
+
     @Override
     public List<SPARQLStatement> executeDescribeQuery(DescribeBuilder describe) throws SPARQLException {
         try {
@@ -154,6 +207,99 @@ public class RDF4JConnection extends BaseService implements SPARQLConnection {
         }
     }
 
+    @Override
+    public List<SPARQLResult> executeSelectQueryWithBindings(SelectBuilder select, Map<String, Node> bindings) throws SPARQLException {
+        try {
+            String queryString = select.buildString();
+            TupleQuery selectQuery = getPreparedQuery(queryString, bindings, () -> {
+                return rdf4JConnection.prepareTupleQuery(QueryLanguage.SPARQL, queryString);
+            });
+            TupleQueryResult results = selectQuery.evaluate();
+
+            return bindingSetsToSPARQLResultList(results, null);
+        } catch (RepositoryException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof ShaclSailValidationException) {
+                throw convertRDF4JSHACLException((ShaclSailValidationException) cause);
+            } else {
+                throw new SPARQLException(ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Get a prepared query from cache or prepare it, then replace its bindings by the given ones.
+     *
+     * @param <Q> query type
+     * @param queryString query text used as cache key
+     * @param bindings values by variable name
+     * @param preparer function preparing the query if not cached
+     * @return prepared query ready to be evaluated
+     */
+    @SuppressWarnings("unchecked")
+    private <Q extends Query> Q getPreparedQuery(String queryString, Map<String, Node> bindings, Supplier<Q> preparer) {
+        Q query;
+        synchronized (preparedQueries) {
+            query = (Q) preparedQueries.get(queryString);
+            if (query == null) {
+                query = preparer.get();
+                if (preparedQueryCacheSize > 0) {
+                    preparedQueries.put(queryString, query);
+                }
+            }
+        }
+
+        query.clearBindings();
+        for (Map.Entry<String, Node> binding : bindings.entrySet()) {
+            query.setBinding(binding.getKey(), toRDF4JValue(binding.getValue()));
+        }
+        if (getTimeout() > 0) {
+            query.setMaxExecutionTime(getTimeout());
+        }
+
+        return query;
+    }
+
+    private static Value toRDF4JValue(Node node) {
+        ValueFactory valueFactory = SimpleValueFactory.getInstance();
+        if (node.isURI()) {
+            return valueFactory.createIRI(node.getURI());
+        } else if (node.isBlank()) {
+            return valueFactory.createBNode(node.getBlankNodeLabel());
+        } else if (node.isLiteral()) {
+            String language = node.getLiteralLanguage();
+            String datatypeURI = node.getLiteralDatatypeURI();
+            if (language != null && !language.isEmpty()) {
+                return valueFactory.createLiteral(node.getLiteralLexicalForm(), language);
+            } else if (datatypeURI != null) {
+                return valueFactory.createLiteral(node.getLiteralLexicalForm(), valueFactory.createIRI(datatypeURI));
+            } else {
+                return valueFactory.createLiteral(node.getLiteralLexicalForm());
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported binding value: " + node);
+        }
+    }
+
+    @Override
+    public SPARQLResultCursor executeSelectQueryCursor(SelectBuilder select) throws SPARQLException {
+        try {
+            TupleQuery selectQuery = rdf4JConnection.prepareTupleQuery(QueryLanguage.SPARQL, select.buildString());
+            if (getTimeout() > 0) {
+                selectQuery.setMaxExecutionTime(getTimeout());
+            }
+
+            return new RDF4JResultCursor(selectQuery.evaluate());
+        } catch (RepositoryException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof ShaclSailValidationException) {
+                throw convertRDF4JSHACLException((ShaclSailValidationException) cause);
+            } else {
+                throw new SPARQLException(ex.getMessage());
+            }
+        }
+    }
+
     @Override
     public void executeUpdateQuery(UpdateBuilder update) throws SPARQLException {
         try {
@@ -332,9 +478,9 @@ public class RDF4JConnection extends BaseService implements SPARQLConnection {
             RDF4JResult result = new RDF4JResult(queryResults.next());
             if (resultHandler != null) {
                 resultHandler.accept(result);
+            } else {
+                resultList.add(result);
             }
-
-            resultList.add(result);
         }
 
         queryResults.close();
@@ -420,6 +566,25 @@ public class RDF4JConnection extends BaseService implements SPARQLConnection {
         return shaclEnabled;
     }
 
+    @Override
+    public boolean reset() throws SPARQLException {
+        if (!rdf4JConnection.isOpen()) {
+            return false;
+        }
+
+        try {
+            if (rdf4JConnection.isActive()) {
+                LOGGER.warn("Reset RDF4J sparql connection with an active transaction: " + rdf4JConnection.hashCode());
+                rdf4JConnection.rollback();
+            }
+        } catch (RepositoryException ex) {
+            throw new SPARQLException(ex.getMessage());
+        }
+        shaclEnabled = false;
+
+        return true;
+    }
+
     private SPARQLClassObjectMapperIndex mapperIndex;
 
     @Override
@@ -0,0 +1,128 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.rdf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * HTTP connection pool used to communicate with RDF4J server, recording time spent waiting for a connection lease.
+ *
+ * Lease wait times are counted in fixed buckets so recording is lock free and metrics can be read at any time.
+ *
+ * @author vincent
+ */
+public class RDF4JConnectionPool extends PoolingHttpClientConnectionManager {
+
+    /**
+     * Upper bounds in milliseconds of lease wait time histogram buckets, a last bucket counts longer waits.
+     */
+    private final static long[] LEASE_WAIT_BUCKETS = new long[]{1, 5, 10, 50, 100, 500, 1000, 5000};
+
+    private final LongAdder[] leaseWaitCounts;
+
+    private final LongAdder leaseCount = new LongAdder();
+
+    private final LongAdder leaseTimeoutCount = new LongAdder();
+
+    private final LongAdder totalLeaseWait = new LongAdder();
+
+    private final LongAccumulator maxLeaseWait = new LongAccumulator(Long::max, 0);
+
+    public RDF4JConnectionPool() {
+        super();
+        leaseWaitCounts = new LongAdder[LEASE_WAIT_BUCKETS.length + 1];
+        for (int i = 0; i < leaseWaitCounts.length; i++) {
+            leaseWaitCounts[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ConnectionRequest request = super.requestConnection(route, state);
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit tunit) throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                try {
+                    HttpClientConnection connection = request.get(timeout, tunit);
+                    recordLeaseWait(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    return connection;
+                } catch (ConnectionPoolTimeoutException ex) {
+                    leaseTimeoutCount.increment();
+                    throw ex;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    /**
+     * Record a successful connection lease.
+     *
+     * @param waitMs time spent waiting for the connection in milliseconds
+     */
+    void recordLeaseWait(long waitMs) {
+        leaseCount.increment();
+        totalLeaseWait.add(waitMs);
+        maxLeaseWait.accumulate(waitMs);
+
+        int bucket = 0;
+        while (bucket < LEASE_WAIT_BUCKETS.length && waitMs >= LEASE_WAIT_BUCKETS[bucket]) {
+            bucket++;
+        }
+        leaseWaitCounts[bucket].increment();
+    }
+
+    /**
+     * @return lease wait time histogram, number of leases by wait time range
+     */
+    public Map<String, Long> getLeaseWaitHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < LEASE_WAIT_BUCKETS.length; i++) {
+            histogram.put("<" + LEASE_WAIT_BUCKETS[i] + "ms", leaseWaitCounts[i].sum());
+        }
+        histogram.put(">=" + LEASE_WAIT_BUCKETS[LEASE_WAIT_BUCKETS.length - 1] + "ms", leaseWaitCounts[LEASE_WAIT_BUCKETS.length].sum());
+        return histogram;
+    }
+
+    /**
+     * @return pool state and lease wait time statistics
+     */
+    public Map<String, Object> getMetrics() {
+        PoolStats stats = getTotalStats();
+        long leases = leaseCount.sum();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("pool.leased", stats.getLeased());
+        metrics.put("pool.pending", stats.getPending());
+        metrics.put("pool.available", stats.getAvailable());
+        metrics.put("pool.max", stats.getMax());
+        metrics.put("pool.maxPerRoute", getDefaultMaxPerRoute());
+        metrics.put("lease.count", leases);
+        metrics.put("lease.timeouts", leaseTimeoutCount.sum());
+        metrics.put("lease.wait.avg.ms", leases == 0 ? 0 : totalLeaseWait.sum() / leases);
+        metrics.put("lease.wait.max.ms", maxLeaseWait.get());
+        getLeaseWaitHistogram().forEach((String bucket, Long count) -> {
+            metrics.put("lease.wait." + bucket, count);
+        });
+        return metrics;
+    }
+}
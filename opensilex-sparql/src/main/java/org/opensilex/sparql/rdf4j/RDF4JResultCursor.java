@@ -0,0 +1,59 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.rdf4j;
+
+import java.util.NoSuchElementException;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.opensilex.sparql.service.SPARQLResult;
+import org.opensilex.sparql.service.SPARQLResultCursor;
+
+/**
+ * SPARQL result cursor backed by a RDF4J tuple query result.
+ *
+ * @author vincent
+ */
+public class RDF4JResultCursor implements SPARQLResultCursor {
+
+    private final TupleQueryResult queryResults;
+
+    private boolean closed = false;
+
+    public RDF4JResultCursor(TupleQueryResult queryResults) {
+        this.queryResults = queryResults;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+
+        boolean hasNext = queryResults.hasNext();
+        if (!hasNext) {
+            close();
+        }
+
+        return hasNext;
+    }
+
+    @Override
+    public SPARQLResult next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        return new RDF4JResult(queryResults.next());
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            queryResults.close();
+        }
+    }
+
+}
@@ -8,15 +8,26 @@ package org.opensilex.sparql.rdf4j;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.StringReader;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
 import org.eclipse.rdf4j.common.io.IOUtil;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
@@ -39,6 +50,7 @@ import org.eclipse.rdf4j.rio.RDFParser;
 import org.eclipse.rdf4j.rio.Rio;
 import org.eclipse.rdf4j.rio.helpers.StatementCollector;
 import org.opensilex.OpenSilex;
+import org.opensilex.service.MonitoredService;
 import org.opensilex.service.ServiceDefaultDefinition;
 import org.opensilex.sparql.service.SPARQLService;
 import org.opensilex.sparql.service.SPARQLServiceFactory;
@@ -54,29 +66,68 @@ import org.slf4j.LoggerFactory;
         configClass = RDF4JConfig.class,
         configID = "rdf4j"
 )
-public class RDF4JServiceFactory extends SPARQLServiceFactory {
+public class RDF4JServiceFactory extends SPARQLServiceFactory implements MonitoredService {
 
     private final static Logger LOGGER = LoggerFactory.getLogger(RDF4JServiceFactory.class);
 
     private final Repository repository;
     private final RDF4JConfig config;
-    private PoolingHttpClientConnectionManager cm;
+    private RDF4JConnectionPool cm;
+    private CloseableHttpClient httpClient;
+
+    /**
+     * Default maximum number of idle services kept for reuse.
+     */
+    public final static int DEFAULT_SERVICE_POOL_SIZE = 20;
+
+    /**
+     * Released services available for reuse, most recently released first.
+     */
+    private final ConcurrentLinkedDeque<SPARQLService> idleServices = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Number of idle services, including services being released.
+     */
+    private final AtomicInteger idleServiceCount = new AtomicInteger(0);
+
+    private final LongAdder createdServiceCount = new LongAdder();
+
+    private final LongAdder reusedServiceCount = new LongAdder();
+
+    private int servicePoolSize;
 
     public RDF4JServiceFactory(RDF4JConfig config) {
         this.config = config;
         LOGGER.debug("Build RDF4JServiceFactory from config");
         synchronized (this) {
             HTTPRepository repo = new HTTPRepository(config.serverURI(), config.repository());
-            cm = new PoolingHttpClientConnectionManager();
-            cm.setDefaultMaxPerRoute(20);
-            CloseableHttpClient httpClient = HttpClients.custom()
-                    .setConnectionManager(cm)
+            cm = new RDF4JConnectionPool();
+            cm.setMaxTotal(config.poolMaxTotal());
+            cm.setDefaultMaxPerRoute(config.poolMaxPerRoute());
+
+            RequestConfig requestConfig = RequestConfig.custom()
+                    .setConnectTimeout(config.connectTimeout())
+                    .setSocketTimeout(config.socketTimeout())
+                    .setConnectionRequestTimeout(config.leaseTimeout())
                     .build();
 
+            HttpClientBuilder httpClientBuilder = HttpClients.custom()
+                    .setConnectionManager(cm)
+                    .setDefaultRequestConfig(requestConfig)
+                    .setKeepAliveStrategy(getKeepAliveStrategy(config.keepAlive()));
+
+            if (config.idleEviction() > 0) {
+                httpClientBuilder.evictExpiredConnections()
+                        .evictIdleConnections(config.idleEviction(), TimeUnit.SECONDS);
+            }
+
+            httpClient = httpClientBuilder.build();
+
             repo.setHttpClient(httpClient);
             repo.init();
             this.repository = repo;
         }
+        this.servicePoolSize = config.servicePoolSize();
 
     }
 
@@ -87,6 +138,40 @@ public class RDF4JServiceFactory extends SPARQLServiceFactory {
             this.repository.init();
         }
         this.config = null;
+        this.servicePoolSize = DEFAULT_SERVICE_POOL_SIZE;
+    }
+
+    /**
+     * Define maximum number of idle services kept for reuse, 0 to close services on release.
+     *
+     * @param servicePoolSize maximum number of idle services
+     */
+    public void setServicePoolSize(int servicePoolSize) {
+        this.servicePoolSize = servicePoolSize;
+    }
+
+    public int getServicePoolSize() {
+        return servicePoolSize;
+    }
+
+    /**
+     * Return keep alive strategy using server Keep-Alive header, bounded by given maximum duration if any.
+     *
+     * @param maxKeepAlive maximum keep alive duration in milliseconds, 0 for no limit
+     * @return keep alive strategy
+     */
+    private static ConnectionKeepAliveStrategy getKeepAliveStrategy(int maxKeepAlive) {
+        if (maxKeepAlive <= 0) {
+            return DefaultConnectionKeepAliveStrategy.INSTANCE;
+        }
+
+        return (HttpResponse response, HttpContext context) -> {
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            if (keepAlive <= 0) {
+                return maxKeepAlive;
+            }
+            return Math.min(keepAlive, maxKeepAlive);
+        };
     }
 
     private int getTimeout() {
@@ -97,7 +182,15 @@ public class RDF4JServiceFactory extends SPARQLServiceFactory {
         return config.timeout();
     }
 
-    protected synchronized SPARQLService getNewService() throws Exception {
+    private int getPreparedQueryCacheSize() {
+        if (config == null) {
+            return RDF4JConnection.DEFAULT_PREPARED_QUERY_CACHE_SIZE;
+        }
+
+        return config.preparedQueryCacheSize();
+    }
+
+    protected SPARQLService getNewService() throws Exception {
         RepositoryConnection connection = repository.getConnection();
         if (cm != null && LOGGER.isDebugEnabled()) {
             PoolStats stats = cm.getTotalStats();
@@ -112,22 +205,104 @@ public class RDF4JServiceFactory extends SPARQLServiceFactory {
 
         RDF4JConnection rdf4jConnection = new RDF4JConnection(connection);
         rdf4jConnection.setTimeout(getTimeout());
+        rdf4jConnection.setPreparedQueryCacheSize(getPreparedQueryCacheSize());
         SPARQLService sparql = new SPARQLService(rdf4jConnection);
         sparql.setOpenSilex(getOpenSilex());
         sparql.setMapperIndex(getMapperIndex());
+        sparql.setCountCache(getCountCache());
+        sparql.setPropertyListeners(getPropertyListeners());
+        sparql.setInsertTripleBudget(getInsertTripleBudget());
         sparql.setDefaultLang(getDefaultLanguage());
         sparql.setup();
+        createdServiceCount.increment();
         return sparql;
     }
 
-    private synchronized void closeService(SPARQLService sparql) throws Exception {
+    /**
+     * Return an idle service if any, reset on release, or null.
+     *
+     * @return idle service or null
+     */
+    private SPARQLService pollIdleService() {
+        SPARQLService sparql = idleServices.pollFirst();
+        if (sparql != null) {
+            idleServiceCount.decrementAndGet();
+            sparql.setDefaultLang(getDefaultLanguage());
+            reusedServiceCount.increment();
+        }
+        return sparql;
+    }
+
+    /**
+     * Keep service for reuse if pool is not full and its state could be reset.
+     *
+     * @param sparql released service
+     * @return true if service was kept, false if it must be closed
+     */
+    private boolean releaseIdleService(SPARQLService sparql) {
+        boolean reusable = false;
+        if (idleServiceCount.incrementAndGet() <= servicePoolSize) {
+            try {
+                reusable = sparql.reset();
+            } catch (Exception ex) {
+                LOGGER.warn("Error while resetting RDF4J service connection instance, it will be closed", ex);
+            }
+        }
+
+        if (reusable) {
+            idleServices.offerFirst(sparql);
+        } else {
+            idleServiceCount.decrementAndGet();
+        }
+        return reusable;
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("services.idle", idleServiceCount.get());
+        metrics.put("services.created", createdServiceCount.sum());
+        metrics.put("services.reused", reusedServiceCount.sum());
+        if (cm != null) {
+            metrics.putAll(cm.getMetrics());
+        }
+
+        return metrics;
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        SPARQLService sparql;
+        while ((sparql = idleServices.pollFirst()) != null) {
+            idleServiceCount.decrementAndGet();
+            try {
+                closeService(sparql);
+            } catch (Exception ex) {
+                LOGGER.error("Error while closing RDF4J service connection instance", ex);
+            }
+        }
+        if (httpClient != null) {
+            repository.shutDown();
+            try {
+                httpClient.close();
+            } catch (IOException ex) {
+                LOGGER.warn("Error while closing RDF4J HTTP client", ex);
+            }
+        }
+    }
+
+    private void closeService(SPARQLService sparql) throws Exception {
         sparql.shutdown();
     }
 
     @Override
     public SPARQLService provide() {
         try {
-            SPARQLService service = getNewService();
+            SPARQLService service = pollIdleService();
+            if (service == null) {
+                service = getNewService();
+            }
             return service;
         } catch (Exception ex) {
             LOGGER.error("Error while opening RDF4J service connection instance", ex);
@@ -138,7 +313,9 @@ public class RDF4JServiceFactory extends SPARQLServiceFactory {
     @Override
     public void dispose(SPARQLService sparql) {
         try {
-            closeService(sparql);
+            if (!releaseIdleService(sparql)) {
+                closeService(sparql);
+            }
         } catch (Exception ex) {
             LOGGER.error("Error while closing RDF4J service connectioninstance instance", ex);
         }
@@ -0,0 +1,422 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.service;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.apache.jena.arq.querybuilder.AbstractQueryBuilder.makeVar;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.arq.querybuilder.handlers.WhereHandler;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.sparql.core.TriplePath;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.expr.E_Equals;
+import org.apache.jena.sparql.expr.E_LogicalAnd;
+import org.apache.jena.sparql.expr.E_LogicalOr;
+import org.apache.jena.sparql.expr.E_OneOf;
+import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.modify.request.UpdateData;
+import org.apache.jena.sparql.modify.request.UpdateDeleteWhere;
+import org.apache.jena.sparql.modify.request.UpdateModify;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.syntax.Element;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementFilter;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.sparql.syntax.ElementNamedGraph;
+import org.apache.jena.sparql.syntax.ElementSubQuery;
+import org.apache.jena.update.Update;
+import org.apache.jena.update.UpdateRequest;
+import org.apache.jena.vocabulary.RDFS;
+import org.opensilex.sparql.exceptions.SPARQLException;
+import org.opensilex.sparql.utils.Ontology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In memory index of the class hierarchy, shared by all SPARQL services of a factory.
+ *
+ * All rdfs:subClassOf relations between named classes are loaded with a single query on first use, then subclasses
+ * closures are computed on demand. The index is invalidated when ontologies are loaded or when an update may modify
+ * class hierarchy, and reloaded on next use.
+ *
+ * It allows to replace {@link Ontology#subClassAny} property paths by a VALUES clause of known subclasses and to check
+ * type membership without querying the triple store.
+ *
+ * @author vincent
+ */
+public final class SPARQLClassHierarchy {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(SPARQLClassHierarchy.class);
+
+    /**
+     * Maximum number of subclasses listed in a VALUES clause, property path is kept for larger hierarchies.
+     */
+    public final static int MAX_VALUES_SUBCLASSES = 500;
+
+    private final static String SUBCLASS_VAR = "subClass";
+
+    private final static String SUPERCLASS_VAR = "superClass";
+
+    private final SPARQLServiceFactory factory;
+
+    private volatile HierarchyIndex index;
+
+    private final AtomicLong version = new AtomicLong(0);
+
+    /**
+     * @param factory factory providing services used to load class hierarchy
+     */
+    public SPARQLClassHierarchy(SPARQLServiceFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Current hierarchy version, incremented on each invalidation.
+     *
+     * @return hierarchy version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    public boolean isLoaded() {
+        return index != null;
+    }
+
+    /**
+     * Load class hierarchy if not already loaded.
+     *
+     * @throws SPARQLException if hierarchy can't be loaded
+     */
+    public void load() throws SPARQLException {
+        getIndex();
+    }
+
+    /**
+     * Invalidate class hierarchy, it will be reloaded on next use.
+     */
+    public synchronized void invalidate() {
+        version.incrementAndGet();
+        index = null;
+    }
+
+    /**
+     * Return given class and all its subclasses.
+     *
+     * @param rdfType class URI node
+     * @return unmodifiable set of class and subclasses URI nodes
+     * @throws SPARQLException if hierarchy can't be loaded
+     */
+    public Set<Node> getSubClasses(Node rdfType) throws SPARQLException {
+        return getIndex().getSubClasses(rdfType);
+    }
+
+    /**
+     * @param rdfType class URI node to check
+     * @param parentType parent class URI node
+     * @return true if rdfType is parentType or one of its subclasses
+     * @throws SPARQLException if hierarchy can't be loaded
+     */
+    public boolean isSubClassOf(Node rdfType, Node parentType) throws SPARQLException {
+        return getSubClasses(parentType).contains(rdfType);
+    }
+
+    /**
+     * Restrict type variable to given class and its subclasses.
+     *
+     * A VALUES clause of known subclasses is used if the hierarchy is available and not too large, the
+     * {@link Ontology#subClassAny} property path otherwise.
+     *
+     * @param where where clause to complete
+     * @param typeVar type variable
+     * @param rdfType class URI node
+     */
+    public void addSubClassesWhere(WhereHandler where, Var typeVar, Node rdfType) {
+        Set<Node> subClasses = null;
+        try {
+            subClasses = getSubClasses(rdfType);
+        } catch (SPARQLException ex) {
+            LOGGER.warn("Error while loading class hierarchy, use property path for " + rdfType, ex);
+        }
+
+        if (subClasses == null || subClasses.size() > MAX_VALUES_SUBCLASSES) {
+            addSubClassAnyWhere(where, typeVar, rdfType);
+        } else {
+            ElementData values = new ElementData();
+            values.add(typeVar);
+            for (Node subClass : subClasses) {
+                values.add(BindingFactory.binding(typeVar, subClass));
+            }
+            where.getClause().addElement(values);
+        }
+    }
+
+    /**
+     * Restrict type variable to given class and its subclasses with the {@link Ontology#subClassAny} property path.
+     *
+     * @param where where clause to complete
+     * @param typeVar type variable
+     * @param rdfType class URI node
+     */
+    public static void addSubClassAnyWhere(WhereHandler where, Var typeVar, Node rdfType) {
+        where.addWhere(new TriplePath(typeVar, Ontology.subClassAny, rdfType));
+    }
+
+    /**
+     * Variable predicates are considered as a hierarchy update unless the WHERE clause restricts them, with a FILTER or
+     * VALUES clause, to values which don't include rdfs:subClassOf.
+     *
+     * @param request update request to analyze
+     * @return true if request may add or remove a rdfs:subClassOf relation
+     */
+    public static boolean isHierarchyUpdate(UpdateRequest request) {
+        for (Update update : request.getOperations()) {
+            boolean hierarchyUpdate;
+            if (update instanceof UpdateModify) {
+                UpdateModify modify = (UpdateModify) update;
+                Element where = modify.getWherePattern();
+                hierarchyUpdate = hasHierarchyQuad(modify.getDeleteQuads(), where) || hasHierarchyQuad(modify.getInsertQuads(), where);
+            } else if (update instanceof UpdateData) {
+                hierarchyUpdate = hasHierarchyQuad(((UpdateData) update).getQuads(), null);
+            } else if (update instanceof UpdateDeleteWhere) {
+                hierarchyUpdate = hasHierarchyQuad(((UpdateDeleteWhere) update).getQuads(), null);
+            } else {
+                hierarchyUpdate = true;
+            }
+
+            if (hierarchyUpdate) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean hasHierarchyQuad(Iterable<Quad> quads, Element where) {
+        Node subClassOf = RDFS.subClassOf.asNode();
+        for (Quad quad : quads) {
+            Node predicate = quad.getPredicate();
+            if (predicate.isVariable()) {
+                Set<Node> predicateValues = (where == null) ? null : getVarValues(where, Var.alloc(predicate));
+                if (predicateValues == null || predicateValues.contains(subClassOf)) {
+                    return true;
+                }
+            } else if (predicate.equals(subClassOf)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Return values to which a variable is restricted by FILTER or VALUES clauses of a pattern, only clauses which
+     * apply to the whole pattern are considered (not the ones in OPTIONAL, UNION or MINUS).
+     *
+     * @return possible variable values or null if variable is not restricted
+     */
+    private static Set<Node> getVarValues(Element element, Var var) {
+        if (element instanceof ElementGroup) {
+            Set<Node> values = null;
+            for (Element subElement : ((ElementGroup) element).getElements()) {
+                values = intersectValues(values, getVarValues(subElement, var));
+            }
+            return values;
+        } else if (element instanceof ElementNamedGraph) {
+            return getVarValues(((ElementNamedGraph) element).getElement(), var);
+        } else if (element instanceof ElementFilter) {
+            return getVarValues(((ElementFilter) element).getExpr(), var);
+        } else if (element instanceof ElementData) {
+            ElementData data = (ElementData) element;
+            if (data.getVars().contains(var)) {
+                return getVarValues(data.getRows(), var);
+            }
+        } else if (element instanceof ElementSubQuery) {
+            Query query = ((ElementSubQuery) element).getQuery();
+            Set<Node> values = getVarValues(query.getQueryPattern(), var);
+            if (query.hasValues() && query.getValuesVariables().contains(var)) {
+                values = intersectValues(values, getVarValues(query.getValuesData(), var));
+            }
+            return values;
+        }
+
+        return null;
+    }
+
+    private static Set<Node> getVarValues(Expr expr, Var var) {
+        if (expr instanceof E_OneOf) {
+            E_OneOf oneOf = (E_OneOf) expr;
+            if (isVar(oneOf.getLHS(), var)) {
+                Set<Node> values = new HashSet<>();
+                for (Expr value : oneOf.getRHS()) {
+                    if (!value.isConstant()) {
+                        return null;
+                    }
+                    values.add(value.getConstant().asNode());
+                }
+                return values;
+            }
+        } else if (expr instanceof E_Equals) {
+            E_Equals equals = (E_Equals) expr;
+            if (isVar(equals.getArg1(), var) && equals.getArg2().isConstant()) {
+                return Collections.singleton(equals.getArg2().getConstant().asNode());
+            } else if (isVar(equals.getArg2(), var) && equals.getArg1().isConstant()) {
+                return Collections.singleton(equals.getArg1().getConstant().asNode());
+            }
+        } else if (expr instanceof E_LogicalAnd) {
+            E_LogicalAnd and = (E_LogicalAnd) expr;
+            return intersectValues(getVarValues(and.getArg1(), var), getVarValues(and.getArg2(), var));
+        } else if (expr instanceof E_LogicalOr) {
+            E_LogicalOr or = (E_LogicalOr) expr;
+            Set<Node> values1 = getVarValues(or.getArg1(), var);
+            Set<Node> values2 = getVarValues(or.getArg2(), var);
+            if (values1 != null && values2 != null) {
+                Set<Node> values = new HashSet<>(values1);
+                values.addAll(values2);
+                return values;
+            }
+        }
+
+        return null;
+    }
+
+    private static Set<Node> getVarValues(List<Binding> rows, Var var) {
+        Set<Node> values = new HashSet<>();
+        for (Binding row : rows) {
+            Node value = row.get(var);
+            if (value == null) {
+                return null;
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    private static boolean isVar(Expr expr, Var var) {
+        return expr.isVariable() && expr.asVar().equals(var);
+    }
+
+    private static Set<Node> intersectValues(Set<Node> values1, Set<Node> values2) {
+        if (values1 == null) {
+            return values2;
+        } else if (values2 == null) {
+            return values1;
+        }
+
+        Set<Node> values = new HashSet<>(values1);
+        values.retainAll(values2);
+        return values;
+    }
+
+    private HierarchyIndex getIndex() throws SPARQLException {
+        HierarchyIndex currentIndex = index;
+        if (currentIndex == null) {
+            synchronized (this) {
+                currentIndex = index;
+                if (currentIndex == null) {
+                    currentIndex = loadIndex();
+                    index = currentIndex;
+                }
+            }
+        }
+
+        return currentIndex;
+    }
+
+    private HierarchyIndex loadIndex() throws SPARQLException {
+        long start = System.currentTimeMillis();
+
+        Var subClassVar = makeVar(SUBCLASS_VAR);
+        Var superClassVar = makeVar(SUPERCLASS_VAR);
+        Expr namedClasses = SPARQLQueryHelper.getExprFactory().and(
+                SPARQLQueryHelper.getExprFactory().isIRI(subClassVar),
+                SPARQLQueryHelper.getExprFactory().isIRI(superClassVar)
+        );
+        SelectBuilder select = new SelectBuilder()
+                .setDistinct(true)
+                .addVar(subClassVar)
+                .addVar(superClassVar)
+                .addWhere(subClassVar, RDFS.subClassOf, superClassVar)
+                .addFilter(namedClasses);
+
+        SPARQLService sparql = factory.provide();
+        if (sparql == null) {
+            throw new SPARQLException("Can't provide SPARQL service to load class hierarchy");
+        }
+
+        Map<String, Set<String>> children = new HashMap<>();
+        int relationCount = 0;
+        try {
+            for (SPARQLResult result : sparql.executeSelectQuery(select)) {
+                String subClass = result.getStringValue(SUBCLASS_VAR);
+                String superClass = result.getStringValue(SUPERCLASS_VAR);
+                if (!subClass.equals(superClass)) {
+                    children.computeIfAbsent(superClass, key -> new HashSet<>()).add(subClass);
+                    relationCount++;
+                }
+            }
+        } finally {
+            factory.dispose(sparql);
+        }
+
+        LOGGER.debug("Class hierarchy loaded with " + relationCount + " relations in " + (System.currentTimeMillis() - start) + "ms");
+        return new HierarchyIndex(children);
+    }
+
+    private final static class HierarchyIndex {
+
+        /**
+         * Direct subclasses URI by class URI.
+         */
+        private final Map<String, Set<String>> children;
+
+        /**
+         * Computed subclasses closures by class node.
+         */
+        private final Map<Node, Set<Node>> closures = new ConcurrentHashMap<>();
+
+        private HierarchyIndex(Map<String, Set<String>> children) {
+            this.children = children;
+        }
+
+        private Set<Node> getSubClasses(Node rdfType) {
+            return closures.computeIfAbsent(rdfType, this::computeSubClasses);
+        }
+
+        private Set<Node> computeSubClasses(Node rdfType) {
+            Set<String> visited = new LinkedHashSet<>();
+            Deque<String> toVisit = new ArrayDeque<>();
+            toVisit.add(rdfType.getURI());
+
+            while (!toVisit.isEmpty()) {
+                String classURI = toVisit.poll();
+                if (visited.add(classURI)) {
+                    toVisit.addAll(children.getOrDefault(classURI, Collections.emptySet()));
+                }
+            }
+
+            Set<Node> subClasses = new LinkedHashSet<>();
+            for (String classURI : visited) {
+                subClasses.add(NodeFactory.createURI(classURI));
+            }
+            return Collections.unmodifiableSet(subClasses);
+        }
+    }
+}
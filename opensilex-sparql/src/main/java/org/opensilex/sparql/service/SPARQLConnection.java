@@ -8,7 +8,9 @@ package org.opensilex.sparql.service;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.ConstructBuilder;
@@ -22,6 +24,7 @@ import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.rdf.model.StmtIterator;
 import org.apache.jena.riot.Lang;
+import org.apache.jena.sparql.core.Var;
 import org.opensilex.service.Service;
 import org.opensilex.sparql.exceptions.SPARQLException;
 import org.opensilex.sparql.mapping.SPARQLClassObjectMapperIndex;
@@ -34,16 +37,90 @@ public interface SPARQLConnection extends Service {
 
     public boolean executeAskQuery(AskBuilder ask) throws SPARQLException;
 
+    /**
+     * Execute an ASK query with variables bound to the given values.
+     *
+     * Query text does not depend on bound values, implementations can then reuse an already prepared query. Default
+     * implementation adds bindings to the query as VALUES.
+     *
+     * @param ask query to execute
+     * @param bindings values by variable name
+     * @return ask result
+     * @throws SPARQLException
+     */
+    public default boolean executeAskQueryWithBindings(AskBuilder ask, Map<String, Node> bindings) throws SPARQLException {
+        bindings.forEach((varName, value) -> {
+            ask.addValueVar(Var.alloc(varName), value);
+        });
+        return executeAskQuery(ask);
+    }
+
     public List<SPARQLStatement> executeDescribeQuery(DescribeBuilder describe) throws SPARQLException;
 
     public List<SPARQLStatement> executeConstructQuery(ConstructBuilder construct) throws SPARQLException;
 
+    /**
+     * Execute a SELECT query.
+     *
+     * @param select query to execute
+     * @param resultHandler handler called for each result, if not null results are only pushed to it and not retained
+     * in the returned list
+     * @return list of results, empty if a result handler is given
+     * @throws SPARQLException
+     */
     public List<SPARQLResult> executeSelectQuery(SelectBuilder select, Consumer<SPARQLResult> resultHandler) throws SPARQLException;
 
     public default List<SPARQLResult> executeSelectQuery(SelectBuilder select) throws SPARQLException {
         return executeSelectQuery(select, null);
     }
 
+    /**
+     * Execute a SELECT query with variables bound to the given values.
+     *
+     * Query text does not depend on bound values, implementations can then reuse an already prepared query. Default
+     * implementation adds bindings to the query as VALUES.
+     *
+     * @param select query to execute
+     * @param bindings values by variable name
+     * @return list of results
+     * @throws SPARQLException
+     */
+    public default List<SPARQLResult> executeSelectQueryWithBindings(SelectBuilder select, Map<String, Node> bindings) throws SPARQLException {
+        bindings.forEach((varName, value) -> {
+            select.addValueVar(Var.alloc(varName), value);
+        });
+        return executeSelectQuery(select);
+    }
+
+    /**
+     * Execute a SELECT query and return a cursor over its results.
+     *
+     * Default implementation iterates over fully loaded results, implementations should override it to fetch rows
+     * lazily.
+     *
+     * @param select query to execute
+     * @return cursor over results which must be closed
+     * @throws SPARQLException
+     */
+    public default SPARQLResultCursor executeSelectQueryCursor(SelectBuilder select) throws SPARQLException {
+        Iterator<SPARQLResult> results = executeSelectQuery(select).iterator();
+        return new SPARQLResultCursor() {
+            @Override
+            public boolean hasNext() {
+                return results.hasNext();
+            }
+
+            @Override
+            public SPARQLResult next() {
+                return results.next();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
     public void executeUpdateQuery(UpdateBuilder update) throws SPARQLException;
 
     public void executeDeleteQuery(UpdateBuilder update) throws SPARQLException;
@@ -72,6 +149,16 @@ public interface SPARQLConnection extends Service {
     
     public boolean isShaclEnabled();
 
+    /**
+     * Reset connection state so it can be reused by another service consumer.
+     *
+     * @return true if connection can be reused, false if it must be closed
+     * @throws SPARQLException if connection state can't be reset
+     */
+    public default boolean reset() throws SPARQLException {
+        return false;
+    }
+
     public default void loadOntology(URI graph, InputStream ontology, Lang format) throws SPARQLException {
         Node graphNode = NodeFactory.createURI(graph.toString());
         Model model = ModelFactory.createDefaultModel();
@@ -0,0 +1,243 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.service;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.Query;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.modify.request.UpdateData;
+import org.apache.jena.sparql.modify.request.UpdateDeleteWhere;
+import org.apache.jena.sparql.modify.request.UpdateDropClear;
+import org.apache.jena.sparql.modify.request.UpdateModify;
+import org.apache.jena.sparql.syntax.ElementNamedGraph;
+import org.apache.jena.sparql.syntax.ElementVisitorBase;
+import org.apache.jena.sparql.syntax.ElementWalker;
+import org.apache.jena.update.Update;
+import org.apache.jena.update.UpdateRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of paginated search total counts, shared by all SPARQL services of a factory.
+ *
+ * Counts are stored by query fingerprint with the named graphs used by the query. An entry is invalidated when a write
+ * touches one of these graphs, when a write target could not be determined or when it expires. Default graph patterns
+ * (like class hierarchy) are not tracked, the expiration delay bounds the staleness of counts depending on them.
+ *
+ * @author vincent
+ */
+public final class SPARQLCountCache {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(SPARQLCountCache.class);
+
+    /**
+     * Maximum number of cached counts, cache is cleared when reached.
+     */
+    private final static int MAX_ENTRIES = 10000;
+
+    private final Map<String, CountEntry> counts = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong(0);
+
+    private final long durationMillis;
+
+    /**
+     * @param durationSeconds cached counts lifetime in seconds, cache is disabled if 0 or less
+     */
+    public SPARQLCountCache(int durationSeconds) {
+        this.durationMillis = durationSeconds * 1000L;
+    }
+
+    public boolean isEnabled() {
+        return durationMillis > 0;
+    }
+
+    /**
+     * Current cache generation, must be read before computing a count to store.
+     *
+     * @return cache generation
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public Integer get(String fingerprint) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        CountEntry entry = counts.get(fingerprint);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.expiration < System.currentTimeMillis()) {
+            counts.remove(fingerprint, entry);
+            return null;
+        }
+
+        return entry.count;
+    }
+
+    /**
+     * Store a count, ignored if any invalidation occurred since the given generation.
+     *
+     * @param fingerprint count query fingerprint
+     * @param query count query used to determine graphs
+     * @param count count value
+     * @param fromGeneration cache generation read before computing count
+     */
+    public void put(String fingerprint, Query query, int count, long fromGeneration) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        if (counts.size() >= MAX_ENTRIES) {
+            LOGGER.debug("SPARQL count cache full, clear it");
+            counts.clear();
+        }
+
+        CountEntry entry = new CountEntry(count, getQueryGraphs(query), System.currentTimeMillis() + durationMillis);
+        counts.put(fingerprint, entry);
+
+        if (generation.get() != fromGeneration) {
+            counts.remove(fingerprint, entry);
+        }
+    }
+
+    /**
+     * Invalidate counts depending on graphs modified by an update request.
+     *
+     * @param request update request
+     */
+    public void invalidate(UpdateRequest request) {
+        invalidate(getUpdateGraphs(request));
+    }
+
+    /**
+     * Invalidate counts depending on given graphs.
+     *
+     * @param graphs modified graphs URI, null if unknown
+     */
+    public void invalidate(Set<String> graphs) {
+        generation.incrementAndGet();
+
+        if (graphs == null) {
+            counts.clear();
+        } else if (!graphs.isEmpty()) {
+            counts.entrySet().removeIf(entry -> entry.getValue().dependsOn(graphs));
+        }
+    }
+
+    public void clear() {
+        invalidate((Set<String>) null);
+    }
+
+    /**
+     * @param query query to analyze
+     * @return named graphs URI used in query or null if a named graph is not constant
+     */
+    static Set<String> getQueryGraphs(Query query) {
+        Set<String> graphs = new HashSet<>();
+        boolean[] unknownGraph = {false};
+
+        if (query.getQueryPattern() != null) {
+            ElementWalker.walk(query.getQueryPattern(), new ElementVisitorBase() {
+                @Override
+                public void visit(ElementNamedGraph el) {
+                    if (el.getGraphNameNode().isURI()) {
+                        graphs.add(el.getGraphNameNode().getURI());
+                    } else {
+                        unknownGraph[0] = true;
+                    }
+                }
+            });
+        }
+
+        if (unknownGraph[0] || graphs.isEmpty()) {
+            return null;
+        }
+
+        return graphs;
+    }
+
+    /**
+     * @param request update request to analyze
+     * @return graphs URI modified by request or null if any graph could be modified
+     */
+    static Set<String> getUpdateGraphs(UpdateRequest request) {
+        Set<String> graphs = new HashSet<>();
+
+        for (Update update : request.getOperations()) {
+            boolean known;
+            if (update instanceof UpdateModify) {
+                UpdateModify modify = (UpdateModify) update;
+                known = addQuadsGraphs(modify.getDeleteQuads(), graphs) & addQuadsGraphs(modify.getInsertQuads(), graphs);
+            } else if (update instanceof UpdateData) {
+                known = addQuadsGraphs(((UpdateData) update).getQuads(), graphs);
+            } else if (update instanceof UpdateDeleteWhere) {
+                known = addQuadsGraphs(((UpdateDeleteWhere) update).getQuads(), graphs);
+            } else if (update instanceof UpdateDropClear && ((UpdateDropClear) update).isOneGraph()) {
+                graphs.add(((UpdateDropClear) update).getGraph().getURI());
+                known = true;
+            } else {
+                known = false;
+            }
+
+            if (!known) {
+                return null;
+            }
+        }
+
+        return graphs;
+    }
+
+    private static boolean addQuadsGraphs(Iterable<Quad> quads, Set<String> graphs) {
+        for (Quad quad : quads) {
+            Node graph = quad.getGraph();
+            if (graph == null || !graph.isURI() || quad.isDefaultGraph()) {
+                return false;
+            }
+            graphs.add(graph.getURI());
+        }
+
+        return true;
+    }
+
+    private final static class CountEntry {
+
+        private final int count;
+
+        private final Set<String> graphs;
+
+        private final long expiration;
+
+        private CountEntry(int count, Set<String> graphs, long expiration) {
+            this.count = count;
+            this.graphs = graphs;
+            this.expiration = expiration;
+        }
+
+        private boolean dependsOn(Set<String> modifiedGraphs) {
+            if (graphs == null) {
+                return true;
+            }
+
+            for (String graph : modifiedGraphs) {
+                if (graphs.contains(graph)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
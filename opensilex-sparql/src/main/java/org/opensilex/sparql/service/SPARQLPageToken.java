@@ -0,0 +1,104 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import org.opensilex.sparql.exceptions.SPARQLInvalidPageTokenException;
+import org.opensilex.utils.OrderBy;
+
+/**
+ * Opaque continuation token used by keyset pagination.
+ *
+ * A token holds the sort key values of the last element of a page together with the ordering used to produce it, so
+ * a token can't be reused with another ordering. Each part is Base64 URL encoded and parts are separated by dots, an
+ * unbound value is encoded as a tilde.
+ *
+ * @author vincent
+ */
+final class SPARQLPageToken {
+
+    private final static String SEPARATOR = ".";
+
+    private final static String UNBOUND_VALUE = "~";
+
+    private SPARQLPageToken() {
+    }
+
+    /**
+     * @param orderByList ordering
+     * @return ordering signature stored in tokens
+     */
+    static String getSignature(List<OrderBy> orderByList) {
+        StringBuilder signature = new StringBuilder();
+        for (OrderBy orderBy : orderByList) {
+            if (signature.length() > 0) {
+                signature.append(",");
+            }
+            signature.append(orderBy.getFieldName()).append("=").append(orderBy.getOrder().name());
+        }
+        return signature.toString();
+    }
+
+    /**
+     * @param orderByList ordering of the page
+     * @param values sort key values of the last page element, null for unbound values
+     * @return encoded token
+     */
+    static String encode(List<OrderBy> orderByList, List<String> values) {
+        StringBuilder token = new StringBuilder(encodePart(getSignature(orderByList)));
+        for (String value : values) {
+            token.append(SEPARATOR);
+            if (value == null) {
+                token.append(UNBOUND_VALUE);
+            } else {
+                token.append(encodePart(value));
+            }
+        }
+        return token.toString();
+    }
+
+    /**
+     * @param token encoded token
+     * @param orderByList expected ordering
+     * @return sort key values, null for unbound values
+     * @throws SPARQLInvalidPageTokenException if token is invalid or was produced with another ordering
+     */
+    static List<String> decode(String token, List<OrderBy> orderByList) throws SPARQLInvalidPageTokenException {
+        String[] parts = token.split("\\" + SEPARATOR, -1);
+        if (parts.length != orderByList.size() + 1) {
+            throw new SPARQLInvalidPageTokenException("Invalid page token");
+        }
+
+        try {
+            if (!getSignature(orderByList).equals(decodePart(parts[0]))) {
+                throw new SPARQLInvalidPageTokenException("Page token does not match requested ordering");
+            }
+
+            List<String> values = new ArrayList<>(orderByList.size());
+            for (int i = 1; i < parts.length; i++) {
+                if (UNBOUND_VALUE.equals(parts[i])) {
+                    values.add(null);
+                } else {
+                    values.add(decodePart(parts[i]));
+                }
+            }
+            return values;
+        } catch (IllegalArgumentException ex) {
+            throw new SPARQLInvalidPageTokenException("Invalid page token");
+        }
+    }
+
+    private static String encodePart(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodePart(String part) {
+        return new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8);
+    }
+}
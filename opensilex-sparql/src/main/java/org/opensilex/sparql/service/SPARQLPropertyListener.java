@@ -0,0 +1,97 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.jena.graph.Node;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.modify.request.UpdateData;
+import org.apache.jena.sparql.modify.request.UpdateDeleteWhere;
+import org.apache.jena.sparql.modify.request.UpdateModify;
+import org.apache.jena.update.Update;
+import org.apache.jena.update.UpdateRequest;
+
+/**
+ * Listener notified when values of a property may have been written by a SPARQL service, typically to invalidate a
+ * cache of these values.
+ *
+ * Listeners are provided by modules implementing {@link org.opensilex.sparql.extensions.SPARQLExtension} and shared
+ * by all services of a factory. They are notified once written data are visible to other services: right after the
+ * write outside of a transaction, on commit otherwise.
+ *
+ * @author vincent
+ */
+public interface SPARQLPropertyListener {
+
+    /**
+     * @return URI of the listened property
+     */
+    public String getProperty();
+
+    /**
+     * Called when values of the listened property may have changed.
+     *
+     * @param subjects URIs of the resources whose values may have changed, null if any resource may be concerned
+     */
+    public void propertyChanged(Set<String> subjects);
+
+    /**
+     * Return URIs of subjects whose values of a property may be written by an update request.
+     *
+     * @param request update request
+     * @param property property URI
+     * @return subjects URIs, empty if the property is not written, null if subjects can't be determined
+     */
+    public static Set<String> getUpdatedSubjects(UpdateRequest request, String property) {
+        Set<String> subjects = new HashSet<>();
+        for (Update update : request.getOperations()) {
+            boolean known;
+            if (update instanceof UpdateData) {
+                known = addUpdatedSubjects(((UpdateData) update).getQuads(), property, subjects);
+            } else if (update instanceof UpdateDeleteWhere) {
+                known = addUpdatedSubjects(((UpdateDeleteWhere) update).getQuads(), property, subjects);
+            } else if (update instanceof UpdateModify) {
+                UpdateModify modify = (UpdateModify) update;
+                known = addUpdatedSubjects(modify.getDeleteQuads(), property, subjects)
+                        && addUpdatedSubjects(modify.getInsertQuads(), property, subjects);
+            } else {
+                known = false;
+            }
+
+            if (!known) {
+                return null;
+            }
+        }
+        return subjects;
+    }
+
+    /**
+     * Add URIs of subjects of quads which may write values of a property.
+     *
+     * @param quads written quads
+     * @param property property URI
+     * @param subjects subjects URIs to complete
+     * @return false if subjects can't be determined
+     */
+    public static boolean addUpdatedSubjects(Collection<Quad> quads, String property, Set<String> subjects) {
+        for (Quad quad : quads) {
+            Node predicate = quad.getPredicate();
+            if (predicate.isURI() && !predicate.getURI().equals(property)) {
+                continue;
+            }
+
+            Node subject = quad.getSubject();
+            if (subject.isURI()) {
+                subjects.add(subject.getURI());
+            } else if (!subject.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.service;
+
+import java.util.Iterator;
+
+/**
+ * Lazy iterator over SPARQL SELECT results, rows are fetched from the triplestore while iterating and are not retained.
+ *
+ * Cursor must be closed to release underlying query resources.
+ *
+ * @author vincent
+ */
+public interface SPARQLResultCursor extends Iterator<SPARQLResult>, AutoCloseable {
+
+    @Override
+    public void close();
+
+}
@@ -18,8 +18,26 @@ import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.query.QueryException;
+import org.apache.jena.update.UpdateFactory;
+import org.apache.jena.update.UpdateRequest;
 import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.expr.E_Bound;
+import org.apache.jena.sparql.expr.E_Equals;
+import org.apache.jena.sparql.expr.E_GreaterThan;
+import org.apache.jena.sparql.expr.E_LessThan;
+import org.apache.jena.sparql.expr.E_LogicalAnd;
+import org.apache.jena.sparql.expr.E_LogicalNot;
+import org.apache.jena.sparql.expr.E_LogicalOr;
+import org.apache.jena.sparql.expr.E_OneOf;
+import org.apache.jena.sparql.expr.E_Str;
+import org.apache.jena.sparql.expr.ExprList;
+import org.apache.jena.sparql.expr.ExprVar;
+import org.apache.jena.sparql.expr.NodeValue;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.arq.querybuilder.Order;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.vocabulary.DCTerms;
 import org.apache.jena.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.FOAF;
@@ -45,14 +63,26 @@ import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import static org.apache.jena.arq.querybuilder.AbstractQueryBuilder.makeVar;
 import org.apache.jena.arq.querybuilder.ExprFactory;
 import org.apache.jena.arq.querybuilder.handlers.WhereHandler;
@@ -62,9 +92,9 @@ import org.opensilex.OpenSilex;
 import org.opensilex.service.BaseService;
 import org.opensilex.service.ServiceDefaultDefinition;
 import org.opensilex.sparql.mapping.SPARQLClassObjectMapperIndex;
+import org.opensilex.sparql.mapping.SPARQLProxyBatch;
 import org.opensilex.sparql.model.SPARQLTreeListModel;
 import org.opensilex.sparql.model.SPARQLTreeModel;
-import org.opensilex.utils.ClassUtils;
 
 /**
  * Implementation of SPARQLService
@@ -77,6 +107,11 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
 
     private final static Logger LOGGER = LoggerFactory.getLogger(SPARQLService.class);
 
+    /**
+     * Number of consecutive streamed models sharing the same lazy proxies batch.
+     */
+    private final static int STREAM_PROXY_BATCH_SIZE = 100;
+
     public final static String DEFAULT_SPARQL_SERVICE = "sparql";
     private final SPARQLConnection connection;
 
@@ -164,6 +199,15 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         return connection.executeAskQuery(ask);
     }
 
+    @Override
+    public boolean executeAskQueryWithBindings(AskBuilder ask, Map<String, Node> bindings) throws SPARQLException {
+        addPrefixes(ask);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("SPARQL ASK\n" + ask.buildString() + "\nBindings: " + bindings);
+        }
+        return connection.executeAskQueryWithBindings(ask, bindings);
+    }
+
     @Override
     public List<SPARQLStatement> executeDescribeQuery(DescribeBuilder describe) throws SPARQLException {
         addPrefixes(describe);
@@ -184,6 +228,25 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         return executeDescribeQuery(describe);
     }
 
+    /**
+     * Describe a list of resources with a single query.
+     *
+     * @param graph graph to describe resources from or null for all graphs
+     * @param uris resources URI to describe
+     * @return statements describing all given resources
+     * @throws SPARQLException
+     */
+    public List<SPARQLStatement> describe(Node graph, Collection<URI> uris) throws SPARQLException {
+        DescribeBuilder describe = new DescribeBuilder();
+        Var uriVar = makeVar(SPARQLResourceModel.URI_FIELD);
+        describe.addVar(uriVar);
+        if (graph != null) {
+            describe.from(graph.getURI());
+        }
+        describe.addWhereValueVar(uriVar, uris.stream().map(SPARQLDeserializers::nodeURI).toArray());
+        return executeDescribeQuery(describe);
+    }
+
     @Override
     public List<SPARQLStatement> getGraphStatement(URI graph) throws SPARQLException {
         LOGGER.debug("SPARQL GET GRAPH STATEMENTS FOR: " + graph);
@@ -208,6 +271,24 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         return connection.executeSelectQuery(select, resultHandler);
     }
 
+    @Override
+    public List<SPARQLResult> executeSelectQueryWithBindings(SelectBuilder select, Map<String, Node> bindings) throws SPARQLException {
+        addPrefixes(select);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("SPARQL SELECT\n" + select.buildString() + "\nBindings: " + bindings);
+        }
+        return connection.executeSelectQueryWithBindings(select, bindings);
+    }
+
+    @Override
+    public SPARQLResultCursor executeSelectQueryCursor(SelectBuilder select) throws SPARQLException {
+        addPrefixes(select);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("SPARQL SELECT\n" + select.buildString());
+        }
+        return connection.executeSelectQueryCursor(select);
+    }
+
     @Override
     public void executeUpdateQuery(UpdateBuilder update) throws SPARQLException {
         addPrefixes(update);
@@ -215,6 +296,9 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
             LOGGER.debug("SPARQL UPDATE\n" + update.build().toString());
         }
         connection.executeUpdateQuery(update);
+        invalidateCounts(update);
+        invalidateClassHierarchy(update);
+        notifyPropertyListeners(update);
     }
 
     @Override
@@ -224,6 +308,176 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
             LOGGER.debug("SPARQL DELETE\n" + delete.buildRequest().toString());
         }
         connection.executeDeleteQuery(delete);
+        invalidateCounts(delete);
+        invalidateClassHierarchy(delete);
+        notifyPropertyListeners(delete);
+    }
+
+    private SPARQLCountCache countCache;
+
+    /**
+     * Default maximum number of triples sent in a single INSERT DATA request.
+     */
+    public final static int DEFAULT_INSERT_TRIPLE_BUDGET = 10000;
+
+    /**
+     * Maximum number of URIs checked by a single existence query or deleted by a single request.
+     */
+    private final static int URI_EXISTS_CHUNK_SIZE = 1000;
+
+    private int insertTripleBudget = DEFAULT_INSERT_TRIPLE_BUDGET;
+
+    /**
+     * Set maximum number of triples sent in a single INSERT DATA request when creating a list of instances.
+     *
+     * @param insertTripleBudget triple budget, 0 or less to send all triples at once
+     */
+    public void setInsertTripleBudget(int insertTripleBudget) {
+        this.insertTripleBudget = insertTripleBudget;
+    }
+
+    /**
+     * Set cache used for paginated search total counts, may be null to disable it.
+     *
+     * @param countCache count cache
+     */
+    public void setCountCache(SPARQLCountCache countCache) {
+        this.countCache = countCache;
+    }
+
+    /**
+     * Graphs modified during current transaction, null if unknown.
+     */
+    private Set<String> transactionModifiedGraphs = new HashSet<>();
+
+    private void invalidateCounts(UpdateBuilder update) {
+        if (countCache != null) {
+            invalidateCounts(SPARQLCountCache.getUpdateGraphs(update.buildRequest()));
+        }
+    }
+
+    /**
+     * Invalidate cached counts and class hierarchy and notify property listeners after an update executed outside of
+     * this service, for instance directly on the repository connection. Inside a transaction, counts are invalidated
+     * and listeners notified once it is committed, the class hierarchy is invalidated again.
+     *
+     * If the update can't be parsed, all counts and the class hierarchy are invalidated and listeners are notified for
+     * any resource.
+     *
+     * @param update executed SPARQL update
+     */
+    public void invalidateCaches(String update) {
+        UpdateRequest request;
+        try {
+            request = UpdateFactory.create(update);
+        } catch (QueryException ex) {
+            LOGGER.debug("Unparsable SPARQL update, invalidate all caches", ex);
+            invalidateCounts((Set<String>) null);
+            invalidateClassHierarchy();
+            notifyPropertyListeners((UpdateRequest) null);
+            return;
+        }
+
+        if (countCache != null) {
+            invalidateCounts(SPARQLCountCache.getUpdateGraphs(request));
+        }
+        if (getClassHierarchy() != null && SPARQLClassHierarchy.isHierarchyUpdate(request)) {
+            invalidateClassHierarchy();
+        }
+        notifyPropertyListeners(request);
+    }
+
+    private void invalidateCounts(Set<String> graphs) {
+        if (countCache == null) {
+            return;
+        }
+
+        if (transactionLevel == 0) {
+            countCache.invalidate(graphs);
+        } else if (transactionModifiedGraphs != null) {
+            // Counts computed before commit would be refilled with old data, invalidate them once data are visible
+            if (graphs == null) {
+                transactionModifiedGraphs = null;
+            } else {
+                transactionModifiedGraphs.addAll(graphs);
+            }
+        }
+    }
+
+    private List<SPARQLPropertyListener> propertyListeners = Collections.emptyList();
+
+    /**
+     * Set listeners notified when values of their property may have been written.
+     *
+     * @param propertyListeners property listeners
+     */
+    public void setPropertyListeners(List<SPARQLPropertyListener> propertyListeners) {
+        this.propertyListeners = propertyListeners;
+    }
+
+    /**
+     * Subjects whose listened property may have been modified during current transaction by listener, null value if
+     * unknown.
+     */
+    private Map<SPARQLPropertyListener, Set<String>> transactionModifiedSubjects = new HashMap<>();
+
+    private void notifyPropertyListeners(UpdateBuilder update) {
+        if (!propertyListeners.isEmpty()) {
+            notifyPropertyListeners(update.buildRequest());
+        }
+    }
+
+    private void notifyPropertyListeners(UpdateRequest request) {
+        for (SPARQLPropertyListener listener : propertyListeners) {
+            Set<String> subjects = null;
+            if (request != null) {
+                subjects = SPARQLPropertyListener.getUpdatedSubjects(request, listener.getProperty());
+                if (subjects != null && subjects.isEmpty()) {
+                    continue;
+                }
+            }
+
+            if (transactionLevel == 0) {
+                listener.propertyChanged(subjects);
+            } else if (subjects == null) {
+                // Values read before commit would be cached again, notify listener once data are visible
+                transactionModifiedSubjects.put(listener, null);
+            } else if (!transactionModifiedSubjects.containsKey(listener)) {
+                transactionModifiedSubjects.put(listener, subjects);
+            } else if (transactionModifiedSubjects.get(listener) != null) {
+                transactionModifiedSubjects.get(listener).addAll(subjects);
+            }
+        }
+    }
+
+    /**
+     * True if class hierarchy may have been modified during current transaction.
+     */
+    private boolean transactionModifiedHierarchy = false;
+
+    private void invalidateClassHierarchy(UpdateBuilder update) {
+        if (getClassHierarchy() != null && SPARQLClassHierarchy.isHierarchyUpdate(update.buildRequest())) {
+            invalidateClassHierarchy();
+        }
+    }
+
+    private void invalidateClassHierarchy() {
+        SPARQLClassHierarchy classHierarchy = getClassHierarchy();
+        if (classHierarchy != null) {
+            classHierarchy.invalidate();
+            // Hierarchy could be reloaded by other services before commit, it must be invalidated again once data are visible
+            if (transactionLevel > 0) {
+                transactionModifiedHierarchy = true;
+            }
+        }
+    }
+
+    private SPARQLClassHierarchy getClassHierarchy() {
+        SPARQLClassObjectMapperIndex mapperIndex = getMapperIndex();
+        if (mapperIndex == null) {
+            return null;
+        }
+        return mapperIndex.getClassHierarchy();
     }
 
     private int transactionLevel = 0;
@@ -243,6 +497,17 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         if (transactionLevel == 0) {
             LOGGER.debug("SPARQL TRANSACTION COMMIT");
             connection.commitTransaction();
+            if (countCache != null) {
+                countCache.invalidate(transactionModifiedGraphs);
+            }
+            transactionModifiedGraphs = new HashSet<>();
+            if (transactionModifiedHierarchy) {
+                transactionModifiedHierarchy = false;
+                getClassHierarchy().invalidate();
+            }
+            Map<SPARQLPropertyListener, Set<String>> modifiedSubjects = transactionModifiedSubjects;
+            transactionModifiedSubjects = new HashMap<>();
+            modifiedSubjects.forEach(SPARQLPropertyListener::propertyChanged);
         }
     }
 
@@ -251,7 +516,13 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         if (transactionLevel != 0) {
             LOGGER.error("SPARQL TRANSACTION ROLLBACK: ", ex);
             transactionLevel = 0;
+            transactionModifiedGraphs = new HashSet<>();
+            transactionModifiedSubjects = new HashMap<>();
             connection.rollbackTransaction(ex);
+            if (transactionModifiedHierarchy) {
+                transactionModifiedHierarchy = false;
+                getClassHierarchy().invalidate();
+            }
         }
     }
 
@@ -259,15 +530,55 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         rollbackTransaction(null);
     }
 
+    /**
+     * Incremented each time the service is reset to be reused by another consumer.
+     */
+    private volatile int generation = 0;
+
+    /**
+     * Return current service generation, objects holding this service for later use (like lazy loading proxies) must
+     * not use it anymore once its generation changed because it may be used by another consumer.
+     *
+     * @return service generation
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Reset service state so it can be reused by another consumer: pending transaction is discarded, connection state
+     * is reset and service generation is incremented.
+     *
+     * @return true if service can be reused, false if it must be closed
+     * @throws SPARQLException if service state can't be reset
+     */
+    public boolean reset() throws SPARQLException {
+        generation++;
+        transactionLevel = 0;
+        transactionModifiedGraphs = new HashSet<>();
+        transactionModifiedSubjects = new HashMap<>();
+        if (transactionModifiedHierarchy) {
+            transactionModifiedHierarchy = false;
+            getClassHierarchy().invalidate();
+        }
+        return connection.reset();
+    }
+
     @Override
     public void clearGraph(URI graph) throws SPARQLException {
         LOGGER.debug("SPARQL CLEAR GRAPH: " + graph);
         connection.clearGraph(graph);
+        invalidateCounts(Collections.singleton(graph.toString()));
+        invalidateClassHierarchy();
+        notifyPropertyListeners((UpdateRequest) null);
     }
 
     public void clearGraph(String graph) throws SPARQLException, URISyntaxException {
         LOGGER.debug("SPARQL CLEAR GRAPH: " + graph);
         connection.clearGraph(new URI(graph));
+        invalidateCounts(Collections.singleton(graph));
+        invalidateClassHierarchy();
+        notifyPropertyListeners((UpdateRequest) null);
     }
 
     @Override
@@ -275,6 +586,9 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         disableSHACL();
         LOGGER.debug("MOVE GRAPH " + oldGraphURI + " TO " + newGraphURI);
         connection.renameGraph(oldGraphURI, newGraphURI);
+        invalidateCounts(new HashSet<>(Arrays.asList(oldGraphURI.toString(), newGraphURI.toString())));
+        invalidateClassHierarchy();
+        notifyPropertyListeners((UpdateRequest) null);
         enableSHACL();
     }
 
@@ -282,11 +596,17 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
     public void clear() throws SPARQLException {
         LOGGER.debug("SPARQL CLEAR REPOSITORY");
         connection.clear();
+        invalidateCounts((Set<String>) null);
+        invalidateClassHierarchy();
+        notifyPropertyListeners((UpdateRequest) null);
     }
 
     public void loadOntology(URI graph, InputStream ontology, Lang format) throws SPARQLException {
         LOGGER.debug("SPARQL LOAD " + format.getName() + " FILE INTO GRAPH: " + graph.toString());
         connection.loadOntology(graph, ontology, format);
+        invalidateCounts(Collections.singleton(graph.toString()));
+        invalidateClassHierarchy();
+        notifyPropertyListeners((UpdateRequest) null);
     }
 
     public <T extends SPARQLResourceModel> T getByURI(Class<T> objectClass, URI uri, String lang) throws Exception {
@@ -334,9 +654,7 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         SPARQLClassObjectMapper<T> mapper = mapperIndex.getForClass(objectClass);
         SelectBuilder select = mapper.getSelectBuilder(graph, lang);
 
-        select.addValueVar(mapper.getURIFieldExprVar(), SPARQLDeserializers.nodeURI(uri));
-
-        List<SPARQLResult> results = executeSelectQuery(select);
+        List<SPARQLResult> results = executeSelectQueryWithBindings(select, Collections.singletonMap(mapper.getURIFieldName(), SPARQLDeserializers.nodeURI(uri)));
 
         if (results.size() == 1) {
             return mapper.createInstance(graph, results.get(0), lang, this);
@@ -368,8 +686,9 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
 
             List<SPARQLResult> results = executeSelectQuery(select);
 
+            SPARQLProxyBatch batch = new SPARQLProxyBatch();
             for (SPARQLResult result : results) {
-                resultObjects.add(mapper.createInstance(graph, result, lang, this));
+                resultObjects.add(mapper.createInstance(graph, result, lang, this, batch));
             }
         }
         return resultObjects;
@@ -389,9 +708,8 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         Field field = mapper.getFieldFromUniqueProperty(property);
 
         SPARQLDeserializer<?> deserializer = SPARQLDeserializers.getForClass(propertyValue.getClass());
-        select.addWhereValueVar(field.getName(), deserializer.getNode(propertyValue));
 
-        List<SPARQLResult> results = executeSelectQuery(select);
+        List<SPARQLResult> results = executeSelectQueryWithBindings(select, Collections.singletonMap(field.getName(), deserializer.getNode(propertyValue)));
 
         if (results.isEmpty()) {
             return null;
@@ -426,9 +744,8 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         AskBuilder ask = mapper.getAskBuilder(graph, lang);
         Field field = mapper.getFieldFromUniqueProperty(property);
         SPARQLDeserializer<?> deserializer = SPARQLDeserializers.getForClass(propertyValue.getClass());
-        ask.setVar(field.getName(), deserializer.getNode(propertyValue));
 
-        return executeAskQuery(ask);
+        return executeAskQueryWithBindings(ask, Collections.singletonMap(field.getName(), deserializer.getNode(propertyValue)));
     }
 
     public <T extends SPARQLResourceModel> List<URI> searchURIs(Class<T> objectClass, String lang) throws Exception {
@@ -520,15 +837,89 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
     }
 
     public <T extends SPARQLResourceModel> List<T> search(Node graph, Class<T> objectClass, String lang, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList, Integer page, Integer pageSize) throws Exception {
-        SPARQLClassObjectMapperIndex mapperIndex = getMapperIndex();
-        String language;
+        String language = getLanguageOrDefault(lang);
+        SPARQLClassObjectMapper<T> mapper = getMapperIndex().getForClass(objectClass);
+        SelectBuilder select = getSearchSelectBuilder(graph, mapper, language, filterHandler, orderByList, page, pageSize);
+
+        List<T> resultList = new ArrayList<>();
+        SPARQLProxyBatch batch = new SPARQLProxyBatch();
+        try (SPARQLResultCursor cursor = executeSelectQueryCursor(select)) {
+            cursor.forEachRemaining(ThrowingConsumer.wrap((SPARQLResult result) -> {
+                resultList.add(mapper.createInstance(graph, result, language, this, batch));
+            }, Exception.class));
+        }
+
+        return resultList;
+    }
+
+    public <T extends SPARQLResourceModel> Stream<T> searchStream(Class<T> objectClass, String lang, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList) throws Exception {
+        return searchStream(getDefaultGraph(objectClass), objectClass, lang, filterHandler, orderByList);
+    }
+
+    /**
+     * Search instances and map them to models while iterating on query results, neither raw results nor previously
+     * returned models are retained, allowing to iterate over large result sets with bounded memory.
+     *
+     * Returned stream must be closed to release query resources.
+     *
+     * @param <T> model class
+     * @param graph graph to search in
+     * @param objectClass model class
+     * @param lang language
+     * @param filterHandler query filter handler
+     * @param orderByList result ordering
+     * @return lazy stream of models
+     * @throws Exception
+     */
+    public <T extends SPARQLResourceModel> Stream<T> searchStream(Node graph, Class<T> objectClass, String lang, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList) throws Exception {
+        String language = getLanguageOrDefault(lang);
+        SPARQLClassObjectMapper<T> mapper = getMapperIndex().getForClass(objectClass);
+        SelectBuilder select = getSearchSelectBuilder(graph, mapper, language, filterHandler, orderByList, null, null);
+
+        SPARQLResultCursor cursor = executeSelectQueryCursor(select);
+
+        Iterator<T> modelIterator = new Iterator<T>() {
+
+            private SPARQLProxyBatch batch;
+
+            private int batchCount = 0;
+
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public T next() {
+                // Use a new proxy batch periodically to avoid retaining proxies of all already returned models
+                if (batch == null || batchCount == STREAM_PROXY_BATCH_SIZE) {
+                    batch = new SPARQLProxyBatch();
+                    batchCount = 0;
+                }
+                batchCount++;
+
+                SPARQLResult result = cursor.next();
+                try {
+                    return mapper.createInstance(graph, result, language, SPARQLService.this, batch);
+                } catch (Exception ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(modelIterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(cursor::close);
+    }
+
+    private String getLanguageOrDefault(String lang) {
         if (lang == null) {
-            language = getDefaultLang();
+            return getDefaultLang();
         } else {
-            language = lang;
+            return lang;
         }
+    }
 
-        SPARQLClassObjectMapper<T> mapper = mapperIndex.getForClass(objectClass);
+    private <T extends SPARQLResourceModel> SelectBuilder getSearchSelectBuilder(Node graph, SPARQLClassObjectMapper<T> mapper, String language, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList, Integer page, Integer pageSize) throws Exception {
         SelectBuilder select = mapper.getSelectBuilder(graph, language);
 
         if (filterHandler != null) {
@@ -551,12 +942,7 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
             select.setLimit(pageSize);
         }
 
-        List<T> resultList = new ArrayList<>();
-        executeSelectQuery(select, ThrowingConsumer.wrap((SPARQLResult result) -> {
-            resultList.add(mapper.createInstance(graph, result, language, this));
-        }, Exception.class));
-
-        return resultList;
+        return select;
     }
 
     public <T extends SPARQLResourceModel> int count(Class<T> objectClass) throws Exception {
@@ -572,6 +958,11 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
     }
 
     public <T extends SPARQLResourceModel> int count(Node graph, Class<T> objectClass, String lang, ThrowingConsumer<SelectBuilder, Exception> filterHandler) throws Exception {
+        SelectBuilder selectCount = getCountSelectBuilder(graph, objectClass, lang, filterHandler);
+        return executeCountQuery(selectCount);
+    }
+
+    private <T extends SPARQLResourceModel> SelectBuilder getCountSelectBuilder(Node graph, Class<T> objectClass, String lang, ThrowingConsumer<SelectBuilder, Exception> filterHandler) throws Exception {
         SPARQLClassObjectMapperIndex mapperIndex = getMapperIndex();
         if (lang == null) {
             lang = getDefaultLang();
@@ -583,6 +974,10 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
             filterHandler.accept(selectCount);
         }
 
+        return selectCount;
+    }
+
+    private int executeCountQuery(SelectBuilder selectCount) throws Exception {
         List<SPARQLResult> resultSet = executeSelectQuery(selectCount);
 
         if (resultSet.size() == 1) {
@@ -592,6 +987,10 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         }
     }
 
+    private boolean isCountCacheEnabled() {
+        return countCache != null && countCache.isEnabled() && transactionLevel == 0;
+    }
+
     public <T extends SPARQLResourceModel> ListWithPagination<T> searchWithPagination(Class<T> objectClass, String lang, ThrowingConsumer<SelectBuilder, Exception> filterHandler, Integer page, Integer pageSize) throws Exception {
         return searchWithPagination(getDefaultGraph(objectClass), objectClass, lang, filterHandler, page, pageSize);
     }
@@ -605,23 +1004,247 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
     }
 
     public <T extends SPARQLResourceModel> ListWithPagination<T> searchWithPagination(Node graph, Class<T> objectClass, String lang, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList, Integer page, Integer pageSize) throws Exception {
+        return searchWithPagination(graph, objectClass, lang, filterHandler, orderByList, page, pageSize, true);
+    }
+
+    public <T extends SPARQLResourceModel> ListWithPagination<T> searchWithPagination(Class<T> objectClass, String lang, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList, Integer page, Integer pageSize, boolean countTotal) throws Exception {
+        return searchWithPagination(getDefaultGraph(objectClass), objectClass, lang, filterHandler, orderByList, page, pageSize, countTotal);
+    }
+
+    /**
+     * Search a page of instances.
+     *
+     * If total is requested, it is read from count cache when available. Otherwise the page is loaded first and the
+     * count query is only executed if total could not be deduced from the page content, then cached.
+     *
+     * If total is not requested, one more element than page size is fetched to determine if there is a next page and
+     * returned total is only a lower bound.
+     *
+     * @param <T> model class
+     * @param graph graph to search in
+     * @param objectClass model class
+     * @param lang language
+     * @param filterHandler query filter handler
+     * @param orderByList result ordering
+     * @param page page index
+     * @param pageSize page size
+     * @param countTotal true to compute exact total count
+     * @return page of instances
+     * @throws Exception
+     */
+    public <T extends SPARQLResourceModel> ListWithPagination<T> searchWithPagination(Node graph, Class<T> objectClass, String lang, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList, Integer page, Integer pageSize, boolean countTotal) throws Exception {
         if (lang == null) {
             lang = getDefaultLang();
         }
-        int total = count(graph, objectClass, lang, filterHandler);
+        if (page == null || page < 0) {
+            page = 0;
+        }
+
+        if (pageSize == null || pageSize <= 0) {
+            List<T> list = search(graph, objectClass, lang, filterHandler, orderByList);
+            return new ListWithPagination<>(list, page, pageSize, list.size());
+        }
+
+        int offset = page * pageSize;
+
+        if (!countTotal) {
+            List<T> list = search(graph, objectClass, lang, (SelectBuilder select) -> {
+                if (filterHandler != null) {
+                    filterHandler.accept(select);
+                }
+                select.setOffset(offset);
+                select.setLimit(pageSize + 1);
+            }, orderByList);
+
+            boolean hasMore = list.size() > pageSize;
+            if (hasMore) {
+                list = list.subList(0, pageSize);
+            }
+            return new ListWithPagination<>(list, page, pageSize, hasMore);
+        }
+
+        SelectBuilder selectCount = null;
+        String countFingerprint = null;
+        long countGeneration = 0;
+        Integer total = null;
+        if (isCountCacheEnabled()) {
+            countGeneration = countCache.getGeneration();
+            selectCount = getCountSelectBuilder(graph, objectClass, lang, filterHandler);
+            addPrefixes(selectCount);
+            countFingerprint = selectCount.buildString();
+            total = countCache.get(countFingerprint);
+        }
 
         List<T> list;
-        if (pageSize == null || pageSize == 0) {
-            list = search(graph, objectClass, lang, filterHandler, orderByList);
-        } else if (total > 0 && (page * pageSize) < total) {
-            list = search(graph, objectClass, lang, filterHandler, orderByList, page, pageSize);
+        if (total != null) {
+            if (offset < total) {
+                list = search(graph, objectClass, lang, filterHandler, orderByList, page, pageSize);
+            } else {
+                list = new ArrayList<>();
+            }
         } else {
-            list = new ArrayList<>();
+            list = search(graph, objectClass, lang, filterHandler, orderByList, page, pageSize);
+            if (list.size() < pageSize && (list.size() > 0 || offset == 0)) {
+                // Last page reached, total is known without count query
+                total = offset + list.size();
+            } else {
+                if (selectCount == null) {
+                    selectCount = getCountSelectBuilder(graph, objectClass, lang, filterHandler);
+                }
+                total = executeCountQuery(selectCount);
+            }
+
+            if (countFingerprint != null) {
+                countCache.put(countFingerprint, selectCount.build(), total, countGeneration);
+            }
         }
 
         return new ListWithPagination<>(list, page, pageSize, total);
     }
 
+    public <T extends SPARQLResourceModel> ListWithPagination<T> searchWithPageToken(Class<T> objectClass, String lang, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList, String pageToken, Integer pageSize) throws Exception {
+        return searchWithPageToken(getDefaultGraph(objectClass), objectClass, lang, filterHandler, orderByList, pageToken, pageSize);
+    }
+
+    /**
+     * Search a page of instances using keyset pagination.
+     *
+     * Instead of skipping previous results with an offset, the page is selected with a filter on the sort key values of
+     * the last element of the previous page, encoded in the given token. URI is always added as last sort key to
+     * guarantee a total ordering. Cost of a page does not depend on its position in the result set.
+     *
+     * @param <T> model class
+     * @param graph graph to search in
+     * @param objectClass model class
+     * @param lang language
+     * @param filterHandler query filter handler
+     * @param orderByList result ordering
+     * @param pageToken token returned with previous page, null for first page
+     * @param pageSize page size
+     * @return page of instances with next page token if there is a next page
+     * @throws SPARQLInvalidPageTokenException if page token is invalid
+     * @throws Exception
+     */
+    public <T extends SPARQLResourceModel> ListWithPagination<T> searchWithPageToken(Node graph, Class<T> objectClass, String lang, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList, String pageToken, Integer pageSize) throws Exception {
+        if (pageSize == null || pageSize <= 0) {
+            throw new SPARQLException("Page size is required for keyset pagination");
+        }
+
+        String language = getLanguageOrDefault(lang);
+        SPARQLClassObjectMapper<T> mapper = getMapperIndex().getForClass(objectClass);
+
+        List<OrderBy> keyOrderList = new ArrayList<>();
+        boolean hasURIKey = false;
+        if (orderByList != null) {
+            for (OrderBy orderBy : orderByList) {
+                keyOrderList.add(orderBy);
+                hasURIKey = hasURIKey || SPARQLResourceModel.URI_FIELD.equals(orderBy.getFieldName());
+            }
+        }
+        if (!hasURIKey) {
+            keyOrderList.add(new OrderBy(SPARQLResourceModel.URI_FIELD + "=asc"));
+        }
+
+        SelectBuilder select = getSearchSelectBuilder(graph, mapper, language, filterHandler, keyOrderList, null, null);
+        if (pageToken != null && !pageToken.isEmpty()) {
+            List<String> lastKeyValues = SPARQLPageToken.decode(pageToken, keyOrderList);
+            Expr keysetFilter;
+            try {
+                keysetFilter = getKeysetFilter(mapper, keyOrderList, lastKeyValues);
+            } catch (Exception ex) {
+                // Token values can't be converted to sort key fields types
+                throw new SPARQLInvalidPageTokenException("Invalid page token");
+            }
+            select.addFilter(keysetFilter);
+        }
+        select.setLimit(pageSize + 1);
+
+        List<T> list = new ArrayList<>();
+        List<String> lastKeyValues = null;
+        SPARQLProxyBatch batch = new SPARQLProxyBatch();
+        try (SPARQLResultCursor cursor = executeSelectQueryCursor(select)) {
+            while (cursor.hasNext()) {
+                SPARQLResult result = cursor.next();
+                if (list.size() == pageSize) {
+                    // One more result than page size means there is a next page
+                    return new ListWithPagination<>(list, pageSize, SPARQLPageToken.encode(keyOrderList, lastKeyValues));
+                }
+
+                list.add(mapper.createInstance(graph, result, language, this, batch));
+                lastKeyValues = new ArrayList<>(keyOrderList.size());
+                for (OrderBy orderBy : keyOrderList) {
+                    lastKeyValues.add(result.getStringValue(orderBy.getFieldName()));
+                }
+            }
+        }
+
+        return new ListWithPagination<>(list, pageSize, null);
+    }
+
+    /**
+     * Build filter selecting elements strictly after the given sort key values.
+     *
+     * For keys (k1, ..., kn) the filter is: (k1 after v1) OR (k1 = v1 AND k2 after v2) OR ... following SPARQL ordering
+     * where unbound values come first in ascending order.
+     */
+    private <T extends SPARQLResourceModel> Expr getKeysetFilter(SPARQLClassObjectMapper<T> mapper, List<OrderBy> keyOrderList, List<String> keyValues) throws Exception {
+        Expr filter = null;
+        Expr previousKeysEqual = null;
+
+        for (int i = 0; i < keyOrderList.size(); i++) {
+            OrderBy orderBy = keyOrderList.get(i);
+            String fieldName = orderBy.getFieldName();
+            String value = keyValues.get(i);
+
+            Expr bound = new E_Bound(mapper.getFieldExprVar(fieldName));
+            Expr keyExpr = mapper.getFieldOrderExpr(fieldName);
+
+            Expr keyEqual;
+            Expr keyAfter;
+            if (value == null) {
+                keyEqual = new E_LogicalNot(bound);
+                keyAfter = orderBy.getOrder() == Order.DESCENDING ? NodeValue.FALSE : bound;
+            } else {
+                Node valueNode = mapper.getFieldValueNode(fieldName, value);
+                Expr valueExpr = keyExpr.copySubstitute(BindingFactory.binding(Var.alloc(fieldName), valueNode));
+                if (isStringComparisonNode(valueNode)) {
+                    keyExpr = new E_Str(keyExpr);
+                    valueExpr = new E_Str(valueExpr);
+                }
+
+                keyEqual = new E_LogicalAnd(bound, new E_Equals(keyExpr, valueExpr));
+                if (orderBy.getOrder() == Order.DESCENDING) {
+                    keyAfter = new E_LogicalOr(new E_LogicalNot(bound), new E_LessThan(keyExpr, valueExpr));
+                } else {
+                    keyAfter = new E_LogicalAnd(bound, new E_GreaterThan(keyExpr, valueExpr));
+                }
+            }
+
+            Expr keyCondition = previousKeysEqual == null ? keyAfter : new E_LogicalAnd(previousKeysEqual, keyAfter);
+            filter = filter == null ? keyCondition : new E_LogicalOr(filter, keyCondition);
+            previousKeysEqual = previousKeysEqual == null ? keyEqual : new E_LogicalAnd(previousKeysEqual, keyEqual);
+        }
+
+        return filter;
+    }
+
+    /**
+     * URIs and strings are ordered by their lexical form, compare them as simple literals.
+     */
+    private static boolean isStringComparisonNode(Node node) {
+        if (node.isURI()) {
+            return true;
+        }
+        if (node.isLiteral()) {
+            String datatypeURI = node.getLiteralDatatypeURI();
+            return !node.getLiteralLanguage().isEmpty()
+                    || datatypeURI == null
+                    || datatypeURI.equals(XSDDatatype.XSDstring.getURI())
+                    || datatypeURI.equals(RDF.langString.getURI());
+        }
+        return false;
+    }
+
     public <T extends SPARQLResourceModel> void create(T instance) throws Exception {
         create(getDefaultGraph(instance.getClass()), instance);
     }
@@ -666,23 +1289,135 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
     }
 
     public <T extends SPARQLResourceModel> void create(List<T> instances) throws Exception {
-        Class<? extends SPARQLResourceModel> genericType = (Class<? extends SPARQLResourceModel>) ClassUtils.getGenericTypeFromClass(instances.getClass());
-        create(getDefaultGraph(genericType), instances);
+        if (instances.isEmpty()) {
+            return;
+        }
+        create(getDefaultGraph(instances.get(0).getClass()), instances);
     }
 
+    /**
+     * Create a list of instances.
+     *
+     * URIs of the whole list are generated or checked with a few bulk existence queries, dependent resources are
+     * created as lists too and triples are sent in INSERT DATA requests limited by the configured triple budget.
+     *
+     * @param <T> model class
+     * @param graph graph to insert instances in
+     * @param instances instances to create
+     * @throws Exception
+     */
     public <T extends SPARQLResourceModel> void create(Node graph, List<T> instances) throws Exception {
         SPARQLClassObjectMapperIndex mapperIndex = getMapperIndex();
 
         if (instances.size() > 0) {
-            UpdateBuilder create = new UpdateBuilder();
-            validate(instances);
-            for (T instance : instances) {
+            try {
+                startTransaction();
+                validate(instances);
+
+                for (T instance : instances) {
+                    SPARQLClassObjectMapper<T> mapper = mapperIndex.getForClass(instance.getClass());
+                    URI rdfType = instance.getType();
+                    if (rdfType == null) {
+                        instance.setType(new URI(mapper.getRDFType().getURI()));
+                    }
+                }
+                generateUniqueUrisIfNullOrValidateCurrent(instances, true);
+
+                Map<Class<?>, List<SPARQLResourceModel>> dependentResourcesByClass = new HashMap<>();
+                for (T instance : instances) {
+                    SPARQLClassObjectMapper<T> mapper = mapperIndex.getForClass(instance.getClass());
+                    for (SPARQLResourceModel subInstance : mapper.getAllDependentResourcesToCreate(instance)) {
+                        dependentResourcesByClass.computeIfAbsent(subInstance.getClass(), key -> new ArrayList<>()).add(subInstance);
+                    }
+                }
+                for (List<SPARQLResourceModel> subInstances : dependentResourcesByClass.values()) {
+                    create(getDefaultGraph(subInstances.get(0).getClass()), subInstances);
+                }
+
+                UpdateBuilder create = new UpdateBuilder();
+                int tripleCount = 0;
+                for (T instance : instances) {
+                    SPARQLClassObjectMapper<T> mapper = mapperIndex.getForClass(instance.getClass());
+                    tripleCount += mapper.addCreateBuilder(graph, instance, create);
+
+                    if (insertTripleBudget > 0 && tripleCount >= insertTripleBudget) {
+                        executeUpdateQuery(create);
+                        create = new UpdateBuilder();
+                        tripleCount = 0;
+                    }
+                }
+                if (tripleCount > 0) {
+                    executeUpdateQuery(create);
+                }
+
+                commitTransaction();
+            } catch (Exception ex) {
+                rollbackTransaction(ex);
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Generate URIs of instances without URI and check that other ones don't already exist, using bulk existence
+     * queries instead of one query per instance.
+     */
+    private <T extends SPARQLResourceModel> void generateUniqueUrisIfNullOrValidateCurrent(List<T> instances, boolean checkUriExist) throws Exception {
+        SPARQLClassObjectMapperIndex mapperIndex = getMapperIndex();
+
+        Set<URI> batchURIs = new HashSet<>();
+        List<URI> urisToCheck = new ArrayList<>();
+        List<T> instancesWithoutURI = new ArrayList<>();
+        for (T instance : instances) {
+            URI uri = mapperIndex.getForClass(instance.getClass()).getURI(instance);
+            if (uri == null) {
+                instancesWithoutURI.add(instance);
+            } else {
+                URI formattedURI = SPARQLDeserializers.formatURI(uri);
+                if (checkUriExist && !batchURIs.add(formattedURI)) {
+                    throw new SPARQLAlreadyExistingUriException(uri);
+                }
+                batchURIs.add(formattedURI);
+                urisToCheck.add(uri);
+            }
+        }
+
+        if (checkUriExist && !urisToCheck.isEmpty()) {
+            Set<URI> existingURIs = getExistingUris(urisToCheck);
+            if (!existingURIs.isEmpty()) {
+                throw new SPARQLAlreadyExistingUriException(existingURIs.iterator().next());
+            }
+        }
+
+        int retry = 0;
+        List<T> pendingInstances = instancesWithoutURI;
+        while (!pendingInstances.isEmpty()) {
+            List<T> collidingInstances = new ArrayList<>();
+            Map<URI, T> candidates = new HashMap<>();
+            for (T instance : pendingInstances) {
                 SPARQLClassObjectMapper<T> mapper = mapperIndex.getForClass(instance.getClass());
-                prepareInstanceCreation(instance, mapper, true);
-                mapper.addCreateBuilder(graph, instance, create);
+                String graphPrefix = getDefaultGraph(instance.getClass()).toString();
+                URI uri = mapper.getUriGenerator(instance).generateURI(graphPrefix, instance, retry);
+                URI formattedURI = SPARQLDeserializers.formatURI(uri);
+
+                if (batchURIs.contains(formattedURI) || candidates.containsKey(formattedURI)) {
+                    collidingInstances.add(instance);
+                } else {
+                    candidates.put(formattedURI, instance);
+                    mapper.setUri(instance, uri);
+                }
             }
 
-            executeUpdateQuery(create);
+            for (URI existingURI : getExistingUris(candidates.keySet())) {
+                T instance = candidates.remove(SPARQLDeserializers.formatURI(existingURI));
+                if (instance != null) {
+                    collidingInstances.add(instance);
+                }
+            }
+
+            batchURIs.addAll(candidates.keySet());
+            pendingInstances = collidingInstances;
+            retry++;
         }
     }
 
@@ -708,6 +1443,14 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         update(getDefaultGraph(instance.getClass()), instance);
     }
 
+    /**
+     * Update an instance by sending only triples changed from its stored version in a single DELETE/INSERT request.
+     *
+     * @param <T> model class
+     * @param graph instance graph
+     * @param instance instance to update
+     * @throws Exception
+     */
     public <T extends SPARQLResourceModel> void update(Node graph, T instance) throws Exception {
         SPARQLClassObjectMapperIndex mapperIndex = getMapperIndex();
 
@@ -722,14 +1465,11 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
 
             URI uri = mapper.getURI(instance);
             T oldInstance = loadByURI(graph, objectClass, uri, getDefaultLang());
-            if (oldInstance == null) {
-                throw new SPARQLInvalidURIException(instance.getUri());
-            }
 
-            mapper.updateInstance(oldInstance, instance);
-
-            delete(graph, objectClass, uri, false);
-            create(graph, instance, false);
+            UpdateBuilder update = new UpdateBuilder();
+            if (addUpdateChangeSet(graph, oldInstance, instance, update) > 0) {
+                executeChangeSetQuery(update);
+            }
 
             commitTransaction();
         } catch (Exception ex) {
@@ -742,7 +1482,19 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         update(null, instances);
     }
 
+    /**
+     * Update a list of instances.
+     *
+     * Stored versions are loaded with one query by model class and changed triples of the whole list are sent in
+     * DELETE/INSERT requests limited by the configured triple budget.
+     *
+     * @param <T> model class
+     * @param graph instances graph, null to use default graph of each instance class
+     * @param instances instances to update
+     * @throws Exception
+     */
     public <T extends SPARQLResourceModel> void update(Node graph, List<T> instances) throws Exception {
+        SPARQLClassObjectMapperIndex mapperIndex = getMapperIndex();
         try {
             startTransaction();
 
@@ -750,13 +1502,49 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
 
                 validate(instances);
 
+                Map<Class<?>, List<URI>> urisByClass = new HashMap<>();
+                Set<URI> batchURIs = new HashSet<>();
+                for (T instance : instances) {
+                    URI uri = mapperIndex.getForClass(instance.getClass()).getURI(instance);
+                    if (uri == null) {
+                        throw new SPARQLInvalidURIException(instance.getUri());
+                    }
+                    if (!batchURIs.add(SPARQLDeserializers.formatURI(uri))) {
+                        throw new SPARQLException("Instance can't be updated twice in the same list: " + uri);
+                    }
+                    urisByClass.computeIfAbsent(instance.getClass(), key -> new ArrayList<>()).add(uri);
+                }
+
+                Map<URI, SPARQLResourceModel> oldInstances = new HashMap<>();
+                for (Map.Entry<Class<?>, List<URI>> classURIs : urisByClass.entrySet()) {
+                    @SuppressWarnings("unchecked")
+                    Class<T> objectClass = (Class<T>) classURIs.getKey();
+                    Node classGraph = graph == null ? getDefaultGraph(objectClass) : graph;
+                    for (T oldInstance : loadListByURIs(classGraph, objectClass, classURIs.getValue(), getDefaultLang())) {
+                        oldInstances.put(SPARQLDeserializers.formatURI(oldInstance.getUri()), oldInstance);
+                    }
+                }
+
+                UpdateBuilder update = new UpdateBuilder();
+                int tripleCount = 0;
                 for (T instance : instances) {
                     Node instanceGraph = graph;
                     if (graph == null) {
                         instanceGraph = getDefaultGraph(instance.getClass());
                     }
 
-                    update(instanceGraph, instance);
+                    @SuppressWarnings("unchecked")
+                    T oldInstance = (T) oldInstances.get(SPARQLDeserializers.formatURI(instance.getUri()));
+                    tripleCount += addUpdateChangeSet(instanceGraph, oldInstance, instance, update);
+
+                    if (insertTripleBudget > 0 && tripleCount >= insertTripleBudget) {
+                        executeChangeSetQuery(update);
+                        update = new UpdateBuilder();
+                        tripleCount = 0;
+                    }
+                }
+                if (tripleCount > 0) {
+                    executeChangeSetQuery(update);
                 }
             }
             commitTransaction();
@@ -766,6 +1554,62 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         }
     }
 
+    /**
+     * Execute a DELETE/INSERT change set, a DELETE/INSERT request requires a WHERE clause so an always true one is
+     * added.
+     */
+    private void executeChangeSetQuery(UpdateBuilder update) throws SPARQLException {
+        update.addFilter(NodeValue.TRUE);
+        executeUpdateQuery(update);
+    }
+
+    /**
+     * Complete instance from its stored version, delete related resources and relations removed from it, create its
+     * new dependent resources and add changed triples to the given update.
+     *
+     * @return number of changed triples
+     */
+    private <T extends SPARQLResourceModel> int addUpdateChangeSet(Node graph, T oldInstance, T instance, UpdateBuilder update) throws Exception {
+        if (oldInstance == null) {
+            throw new SPARQLInvalidURIException(instance.getUri());
+        }
+
+        @SuppressWarnings("unchecked")
+        Class<T> objectClass = (Class<T>) instance.getClass();
+        SPARQLClassObjectMapper<T> mapper = getMapperIndex().getForClass(objectClass);
+        mapper.updateInstance(oldInstance, instance);
+
+        if (instance.getType() == null) {
+            instance.setType(new URI(mapper.getRDFType().getURI()));
+        }
+
+        // Related resources deleted in cascade with the instance are also deleted when they are not related anymore
+        URI uri = mapper.getURI(instance);
+        for (Map.Entry<Class<? extends SPARQLResourceModel>, Field> cascadeDeleteClassField : mapper.getCascadeDeleteClassesField().entrySet()) {
+            Set<URI> relatedURIs = mapper.getFieldResourcesURIs(cascadeDeleteClassField.getValue(), instance);
+            List<URI> removedURIs = new ArrayList<>();
+            for (URI relationURI : getRelationsURI(objectClass, cascadeDeleteClassField.getKey(), cascadeDeleteClassField.getValue(), uri)) {
+                if (!relatedURIs.contains(SPARQLDeserializers.formatURI(relationURI))) {
+                    removedURIs.add(relationURI);
+                }
+            }
+            if (!removedURIs.isEmpty()) {
+                delete(cascadeDeleteClassField.getKey(), removedURIs);
+            }
+        }
+
+        UpdateBuilder deleteRelations = mapper.getRemovedRelationsDeleteBuilder(oldInstance, instance);
+        if (deleteRelations != null) {
+            executeDeleteQuery(deleteRelations);
+        }
+
+        for (SPARQLResourceModel subInstance : mapper.getAllDependentResourcesToCreate(instance)) {
+            create(subInstance);
+        }
+
+        return mapper.addChangeSetBuilder(graph, oldInstance, instance, update);
+    }
+
     public <T extends SPARQLResourceModel> void delete(Class<T> objectClass, URI uri) throws Exception {
         delete(getDefaultGraph(objectClass), objectClass, uri, true);
     }
@@ -843,13 +1687,42 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         delete(getDefaultGraph(objectClass), objectClass, uris);
     }
 
+    /**
+     * Delete a list of instances with all resources deleted in cascade.
+     *
+     * The cascade closure is computed with one relation query per model class and cascade field, then triples are
+     * deleted by property with one DELETE request per graph, whatever the list size.
+     *
+     * @param <T> model class
+     * @param graph instances graph
+     * @param objectClass model class
+     * @param uris URIs of instances to delete
+     * @throws Exception
+     */
     public <T extends SPARQLResourceModel> void delete(Node graph, Class<T> objectClass, List<URI> uris) throws Exception {
         if (uris.size() > 0) {
             try {
                 startTransaction();
+
+                Set<URI> existingURIs = new HashSet<>();
+                for (URI existingURI : getExistingUris(uris)) {
+                    existingURIs.add(SPARQLDeserializers.formatURI(existingURI));
+                }
                 for (URI uri : uris) {
-                    delete(graph, objectClass, uri, true);
+                    if (!existingURIs.contains(SPARQLDeserializers.formatURI(uri))) {
+                        throw new SPARQLInvalidURIException(uri);
+                    }
                 }
+
+                Map<Class<? extends SPARQLResourceModel>, Set<URI>> urisToDelete = getCascadeDeleteClosure(graph, objectClass, uris);
+                for (Map.Entry<Class<? extends SPARQLResourceModel>, Set<URI>> classURIs : urisToDelete.entrySet()) {
+                    if (!classURIs.getValue().isEmpty()) {
+                        Class<? extends SPARQLResourceModel> modelClass = classURIs.getKey();
+                        Node classGraph = modelClass.equals(objectClass) ? graph : getDefaultGraph(modelClass);
+                        deleteByProperties(classGraph, modelClass, classURIs.getValue());
+                    }
+                }
+
                 commitTransaction();
             } catch (Exception ex) {
                 rollbackTransaction(ex);
@@ -858,6 +1731,153 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         }
     }
 
+    /**
+     * Get URIs of given resources and of all resources deleted with them by cascade, by model class.
+     */
+    private Map<Class<? extends SPARQLResourceModel>, Set<URI>> getCascadeDeleteClosure(Node graph, Class<? extends SPARQLResourceModel> objectClass, List<URI> uris) throws Exception {
+        Map<Class<? extends SPARQLResourceModel>, Set<URI>> closure = new LinkedHashMap<>();
+
+        Set<URI> rootURIs = new LinkedHashSet<>();
+        for (URI uri : uris) {
+            rootURIs.add(SPARQLDeserializers.formatURI(uri));
+        }
+        closure.put(objectClass, rootURIs);
+
+        Deque<Map.Entry<Class<? extends SPARQLResourceModel>, List<URI>>> pending = new ArrayDeque<>();
+        pending.add(new AbstractMap.SimpleEntry<>(objectClass, new ArrayList<>(rootURIs)));
+        while (!pending.isEmpty()) {
+            Map.Entry<Class<? extends SPARQLResourceModel>, List<URI>> classURIs = pending.poll();
+            Class<? extends SPARQLResourceModel> modelClass = classURIs.getKey();
+            Node classGraph = modelClass.equals(objectClass) ? graph : getDefaultGraph(modelClass);
+            SPARQLClassObjectMapper<SPARQLResourceModel> mapper = getMapperIndex().getForClass(modelClass);
+
+            for (Map.Entry<Class<? extends SPARQLResourceModel>, Field> cascadeDeleteClassField : mapper.getCascadeDeleteClassesField().entrySet()) {
+                Class<? extends SPARQLResourceModel> relationClass = cascadeDeleteClassField.getKey();
+                Set<URI> knownURIs = closure.computeIfAbsent(relationClass, key -> new LinkedHashSet<>());
+
+                List<URI> newURIs = new ArrayList<>();
+                for (URI relationURI : getRelationsURIs(classGraph, mapper, relationClass, cascadeDeleteClassField.getValue(), classURIs.getValue())) {
+                    URI formattedURI = SPARQLDeserializers.formatURI(relationURI);
+                    if (knownURIs.add(formattedURI)) {
+                        newURIs.add(formattedURI);
+                    }
+                }
+
+                if (!newURIs.isEmpty()) {
+                    pending.add(new AbstractMap.SimpleEntry<>(relationClass, newURIs));
+                }
+            }
+        }
+
+        return closure;
+    }
+
+    /**
+     * Get URIs of resources related to any of the given objects by a relation field.
+     */
+    private List<URI> getRelationsURIs(Node graph, SPARQLClassObjectMapper<?> objectMapper, Class<? extends SPARQLResourceModel> relationClass, Field objectField, List<URI> objectURIs) throws Exception {
+        Var objectVar = makeVar("object");
+        Var relationVar = makeVar("relation");
+        Property property = objectMapper.getFieldProperty(objectField);
+
+        Node patternGraph;
+        WhereBuilder pattern = new WhereBuilder();
+        if (objectMapper.isReverseRelation(objectField)) {
+            patternGraph = getDefaultGraph(relationClass);
+            pattern.addWhere(relationVar, property, objectVar);
+        } else {
+            patternGraph = graph;
+            pattern.addWhere(objectVar, property, relationVar);
+        }
+
+        List<URI> relationURIs = new ArrayList<>();
+        for (int i = 0; i < objectURIs.size(); i += URI_EXISTS_CHUNK_SIZE) {
+            List<URI> uriChunk = objectURIs.subList(i, Math.min(i + URI_EXISTS_CHUNK_SIZE, objectURIs.size()));
+
+            SelectBuilder select = new SelectBuilder();
+            select.setDistinct(true);
+            select.addVar(relationVar);
+            if (patternGraph != null) {
+                select.addGraph(patternGraph, pattern);
+            } else {
+                select.addWhere(pattern);
+            }
+            select.addWhereValueVar(objectVar, SPARQLDeserializers.nodeListURI(uriChunk).toArray());
+
+            for (SPARQLResult result : executeSelectQuery(select)) {
+                relationURIs.add(new URI(result.getStringValue(relationVar.getVarName())));
+            }
+        }
+
+        return relationURIs;
+    }
+
+    /**
+     * Delete triples of the given instances, including references to them from other models, without loading them.
+     * URIs are sent by chunks to bound the size of each request.
+     */
+    private void deleteByProperties(Node graph, Class<? extends SPARQLResourceModel> objectClass, Set<URI> uris) throws Exception {
+        SPARQLClassObjectMapperIndex mapperIndex = getMapperIndex();
+
+        Map<Node, Set<Node>> subjectProperties = new HashMap<>();
+        Map<Node, Set<Node>> objectProperties = new HashMap<>();
+        mapperIndex.getForClass(objectClass).collectDeleteProperties(graph, subjectProperties, objectProperties);
+
+        Iterator<Map.Entry<Class<? extends SPARQLResourceModel>, Field>> i = mapperIndex.getReverseReferenceIterator(objectClass);
+        while (i.hasNext()) {
+            Map.Entry<Class<? extends SPARQLResourceModel>, Field> entry = i.next();
+            SPARQLClassObjectMapper<SPARQLResourceModel> reverseMapper = mapperIndex.getForClass(entry.getKey());
+            Node reverseProperty = reverseMapper.getFieldProperty(entry.getValue()).asNode();
+            objectProperties.computeIfAbsent(reverseMapper.getDefaultGraph(), key -> new HashSet<>()).add(reverseProperty);
+        }
+
+        List<URI> uriList = new ArrayList<>(uris);
+        for (int chunkStart = 0; chunkStart < uriList.size(); chunkStart += URI_EXISTS_CHUNK_SIZE) {
+            Object[] uriNodes = SPARQLDeserializers.nodeListURI(uriList.subList(chunkStart, Math.min(chunkStart + URI_EXISTS_CHUNK_SIZE, uriList.size()))).toArray();
+            for (Map.Entry<Node, Set<Node>> graphProperties : subjectProperties.entrySet()) {
+                executeDeleteQuery(getDeleteByPropertiesBuilder(graphProperties.getKey(), graphProperties.getValue(), uriNodes, false));
+            }
+            for (Map.Entry<Node, Set<Node>> graphProperties : objectProperties.entrySet()) {
+                executeDeleteQuery(getDeleteByPropertiesBuilder(graphProperties.getKey(), graphProperties.getValue(), uriNodes, true));
+            }
+        }
+    }
+
+    /**
+     * Build a DELETE request of triples in graph using one of the given properties, with one of the given URIs as
+     * subject or as object.
+     */
+    private UpdateBuilder getDeleteByPropertiesBuilder(Node graph, Set<Node> properties, Object[] uriNodes, boolean asObject) {
+        Var uriVar = makeVar("uri");
+        Var propertyVar = makeVar("p");
+        Var valueVar = makeVar("value");
+        Var subjectVar = asObject ? valueVar : uriVar;
+        Var objectVar = asObject ? uriVar : valueVar;
+
+        SelectBuilder triples = new SelectBuilder();
+        triples.addVar(subjectVar).addVar(propertyVar).addVar(objectVar);
+        WhereBuilder pattern = new WhereBuilder().addWhere(subjectVar, propertyVar, objectVar);
+
+        UpdateBuilder delete = new UpdateBuilder();
+        if (graph != null) {
+            delete.addDelete(graph, subjectVar, propertyVar, objectVar);
+            triples.addGraph(graph, pattern);
+        } else {
+            delete.addDelete(subjectVar, propertyVar, objectVar);
+            triples.addWhere(pattern);
+        }
+
+        ExprList propertyList = new ExprList();
+        for (Node property : properties) {
+            propertyList.add(NodeValue.makeNode(property));
+        }
+        triples.addFilter(new E_OneOf(new ExprVar(propertyVar), propertyList));
+        triples.addWhereValueVar(uriVar, uriNodes);
+        delete.addSubQuery(triples);
+
+        return delete;
+    }
+
     public <T extends SPARQLResourceModel, U extends SPARQLResourceModel> List<URI> getRelationsURI(Class<T> objectClass, Class<U> relationClass, Field objectField, URI objectURI) throws Exception {
         SPARQLClassObjectMapperIndex mapperIndex = getMapperIndex();
         SPARQLClassObjectMapper<T> objectMapper = mapperIndex.getForClass(objectClass);
@@ -888,20 +1908,85 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         Var s = makeVar("s");
         Var p = makeVar("p");
         Var o = makeVar("o");
-        Node nodeUri = SPARQLDeserializers.nodeURI(uri);
-        askQuery.addWhere(nodeUri, p, o);
+        Var uriVar = makeVar("uri");
+        askQuery.addWhere(uriVar, p, o);
         WhereBuilder reverseWhere = new WhereBuilder();
-        reverseWhere.addWhere(s, p, nodeUri);
+        reverseWhere.addWhere(s, p, uriVar);
         askQuery.addUnion(reverseWhere);
 
-        return executeAskQuery(askQuery);
+        return executeAskQueryWithBindings(askQuery, Collections.singletonMap(uriVar.getVarName(), SPARQLDeserializers.nodeURI(uri)));
     }
 
     public <T extends SPARQLResourceModel> boolean uriExists(Class<T> objectClass, URI uri) throws Exception {
         if (uri == null) {
             return false;
         }
-        return executeAskQuery(getUriExistsQuery(objectClass, uri));
+        SPARQLClassObjectMapper<T> mapper = getMapperIndex().getForClass(objectClass);
+        AskBuilder askQuery = getUriExistsQuery(mapper, mapper.getURIFieldVar());
+        return executeAskQueryWithBindings(askQuery, Collections.singletonMap(mapper.getURIFieldName(), SPARQLDeserializers.nodeURI(uri)));
+    }
+
+    /**
+     * Get URIs used as subject or object of any triple among the given ones.
+     *
+     * @param uris URIs to check
+     * @return existing URIs
+     * @throws Exception
+     */
+    public Set<URI> getExistingUris(Collection<URI> uris) throws Exception {
+        Set<URI> existingURIs = new HashSet<>();
+        if (uris == null || uris.isEmpty()) {
+            return existingURIs;
+        }
+
+        Var uriVar = makeVar("uri");
+        List<URI> uriList = new ArrayList<>(uris);
+        for (int i = 0; i < uriList.size(); i += URI_EXISTS_CHUNK_SIZE) {
+            List<URI> uriChunk = uriList.subList(i, Math.min(i + URI_EXISTS_CHUNK_SIZE, uriList.size()));
+
+            SelectBuilder select = new SelectBuilder();
+            select.setDistinct(true);
+            select.addVar(uriVar);
+            select.addWhere(uriVar, makeVar("p"), makeVar("o"));
+            select.addUnion(new WhereBuilder().addWhere(makeVar("s"), makeVar("p"), uriVar));
+            select.addValueVar(uriVar, SPARQLDeserializers.nodeListURI(uriChunk).toArray());
+
+            for (SPARQLResult result : executeSelectQuery(select)) {
+                existingURIs.add(new URI(result.getStringValue(uriVar.getVarName())));
+            }
+        }
+
+        return existingURIs;
+    }
+
+    /**
+     * Get URIs of existing instances of the given class among the given ones.
+     *
+     * @param <T> model class
+     * @param objectClass model class
+     * @param uris URIs to check
+     * @return URIs of existing instances
+     * @throws Exception
+     */
+    public <T extends SPARQLResourceModel> Set<URI> getExistingUris(Class<T> objectClass, Collection<URI> uris) throws Exception {
+        Set<URI> existingURIs = new HashSet<>();
+        if (uris == null || uris.isEmpty()) {
+            return existingURIs;
+        }
+
+        String uriVarName = getURIFieldVar(objectClass).getVarName();
+        List<URI> uriList = new ArrayList<>(uris);
+        for (int i = 0; i < uriList.size(); i += URI_EXISTS_CHUNK_SIZE) {
+            List<URI> uriChunk = uriList.subList(i, Math.min(i + URI_EXISTS_CHUNK_SIZE, uriList.size()));
+
+            for (SPARQLResult result : executeSelectQuery(getUriListExistQuery(objectClass, uriChunk))) {
+                if (Boolean.parseBoolean(result.getStringValue(EXISTING_VAR))) {
+                    existingURIs.add(new URI(result.getStringValue(uriVarName)));
+                }
+            }
+        }
+
+        return existingURIs;
     }
 
     public <T extends SPARQLResourceModel> boolean uriListExists(Class<T> objectClass, Collection<URI> uris) throws Exception {
@@ -929,24 +2014,62 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
      */
     public boolean uriExists(URI rdfType, URI uri) throws SPARQLException {
         Var typeVar = makeVar("type");
+        AskBuilder askQuery = new AskBuilder()
+                .addWhere(SPARQLDeserializers.nodeURI(uri), RDF.type, typeVar);
+        addSubClassesWhere(askQuery.getWhereHandler(), typeVar, SPARQLDeserializers.nodeURI(rdfType));
+        return executeAskQuery(askQuery);
+    }
+
+    /**
+     * Restrict type variable to given class and its subclasses, using class hierarchy index if available.
+     *
+     * @param where where clause to complete
+     * @param typeVar type variable
+     * @param rdfType class URI node
+     */
+    public void addSubClassesWhere(WhereHandler where, Var typeVar, Node rdfType) {
+        SPARQLClassHierarchy classHierarchy = getClassHierarchy();
+        if (classHierarchy != null) {
+            classHierarchy.addSubClassesWhere(where, typeVar, rdfType);
+        } else {
+            SPARQLClassHierarchy.addSubClassAnyWhere(where, typeVar, rdfType);
+        }
+    }
+
+    /**
+     * Check if a class is the given parent class or one of its subclasses, without any query if class hierarchy index
+     * is available.
+     *
+     * @param rdfType class URI node to check
+     * @param parentType parent class URI node
+     * @return true if rdfType is parentType or one of its subclasses
+     * @throws SPARQLException if check fails
+     */
+    public boolean isSubClassOf(Node rdfType, Node parentType) throws SPARQLException {
+        SPARQLClassHierarchy classHierarchy = getClassHierarchy();
+        if (classHierarchy != null) {
+            return classHierarchy.isSubClassOf(rdfType, parentType);
+        }
+
         return executeAskQuery(new AskBuilder()
-                .addWhere(SPARQLDeserializers.nodeURI(uri), RDF.type, typeVar)
-                .addWhere(typeVar, Ontology.subClassAny, SPARQLDeserializers.nodeURI(rdfType))
+                .addWhere(rdfType, Ontology.subClassAny, parentType)
         );
     }
 
     public <T extends SPARQLResourceModel> AskBuilder getUriExistsQuery(Class<T> objectClass, URI uri) throws SPARQLException {
         SPARQLClassObjectMapper<T> mapper = getMapperIndex().getForClass(objectClass);
+        return getUriExistsQuery(mapper, SPARQLDeserializers.nodeURI(uri));
+    }
 
+    private <T extends SPARQLResourceModel> AskBuilder getUriExistsQuery(SPARQLClassObjectMapper<T> mapper, Node nodeUri) {
         AskBuilder askQuery = new AskBuilder();
-        Node nodeUri = SPARQLDeserializers.nodeURI(uri);
 
         Var fieldType = mapper.getTypeFieldVar();
         askQuery.addWhere(nodeUri, RDF.type, fieldType);
 
         Resource typeDef = mapper.getRDFType();
 
-        askQuery.addWhere(fieldType, Ontology.subClassAny, typeDef);
+        addSubClassesWhere(askQuery.getWhereHandler(), fieldType, typeDef.asNode());
         return askQuery;
     }
 
@@ -967,10 +2090,11 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         WhereBuilder where = new WhereBuilder()
                 .addWhere(uriVar, makeVar("p"), makeVar("o"));
 
-        where.addWhere(typeVar, Ontology.subClassAny, typeDef)
-                .addWhere(uriVar, RDF.type, typeVar);
+        where.addWhere(uriVar, RDF.type, typeVar);
+        addSubClassesWhere(where.getWhereHandler(), typeVar, typeDef.asNode());
 
         Expr existExpr = SPARQLQueryHelper.getExprFactory().exists(where);
+        select.addVar(uriVar);
         select.addVar(existExpr, existing);
 
         return select;
@@ -1084,6 +2208,51 @@ public class SPARQLService extends BaseService implements SPARQLConnection, Serv
         return translations;
     }
 
+    /**
+     * Load translations of a list of resources with a single query.
+     *
+     * @param graph graph of resources
+     * @param resourceURIs resources URI
+     * @param labelProperty label property
+     * @param reverseRelation true if label property is a reverse relation
+     * @return map of translations by language for each resource expanded URI, resources without any label are not
+     * included
+     * @throws Exception
+     */
+    public Map<String, Map<String, String>> getTranslations(Node graph, Collection<URI> resourceURIs, Property labelProperty, boolean reverseRelation) throws Exception {
+        Map<String, Map<String, String>> translationsByURI = new HashMap<>();
+
+        if (resourceURIs.isEmpty()) {
+            return translationsByURI;
+        }
+
+        SelectBuilder select = new SelectBuilder();
+
+        Var uriVar = makeVar(SPARQLResourceModel.URI_FIELD);
+        Var valueVar = makeVar("value");
+        Var langVar = makeVar("lang");
+
+        select.addVar(uriVar);
+        select.addVar(valueVar);
+        select.addVar(SPARQLQueryHelper.getExprFactory().lang(valueVar), langVar);
+
+        if (reverseRelation) {
+            select.addWhere(valueVar, labelProperty, uriVar);
+        } else {
+            select.addWhere(uriVar, labelProperty, valueVar);
+        }
+        select.addWhereValueVar(uriVar, SPARQLDeserializers.nodeListURI(new ArrayList<>(resourceURIs)).toArray());
+
+        executeSelectQuery(select, (SPARQLResult result) -> {
+            String uri = result.getStringValue(SPARQLResourceModel.URI_FIELD);
+            String value = result.getStringValue("value");
+            String resultLang = result.getStringValue("lang");
+            translationsByURI.computeIfAbsent(uri, key -> new HashMap<>()).put(resultLang, value);
+        });
+
+        return translationsByURI;
+    }
+
     @Override
     public void disableSHACL() throws SPARQLException {
         LOGGER.debug("DISABLE SHACL Validation");
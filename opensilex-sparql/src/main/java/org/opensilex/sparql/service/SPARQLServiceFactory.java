@@ -6,7 +6,9 @@
 package org.opensilex.sparql.service;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import javax.ws.rs.ext.Provider;
 import org.apache.jena.rdf.model.Resource;
@@ -58,6 +60,14 @@ public abstract class SPARQLServiceFactory extends ServiceFactory<SPARQLService>
 
     protected SPARQLClassObjectMapperIndex mapperIndex;
 
+    private SPARQLCountCache countCache;
+
+    private final List<SPARQLPropertyListener> propertyListeners = new ArrayList<>();
+
+    private SPARQLClassHierarchy classHierarchy;
+
+    private int insertTripleBudget = SPARQLService.DEFAULT_INSERT_TRIPLE_BUDGET;
+
     private SPARQLModule sparqlModule;
 
     @Override
@@ -78,7 +88,18 @@ public abstract class SPARQLServiceFactory extends ServiceFactory<SPARQLService>
         });
         mapperIndex = new SPARQLClassObjectMapperIndex(baseURI, initClasses);
 
+        classHierarchy = new SPARQLClassHierarchy(this);
+        mapperIndex.setClassHierarchy(classHierarchy);
+
         SPARQLConfig sparqlConfig = sparqlModule.getConfig(SPARQLConfig.class);
+        countCache = new SPARQLCountCache(sparqlConfig.countCacheDuration());
+        insertTripleBudget = sparqlConfig.insertTripleBudget();
+
+        propertyListeners.clear();
+        for (SPARQLExtension module : getOpenSilex().getModulesImplementingInterface(SPARQLExtension.class)) {
+            propertyListeners.addAll(module.getPropertyListeners());
+        }
+
         if (sparqlConfig.usePrefixes()) {
             mapperIndex.forEach((Resource resource, SPARQLClassObjectMapper<?> mapper) -> {
                 String resourceNamespace = mapper.getResourceGraphNamespace();
@@ -112,4 +133,20 @@ public abstract class SPARQLServiceFactory extends ServiceFactory<SPARQLService>
         return mapperIndex;
     }
 
+    public SPARQLCountCache getCountCache() {
+        return countCache;
+    }
+
+    public List<SPARQLPropertyListener> getPropertyListeners() {
+        return propertyListeners;
+    }
+
+    public SPARQLClassHierarchy getClassHierarchy() {
+        return classHierarchy;
+    }
+
+    public int getInsertTripleBudget() {
+        return insertTripleBudget;
+    }
+
 }
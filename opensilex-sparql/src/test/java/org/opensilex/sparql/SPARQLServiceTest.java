@@ -8,10 +8,14 @@ package org.opensilex.sparql;
 import static org.apache.jena.arq.querybuilder.AbstractQueryBuilder.makeVar;
 import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.arq.querybuilder.UpdateBuilder;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
 import org.eclipse.rdf4j.model.vocabulary.OWL;
 import org.junit.Test;
 import org.opensilex.OpenSilex;
@@ -25,15 +29,25 @@ import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 import org.opensilex.sparql.deserializer.SPARQLDeserializers;
+import org.opensilex.sparql.exceptions.SPARQLAlreadyExistingUriException;
 import org.opensilex.sparql.exceptions.SPARQLException;
+import org.opensilex.sparql.exceptions.SPARQLInvalidURIException;
+import org.opensilex.sparql.mapping.SPARQLClassObjectMapper;
 import org.opensilex.sparql.model.C;
 import org.opensilex.sparql.model.SPARQLLabel;
+import org.opensilex.sparql.model.SPARQLModelRelation;
+import org.opensilex.sparql.model.SPARQLResourceModel;
 import org.opensilex.sparql.service.SPARQLQueryHelper;
+import org.opensilex.sparql.service.SPARQLResultCursor;
 import org.opensilex.sparql.service.SPARQLService;
 import org.opensilex.unit.test.AbstractUnitTest;
+import org.opensilex.utils.ListWithPagination;
+import org.opensilex.utils.OrderBy;
 
 /**
  *
@@ -169,6 +183,92 @@ public abstract class SPARQLServiceTest extends AbstractUnitTest {
         assertNull("Object must be null after deletion", sparql.getByURI(A.class, aURI, null));
     }
 
+    @Test
+    public void testDeleteList() throws Exception {
+        List<B> bList = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            B b = new B();
+            b.setFloatVar(5f);
+            b.setDoubleVar(5d);
+            b.setCharVar('D');
+            b.setShortVar((short) i);
+            bList.add(b);
+        }
+        sparql.create(bList);
+
+        A a = new A();
+        a.setUri(new URI("http://test.opensilex.org/a/delete-list"));
+        a.setBool(true);
+        a.setCharVar('D');
+        a.setB(bList.get(0));
+        sparql.create(a);
+
+        List<URI> bURIs = bList.stream().map(B::getUri).collect(Collectors.toList());
+        List<URI> invalidURIs = new ArrayList<>(bURIs);
+        invalidURIs.add(new URI("http://test.opensilex.org/b/unknown"));
+        try {
+            sparql.delete(B.class, invalidURIs);
+            fail("Delete of an unknown URI should fail");
+        } catch (SPARQLInvalidURIException ex) {
+            assertEquals("Nothing should be deleted on failure", bURIs.size(), sparql.getExistingUris(B.class, bURIs).size());
+        }
+
+        sparql.delete(B.class, bURIs);
+
+        assertTrue("Deleted instances should not exist anymore", sparql.getExistingUris(bURIs).isEmpty());
+        A selectedA = sparql.getByURI(A.class, a.getUri(), null);
+        assertNotNull("Instance referencing deleted ones should be kept", selectedA);
+        assertNull("References to deleted instances should be removed", selectedA.getB());
+    }
+
+    @Test
+    public void testDeleteLargeList() throws Exception {
+        // More URIs than a single delete request chunk
+        List<B> bList = new ArrayList<>();
+        for (int i = 0; i < 1201; i++) {
+            B b = new B();
+            b.setFloatVar(6f);
+            b.setDoubleVar(6d);
+            b.setCharVar('L');
+            b.setShortVar((short) i);
+            bList.add(b);
+        }
+        sparql.create(bList);
+
+        List<URI> bURIs = bList.stream().map(B::getUri).collect(Collectors.toList());
+        sparql.delete(B.class, bURIs);
+
+        assertTrue("Deleted instances should not exist anymore", sparql.getExistingUris(bURIs).isEmpty());
+    }
+
+    @Test
+    public void testClassHierarchy() throws Exception {
+        Node graph = NodeFactory.createURI(sparqlModule.getBaseURI().toString());
+        Node subA = NodeFactory.createURI(TEST_ONTOLOGY.NAMESPACE + "SubA");
+        URI subAInstanceURI = new URI("http://test.opensilex.org/a/sub-a");
+        Node subAInstance = SPARQLDeserializers.nodeURI(subAInstanceURI);
+
+        UpdateBuilder insert = new UpdateBuilder()
+                .addInsert(graph, subA, RDFS.subClassOf, TEST_ONTOLOGY.A)
+                .addInsert(graph, subAInstance, RDF.type, subA);
+        sparql.executeUpdateQuery(insert);
+
+        assertTrue("Class should be a subclass of itself", sparql.isSubClassOf(TEST_ONTOLOGY.A.asNode(), TEST_ONTOLOGY.A.asNode()));
+        assertTrue("Inserted subclass should be found", sparql.isSubClassOf(subA, TEST_ONTOLOGY.A.asNode()));
+        assertFalse("Parent class should not be a subclass", sparql.isSubClassOf(TEST_ONTOLOGY.A.asNode(), subA));
+        assertFalse("Unrelated class should not be a subclass", sparql.isSubClassOf(TEST_ONTOLOGY.B.asNode(), TEST_ONTOLOGY.A.asNode()));
+        assertTrue("Subclass instance should exist as an A", sparql.uriExists(A.class, subAInstanceURI));
+        assertTrue("Subclass instance should exist as an A type", sparql.uriExists(new URI(TEST_ONTOLOGY.A.getURI()), subAInstanceURI));
+
+        UpdateBuilder delete = new UpdateBuilder()
+                .addDelete(graph, subA, RDFS.subClassOf, TEST_ONTOLOGY.A)
+                .addDelete(graph, subAInstance, RDF.type, subA);
+        sparql.executeDeleteQuery(delete);
+
+        assertFalse("Hierarchy should be updated after subclass removal", sparql.isSubClassOf(subA, TEST_ONTOLOGY.A.asNode()));
+        assertFalse("Subclass instance should not exist anymore", sparql.uriExists(A.class, subAInstanceURI));
+    }
+
     @Test
     public void testUpdateQuery() throws Exception {
         A a = new A();
@@ -199,6 +299,93 @@ public abstract class SPARQLServiceTest extends AbstractUnitTest {
         assertNull("A.getInteger Method should have been deleted", updatedA.getInteger());
     }
 
+    @Test
+    public void testUpdateChangeSet() throws Exception {
+        List<B> bList = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            B b = new B();
+            b.setFloatVar(3f);
+            b.setDoubleVar(3d);
+            b.setCharVar('U');
+            b.setShortVar((short) i);
+            b.setStringList(Arrays.asList("V1", "V2"));
+            bList.add(b);
+        }
+        sparql.create(bList);
+
+        SPARQLClassObjectMapper<B> mapper = sparql.getForClass(B.class);
+        B oldB = sparql.loadByURI(B.class, bList.get(0).getUri(), null);
+        B newB = sparql.loadByURI(B.class, bList.get(0).getUri(), null);
+        newB.setFloatVar(4f);
+        newB.setStringList(Arrays.asList("V2", "V3"));
+        UpdateBuilder update = new UpdateBuilder();
+        assertEquals("Only changed triples should be updated", 4, mapper.addChangeSetBuilder(mapper.getDefaultGraph(), oldB, newB, update));
+
+        for (B b : bList) {
+            b.setFloatVar(4f);
+            b.setStringList(Arrays.asList("V2", "V3"));
+        }
+        bList.get(1).setCharVar('W');
+        sparql.update(bList);
+
+        for (B b : bList) {
+            B updatedB = sparql.getByURI(B.class, b.getUri(), null);
+            assertEquals(Float.valueOf(4f), updatedB.getFloatVar());
+            assertEquals(Double.valueOf(3d), updatedB.getDoubleVar());
+            assertEquals(b.getCharVar(), updatedB.getCharVar());
+            assertEquals(new HashSet<>(Arrays.asList("V2", "V3")), new HashSet<>(updatedB.getStringList()));
+        }
+    }
+
+    @Test
+    public void testUpdateRemovedRelation() throws Exception {
+        Property relationProperty = ResourceFactory.createProperty("http://test.opensilex.org/relation");
+        URI value1 = new URI("http://test.opensilex.org/relation/1");
+        URI value2 = new URI("http://test.opensilex.org/relation/2");
+
+        B b = new B();
+        b.setUri(new URI("http://test.opensilex.org/b/relations"));
+        b.setFloatVar(5f);
+        b.setDoubleVar(5d);
+        b.setCharVar('R');
+        b.setShortVar((short) 5);
+        b.setRelations(Arrays.asList(getURIRelation(relationProperty, value1), getURIRelation(relationProperty, value2)));
+        sparql.create(b);
+        assertEquals(new HashSet<>(Arrays.asList(value1.toString(), value2.toString())), getRelationValues(b.getUri(), relationProperty));
+
+        B newB = new B();
+        newB.setUri(b.getUri());
+        newB.setFloatVar(5f);
+        newB.setDoubleVar(5d);
+        newB.setCharVar('R');
+        newB.setShortVar((short) 5);
+        newB.setRelations(null);
+        sparql.update(newB);
+        assertEquals("Relations should be unchanged if they are null", 2, getRelationValues(b.getUri(), relationProperty).size());
+
+        newB.setRelations(Arrays.asList(getURIRelation(relationProperty, value1)));
+        sparql.update(newB);
+        assertEquals("Removed relation should be deleted", Collections.singleton(value1.toString()), getRelationValues(b.getUri(), relationProperty));
+    }
+
+    private static SPARQLModelRelation getURIRelation(Property property, URI value) {
+        SPARQLModelRelation relation = new SPARQLModelRelation();
+        relation.setProperty(property);
+        relation.setType(URI.class);
+        relation.setValue(value.toString());
+        return relation;
+    }
+
+    private static Set<String> getRelationValues(URI uri, Property property) throws Exception {
+        Set<String> values = new HashSet<>();
+        for (SPARQLModelRelation relation : sparql.getByURI(B.class, uri, null).getRelations()) {
+            if (property.equals(relation.getProperty())) {
+                values.add(relation.getValue());
+            }
+        }
+        return values;
+    }
+
     @Test
     public void testUriExistsWithClass() throws Exception {
         URI bURI = new URI("http://test.opensilex.org/b/001");
@@ -206,6 +393,89 @@ public abstract class SPARQLServiceTest extends AbstractUnitTest {
         assertTrue("URI must exists and be of type B", sparql.uriExists(B.class, bURI));
     }
 
+    @Test
+    public void testBoundQueries() throws Exception {
+        URI a1URI = new URI("http://test.opensilex.org/a/001");
+        URI unknownURI = new URI("http://test.opensilex.org/b/unknown");
+
+        B b = new B();
+        b.setFloatVar(2f);
+        b.setDoubleVar(2d);
+        b.setCharVar('Q');
+        b.setShortVar((short) 2);
+        sparql.create(b);
+        URI bURI = b.getUri();
+
+        // Same query shapes are executed several times with different bound values
+        for (int i = 0; i < 2; i++) {
+            assertTrue(sparql.uriExists(B.class, bURI));
+            assertFalse(sparql.uriExists(B.class, unknownURI));
+            assertFalse(sparql.uriExists(A.class, bURI));
+            assertTrue(sparql.uriExists(a1URI));
+            assertFalse(sparql.uriExists(unknownURI));
+
+            A a = sparql.loadByURI(A.class, a1URI, null);
+            assertEquals(a1URI, a.getUri());
+            assertEquals("azerty", a.getString());
+
+            B loadedB = sparql.loadByURI(B.class, bURI, null);
+            assertEquals(SPARQLDeserializers.formatURI(bURI), SPARQLDeserializers.formatURI(loadedB.getUri()));
+            assertEquals(Character.valueOf('Q'), loadedB.getCharVar());
+            assertNull(sparql.loadByURI(B.class, unknownURI, null));
+        }
+    }
+
+    @Test
+    public void testCreateList() throws Exception {
+        int initialCount = sparql.count(B.class);
+
+        List<B> bList = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            B b = new B();
+            b.setFloatVar((float) i);
+            b.setDoubleVar((double) i);
+            b.setCharVar('L');
+            b.setShortVar((short) i);
+            bList.add(b);
+        }
+
+        // Force several insert requests
+        sparql.setInsertTripleBudget(7);
+        try {
+            sparql.create(bList);
+        } finally {
+            sparql.setInsertTripleBudget(SPARQLService.DEFAULT_INSERT_TRIPLE_BUDGET);
+        }
+
+        Set<URI> createdURIs = new HashSet<>();
+        bList.forEach((B b) -> {
+            assertNotNull(b.getUri());
+            createdURIs.add(b.getUri());
+        });
+        assertEquals("Generated URIs must be unique", bList.size(), createdURIs.size());
+        assertEquals(initialCount + bList.size(), sparql.count(B.class));
+        assertEquals(createdURIs.size(), sparql.getExistingUris(B.class, createdURIs).size());
+        assertTrue(sparql.getExistingUris(A.class, createdURIs).isEmpty());
+
+        URI unknownURI = new URI("http://test.opensilex.org/b/unknown");
+        Set<URI> existingURIs = sparql.getExistingUris(Arrays.asList(bList.get(0).getUri(), unknownURI));
+        assertEquals(1, existingURIs.size());
+        assertEquals(SPARQLDeserializers.formatURI(bList.get(0).getUri()), SPARQLDeserializers.formatURI(existingURIs.iterator().next()));
+
+        B duplicate = new B();
+        duplicate.setUri(bList.get(0).getUri());
+        duplicate.setFloatVar(1f);
+        duplicate.setDoubleVar(1d);
+        duplicate.setCharVar('L');
+        duplicate.setShortVar((short) 1);
+        try {
+            sparql.create(Collections.singletonList(duplicate));
+            fail("Creating an instance with an existing URI must fail");
+        } catch (SPARQLAlreadyExistingUriException ex) {
+            // Expected
+        }
+    }
+
     @Test
     public void testRenameGraph() throws Exception {
         B b = new B();
@@ -353,4 +623,163 @@ public abstract class SPARQLServiceTest extends AbstractUnitTest {
         assertEquals(1,results.size());
     }
 
+    @Test
+    public void testSearchBatchLoading() throws Exception {
+        // Lazy properties of search results are loaded by batch,
+        // they must be the same as the ones loaded for a single instance
+        List<A> aList = sparql.search(A.class, null);
+        assertFalse(aList.isEmpty());
+
+        for (A a : aList) {
+            A expected = sparql.loadByURI(A.class, a.getUri(), null);
+
+            assertEquals(expected.getTypeLabel().getAllTranslations(), a.getTypeLabel().getAllTranslations());
+            assertEquals(expected.getRelations().size(), a.getRelations().size());
+
+            if (expected.getB() == null) {
+                assertNull(a.getB());
+            } else {
+                assertEquals(expected.getB().getUri(), a.getB().getUri());
+                assertEquals(expected.getB().getInteger(), a.getB().getInteger());
+                assertEquals(new HashSet<>(expected.getB().getStringList()), new HashSet<>(a.getB().getStringList()));
+            }
+        }
+
+        List<B> bList = sparql.search(B.class, null);
+        assertFalse(bList.isEmpty());
+
+        for (B b : bList) {
+            B expected = sparql.loadByURI(B.class, b.getUri(), null);
+            assertEquals(new HashSet<>(expected.getStringList()), new HashSet<>(b.getStringList()));
+        }
+    }
+
+    @Test
+    public void testQueryTemplatesCopies() throws Exception {
+        SPARQLClassObjectMapper<A> mapper = sparql.getForClass(A.class);
+        Node graph = mapper.getDefaultGraph();
+
+        SelectBuilder select = mapper.getSelectBuilder(graph, OpenSilex.DEFAULT_LANGUAGE);
+        String selectQuery = select.buildString();
+        select.addFilter(SPARQLQueryHelper.eq(A.URI_FIELD, new URI("http://test.opensilex.org/a/001")));
+        select.setLimit(1);
+        assertNotEquals(selectQuery, select.buildString());
+
+        SelectBuilder otherSelect = mapper.getSelectBuilder(graph, OpenSilex.DEFAULT_LANGUAGE);
+        assertNotSame(select, otherSelect);
+        assertEquals("Query template must not be modified by a copy", selectQuery, otherSelect.buildString());
+
+        AskBuilder ask = mapper.getAskBuilder(graph, OpenSilex.DEFAULT_LANGUAGE);
+        String askQuery = ask.buildString();
+        ask.addFilter(SPARQLQueryHelper.eq(A.URI_FIELD, new URI("http://test.opensilex.org/a/001")));
+        assertEquals(askQuery, mapper.getAskBuilder(graph, OpenSilex.DEFAULT_LANGUAGE).buildString());
+
+        SelectBuilder count = mapper.getCountBuilder(graph, "count", OpenSilex.DEFAULT_LANGUAGE);
+        String countQuery = count.buildString();
+        count.addFilter(SPARQLQueryHelper.eq(A.URI_FIELD, new URI("http://test.opensilex.org/a/001")));
+        assertEquals(countQuery, mapper.getCountBuilder(graph, "count", OpenSilex.DEFAULT_LANGUAGE).buildString());
+        assertNotEquals(selectQuery, countQuery);
+
+        // Copies must produce same results as before
+        assertEquals(sparql.count(A.class), sparql.search(A.class, null).size());
+    }
+
+    @Test
+    public void testSearchStream() throws Exception {
+        List<OrderBy> orderByList = Collections.singletonList(new OrderBy(A.URI_FIELD + "=asc"));
+        List<A> aList = sparql.search(A.class, null, null, orderByList);
+
+        List<A> streamedList;
+        try (Stream<A> aStream = sparql.searchStream(A.class, null, null, orderByList)) {
+            streamedList = aStream.collect(Collectors.toList());
+        }
+
+        assertEquals(aList.size(), streamedList.size());
+        for (int i = 0; i < aList.size(); i++) {
+            assertEquals(aList.get(i).getUri(), streamedList.get(i).getUri());
+            assertEquals(aList.get(i).getString(), streamedList.get(i).getString());
+        }
+
+        try (SPARQLResultCursor cursor = sparql.executeSelectQueryCursor(sparql.getForClass(A.class).getSelectBuilder(OpenSilex.DEFAULT_LANGUAGE))) {
+            int count = 0;
+            while (cursor.hasNext()) {
+                assertNotNull(cursor.next().getStringValue(A.URI_FIELD));
+                count++;
+            }
+            assertEquals(aList.size(), count);
+        }
+    }
+
+    @Test
+    public void testSearchWithPaginationCount() throws Exception {
+        int total = sparql.searchWithPagination(B.class, null, null, 0, 1).getTotal();
+        assertEquals(sparql.count(B.class), total);
+
+        // Cached count must be invalidated by instance creation
+        B b = new B();
+        b.setBool(false);
+        b.setFloatVar(1f);
+        b.setDoubleVar(1d);
+        b.setCharVar('P');
+        b.setShortVar((short) 1);
+        sparql.create(b);
+
+        ListWithPagination<B> page = sparql.searchWithPagination(B.class, null, null, 0, 1);
+        assertEquals(total + 1, page.getTotal());
+        assertEquals(1, page.getList().size());
+        assertTrue(page.isTotalKnown());
+        assertEquals(total + 1 > 1, page.hasMore());
+
+        ListWithPagination<B> pageWithoutTotal = sparql.searchWithPagination(B.class, null, null, null, 0, 1, false);
+        assertFalse(pageWithoutTotal.isTotalKnown());
+        assertEquals(1, pageWithoutTotal.getList().size());
+        assertEquals(page.hasMore(), pageWithoutTotal.hasMore());
+
+        ListWithPagination<B> lastPage = sparql.searchWithPagination(B.class, null, null, null, total, 1, false);
+        assertEquals(1, lastPage.getList().size());
+        assertFalse(lastPage.hasMore());
+        assertEquals(total + 1, lastPage.getTotal());
+    }
+
+
+    @Test
+    public void testSearchWithPageToken() throws Exception {
+        assertPageTokenWalk(B.class, "integer=asc");
+        assertPageTokenWalk(B.class, "integer=desc");
+        assertPageTokenWalk(A.class, "string=asc");
+        assertPageTokenWalk(A.class, "string=desc");
+
+        List<OrderBy> orderByList = Collections.singletonList(new OrderBy("integer=asc"));
+        ListWithPagination<B> firstPage = sparql.searchWithPageToken(B.class, null, null, orderByList, null, 1);
+        assertNotNull(firstPage.getNextPageToken());
+
+        try {
+            sparql.searchWithPageToken(B.class, null, null, Collections.singletonList(new OrderBy("integer=desc")), firstPage.getNextPageToken(), 1);
+            fail("Page token must not be accepted with another ordering");
+        } catch (SPARQLException ex) {
+            // Expected
+        }
+    }
+
+    private <T extends SPARQLResourceModel> void assertPageTokenWalk(Class<T> objectClass, String orderBy) throws Exception {
+        List<OrderBy> orderByList = Collections.singletonList(new OrderBy(orderBy));
+        List<URI> expectedURIs = new ArrayList<>();
+        sparql.search(objectClass, null, null, Arrays.asList(new OrderBy(orderBy), new OrderBy(SPARQLResourceModel.URI_FIELD + "=asc"))).forEach((T instance) -> {
+            expectedURIs.add(instance.getUri());
+        });
+
+        List<URI> pagedURIs = new ArrayList<>();
+        String pageToken = null;
+        do {
+            ListWithPagination<T> page = sparql.searchWithPageToken(objectClass, null, null, orderByList, pageToken, 1);
+            page.getList().forEach((T instance) -> {
+                pagedURIs.add(instance.getUri());
+            });
+            assertEquals(page.getNextPageToken() != null, page.hasMore());
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null && pagedURIs.size() <= expectedURIs.size());
+
+        assertEquals(expectedURIs, pagedURIs);
+    }
+
 }
@@ -0,0 +1,108 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.mapping;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.graph.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensilex.OpenSilex;
+import org.opensilex.sparql.deserializer.SPARQLDeserializers;
+import org.opensilex.sparql.model.A;
+import org.opensilex.sparql.model.B;
+import org.opensilex.sparql.model.C;
+import org.opensilex.sparql.rdf4j.RDF4JInMemoryServiceFactory;
+import org.opensilex.sparql.service.SPARQLService;
+
+/**
+ * Benchmark of SPARQL class query building cost.
+ *
+ * Compare building a "load by URI" select query from the compiled template against generating it from class analysis
+ * as done before templates, up to the query string sent to the triplestore.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main SPARQLClassQueryBuilderBenchmark"
+ *
+ * @author vincent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SPARQLClassQueryBuilderBenchmark {
+
+    private OpenSilex opensilex;
+
+    private RDF4JInMemoryServiceFactory factory;
+
+    private SPARQLService sparql;
+
+    private SPARQLClassObjectMapper<A> mapper;
+
+    private Node graph;
+
+    private Node uri;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Map<String, String> args = new HashMap<>();
+        args.put(OpenSilex.PROFILE_ID_ARG_KEY, OpenSilex.TEST_PROFILE_ID);
+        args.put(OpenSilex.NO_CACHE_ARG_KEY, "true");
+        opensilex = OpenSilex.createInstance(args);
+
+        factory = new RDF4JInMemoryServiceFactory();
+        factory.setOpenSilex(opensilex);
+        factory.setup();
+        factory.startup();
+        factory.getMapperIndex().addClasses(A.class, B.class, C.class);
+        sparql = factory.provide();
+
+        mapper = sparql.getForClass(A.class);
+        graph = mapper.getDefaultGraph();
+        uri = SPARQLDeserializers.nodeURI(new URI("http://test.opensilex.org/a/001"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        factory.dispose(sparql);
+        opensilex.shutdown();
+    }
+
+    /**
+     * Build a select query by copying the compiled template.
+     */
+    @Benchmark
+    public String buildFromTemplate() {
+        SelectBuilder select = mapper.getSelectBuilder(graph, OpenSilex.DEFAULT_LANGUAGE);
+        select.addValueVar(mapper.getURIFieldExprVar(), uri);
+        return select.buildString();
+    }
+
+    /**
+     * Build a select query by walking class analysis for each query.
+     */
+    @Benchmark
+    public String buildFromAnalysis() {
+        SelectBuilder select = mapper.classQueryBuilder.generateSelectBuilder(graph, OpenSilex.DEFAULT_LANGUAGE);
+        select.addValueVar(mapper.getURIFieldExprVar(), uri);
+        return select.buildString();
+    }
+}
@@ -0,0 +1,174 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.mapping;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.implementation.InvocationHandlerAdapter;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.graph.Node;
+import org.apache.jena.vocabulary.RDFS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensilex.OpenSilex;
+import org.opensilex.sparql.SPARQLModule;
+import org.opensilex.sparql.deserializer.SPARQLDeserializers;
+import org.opensilex.sparql.model.A;
+import org.opensilex.sparql.model.B;
+import org.opensilex.sparql.model.C;
+import org.opensilex.sparql.model.SPARQLLabel;
+import org.opensilex.sparql.model.TEST_ONTOLOGY;
+import org.opensilex.sparql.rdf4j.RDF4JInMemoryServiceFactory;
+import org.opensilex.sparql.service.SPARQLResult;
+import org.opensilex.sparql.service.SPARQLService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of SPARQL lazy proxies creation cost.
+ *
+ * Compare per-row mapping cost with the proxy class registry against the
+ * legacy strategy generating a new class for each proxy, and report
+ * metaspace growth and loaded classes count for each benchmark.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main SPARQLProxyBenchmark"
+ *
+ * @author vincent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SPARQLProxyBenchmark {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(SPARQLProxyBenchmark.class);
+
+    private OpenSilex opensilex;
+
+    private RDF4JInMemoryServiceFactory factory;
+
+    private SPARQLService sparql;
+
+    private SPARQLClassObjectMapper<A> mapper;
+
+    private SPARQLResult row;
+
+    private Node graph;
+
+    private URI rowURI;
+
+    private long initialMetaspace;
+
+    private long initialLoadedClasses;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Map<String, String> args = new HashMap<>();
+        args.put(OpenSilex.PROFILE_ID_ARG_KEY, OpenSilex.TEST_PROFILE_ID);
+        args.put(OpenSilex.NO_CACHE_ARG_KEY, "true");
+        opensilex = OpenSilex.createInstance(args);
+
+        factory = new RDF4JInMemoryServiceFactory();
+        factory.setOpenSilex(opensilex);
+        factory.setup();
+        factory.startup();
+        factory.getMapperIndex().addClasses(A.class, B.class, C.class);
+        sparql = factory.provide();
+
+        SPARQLModule sparqlModule = opensilex.getModuleByClass(SPARQLModule.class);
+        InputStream ontology = OpenSilex.getResourceAsStream(TEST_ONTOLOGY.FILE_PATH.toString());
+        sparql.loadOntology(sparqlModule.getBaseURI(), ontology, TEST_ONTOLOGY.FILE_FORMAT);
+        InputStream ontologyData = OpenSilex.getResourceAsStream(TEST_ONTOLOGY.DATA_FILE_PATH.toString());
+        sparql.loadOntology(sparqlModule.getSuffixedURI("data"), ontologyData, TEST_ONTOLOGY.DATA_FILE_FORMAT);
+
+        rowURI = new URI("http://test.opensilex.org/a/001");
+        mapper = sparql.getForClass(A.class);
+        graph = mapper.getDefaultGraph();
+
+        SelectBuilder select = mapper.getSelectBuilder(graph, OpenSilex.DEFAULT_LANGUAGE);
+        select.addValueVar(mapper.getURIFieldExprVar(), SPARQLDeserializers.nodeURI(rowURI));
+        List<SPARQLResult> results = sparql.executeSelectQuery(select);
+        row = results.get(0);
+
+        initialMetaspace = getMetaspaceUsed();
+        initialLoadedClasses = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        long metaspaceGrowth = getMetaspaceUsed() - initialMetaspace;
+        long loadedClasses = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount() - initialLoadedClasses;
+        LOGGER.info("Metaspace growth: {} KB", metaspaceGrowth / 1024);
+        LOGGER.info("Loaded classes: {}", loadedClasses);
+        LOGGER.info("Registered proxy classes: {}", SPARQLProxyClassRegistry.size());
+
+        factory.dispose(sparql);
+        opensilex.shutdown();
+    }
+
+    /**
+     * Map one SELECT row to a model instance, creating all its lazy proxies.
+     */
+    @Benchmark
+    public A createInstanceFromRow() throws Exception {
+        return mapper.createInstance(graph, row, OpenSilex.DEFAULT_LANGUAGE, sparql);
+    }
+
+    /**
+     * Create a single label proxy through the registry.
+     */
+    @Benchmark
+    public SPARQLLabel createLabelProxy() {
+        return new SPARQLProxyLabel(null, graph, "label", rowURI, RDFS.label, false, OpenSilex.DEFAULT_LANGUAGE, sparql).getInstance();
+    }
+
+    /**
+     * Create a single label proxy by generating a new class as done before the registry.
+     */
+    @Benchmark
+    public SPARQLLabel createLegacyLabelProxy() throws Exception {
+        SPARQLProxyLabel handler = new SPARQLProxyLabel(null, graph, "label", rowURI, RDFS.label, false, OpenSilex.DEFAULT_LANGUAGE, sparql);
+        Class<? extends SPARQLLabel> proxy = new ByteBuddy()
+                .subclass(SPARQLLabel.class)
+                .implement(SPARQLProxyMarker.class)
+                .method(ElementMatchers.any())
+                .intercept(InvocationHandlerAdapter.of(handler))
+                .make()
+                .load(OpenSilex.getClassLoader())
+                .getLoaded();
+
+        return proxy.getConstructor().newInstance();
+    }
+
+    private static long getMetaspaceUsed() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ("Metaspace".equals(pool.getName())) {
+                return pool.getUsage().getUsed();
+            }
+        }
+        return 0;
+    }
+}
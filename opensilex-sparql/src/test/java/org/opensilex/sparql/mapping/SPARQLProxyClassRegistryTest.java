@@ -0,0 +1,36 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.mapping;
+
+import java.net.URI;
+import org.apache.jena.vocabulary.RDFS;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.opensilex.sparql.model.SPARQLLabel;
+
+/**
+ *
+ * @author vincent
+ */
+public class SPARQLProxyClassRegistryTest {
+
+    @Test
+    public void testProxyClassIsGeneratedOnce() throws Exception {
+        URI uri = new URI("http://test.opensilex.org/a/001");
+
+        SPARQLLabel first = new SPARQLProxyLabel(null, null, "first", uri, RDFS.label, false, "en", null).getInstance();
+        int registrySize = SPARQLProxyClassRegistry.size();
+        SPARQLLabel second = new SPARQLProxyLabel(null, null, "second", uri, RDFS.label, false, "fr", null).getInstance();
+
+        assertTrue("Proxy must implement marker interface", first instanceof SPARQLProxyMarker);
+        assertSame("Proxy class must be shared between instances of the same type", first.getClass(), second.getClass());
+        assertEquals("No new proxy class should be generated for an already proxied type", registrySize, SPARQLProxyClassRegistry.size());
+
+        assertEquals("Each proxy must use its own handler", "first", first.getDefaultValue());
+        assertEquals("Each proxy must use its own handler", "second", second.getDefaultValue());
+        assertEquals("Each proxy must use its own handler", "fr", second.getDefaultLang());
+    }
+}
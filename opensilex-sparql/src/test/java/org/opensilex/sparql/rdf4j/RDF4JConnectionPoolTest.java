@@ -0,0 +1,47 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.rdf4j;
+
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ *
+ * @author vincent
+ */
+public class RDF4JConnectionPoolTest {
+
+    @Test
+    public void testLeaseWaitMetrics() throws Exception {
+        RDF4JConnectionPool pool = new RDF4JConnectionPool();
+        pool.setMaxTotal(5);
+        pool.setDefaultMaxPerRoute(3);
+        try {
+            pool.recordLeaseWait(0);
+            pool.recordLeaseWait(7);
+            pool.recordLeaseWait(7);
+            pool.recordLeaseWait(20000);
+
+            Map<String, Long> histogram = pool.getLeaseWaitHistogram();
+            assertEquals("Histogram should have a bucket for each bound and one for longer waits", 9, histogram.size());
+            assertEquals(Long.valueOf(1), histogram.get("<1ms"));
+            assertEquals(Long.valueOf(2), histogram.get("<10ms"));
+            assertEquals(Long.valueOf(0), histogram.get("<50ms"));
+            assertEquals(Long.valueOf(1), histogram.get(">=5000ms"));
+
+            Map<String, Object> metrics = pool.getMetrics();
+            assertEquals(0, metrics.get("pool.leased"));
+            assertEquals(5, metrics.get("pool.max"));
+            assertEquals(3, metrics.get("pool.maxPerRoute"));
+            assertEquals(4L, metrics.get("lease.count"));
+            assertEquals(5003L, metrics.get("lease.wait.avg.ms"));
+            assertEquals(20000L, metrics.get("lease.wait.max.ms"));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -5,12 +5,28 @@
 //******************************************************************************
 package org.opensilex.sparql.rdf4j;
 
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.apache.jena.arq.querybuilder.UpdateBuilder;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.vocabulary.RDFS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
+import org.junit.Test;
 import org.opensilex.sparql.SPARQLServiceTest;
 import org.opensilex.sparql.model.A;
 import org.opensilex.sparql.model.B;
 import org.opensilex.sparql.model.C;
+import org.opensilex.sparql.service.SPARQLPropertyListener;
+import org.opensilex.sparql.service.SPARQLService;
 
 /**
  *
@@ -39,4 +55,99 @@ public class RDF4JConnectionTest extends SPARQLServiceTest {
     public static void cleanSPARQL() throws Exception {
         factory.dispose(sparql);
     }
+
+    @Test
+    public void testServiceReuse() throws Exception {
+        SPARQLService service = factory.provide();
+
+        URI bURI = new URI("http://test.opensilex.org/b/reuse");
+        B b = new B();
+        b.setUri(bURI);
+        b.setFloatVar(1f);
+        b.setDoubleVar(1d);
+        b.setCharVar('R');
+        b.setShortVar((short) 1);
+
+        service.startTransaction();
+        service.create(b);
+        factory.dispose(service);
+
+        SPARQLService reused = factory.provide();
+        try {
+            assertSame("Released service should be reused", service, reused);
+            assertFalse("Pending transaction should be rolled back on release", reused.uriExists(B.class, bURI));
+
+            reused.startTransaction();
+            reused.create(b);
+            reused.commitTransaction();
+            assertTrue("Reused service transaction should be committed", sparql.uriExists(B.class, bURI));
+        } finally {
+            factory.dispose(reused);
+        }
+    }
+
+    @Test
+    public void testProxyOfReleasedService() throws Exception {
+        SPARQLService service = factory.provide();
+        A a;
+        try {
+            a = service.getByURI(A.class, new URI("http://test.opensilex.org/a/001"), null);
+        } finally {
+            factory.dispose(service);
+        }
+
+        SPARQLService reused = factory.provide();
+        try {
+            assertSame("Released service should be reused", service, reused);
+            a.getB().getInteger();
+            fail("Lazy data should not be loaded with a released service");
+        } catch (Exception ex) {
+            assertTrue("Released service should be reported", ex.getMessage().contains("released"));
+        } finally {
+            factory.dispose(reused);
+        }
+    }
+
+    @Test
+    public void testPropertyListenerNotifiedOnCommit() throws Exception {
+        List<Set<String>> notifications = new ArrayList<>();
+        SPARQLPropertyListener listener = new SPARQLPropertyListener() {
+            @Override
+            public String getProperty() {
+                return RDFS.label.getURI();
+            }
+
+            @Override
+            public void propertyChanged(Set<String> subjects) {
+                notifications.add(subjects);
+            }
+        };
+
+        SPARQLService service = factory.provide();
+        try {
+            service.setPropertyListeners(Collections.singletonList(listener));
+
+            String uri = "http://test.opensilex.org/a/listener";
+            service.executeUpdateQuery(new UpdateBuilder().addInsert(NodeFactory.createURI(uri), RDFS.comment, "comment"));
+            assertTrue("Listener should not be notified for other properties", notifications.isEmpty());
+
+            service.startTransaction();
+            service.executeUpdateQuery(new UpdateBuilder().addInsert(NodeFactory.createURI(uri), RDFS.label, "label"));
+            assertTrue("Listener should not be notified before commit", notifications.isEmpty());
+            service.commitTransaction();
+            assertEquals(Collections.singletonList(Collections.singleton(uri)), notifications);
+
+            notifications.clear();
+            service.startTransaction();
+            service.invalidateCaches("DELETE WHERE { <" + uri + "> ?p ?o }");
+            service.rollbackTransaction();
+            assertTrue("Listener should not be notified on rollback", notifications.isEmpty());
+
+            service.invalidateCaches("DELETE { ?s ?p ?o } WHERE { ?s ?p ?o }");
+            assertEquals(Collections.singletonList(null), notifications);
+        } finally {
+            service.setPropertyListeners(factory.getPropertyListeners());
+            factory.dispose(service);
+        }
+    }
 }
@@ -0,0 +1,108 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.rdf4j;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensilex.OpenSilex;
+import org.opensilex.sparql.model.A;
+import org.opensilex.sparql.model.B;
+import org.opensilex.sparql.model.C;
+import org.opensilex.sparql.service.SPARQLService;
+
+/**
+ * Benchmark of concurrent SPARQL service acquisition.
+ *
+ * Each operation acquires a service from the factory, executes a single URI existence query and releases it, as done
+ * for each injected request. Throughput is measured with 1, 8 and 64 threads, with and without idle service reuse.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main RDF4JServiceFactoryBenchmark"
+ *
+ * @author vincent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RDF4JServiceFactoryBenchmark {
+
+    @Param({"0", "64"})
+    public int servicePoolSize;
+
+    private OpenSilex opensilex;
+
+    private RDF4JInMemoryServiceFactory factory;
+
+    private URI uri;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Map<String, String> args = new HashMap<>();
+        args.put(OpenSilex.PROFILE_ID_ARG_KEY, OpenSilex.TEST_PROFILE_ID);
+        args.put(OpenSilex.NO_CACHE_ARG_KEY, "true");
+        opensilex = OpenSilex.createInstance(args);
+
+        factory = new RDF4JInMemoryServiceFactory();
+        factory.setOpenSilex(opensilex);
+        factory.setServicePoolSize(servicePoolSize);
+        factory.setup();
+        factory.startup();
+        factory.getMapperIndex().addClasses(A.class, B.class, C.class);
+
+        uri = new URI("http://test.opensilex.org/a/001");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        factory.shutdown();
+        opensilex.shutdown();
+    }
+
+    private boolean acquireQueryRelease() throws Exception {
+        SPARQLService sparql = factory.provide();
+        try {
+            return sparql.uriExists(A.class, uri);
+        } finally {
+            factory.dispose(sparql);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean threads1() throws Exception {
+        return acquireQueryRelease();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean threads8() throws Exception {
+        return acquireQueryRelease();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean threads64() throws Exception {
+        return acquireQueryRelease();
+    }
+}
@@ -0,0 +1,61 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRAE 2020
+// Contact: vincent.migot@inrae.fr, anne.tireau@inrae.fr, pascal.neveu@inrae.fr
+//******************************************************************************
+package org.opensilex.sparql.service;
+
+import org.apache.jena.update.UpdateFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import org.opensilex.unit.test.AbstractUnitTest;
+
+/**
+ * @author Vincent MIGOT
+ */
+public class SPARQLClassHierarchyTest extends AbstractUnitTest {
+
+    private static final String PREFIXES = "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>\n";
+
+    private static boolean isHierarchyUpdate(String update) {
+        return SPARQLClassHierarchy.isHierarchyUpdate(UpdateFactory.create(PREFIXES + update));
+    }
+
+    @Test
+    public void testConstantPredicate() {
+        assertTrue(isHierarchyUpdate("INSERT DATA { <http://a> rdfs:subClassOf <http://b> }"));
+        assertFalse(isHierarchyUpdate("INSERT DATA { <http://a> rdfs:label \"a\" }"));
+    }
+
+    @Test
+    public void testUnrestrictedVariablePredicate() {
+        assertTrue(isHierarchyUpdate("DELETE { ?s ?p ?o } WHERE { ?s ?p ?o }"));
+        assertTrue(isHierarchyUpdate("DELETE { ?s ?p ?o } WHERE { ?s ?p ?o OPTIONAL { FILTER(?p = rdfs:label) } }"));
+        assertTrue(isHierarchyUpdate("DELETE WHERE { <http://a> ?p ?o }"));
+    }
+
+    @Test
+    public void testFilteredVariablePredicate() {
+        assertFalse(isHierarchyUpdate("DELETE { ?s ?p ?o } WHERE { ?s ?p ?o FILTER(?p IN (rdfs:label, rdfs:comment)) }"));
+        assertTrue(isHierarchyUpdate("DELETE { ?s ?p ?o } WHERE { ?s ?p ?o FILTER(?p IN (rdfs:label, rdfs:subClassOf)) }"));
+        assertFalse(isHierarchyUpdate("DELETE { ?s ?p ?o } WHERE { ?s ?p ?o FILTER(?p = rdfs:label || ?p = rdfs:comment) }"));
+        assertTrue(isHierarchyUpdate("DELETE { ?s ?p ?o } WHERE { ?s ?p ?o FILTER(?p = rdfs:label || ?o = <http://b>) }"));
+        assertFalse(isHierarchyUpdate("DELETE { ?s ?p ?o } WHERE { ?s ?p ?o FILTER(?p = rdfs:label && ?o = <http://b>) }"));
+    }
+
+    @Test
+    public void testValuesVariablePredicate() {
+        assertFalse(isHierarchyUpdate("DELETE { ?s ?p ?o } WHERE { VALUES ?p { rdfs:label } ?s ?p ?o }"));
+        assertTrue(isHierarchyUpdate("DELETE { ?s ?p ?o } WHERE { VALUES ?p { rdfs:label rdfs:subClassOf } ?s ?p ?o }"));
+        assertTrue(isHierarchyUpdate("DELETE { ?s ?p ?o } WHERE { VALUES (?s ?p) { (<http://a> UNDEF) } ?s ?p ?o }"));
+    }
+
+    @Test
+    public void testSubQueryVariablePredicate() {
+        assertFalse(isHierarchyUpdate("DELETE { GRAPH ?g { ?s ?p ?o } } WHERE { SELECT ?g ?s ?p ?o WHERE { "
+                + "GRAPH ?g { ?s ?p ?o } FILTER(?p IN (rdfs:label)) FILTER(?s IN (<http://a>, <http://b>)) } }"));
+        assertTrue(isHierarchyUpdate("DELETE { GRAPH ?g { ?s ?p ?o } } WHERE { SELECT ?g ?s ?p ?o WHERE { "
+                + "GRAPH ?g { ?s ?p ?o } FILTER(?s IN (<http://a>, <http://b>)) } }"));
+    }
+}
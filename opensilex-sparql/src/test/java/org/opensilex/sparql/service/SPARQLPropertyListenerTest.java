@@ -0,0 +1,47 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRAE 2020
+// Contact: vincent.migot@inrae.fr, anne.tireau@inrae.fr, pascal.neveu@inrae.fr
+//******************************************************************************
+package org.opensilex.sparql.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.jena.update.UpdateFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import org.opensilex.unit.test.AbstractUnitTest;
+
+/**
+ * @author Vincent MIGOT
+ */
+public class SPARQLPropertyListenerTest extends AbstractUnitTest {
+
+    private static final String PREFIXES = "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>\n";
+
+    private static final String LABEL = "http://www.w3.org/2000/01/rdf-schema#label";
+
+    private static Set<String> getUpdatedSubjects(String update) {
+        return SPARQLPropertyListener.getUpdatedSubjects(UpdateFactory.create(PREFIXES + update), LABEL);
+    }
+
+    @Test
+    public void testDataUpdates() {
+        assertEquals(new HashSet<>(Arrays.asList("http://a", "http://b")),
+                getUpdatedSubjects("INSERT DATA { <http://a> rdfs:label \"a\" . <http://b> rdfs:label \"b\" . <http://c> rdfs:comment \"c\" }"));
+        assertEquals(Collections.emptySet(), getUpdatedSubjects("DELETE DATA { <http://a> rdfs:comment \"a\" }"));
+    }
+
+    @Test
+    public void testPatternUpdates() {
+        assertEquals(Collections.singleton("http://a"), getUpdatedSubjects("DELETE WHERE { <http://a> ?p ?o }"));
+        assertEquals(Collections.singleton("http://a"),
+                getUpdatedSubjects("DELETE { <http://a> rdfs:label ?l } INSERT { <http://a> rdfs:label \"a\" } WHERE { <http://a> rdfs:label ?l }"));
+        assertEquals(Collections.emptySet(), getUpdatedSubjects("DELETE { ?s rdfs:comment ?o } WHERE { ?s rdfs:comment ?o }"));
+        assertNull(getUpdatedSubjects("DELETE { ?s ?p ?o } WHERE { ?s ?p ?o }"));
+        assertNull(getUpdatedSubjects("CLEAR GRAPH <http://g>"));
+    }
+}